@@ -27,15 +27,21 @@
 package fr.gouv.vitam.access.internal.serve.filter;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
 import fr.gouv.vitam.access.internal.serve.exception.MissingAccessContractIdException;
 import fr.gouv.vitam.common.GlobalDataRest;
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.cache.ReferentialLookupCache;
 import fr.gouv.vitam.common.database.builder.query.Query;
 import fr.gouv.vitam.common.database.builder.query.QueryHelper;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
 import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.error.VitamError;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
 import fr.gouv.vitam.common.exception.VitamThreadAccessException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.RequestResponse;
 import fr.gouv.vitam.common.model.RequestResponseOK;
 import fr.gouv.vitam.common.model.administration.AccessContractModel;
@@ -53,8 +59,28 @@ import java.util.List;
  */
 public class AccessContractIdHeaderHelper {
 
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(AccessContractIdHeaderHelper.class);
+
     private static final String ACTIVE_STATUS = "ACTIVE";
 
+    /**
+     * Active access contracts by tenant and identifier, tagged with the version of the access contracts of the tenant :
+     * a contract is read again as soon as any access contract of the tenant is added, updated or removed.
+     */
+    private static final ReferentialLookupCache<String, AccessContractModel> ACCESS_CONTRACT_CACHE =
+        new ReferentialLookupCache<>("Access contract", VitamConfiguration.getSecurityCacheMaxEntries(),
+            VitamConfiguration.getSecurityCacheTimeoutInSeconds());
+
+    /**
+     * Versions of the access contracts by tenant, read at most once every securityCacheVersionRefreshInSeconds, so
+     * that a request served from cache does not make any remote call.
+     */
+    private static final ReferentialLookupCache<Integer, String> ACCESS_CONTRACTS_VERSION_CACHE =
+        new ReferentialLookupCache<>("Access contracts version", VitamConfiguration.getSecurityCacheMaxEntries(),
+            VitamConfiguration.getSecurityCacheVersionRefreshInSeconds());
+
+    private static final JsonNode SELECT_ACCESS_CONTRACTS_VERSION = getSelectAccessContractsVersion();
+
     private AccessContractIdHeaderHelper() {
         throw new UnsupportedOperationException("Helper class");
     }
@@ -68,15 +94,39 @@ public class AccessContractIdHeaderHelper {
     public static void manageAccessContractFromHeader(MultivaluedMap<String, String> requestHeaders,
         AdminManagementClientFactory adminManagementClientFactory) throws
         MissingAccessContractIdException {
-        try (final AdminManagementClient client = adminManagementClientFactory.getClient()) {
-            String headerAccessContractId = requestHeaders.getFirst(GlobalDataRest.X_ACCESS_CONTRAT_ID);
+        String headerAccessContractId = requestHeaders.getFirst(GlobalDataRest.X_ACCESS_CONTRAT_ID);
 
-            if (headerAccessContractId == null) {
-                throw new MissingAccessContractIdException(
-                    "Missing access contract header " + GlobalDataRest.X_ACCESS_CONTRAT_ID);
+        if (headerAccessContractId == null) {
+            throw new MissingAccessContractIdException(
+                "Missing access contract header " + GlobalDataRest.X_ACCESS_CONTRAT_ID);
+        }
+
+        try {
+            Integer tenantId = VitamThreadUtils.getVitamSession().getTenantId();
+            String cacheKey = tenantId + "/" + headerAccessContractId;
+            String version = ACCESS_CONTRACTS_VERSION_CACHE.get(tenantId,
+                key -> getAccessContractsVersion(adminManagementClientFactory));
+            AccessContractModel contract = version == null ?
+                findActiveAccessContract(headerAccessContractId, adminManagementClientFactory) :
+                ACCESS_CONTRACT_CACHE.get(cacheKey, version,
+                    key -> findActiveAccessContract(headerAccessContractId, adminManagementClientFactory));
+
+            if (contract == null) {
+                throw new MissingAccessContractIdException(headerAccessContractId + " not found in the system");
             }
 
-            JsonNode queryDsl = getQueryDsl(headerAccessContractId);
+            VitamThreadUtils.getVitamSession().setContract(contract);
+        } catch (final VitamThreadAccessException e) {
+            throw new MissingAccessContractIdException(
+                "Got an exception while trying to check the access contract in the current session ; exception was : {}",
+                e);
+        }
+    }
+
+    private static AccessContractModel findActiveAccessContract(String accessContractId,
+        AdminManagementClientFactory adminManagementClientFactory) throws MissingAccessContractIdException {
+        try (final AdminManagementClient client = adminManagementClientFactory.getClient()) {
+            JsonNode queryDsl = getQueryDsl(accessContractId);
             RequestResponse<AccessContractModel> response = client.findAccessContracts(queryDsl);
 
             if (!response.isOk()) {
@@ -85,20 +135,72 @@ public class AccessContractIdHeaderHelper {
                     vitamError.getMessage() + " : " + vitamError.getDescription());
             }
 
-            if (((RequestResponseOK<AccessContractModel>) response).getResults().size() == 0) {
-                throw new MissingAccessContractIdException(headerAccessContractId + " not found in the system");
-            }
-
             List<AccessContractModel> contracts = ((RequestResponseOK<AccessContractModel>) response).getResults();
-            VitamThreadUtils.getVitamSession().setContract(contracts.get(0));
-        } catch (final VitamThreadAccessException | AdminManagementClientServerException |
-            InvalidParseOperationException | InvalidCreateOperationException e) {
+            return contracts.isEmpty() ? null : contracts.get(0);
+        } catch (final AdminManagementClientServerException | InvalidParseOperationException |
+            InvalidCreateOperationException e) {
             throw new MissingAccessContractIdException(
                 "Got an exception while trying to check the access contract in the current session ; exception was : {}",
                 e);
         }
     }
 
+    /**
+     * @return the version of the access contracts of the tenant (count and last update date), null if it can not be
+     * read
+     */
+    private static String getAccessContractsVersion(AdminManagementClientFactory adminManagementClientFactory) {
+        try (final AdminManagementClient client = adminManagementClientFactory.getClient()) {
+            RequestResponse<AccessContractModel> response =
+                client.findAccessContracts(SELECT_ACCESS_CONTRACTS_VERSION);
+            if (response == null || !response.isOk()) {
+                return null;
+            }
+            RequestResponseOK<AccessContractModel> responseOK = (RequestResponseOK<AccessContractModel>) response;
+            if (responseOK.getHits() == null) {
+                return null;
+            }
+            String lastUpdate = responseOK.getResults().isEmpty() ? "" : responseOK.getFirstResult().getLastupdate();
+            return responseOK.getHits().getTotal() + "@" + lastUpdate;
+        } catch (final AdminManagementClientServerException | InvalidParseOperationException e) {
+            LOGGER.warn("Could not read access contracts version, access contract is read from database", e);
+            return null;
+        }
+    }
+
+    /**
+     * Select the last updated access contract only : any change of an access contract changes either the total or
+     * the last update date
+     */
+    private static JsonNode getSelectAccessContractsVersion() {
+        try {
+            Select select = new Select();
+            select.setLimitFilter(0, 1);
+            select.addOrderByDescFilter(AccessContractModel.TAG_LAST_UPDATE);
+            select.addUsedProjection(AccessContractModel.TAG_LAST_UPDATE);
+            return select.getFinalSelect();
+        } catch (final InvalidParseOperationException e) {
+            throw new VitamRuntimeException(e);
+        }
+    }
+
+    /**
+     * Forget the access contracts already read, so that they are read again on next request
+     */
+    @VisibleForTesting
+    static void invalidateCache() {
+        ACCESS_CONTRACT_CACHE.invalidateAll();
+        ACCESS_CONTRACTS_VERSION_CACHE.invalidateAll();
+    }
+
+    /**
+     * Forget the access contracts versions already read, as if the refresh delay was elapsed
+     */
+    @VisibleForTesting
+    static void refreshVersions() {
+        ACCESS_CONTRACTS_VERSION_CACHE.invalidateAll();
+    }
+
     private static JsonNode getQueryDsl(String headerAccessContractId)
         throws InvalidCreateOperationException {
 
@@ -26,8 +26,10 @@
  */
 package fr.gouv.vitam.access.internal.serve.filter;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.gouv.vitam.access.internal.serve.exception.MissingAccessContractIdException;
 import fr.gouv.vitam.common.GlobalDataRest;
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken;
 import fr.gouv.vitam.common.error.VitamError;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.model.RequestResponse;
@@ -43,6 +45,7 @@ import fr.gouv.vitam.functional.administration.common.exception.AdminManagementC
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.stubbing.OngoingStubbing;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -53,9 +56,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -77,6 +82,27 @@ public class AccessContractIdHeaderHelperTest {
        reset(adminManagementClient);
        reset(adminManagementClientFactory);
        when(adminManagementClientFactory.getClient()).thenReturn(adminManagementClient);
+       AccessContractIdHeaderHelper.invalidateCache();
+    }
+
+    private static boolean isVersionQuery(JsonNode query) {
+        return query != null && query.has(BuilderToken.GLOBAL.FILTER.exactToken()) &&
+            query.get(BuilderToken.GLOBAL.FILTER.exactToken()).has(BuilderToken.SELECTFILTER.ORDERBY.exactToken());
+    }
+
+    private static boolean isContractQuery(JsonNode query) {
+        return query != null && !isVersionQuery(query);
+    }
+
+    private static void mockAccessContractsVersion(String... lastUpdates) throws Exception {
+        OngoingStubbing<RequestResponse<AccessContractModel>> stubbing =
+            when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isVersionQuery)));
+        for (String lastUpdate : lastUpdates) {
+            AccessContractModel lastUpdatedContract = new AccessContractModel();
+            lastUpdatedContract.setLastupdate(lastUpdate);
+            stubbing = stubbing.thenReturn(
+                new RequestResponseOK<AccessContractModel>().addResult(lastUpdatedContract).setHits(1, 0, 1, 1));
+        }
     }
 
     @Test
@@ -88,7 +114,7 @@ public class AccessContractIdHeaderHelperTest {
         RequestResponse<AccessContractModel> mockedResponse = new VitamError("KO");
         mockedResponse.setHttpCode(500);
 
-        when(adminManagementClient.findAccessContracts(any()))
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
             .thenReturn(mockedResponse);
 
         // launch test
@@ -112,7 +138,7 @@ public class AccessContractIdHeaderHelperTest {
         RequestResponseOK<AccessContractModel> mockedResponse = new RequestResponseOK<>();
         mockedResponse.setHttpCode(200);
 
-        when(adminManagementClient.findAccessContracts(any()))
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
             .thenReturn(mockedResponse);
 
         // launch test
@@ -144,7 +170,7 @@ public class AccessContractIdHeaderHelperTest {
         mockedResponse.setHttpCode(200);
         mockedResponse.addResult(mockedContract);
 
-        when(adminManagementClient.findAccessContracts(any()))
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
             .thenReturn(mockedResponse);
 
         // launch test
@@ -182,7 +208,7 @@ public class AccessContractIdHeaderHelperTest {
         mockedResponse.setHttpCode(200);
         mockedResponse.addResult(mockedContract);
 
-        when(adminManagementClient.findAccessContracts(any()))
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
             .thenReturn(mockedResponse);
 
         // launch test
@@ -197,4 +223,110 @@ public class AccessContractIdHeaderHelperTest {
         assertEquals(rootUnits, VitamThreadUtils.getVitamSession().getContract().getRootUnits());
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void testContractReadOncePerTenant() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID);
+        mockAccessContractsVersion("2019-01-01T00:00:00.000");
+
+        // Prepare mocks
+        AccessContractModel mockedContract = new AccessContractModel();
+        mockedContract.setId(CONTRACT_ID);
+        mockedContract.setIdentifier(CONTRACT_IDENTIFIER);
+        RequestResponseOK<AccessContractModel> mockedResponse = new RequestResponseOK<>();
+        mockedResponse.setHttpCode(200);
+        mockedResponse.addResult(mockedContract);
+
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
+            .thenReturn(mockedResponse);
+
+        // launch test
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.putSingle(GlobalDataRest.X_ACCESS_CONTRAT_ID, CONTRACT_IDENTIFIER);
+
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID + 1);
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+
+        // Expect responses
+        assertEquals(CONTRACT_IDENTIFIER, VitamThreadUtils.getVitamSession().getContract().getIdentifier());
+        verify(adminManagementClient, times(2)).findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery));
+        verify(adminManagementClient, times(2)).findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isVersionQuery));
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void testMissingContractNotCached() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID);
+        mockAccessContractsVersion("2019-01-01T00:00:00.000");
+
+        // Prepare mocks
+        AccessContractModel mockedContract = new AccessContractModel();
+        mockedContract.setIdentifier(CONTRACT_IDENTIFIER);
+        RequestResponseOK<AccessContractModel> emptyResponse = new RequestResponseOK<>();
+        emptyResponse.setHttpCode(200);
+        RequestResponseOK<AccessContractModel> mockedResponse = new RequestResponseOK<>();
+        mockedResponse.setHttpCode(200);
+        mockedResponse.addResult(mockedContract);
+
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
+            .thenReturn(emptyResponse)
+            .thenReturn(mockedResponse);
+
+        // launch test
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.putSingle(GlobalDataRest.X_ACCESS_CONTRAT_ID, CONTRACT_IDENTIFIER);
+
+        try {
+            AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+            fail("No exception was thrown");
+        } catch (MissingAccessContractIdException e) {
+            // Must throw an exception: contract not yet activated
+        }
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+
+        // Expect responses
+        assertEquals(CONTRACT_IDENTIFIER, VitamThreadUtils.getVitamSession().getContract().getIdentifier());
+        verify(adminManagementClient, times(2)).findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery));
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void testContractReadAgainWhenAccessContractsChanged() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID);
+        mockAccessContractsVersion("2019-01-01T00:00:00.000", "2019-01-01T00:00:00.000", "2019-01-01T00:00:01.000");
+
+        // Prepare mocks
+        AccessContractModel mockedContract = new AccessContractModel();
+        mockedContract.setIdentifier(CONTRACT_IDENTIFIER);
+        RequestResponseOK<AccessContractModel> mockedResponse = new RequestResponseOK<>();
+        mockedResponse.setHttpCode(200);
+        mockedResponse.addResult(mockedContract);
+        RequestResponseOK<AccessContractModel> emptyResponse = new RequestResponseOK<>();
+        emptyResponse.setHttpCode(200);
+
+        when(adminManagementClient.findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery)))
+            .thenReturn(mockedResponse)
+            .thenReturn(emptyResponse);
+
+        // launch test
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.putSingle(GlobalDataRest.X_ACCESS_CONTRAT_ID, CONTRACT_IDENTIFIER);
+
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+        AccessContractIdHeaderHelper.refreshVersions();
+        AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+        AccessContractIdHeaderHelper.refreshVersions();
+        try {
+            AccessContractIdHeaderHelper.manageAccessContractFromHeader(requestHeaders, adminManagementClientFactory);
+            fail("No exception was thrown");
+        } catch (MissingAccessContractIdException e) {
+            // Must throw an exception: contract deactivated
+        }
+
+        // Expect responses
+        verify(adminManagementClient, times(2))
+            .findAccessContracts(argThat(AccessContractIdHeaderHelperTest::isContractQuery));
+    }
 }
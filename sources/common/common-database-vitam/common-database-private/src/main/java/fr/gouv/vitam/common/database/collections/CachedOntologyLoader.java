@@ -35,13 +35,24 @@ import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Ontology loader sharing one snapshot of the ontologies between requests.<br/>
+ * <br/>
+ * Each request checks the ontologies version once, and ontologies are loaded again only when their version changed.
+ * Loaders that cannot tell the version are called once per request, as before.
+ */
 public class CachedOntologyLoader implements OntologyLoader {
-    private final LoadingCache<String, List<OntologyModel>> cache;
+    private final LoadingCache<String, OntologySnapshot> cache;
     private static final String GET_FROM_SAME_CACHE = "GET-FROM-SAME-CACHE-VALUE-ONTOLOGY";
 
+    private final OntologyLoader loadOntology;
+    private volatile OntologySnapshot lastSnapshot;
+
     public CachedOntologyLoader(int maxEntriesInCache, int cacheTimeoutInSeconds, OntologyLoader loadOntology) {
+        this.loadOntology = loadOntology;
         CacheBuilder<Object, Object> objectObjectCacheBuilder = CacheBuilder.newBuilder();
         // Max entries in cache
         objectObjectCacheBuilder.maximumSize(maxEntriesInCache);
@@ -49,19 +60,48 @@ public class CachedOntologyLoader implements OntologyLoader {
         objectObjectCacheBuilder.expireAfterAccess(cacheTimeoutInSeconds, TimeUnit.SECONDS);
         // Okay to GC
         objectObjectCacheBuilder.weakValues();
-        this.cache = objectObjectCacheBuilder.build(new CacheLoader<String, List<OntologyModel>>() {
+        this.cache = objectObjectCacheBuilder.build(new CacheLoader<String, OntologySnapshot>() {
             @Override
-            public List<OntologyModel> load(String key) {
-                return loadOntology.loadOntologies();
+            public OntologySnapshot load(String key) {
+                return loadSnapshot();
             }
         });
     }
 
-    @Override
-    public List<OntologyModel> loadOntologies() {
+    private OntologySnapshot loadSnapshot() {
+        // Version is read before ontologies, so that a concurrent update is seen by the next check
+        String version = loadOntology.loadOntologiesVersion();
+        OntologySnapshot snapshot = lastSnapshot;
+        if (version != null && snapshot != null && version.equals(snapshot.getVersion())) {
+            return snapshot;
+        }
+        snapshot = new OntologySnapshot(version, loadOntology.loadOntologies());
+        lastSnapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * @return the ontologies snapshot of the current request
+     */
+    public OntologySnapshot getOntologySnapshot() {
         String id = StringUtils.isBlank(VitamThreadUtils.getVitamSession().getRequestId())
             ? GET_FROM_SAME_CACHE
             : VitamThreadUtils.getVitamSession().getRequestId();
         return this.cache.getUnchecked(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<OntologyModel> loadOntologies() {
+        return getOntologySnapshot().getOntologies();
+    }
+
+    @Override
+    public Map<String, OntologyModel> loadOntologiesByIdentifier() {
+        return getOntologySnapshot().getOntologiesByIdentifier();
+    }
+
+    @Override
+    public String loadOntologiesVersion() {
+        return getOntologySnapshot().getVersion();
+    }
+}
@@ -45,6 +45,16 @@ public class DynamicParserTokens {
         this.ontologyModelsByName = ontologyModels.stream().collect(Collectors.toMap(OntologyModel::getIdentifier, o -> o));
     }
 
+    /**
+     * @param vitamDescriptionResolver the resolver of the collection
+     * @param ontologyModelsByName ontologies already indexed by identifier, not copied
+     */
+    public DynamicParserTokens(VitamDescriptionResolver vitamDescriptionResolver,
+        Map<String, OntologyModel> ontologyModelsByName) {
+        this.vitamDescriptionResolver = vitamDescriptionResolver;
+        this.ontologyModelsByName = ontologyModelsByName;
+    }
+
     public boolean isNotAnalyzed(String name) {
         VitamDescriptionType description = vitamDescriptionResolver.resolve(name);
 
@@ -57,14 +67,14 @@ public class DynamicParserTokens {
             return !ontologyModel.getType().isAnalyzed();
         }
 
-        LOGGER.info(String.format("By default unknown fields are analyzed so here '%s' is ANALYZED.", name));
+        LOGGER.info("By default unknown fields are analyzed so here '{}' is ANALYZED.", name);
         return false;
     }
 
     public boolean isAnArray(String name) {
         VitamDescriptionType description = vitamDescriptionResolver.resolve(name);
         if (description == null) {
-            LOGGER.info(String.format("By default unknown fields are array so here '%s' is an ARRAY.", name));
+            LOGGER.info("By default unknown fields are array so here '{}' is an ARRAY.", name);
             return true;
         }
         return description.getCardinality().equals(VitamDescriptionType.VitamCardinality.many);
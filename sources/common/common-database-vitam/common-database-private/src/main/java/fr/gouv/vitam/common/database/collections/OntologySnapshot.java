@@ -0,0 +1,81 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.database.collections;
+
+import fr.gouv.vitam.common.model.administration.OntologyModel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the ontologies at a given version, with their index by identifier.<br/>
+ * <br/>
+ * The index is computed once per version and shared by all the requests using it.
+ */
+public class OntologySnapshot {
+
+    private final String version;
+    private final List<OntologyModel> ontologies;
+    private final Map<String, OntologyModel> ontologiesByIdentifier;
+
+    /**
+     * @param version the version of the ontologies, may be null if unknown
+     * @param ontologies the ontologies
+     */
+    public OntologySnapshot(String version, List<OntologyModel> ontologies) {
+        this.version = version;
+        this.ontologies = Collections.unmodifiableList(ontologies);
+        Map<String, OntologyModel> byIdentifier = new HashMap<>(ontologies.size() * 2);
+        for (OntologyModel ontology : ontologies) {
+            byIdentifier.put(ontology.getIdentifier(), ontology);
+        }
+        this.ontologiesByIdentifier = Collections.unmodifiableMap(byIdentifier);
+    }
+
+    /**
+     * @return the version of the ontologies, or null if unknown
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the ontologies
+     */
+    public List<OntologyModel> getOntologies() {
+        return ontologies;
+    }
+
+    /**
+     * @return the ontologies indexed by identifier
+     */
+    public Map<String, OntologyModel> getOntologiesByIdentifier() {
+        return ontologiesByIdentifier;
+    }
+}
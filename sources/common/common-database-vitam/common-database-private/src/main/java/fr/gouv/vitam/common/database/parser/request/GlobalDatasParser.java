@@ -71,6 +71,21 @@ public class GlobalDatasParser extends GlobalDatas {
      */
     public static final int DEFAULT_SCROLL_TIMEOUT = 60000;
 
+    /**
+     * $scrollId to start a scroll
+     */
+    public static final String SCROLL_ACTIVATE_KEYWORD = "START";
+
+    /**
+     * $scrollId to start a scroll read by parallel slices, pages are not ordered (for bulk readers)
+     */
+    public static final String SLICED_SCROLL_ACTIVATE_KEYWORD = "START_SLICED";
+
+    /**
+     * $scrollId to start a search_after pagination (deep and stable pagination, without scroll context)
+     */
+    public static final String SEARCH_AFTER_ACTIVATE_KEYWORD = "START_SEARCH_AFTER";
+
     protected GlobalDatasParser() {
         // empty
     }
@@ -30,12 +30,16 @@ import static difflib.DiffUtils.generateUnifiedDiff;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import difflib.DiffUtils;
 import difflib.Patch;
@@ -214,6 +218,58 @@ public abstract class VitamDocument<E> extends Document {
         return generateUnifiedDiff(original, revised, beforeList, patch, 1);
     }
 
+    /**
+     * Get unified diff of two json documents, with the same lines as getUnifiedDiff of their pretty printed forms.<br/>
+     * Top level fields are compared as json trees, and only fields between the first and the last modified ones are
+     * printed and diffed as text.
+     *
+     * @param original the original document
+     * @param revised the revised document
+     * @return unified diff (each list entry is a diff line), empty if documents are equal
+     */
+    public static List<String> getUnifiedDiff(JsonNode original, JsonNode revised) {
+        if (!original.isObject() || !revised.isObject()) {
+            return getUnifiedDiff(JsonHandler.prettyPrint(original), JsonHandler.prettyPrint(revised));
+        }
+        final List<Map.Entry<String, JsonNode>> originalFields = getFields(original);
+        final List<Map.Entry<String, JsonNode>> revisedFields = getFields(revised);
+        final int minSize = Math.min(originalFields.size(), revisedFields.size());
+
+        int prefix = 0;
+        while (prefix < minSize && originalFields.get(prefix).equals(revisedFields.get(prefix))) {
+            prefix++;
+        }
+        if (prefix == originalFields.size() && prefix == revisedFields.size()) {
+            return Collections.emptyList();
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix && originalFields.get(originalFields.size() - 1 - suffix)
+            .equals(revisedFields.get(revisedFields.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        return getUnifiedDiff(
+            JsonHandler.prettyPrint(toObjectNode(originalFields.subList(prefix, originalFields.size() - suffix))),
+            JsonHandler.prettyPrint(toObjectNode(revisedFields.subList(prefix, revisedFields.size() - suffix))));
+    }
+
+    private static List<Map.Entry<String, JsonNode>> getFields(JsonNode node) {
+        final List<Map.Entry<String, JsonNode>> fields = new ArrayList<>(node.size());
+        final Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+        while (iterator.hasNext()) {
+            fields.add(iterator.next());
+        }
+        return fields;
+    }
+
+    private static ObjectNode toObjectNode(List<Map.Entry<String, JsonNode>> fields) {
+        final ObjectNode node = JsonHandler.createObjectNode();
+        for (final Map.Entry<String, JsonNode> field : fields) {
+            node.set(field.getKey(), field.getValue());
+        }
+        return node;
+    }
+
     /**
      * Retrieve only + and - lines on diff (for logbook lifecycle) regexp = line started by + or - with at least one
      * space after and any character
@@ -32,6 +32,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import fr.gouv.vitam.common.database.builder.request.multiple.SelectMultiQuery;
+import fr.gouv.vitam.common.database.parser.request.GlobalDatasParser;
 import fr.gouv.vitam.common.model.DatabaseCursor;
 import fr.gouv.vitam.common.model.RequestResponse;
 import fr.gouv.vitam.common.model.RequestResponseOK;
@@ -62,13 +63,27 @@ public class ScrollSpliterator<T> extends AbstractSpliterator<T> {
      */
     public ScrollSpliterator(SelectMultiQuery query, Function<SelectMultiQuery, RequestResponse<T>> repository,
         int scrollTimeout, int limit) {
+        this(query, repository, scrollTimeout, limit, GlobalDatasParser.SCROLL_ACTIVATE_KEYWORD);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param query the select query
+     * @param repository the repository
+     * @param scrollTimeout scroll timeout
+     * @param limit the limit
+     * @param startScrollId the $scrollId of the first request (scroll, sliced scroll or search_after)
+     */
+    public ScrollSpliterator(SelectMultiQuery query, Function<SelectMultiQuery, RequestResponse<T>> repository,
+        int scrollTimeout, int limit, String startScrollId) {
         super(Long.MAX_VALUE, DISTINCT | SIZED | NONNULL);
         this.query = query;
         this.repository = repository;
         this.scrollTimeout = scrollTimeout;
         this.limit = limit;
         this.size = 0;
-        this.scrollId = "START";
+        this.scrollId = startScrollId;
     }
 
     @Override
@@ -117,4 +117,71 @@ public class CachedOntologyLoaderTest {
         assertThat(result).isEqualTo(ontologyModels);
         verify(loader, times(2)).loadOntologies();
     }
-}
\ No newline at end of file
+
+    @Test
+    @RunWithCustomExecutor
+    public void testSnapshotSharedBetweenRequestsWhenVersionUnchanged() {
+
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(3);
+
+        List<OntologyModel> ontologyModels = Arrays.asList(
+            new OntologyModel().setType(OntologyType.KEYWORD).setIdentifier("_id"),
+            new OntologyModel().setType(OntologyType.TEXT).setIdentifier("Title")
+        );
+
+        OntologyLoader loader = mock(OntologyLoader.class);
+        given(loader.loadOntologies()).willReturn(ontologyModels);
+        given(loader.loadOntologiesVersion()).willReturn("2@2019-01-01T00:00:00.000");
+
+        CachedOntologyLoader cachedOntologyLoader = new CachedOntologyLoader(10, 60, loader);
+
+        // When
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(3));
+        OntologySnapshot firstSnapshot = cachedOntologyLoader.getOntologySnapshot();
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(3));
+        OntologySnapshot secondSnapshot = cachedOntologyLoader.getOntologySnapshot();
+
+        // Then
+        assertThat(secondSnapshot).isSameAs(firstSnapshot);
+        assertThat(secondSnapshot.getOntologiesByIdentifier().get("Title").getType()).isEqualTo(OntologyType.TEXT);
+        verify(loader, times(2)).loadOntologiesVersion();
+        verify(loader, times(1)).loadOntologies();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void testReloadingWhenVersionChanged() {
+
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(3);
+
+        List<OntologyModel> ontologyModels = Arrays.asList(
+            new OntologyModel().setType(OntologyType.KEYWORD).setIdentifier("_id"),
+            new OntologyModel().setType(OntologyType.TEXT).setIdentifier("Title")
+        );
+        List<OntologyModel> updatedOntologyModels = Arrays.asList(
+            new OntologyModel().setType(OntologyType.KEYWORD).setIdentifier("_id"),
+            new OntologyModel().setType(OntologyType.KEYWORD).setIdentifier("Title")
+        );
+
+        OntologyLoader loader = mock(OntologyLoader.class);
+        given(loader.loadOntologies()).willReturn(ontologyModels, updatedOntologyModels);
+        given(loader.loadOntologiesVersion())
+            .willReturn("2@2019-01-01T00:00:00.000", "2@2019-01-02T00:00:00.000");
+
+        CachedOntologyLoader cachedOntologyLoader = new CachedOntologyLoader(10, 60, loader);
+
+        // When
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(3));
+        cachedOntologyLoader.loadOntologies();
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(3));
+        List<OntologyModel> result = cachedOntologyLoader.loadOntologies();
+
+        // Then
+        assertThat(result).isEqualTo(updatedOntologyModels);
+        assertThat(cachedOntologyLoader.loadOntologiesByIdentifier().get("Title").getType())
+            .isEqualTo(OntologyType.KEYWORD);
+        verify(loader, times(2)).loadOntologies();
+    }
+}
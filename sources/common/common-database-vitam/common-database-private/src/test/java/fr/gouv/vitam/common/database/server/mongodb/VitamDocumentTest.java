@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.database.server.mongodb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+
+public class VitamDocumentTest {
+
+    private static final String UNIT = "{" +
+        "\"_id\": \"aeaqaaaaaahgausqab7boak55nw5vqaaaaaq\"," +
+        "\"Title\": \"Title\"," +
+        "\"Description\": \"Description\"," +
+        "\"Tag\": [\"tag1\", \"tag2\"]," +
+        "\"Writer\": [{\"FirstName\": \"John\", \"LastName\": \"Doe\"}]," +
+        "\"_mgt\": {\"AccessRule\": {\"Rules\": [{\"Rule\": \"ACC-00001\", \"StartDate\": \"2000-01-01\"}]}}," +
+        "\"_opi\": \"aeeaaaaaachgausqab7boak55nw5vqaaaaaq\"," +
+        "\"_ops\": [\"aeeaaaaaachgausqab7boak55nw5vqaaaaaq\"]," +
+        "\"_v\": 0" +
+        "}";
+
+    @Test
+    public void should_give_same_diff_lines_as_text_diff_when_field_updated() throws Exception {
+        ObjectNode before = (ObjectNode) JsonHandler.getFromString(UNIT);
+        ObjectNode after = before.deepCopy();
+        after.put("Title", "New title");
+        after.put("_v", 1);
+
+        assertSameDiffLines(before, after);
+        assertThat(getDiffLines(before, after)).containsExactly(
+            "-  \"Title\" : \"Title\"",
+            "+  \"Title\" : \"New title\"",
+            "-  \"_v\" : 0",
+            "+  \"_v\" : 1");
+    }
+
+    @Test
+    public void should_give_same_diff_lines_as_text_diff_when_fields_added_and_removed() throws Exception {
+        ObjectNode before = (ObjectNode) JsonHandler.getFromString(UNIT);
+        ObjectNode after = before.deepCopy();
+        after.remove("Description");
+        after.put("Status", "Active");
+        after.set("Keyword", JsonHandler.getFromString("[{\"KeywordContent\": \"key\"}]"));
+
+        assertSameDiffLines(before, after);
+    }
+
+    @Test
+    public void should_give_same_diff_lines_as_text_diff_when_nested_fields_updated() throws Exception {
+        ObjectNode before = (ObjectNode) JsonHandler.getFromString(UNIT);
+        ObjectNode after = before.deepCopy();
+        ((ObjectNode) after.get("Writer").get(0)).put("LastName", "Smith");
+        ((ObjectNode) after.get("_mgt").get("AccessRule").get("Rules").get(0)).put("StartDate", "2001-01-01");
+        after.withArray("Tag").add("tag3");
+
+        assertSameDiffLines(before, after);
+    }
+
+    @Test
+    public void should_give_same_diff_lines_as_text_diff_when_many_fields() throws Exception {
+        ObjectNode before = (ObjectNode) JsonHandler.getFromString(UNIT);
+        for (int i = 0; i < 1000; i++) {
+            before.put("Field" + i, "Value" + i);
+        }
+        ObjectNode after = before.deepCopy();
+        after.put("Field10", "Updated");
+        after.put("Field11", "Updated");
+        after.remove("Field500");
+        after.put("Field999", "Updated");
+
+        assertSameDiffLines(before, after);
+    }
+
+    @Test
+    public void should_give_no_diff_when_documents_are_equal() throws Exception {
+        JsonNode before = JsonHandler.getFromString(UNIT);
+
+        assertThat(getDiffLines(before, before.deepCopy())).isEmpty();
+        assertSameDiffLines(before, before.deepCopy());
+    }
+
+    private void assertSameDiffLines(JsonNode before, JsonNode after) {
+        List<String> expected = VitamDocument.getConcernedDiffLines(
+            VitamDocument.getUnifiedDiff(JsonHandler.prettyPrint(before), JsonHandler.prettyPrint(after)));
+        assertThat(getDiffLines(before, after)).isEqualTo(expected);
+    }
+
+    private List<String> getDiffLines(JsonNode before, JsonNode after) {
+        return VitamDocument.getConcernedDiffLines(VitamDocument.getUnifiedDiff(before, after));
+    }
+}
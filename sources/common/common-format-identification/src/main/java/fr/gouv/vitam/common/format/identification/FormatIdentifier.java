@@ -34,8 +34,14 @@ import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTech
 import fr.gouv.vitam.common.format.identification.model.FormatIdentifierInfo;
 import fr.gouv.vitam.common.format.identification.model.FormatIdentifierResponse;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Format identifier interface
@@ -65,5 +71,33 @@ public interface FormatIdentifier {
         throws FileFormatNotFoundException, FormatIdentifierTechnicalException, FormatIdentifierBadRequestException,
         FormatIdentifierNotFoundException;
 
-}
+    /**
+     * Identify the formats of all the files of a directory.<br/>
+     * Default implementation analyses files one by one, implementations should identify them in a single call.
+     *
+     * @param directory the path to the directory containing the files to be identified
+     * @return the formats by file name, an empty list if no format is found for a file. Files that could not be
+     * analysed are not in the map.
+     * @throws FormatIdentifierBadRequestException if the given path dont match a directory
+     * @throws FormatIdentifierNotFoundException if the given identifier could not responds
+     * @throws FormatIdentifierTechnicalException for any other technical exception
+     */
+    default Map<String, List<FormatIdentifierResponse>> analyseDirectory(Path directory)
+        throws FormatIdentifierTechnicalException, FormatIdentifierBadRequestException,
+        FormatIdentifierNotFoundException {
+        Map<String, List<FormatIdentifierResponse>> formatsByFileName = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                try {
+                    formatsByFileName.put(file.getFileName().toString(), analysePath(file));
+                } catch (FileFormatNotFoundException e) {
+                    formatsByFileName.put(file.getFileName().toString(), Collections.emptyList());
+                }
+            }
+        } catch (IOException e) {
+            throw new FormatIdentifierBadRequestException(e);
+        }
+        return formatsByFileName;
+    }
 
+}
@@ -48,6 +48,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -160,13 +162,51 @@ public class FormatIdentifierSiegfried implements FormatIdentifier {
             LOGGER.debug("extract format from siegfried response");
         }
 
-        final List<FormatIdentifierResponse> matchesFormats = new ArrayList<>();
-
         final ArrayNode files = (ArrayNode) siegfriedResponse.get("files");
         if (files == null || files.size() != 1) {
             throw new FormatIdentifierBadRequestException("The given path is not link to an unique file");
         }
-        final JsonNode file = files.get(0);
+        return extractFileFormats(files.get(0), path);
+    }
+
+    @Override
+    public Map<String, List<FormatIdentifierResponse>> analyseDirectory(Path directory)
+        throws FormatIdentifierBadRequestException, FormatIdentifierTechnicalException,
+        FormatIdentifierNotFoundException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("identify formats of files in " + directory);
+        }
+        final RequestResponse<JsonNode> response;
+        try (SiegfriedClient siegfriedClient = siegfriedClientFactory.getClient()) {
+            response = siegfriedClient.analysePath(directory);
+        }
+
+        final ArrayNode files = (ArrayNode) response.toJsonNode().get("$results").get(0).get("files");
+        if (files == null) {
+            throw new FormatIdentifierBadRequestException("The given path is not link to a directory");
+        }
+
+        final Map<String, List<FormatIdentifierResponse>> formatsByFileName = new HashMap<>();
+        for (final JsonNode file : files) {
+            final Path filePath = Paths.get(file.get("filename").asText());
+            if (file.get("matches") == null) {
+                // File could not be analysed
+                LOGGER.warn("No format analysis for file " + filePath + " : " + file.get("errors"));
+                continue;
+            }
+            try {
+                formatsByFileName.put(filePath.getFileName().toString(), extractFileFormats(file, filePath));
+            } catch (FileFormatNotFoundException e) {
+                formatsByFileName.put(filePath.getFileName().toString(), Collections.emptyList());
+            }
+        }
+        return formatsByFileName;
+    }
+
+    private List<FormatIdentifierResponse> extractFileFormats(JsonNode file, Path path)
+        throws FileFormatNotFoundException {
+
+        final List<FormatIdentifierResponse> matchesFormats = new ArrayList<>();
 
         final ArrayNode matches = (ArrayNode) file.get("matches");
         for (final JsonNode match : matches) {
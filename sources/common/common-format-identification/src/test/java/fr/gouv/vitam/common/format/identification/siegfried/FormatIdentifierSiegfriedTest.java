@@ -30,6 +30,7 @@ package fr.gouv.vitam.common.format.identification.siegfried;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
@@ -38,6 +39,7 @@ import static org.mockito.Mockito.when;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 
 import fr.gouv.vitam.common.format.identification.FormatIdentifier;
 import fr.gouv.vitam.common.format.identification.FormatIdentifierFactory;
@@ -64,15 +66,18 @@ public class FormatIdentifierSiegfriedTest {
     private static final String SAMPLE_UNKNOW_RESPONSE = "unknown-response.json";
     private static final String SAMPLE_UNKNOW_NOWARN_RESPONSE = "unknown-nowarn-response.json";
     private static final String SAMPLE_BAD_REQUEST_RESPONSE = "bad-request-response.json";
+    private static final String SAMPLE_DIRECTORY_RESPONSE = "directory-response.json";
 
     private static final JsonNode JSON_NODE_VERSION = getJsonNode(SAMPLE_VERSION_RESPONSE);
     private static final JsonNode JSON_NODE_RESPONSE_OK = getJsonNode(SAMPLE_OK_RESPONSE);
     private static final JsonNode JSON_NODE_RESPONSE_UNKNOW = getJsonNode(SAMPLE_UNKNOW_RESPONSE);
     private static final JsonNode JSON_NODE_RESPONSE_UNKNOW_NOWARN = getJsonNode(SAMPLE_UNKNOW_NOWARN_RESPONSE);
     private static final JsonNode JSON_NODE_RESPONSE_BAD = getJsonNode(SAMPLE_BAD_REQUEST_RESPONSE);
+    private static final JsonNode JSON_NODE_RESPONSE_DIRECTORY = getJsonNode(SAMPLE_DIRECTORY_RESPONSE);
 
     private static final Path VERSION_PATH = Paths.get("version/path");
     private static final Path FILE_PATH = Paths.get("file/path");
+    private static final Path DIRECTORY_PATH = Paths.get("batch/directory");
     private static SiegfriedClientFactory siegfriedClientFactory;
     private static SiegfriedClientRest siegfriedClientRest;
 
@@ -153,6 +158,27 @@ public class FormatIdentifierSiegfriedTest {
         siegfried.analysePath(FILE_PATH);
     }
 
+    @Test
+    public void testSiegfriedIdentifyDirectory() throws Exception {
+        reset(siegfriedClientRest);
+        when(siegfriedClientRest.analysePath(DIRECTORY_PATH))
+            .thenReturn(new RequestResponseOK().addResult(JSON_NODE_RESPONSE_DIRECTORY));
+
+        final Map<String, List<FormatIdentifierResponse>> response = siegfried.analyseDirectory(DIRECTORY_PATH);
+
+        // Single call for all files
+        Mockito.verify(siegfriedClientRest).analysePath(DIRECTORY_PATH);
+
+        assertEquals(2, response.size());
+        assertEquals(1, response.get("object1").size());
+        assertEquals("x-fmt/263", response.get("object1").get(0).getPuid());
+        assertEquals("application/zip", response.get("object1").get(0).getMimetype());
+        // Unknown format
+        assertTrue(response.get("object2").isEmpty());
+        // File not analysed
+        assertFalse(response.containsKey("object3"));
+    }
+
     @Test(expected = FormatIdentifierBadRequestException.class)
     public void testSiegfriedIdentifyBadPath() throws Exception {
         reset(siegfriedClientRest);
@@ -1,6 +1,7 @@
 package fr.gouv.vitam.worker.common;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
 import fr.gouv.vitam.common.model.processing.IOParameter;
 import fr.gouv.vitam.common.model.processing.ProcessingUri;
@@ -185,6 +186,24 @@ public interface HandlerIO extends VitamAutoCloseable {
         throws IOException, ContentAddressableStorageNotFoundException,
         ContentAddressableStorageServerException;
 
+    /**
+     * Helper to load a file from Workspace (or local cache) and save it into local cache, updating the given digests
+     * with its content in the same pass.<br/>
+     * <br/>
+     * Handlers of the same step working on the file (format identification, ...) then find it in the local cache
+     * without reading the Workspace again.
+     *
+     * @param objectName
+     * @param digests the digests to update with the content of the file
+     * @return file if found
+     * @throws IOException
+     * @throws ContentAddressableStorageNotFoundException
+     * @throws ContentAddressableStorageServerException
+     */
+    File getFileFromWorkspace(String objectName, Digest... digests)
+        throws IOException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageServerException;
+
     /**
      * Helper to get an InputStream (using local cache if possible) from Workspace<br/>
      * <br/>
@@ -37,6 +37,7 @@ import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.client.DefaultClient;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -443,25 +444,54 @@ public class HandlerIOImpl implements HandlerIO, VitamAutoCloseable {
 
     @Override
     public File getFileFromWorkspace(String objectName)
+        throws IOException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageServerException {
+        return getFileFromWorkspace(objectName, new Digest[0]);
+    }
+
+    @Override
+    public File getFileFromWorkspace(String objectName, Digest... digests)
         throws IOException, ContentAddressableStorageNotFoundException,
         ContentAddressableStorageServerException {
         final File file = getNewLocalFile(objectName);
-        if (!file.exists()) {
-            Response response = null;
-            try (WorkspaceClient workspaceClient = workspaceClientFactory.getClient()) {
-                response = workspaceClient.getObject(containerName, objectName);
-                if (response != null) {
-                    try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                        StreamUtils.copy((InputStream) response.getEntity(), fileOutputStream);
+        if (file.exists()) {
+            if (digests.length > 0) {
+                try (InputStream inputStream = getDigestInputStream(new FileInputStream(file), digests)) {
+                    final byte[] buffer = new byte[VitamConfiguration.getChunkSize()];
+                    while (inputStream.read(buffer) >= 0) {
+                        // digests are updated while reading
                     }
                 }
-            } finally {
-                consumeAnyEntityAndClose(response);
             }
+            return file;
+        }
+        Response response = null;
+        try (WorkspaceClient workspaceClient = workspaceClientFactory.getClient()) {
+            response = workspaceClient.getObject(containerName, objectName);
+            if (response != null) {
+                try (InputStream inputStream = getDigestInputStream((InputStream) response.getEntity(), digests);
+                    FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+                    StreamUtils.copy(inputStream, fileOutputStream);
+                } catch (IOException e) {
+                    // Do not leave a partial file in the local cache
+                    Files.deleteIfExists(file.toPath());
+                    throw e;
+                }
+            }
+        } finally {
+            consumeAnyEntityAndClose(response);
         }
         return file;
     }
 
+    private static InputStream getDigestInputStream(InputStream inputStream, Digest... digests) {
+        InputStream digestInputStream = inputStream;
+        for (final Digest digest : digests) {
+            digestInputStream = digest.getDigestInputStream(digestInputStream);
+        }
+        return digestInputStream;
+    }
+
     @Override
     public InputStream getInputStreamFromWorkspace(String objectName)
         throws IOException, ContentAddressableStorageNotFoundException,
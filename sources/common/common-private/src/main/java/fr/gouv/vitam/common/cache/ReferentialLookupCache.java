@@ -0,0 +1,161 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.cache;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import fr.gouv.vitam.common.metrics.VitamMetricRegistry;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
+
+/**
+ * Bounded cache of the referential lookups done for each request (security identities, contexts, contracts...).<br/>
+ * <br/>
+ * Entries expire a fixed time after being loaded, so that a change in the referential is taken into account after at
+ * most this delay, whatever the traffic. Callers that can cheaply read a version of the referential (for instance
+ * its document count and last update date) tag entries with it, so that an entry read before a change of the
+ * referential is never served. Only found values are cached: a missing entry is looked up again on the next request.
+ * Hit, miss and eviction counts are exposed in the business metrics.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ReferentialLookupCache<K, V> {
+
+    private final Cache<K, VersionedValue<V>> cache;
+
+    /**
+     * @param name name of the cache, used as prefix of its metrics
+     * @param maxEntries max entries in cache
+     * @param timeoutInSeconds delay after which a loaded entry is looked up again
+     */
+    public ReferentialLookupCache(String name, int maxEntries, int timeoutInSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(timeoutInSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+        VitamMetricRegistry registry = CommonBusinessApplication.getBusinessMetricsRegistry();
+        registry.register(name + " cache hit count", (Gauge<Long>) () -> cache.stats().hitCount());
+        registry.register(name + " cache miss count", (Gauge<Long>) () -> cache.stats().missCount());
+        registry.register(name + " cache eviction count", (Gauge<Long>) () -> cache.stats().evictionCount());
+        registry.register(name + " cache size", (Gauge<Long>) cache::size);
+    }
+
+    /**
+     * Get the value from the cache, or load it
+     *
+     * @param key the key
+     * @param loader loader called on cache miss, may return null if not found
+     * @param <E> exception thrown by the loader
+     * @return the value, or null if not found
+     * @throws E if the loader failed, nothing is cached in this case
+     */
+    public <E extends Exception> V get(K key, Loader<K, V, E> loader) throws E {
+        return get(key, null, loader);
+    }
+
+    /**
+     * Get the value from the cache if it was loaded with the given version of the referential, or load it
+     *
+     * @param key the key
+     * @param version current version of the referential, null if unknown
+     * @param loader loader called on cache miss or version change, may return null if not found
+     * @param <E> exception thrown by the loader
+     * @return the value, or null if not found
+     * @throws E if the loader failed, nothing is cached in this case
+     */
+    public <E extends Exception> V get(K key, String version, Loader<K, V, E> loader) throws E {
+        VersionedValue<V> cached = cache.getIfPresent(key);
+        if (cached != null && Objects.equals(cached.version, version)) {
+            return cached.value;
+        }
+        V value = loader.load(key);
+        if (value != null) {
+            cache.put(key, new VersionedValue<>(version, value));
+        } else if (cached != null) {
+            cache.invalidate(key);
+        }
+        return value;
+    }
+
+    /**
+     * Remove an entry, so that it is loaded again on next access
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return the statistics of the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static final class VersionedValue<V> {
+        private final String version;
+        private final V value;
+
+        private VersionedValue(String version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Loader of a cache entry
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @param <E> exception thrown by the loader
+     */
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        /**
+         * @param key the key
+         * @return the value, or null if not found
+         * @throws E if the lookup failed
+         */
+        V load(K key) throws E;
+    }
+}
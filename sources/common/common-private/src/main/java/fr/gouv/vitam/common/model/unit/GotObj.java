@@ -1,5 +1,8 @@
 package fr.gouv.vitam.common.model.unit;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * This object content the new technical object group guid and the an boolean. It is created when the BDO not
  * contains an GO with isVisited=false. When the list of AU is browsed, if an AU referenced and the BDO not contains
@@ -9,7 +12,8 @@ public class GotObj {
     private String gotGuid;
     private boolean isVisited;
 
-    public GotObj(String gotGuid, boolean isVisited) {
+    @JsonCreator
+    public GotObj(@JsonProperty("gotGuid") String gotGuid, @JsonProperty("visited") boolean isVisited) {
         this.gotGuid = gotGuid;
         this.isVisited = isVisited;
     }
@@ -33,24 +33,47 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Iterables;
 
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 
 /**
  * MerkleTreeAlgo
+ *
+ * Leaves are folded into the tree as soon as they are added: only the pending roots of the complete sub-trees
+ * (at most one per level, so O(log n)) are kept. Padding to the next power of two with {@link MerkleTree#EMPTY_LEAF}
+ * is done with precomputed empty sub-trees, so the computed root is the same as the one of a tree built level by level
+ * from the whole list of leaves.
  */
 public class MerkleTreeAlgo {
 
     private final DigestType digestType;
-    private List<MerkleTree> leaves = new ArrayList<>();
+    private final boolean keepIntermediateNodes;
+    /**
+     * pending sub-tree roots, indexed by level (a sub-tree at level k holds 2^k leaves), null when there is none
+     */
+    private final List<MerkleTree> pendingNodes = new ArrayList<>();
+    /**
+     * empty sub-trees, indexed by level, lazily computed for padding
+     */
+    private final List<MerkleTree> emptySubTrees = new ArrayList<>();
+    private long numberOfLeaves = 0;
 
     /**
      * @param digestType
      */
     public MerkleTreeAlgo(DigestType digestType) {
+        this(digestType, true);
+    }
+
+    /**
+     * @param digestType
+     * @param keepIntermediateNodes if false, the generated MerkleTree only holds its root hash, which makes the memory
+     * footprint independent from the number of leaves (use it when only the root is needed)
+     */
+    public MerkleTreeAlgo(DigestType digestType, boolean keepIntermediateNodes) {
         this.digestType = digestType;
+        this.keepIntermediateNodes = keepIntermediateNodes;
     }
 
     /**
@@ -71,12 +94,54 @@ public class MerkleTreeAlgo {
     public void addLeaf(byte[] data) {
         Digest digest = new Digest(digestType);
         MerkleTree tree = new MerkleTree(digest.update(data).digest(), null, null);
-        leaves.add(tree);
+        addSubTree(tree, 0);
     }
 
     @VisibleForTesting
-    int numberOfLeaves() {
-        return leaves.size();
+    long numberOfLeaves() {
+        return numberOfLeaves;
+    }
+
+    /**
+     * Adds a complete sub-tree of the given level at the right of the current tree, then merges it with the pending
+     * sub-trees of the same level.
+     *
+     * @param subTree
+     * @param level
+     */
+    private void addSubTree(MerkleTree subTree, int level) {
+        MerkleTree tree = subTree;
+        int currentLevel = level;
+        while (currentLevel < pendingNodes.size() && pendingNodes.get(currentLevel) != null) {
+            tree = merge(pendingNodes.get(currentLevel), tree);
+            pendingNodes.set(currentLevel, null);
+            currentLevel++;
+        }
+        if (currentLevel == pendingNodes.size()) {
+            pendingNodes.add(tree);
+        } else {
+            pendingNodes.set(currentLevel, tree);
+        }
+        numberOfLeaves += 1L << level;
+    }
+
+    private MerkleTree merge(MerkleTree left, MerkleTree right) {
+        byte[] hash = concat(left.getRoot(), right.getRoot());
+        if (keepIntermediateNodes) {
+            return new MerkleTree(hash, left, right);
+        }
+        return new MerkleTree(hash, null, null);
+    }
+
+    private MerkleTree emptySubTree(int level) {
+        if (emptySubTrees.isEmpty()) {
+            emptySubTrees.add(EMPTY_LEAF);
+        }
+        while (emptySubTrees.size() <= level) {
+            MerkleTree previous = emptySubTrees.get(emptySubTrees.size() - 1);
+            emptySubTrees.add(merge(previous, previous));
+        }
+        return emptySubTrees.get(level);
     }
 
     /**
@@ -98,14 +163,13 @@ public class MerkleTreeAlgo {
      */
     @VisibleForTesting
     void addPadding() {
-        int numberOfLeaf = leaves.size();
-        if (Long.bitCount(numberOfLeaf) == 1) {
+        if (numberOfLeaves == 0) {
             return;
         }
-
-        long l = Long.highestOneBit(2 * numberOfLeaf);
-        for (int j = 0; j < l - numberOfLeaf; j++) {
-            leaves.add(EMPTY_LEAF);
+        // Fill the lowest incomplete level first: an empty sub-tree of 2^k leaves is aligned on its own size
+        while (Long.bitCount(numberOfLeaves) != 1) {
+            int level = Long.numberOfTrailingZeros(numberOfLeaves);
+            addSubTree(emptySubTree(level), level);
         }
     }
 
@@ -114,17 +178,10 @@ public class MerkleTreeAlgo {
      */
     public MerkleTree generateMerkle() {
         addPadding();
-        MerkleTree tree = Iterables.getFirst(leaves, null);
-        while (leaves.size() > 1) {
-            final List<MerkleTree> nextList = new ArrayList<>();
-            for (int i = 0; i < leaves.size(); i = i + 2) {
-                byte[] hash = concat(leaves.get(i).getRoot(), leaves.get(i + 1).getRoot());
-                tree = new MerkleTree(hash, leaves.get(i), leaves.get(i + 1));
-                nextList.add(tree);
-            }
-            leaves = nextList;
+        if (pendingNodes.isEmpty()) {
+            return null;
         }
-        return tree;
+        return pendingNodes.get(pendingNodes.size() - 1);
     }
 
 }
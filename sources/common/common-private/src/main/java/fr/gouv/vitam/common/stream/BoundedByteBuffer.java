@@ -28,8 +28,12 @@ package fr.gouv.vitam.common.stream;
 
 import org.apache.commons.io.IOUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -39,11 +43,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - Reader & writers are synchronized using multiple Producer-Consumer locks : (https://en.wikipedia.org/wiki/Producer%E2%80%93consumer_problem)
  * - Writer can write till circular buffer is full. Then it blocks until free space is available (ALL readers have read some data)
  * - Reader cannot read till the Writer writes data to the circular buffer.
+ * - The circular buffer is stored in heap, or in a local file for large buffers (the fastest reader can then be up to
+ * bufferSize bytes ahead of the slowest one without using heap).
  */
 public class BoundedByteBuffer implements AutoCloseable {
 
     private final int bufferSize;
-    private final byte[] circularBuffer;
+    private final CircularStorage circularBuffer;
 
     private final ProducerConsumerLock[] locks;
     private final int readerCount;
@@ -54,10 +60,24 @@ public class BoundedByteBuffer implements AutoCloseable {
     private final Reader[] readers;
 
     public BoundedByteBuffer(int bufferSize, int readerCount) {
+        this(new HeapStorage(bufferSize), bufferSize, readerCount);
+    }
+
+    /**
+     * @param file local file used to store the circular buffer. Created or truncated, not deleted on close.
+     * @param bufferSize size of the circular buffer
+     * @param readerCount number of readers
+     * @throws IOException if the file cannot be opened
+     */
+    public BoundedByteBuffer(File file, int bufferSize, int readerCount) throws IOException {
+        this(new FileStorage(file), bufferSize, readerCount);
+    }
+
+    private BoundedByteBuffer(CircularStorage circularBuffer, int bufferSize, int readerCount) {
         this.bufferSize = bufferSize;
         this.readerCount = readerCount;
 
-        this.circularBuffer = new byte[bufferSize];
+        this.circularBuffer = circularBuffer;
 
         this.locks = new ProducerConsumerLock[readerCount];
         for (int i = 0; i < readerCount; i++) {
@@ -88,6 +108,7 @@ public class BoundedByteBuffer implements AutoCloseable {
         for (Reader reader : readers) {
             reader.close();
         }
+        circularBuffer.close();
     }
 
     /**
@@ -127,13 +148,13 @@ public class BoundedByteBuffer implements AutoCloseable {
             // Write to end (from offset to end)
             int bytesToWriteAtEnd = Math.min(bufferSize - writePos, length);
             if (bytesToWriteAtEnd > 0) {
-                System.arraycopy(src, offset, circularBuffer, writePos, bytesToWriteAtEnd);
+                circularBuffer.write(writePos, src, offset, bytesToWriteAtEnd);
             }
 
             // Write from beginning (from 0)
             int bytesToWriteAtBeginning = length - bytesToWriteAtEnd;
             if (bytesToWriteAtBeginning > 0) {
-                System.arraycopy(src, offset + bytesToWriteAtEnd, circularBuffer, 0, bytesToWriteAtBeginning);
+                circularBuffer.write(0, src, offset + bytesToWriteAtEnd, bytesToWriteAtBeginning);
             }
 
             writePos = (writePos + length) % bufferSize;
@@ -268,12 +289,12 @@ public class BoundedByteBuffer implements AutoCloseable {
             // Copy buffer
             // Read from pos to end
             int bytesToReadFromPos = Math.min(bufferSize - readPos, availableLength);
-            System.arraycopy(circularBuffer, readPos, buffer, offset, bytesToReadFromPos);
+            circularBuffer.read(readPos, buffer, offset, bytesToReadFromPos);
 
             // Copy from beginning
             int bytesToReadFromBeginning = availableLength - bytesToReadFromPos;
             if (bytesToReadFromBeginning > 0) {
-                System.arraycopy(circularBuffer, 0, buffer, offset + bytesToReadFromPos, bytesToReadFromBeginning);
+                circularBuffer.read(0, buffer, offset + bytesToReadFromPos, bytesToReadFromBeginning);
             }
             readPos = (readPos + availableLength) % bufferSize;
 
@@ -307,4 +328,75 @@ public class BoundedByteBuffer implements AutoCloseable {
             this.lock.close();
         }
     }
+
+    /**
+     * Storage of the circular buffer. Reads and writes never overlap (synchronized by producer-consumer locks).
+     */
+    private interface CircularStorage {
+
+        void write(int position, byte[] src, int offset, int length) throws IOException;
+
+        void read(int position, byte[] dst, int offset, int length) throws IOException;
+
+        void close();
+    }
+
+
+    private static class HeapStorage implements CircularStorage {
+
+        private final byte[] buffer;
+
+        private HeapStorage(int bufferSize) {
+            this.buffer = new byte[bufferSize];
+        }
+
+        @Override
+        public void write(int position, byte[] src, int offset, int length) {
+            System.arraycopy(src, offset, buffer, position, length);
+        }
+
+        @Override
+        public void read(int position, byte[] dst, int offset, int length) {
+            System.arraycopy(buffer, position, dst, offset, length);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+
+
+    private static class FileStorage implements CircularStorage {
+
+        private final FileChannel channel;
+
+        private FileStorage(File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        public void write(int position, byte[] src, int offset, int length) throws IOException {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(src, offset, length);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer, position + byteBuffer.position() - offset);
+            }
+        }
+
+        @Override
+        public void read(int position, byte[] dst, int offset, int length) throws IOException {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(dst, offset, length);
+            while (byteBuffer.hasRemaining()) {
+                if (channel.read(byteBuffer, position + byteBuffer.position() - offset) < 0) {
+                    throw new IOException("Unexpected end of buffer file");
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            StreamUtils.closeSilently(channel);
+        }
+    }
 }
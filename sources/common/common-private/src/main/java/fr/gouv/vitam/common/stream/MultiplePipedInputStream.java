@@ -41,6 +41,7 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.concurrent.ExecutorService;
@@ -70,14 +71,34 @@ public class MultiplePipedInputStream implements VitamAutoCloseable {
      * @throws IllegalArgumentException if source is null or nbCopy <= 0 or global service is down
      */
     public MultiplePipedInputStream(InputStream source, int nbCopy) {
+        this(source, nbCopy,
+            new BoundedByteBuffer(VitamConfiguration.getChunkSize() * VitamConfiguration.getBufferNumber(), nbCopy));
+    }
+
+    /**
+     * Create one MultipleInputStreamHandler from one InputStream and make nbCopy linked InputStreams, buffered in a
+     * local file.<br/>
+     * The fastest linked InputStream can be up to spoolSize bytes ahead of the slowest one.
+     *
+     * @param source
+     * @param nbCopy
+     * @param spoolFile local file used as buffer. Not deleted on close.
+     * @param spoolSize size of the buffer, at least the chunk size
+     * @throws IllegalArgumentException if source is null or nbCopy <= 0 or spoolSize < chunk size
+     * @throws IOException if the spool file cannot be opened
+     */
+    public MultiplePipedInputStream(InputStream source, int nbCopy, File spoolFile, int spoolSize)
+        throws IOException {
+        this(source, nbCopy, createFileBuffer(spoolFile, spoolSize, nbCopy));
+    }
+
+    private MultiplePipedInputStream(InputStream source, int nbCopy, BoundedByteBuffer boundedByteBuffer) {
         ParametersChecker.checkParameter("InputStream cannot be null", source);
         ParametersChecker.checkValue("nbCopy", nbCopy, 1);
 
         this.nbCopy = nbCopy;
         this.source = source;
-
-        int bufferSize = VitamConfiguration.getChunkSize() * VitamConfiguration.getBufferNumber();
-        this.boundedByteBuffer = new BoundedByteBuffer(bufferSize, nbCopy);
+        this.boundedByteBuffer = boundedByteBuffer;
 
         EXECUTOR_THREAD_READER.execute(() -> {
             try {
@@ -89,6 +110,13 @@ public class MultiplePipedInputStream implements VitamAutoCloseable {
         });
     }
 
+    private static BoundedByteBuffer createFileBuffer(File spoolFile, int spoolSize, int nbCopy)
+        throws IOException {
+        ParametersChecker.checkParameter("Spool file cannot be null", spoolFile);
+        ParametersChecker.checkValue("spoolSize", spoolSize, VitamConfiguration.getChunkSize());
+        return new BoundedByteBuffer(spoolFile, spoolSize, nbCopy);
+    }
+
     /**
      * Get the rank-th linked InputStream
      *
@@ -31,7 +31,13 @@ import static org.apache.commons.codec.binary.Base64.decodeBase64;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.json.JsonHandler;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -105,4 +111,73 @@ public class MerkleTreeAlgoTest {
         assertThat(merkleTreeAlgo.numberOfLeaves()).isEqualTo(4);
     }
 
+    @Test
+    public void should_compute_same_tree_as_level_by_level_algorithm() throws Exception {
+        for (int numberOfLeaves = 1; numberOfLeaves <= 70; numberOfLeaves++) {
+            // Given
+            MerkleTreeAlgo algo = new MerkleTreeAlgo(SHA512);
+            MerkleTreeAlgo rootOnlyAlgo = new MerkleTreeAlgo(SHA512, false);
+            List<MerkleTree> leaves = new ArrayList<>();
+            for (int i = 0; i < numberOfLeaves; i++) {
+                String data = "leaf" + i;
+                algo.addLeaf(data);
+                rootOnlyAlgo.addLeaf(data);
+                leaves.add(new MerkleTree(hash(data.getBytes(StandardCharsets.UTF_8)), null, null));
+            }
+
+            // When
+            MerkleTree tree = algo.generateMerkle();
+            MerkleTree rootOnlyTree = rootOnlyAlgo.generateMerkle();
+
+            // Then
+            MerkleTree expected = generateLevelByLevel(leaves);
+            assertThat(tree.getRoot()).isEqualTo(expected.getRoot());
+            assertThat(rootOnlyTree.getRoot()).isEqualTo(expected.getRoot());
+            assertThat(rootOnlyTree.getLeftLeaf()).isNull();
+            assertThat(JsonHandler.unprettyPrint(tree)).isEqualTo(JsonHandler.unprettyPrint(expected));
+        }
+    }
+
+    @Test
+    public void should_return_same_root_when_generated_twice() {
+        // Given
+        merkleTreeAlgo.addLeaf("a");
+        merkleTreeAlgo.addLeaf("b");
+        merkleTreeAlgo.addLeaf("c");
+        final MerkleTree first = merkleTreeAlgo.generateMerkle();
+
+        // When
+        final MerkleTree second = merkleTreeAlgo.generateMerkle();
+
+        // Then
+        assertThat(second.getRoot()).isEqualTo(first.getRoot());
+        assertThat(merkleTreeAlgo.numberOfLeaves()).isEqualTo(4);
+    }
+
+    private static MerkleTree generateLevelByLevel(List<MerkleTree> leaves) {
+        List<MerkleTree> level = new ArrayList<>(leaves);
+        long target = Long.highestOneBit(2 * level.size() - 1);
+        while (level.size() < target) {
+            level.add(MerkleTree.EMPTY_LEAF);
+        }
+        while (level.size() > 1) {
+            List<MerkleTree> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                MerkleTree left = level.get(i);
+                MerkleTree right = level.get(i + 1);
+                next.add(new MerkleTree(hash(left.getRoot(), right.getRoot()), left, right));
+            }
+            level = next;
+        }
+        return level.get(0);
+    }
+
+    private static byte[] hash(byte[]... parts) {
+        Digest digest = new Digest(SHA512);
+        for (byte[] part : parts) {
+            digest.update(part);
+        }
+        return digest.digest();
+    }
+
 }
@@ -8,8 +8,11 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BrokenInputStream;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.io.output.NullOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.commons.io.IOUtils.EOF;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,6 +36,9 @@ public class BoundedByteBufferTest {
 
     private static final int BUFFER_SIZE = 4094;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testSingleReader() throws Exception {
         simpleTest(1, 0);
@@ -81,6 +88,84 @@ public class BoundedByteBufferTest {
         executorService.awaitTermination(1, TimeUnit.MINUTES);
     }
 
+    @Test
+    public void testMultipleReadersWithFileBuffer() throws Exception {
+        fileBufferTest(10, 0);
+        fileBufferTest(10, 4097);
+        fileBufferTest(10, 10 * 1024 * 1024);
+    }
+
+    @Test
+    public void givenFileBufferWhenOneReaderIsStuckThenOtherReadersCannotGetMoreThanBufferSizeAhead()
+        throws Exception {
+
+        int size = 10 * BUFFER_SIZE;
+
+        // Given
+        ExecutorService executorService = Executors.newFixedThreadPool(2, VitamThreadFactory.getInstance());
+        BoundedByteBuffer instance = new BoundedByteBuffer(temporaryFolder.newFile(), BUFFER_SIZE, 2);
+        InputStream stuckReader = instance.getReader(0);
+        InputStream fastReader = instance.getReader(1);
+        AtomicLong fastReaderPosition = new AtomicLong();
+
+        // When
+        CompletableFuture<Digest> writtenDigestFuture =
+            CompletableFuture.supplyAsync(() -> writeRandomData(size, instance), executorService);
+        CompletableFuture<Digest> fastReaderDigestFuture = CompletableFuture.supplyAsync(
+            () -> readStream(new CountingInputStream(fastReader) {
+                @Override
+                protected synchronized void afterRead(int n) {
+                    super.afterRead(n);
+                    fastReaderPosition.set(getByteCount());
+                }
+            }), executorService);
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        // Then
+        assertThat(fastReaderPosition.get()).isGreaterThan(0L).isLessThanOrEqualTo(BUFFER_SIZE);
+        assertThat(writtenDigestFuture).isNotDone();
+
+        // When
+        stuckReader.close();
+
+        // Then
+        Digest writtenDigest = writtenDigestFuture.get(1, TimeUnit.MINUTES);
+        assertThat(fastReaderDigestFuture.get(1, TimeUnit.MINUTES).digestHex()).isEqualTo(writtenDigest.digestHex());
+
+        instance.close();
+
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void fileBufferTest(int readerCount, int size) throws Exception {
+
+        // Given
+        ExecutorService executorService = Executors.newFixedThreadPool(1 + readerCount, VitamThreadFactory.getInstance());
+        BoundedByteBuffer instance = new BoundedByteBuffer(temporaryFolder.newFile(), BUFFER_SIZE, readerCount);
+
+        // When
+        CompletableFuture<Digest> writtenDigestFuture =
+            CompletableFuture.supplyAsync(() -> writeRandomData(size, instance), executorService);
+        List<CompletableFuture<Digest>> readDigestFutures = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            InputStream reader = instance.getReader(i);
+            readDigestFutures.add(CompletableFuture.supplyAsync(() -> readStream(reader), executorService));
+        }
+
+        // Then
+        Digest writtenDigest = writtenDigestFuture.get(1, TimeUnit.MINUTES);
+        for (CompletableFuture<Digest> readDigestFuture : readDigestFutures) {
+            Digest readDigest = readDigestFuture.get(1, TimeUnit.MINUTES);
+            assertThat(writtenDigest.digestHex()).isEqualTo(readDigest.digestHex());
+        }
+
+        instance.close();
+
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
     @Test
     public void testBrokenWriter() throws Exception {
 
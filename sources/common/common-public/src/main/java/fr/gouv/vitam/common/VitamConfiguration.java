@@ -414,6 +414,25 @@ public class VitamConfiguration {
     private static long eliminationActionThreshold = 10_000L;
     private static int ontologyCacheMaxEntries = 100;
     private static int ontologyCacheTimeoutInSeconds = 300;
+    /**
+     * Security cache settings (identities, contexts and contracts checked on each request)
+     */
+    private static int securityCacheMaxEntries = 1000;
+    private static int securityCacheTimeoutInSeconds = 60;
+    /**
+     * Delay between two reads of the security referential versions : a change of an identity, context or contract is
+     * taken into account after at most this delay
+     */
+    private static int securityCacheVersionRefreshInSeconds = 5;
+    /**
+     * Number of slices read in parallel by sliced elasticsearch scrolls
+     */
+    private static int elasticsearchScrollSlices = 4;
+    /**
+     * Max entries of each ingest SIP extraction map (identifiers, life cycles, rules...) kept in heap before the map
+     * is moved to local files
+     */
+    private static int ingestMapMaxEntriesInMemory = 100_000;
     /**
      * Default OriginatingAgency for DIP export with multiple originating agencies
      */
@@ -611,6 +630,46 @@ public class VitamConfiguration {
         VitamConfiguration.ontologyCacheTimeoutInSeconds = ontologyCacheTimeoutInSeconds;
     }
 
+    public static int getSecurityCacheMaxEntries() {
+        return securityCacheMaxEntries;
+    }
+
+    public static void setSecurityCacheMaxEntries(int securityCacheMaxEntries) {
+        VitamConfiguration.securityCacheMaxEntries = securityCacheMaxEntries;
+    }
+
+    public static int getSecurityCacheTimeoutInSeconds() {
+        return securityCacheTimeoutInSeconds;
+    }
+
+    public static void setSecurityCacheTimeoutInSeconds(int securityCacheTimeoutInSeconds) {
+        VitamConfiguration.securityCacheTimeoutInSeconds = securityCacheTimeoutInSeconds;
+    }
+
+    public static int getSecurityCacheVersionRefreshInSeconds() {
+        return securityCacheVersionRefreshInSeconds;
+    }
+
+    public static void setSecurityCacheVersionRefreshInSeconds(int securityCacheVersionRefreshInSeconds) {
+        VitamConfiguration.securityCacheVersionRefreshInSeconds = securityCacheVersionRefreshInSeconds;
+    }
+
+    public static int getElasticsearchScrollSlices() {
+        return elasticsearchScrollSlices;
+    }
+
+    public static void setElasticsearchScrollSlices(int elasticsearchScrollSlices) {
+        VitamConfiguration.elasticsearchScrollSlices = elasticsearchScrollSlices;
+    }
+
+    public static int getIngestMapMaxEntriesInMemory() {
+        return ingestMapMaxEntriesInMemory;
+    }
+
+    public static void setIngestMapMaxEntriesInMemory(int ingestMapMaxEntriesInMemory) {
+        VitamConfiguration.ingestMapMaxEntriesInMemory = ingestMapMaxEntriesInMemory;
+    }
+
     /**
      * @param vitamConfiguration
      */
@@ -992,6 +1051,26 @@ public class VitamConfiguration {
         if (null != parameters.getOntologyCacheTimeoutInSeconds()) {
             setOntologyCacheTimeoutInSeconds(parameters.getOntologyCacheTimeoutInSeconds());
         }
+
+        if (null != parameters.getSecurityCacheMaxEntries()) {
+            setSecurityCacheMaxEntries(parameters.getSecurityCacheMaxEntries());
+        }
+
+        if (null != parameters.getSecurityCacheTimeoutInSeconds()) {
+            setSecurityCacheTimeoutInSeconds(parameters.getSecurityCacheTimeoutInSeconds());
+        }
+
+        if (null != parameters.getSecurityCacheVersionRefreshInSeconds()) {
+            setSecurityCacheVersionRefreshInSeconds(parameters.getSecurityCacheVersionRefreshInSeconds());
+        }
+
+        if (null != parameters.getElasticsearchScrollSlices()) {
+            setElasticsearchScrollSlices(parameters.getElasticsearchScrollSlices());
+        }
+
+        if (null != parameters.getIngestMapMaxEntriesInMemory()) {
+            setIngestMapMaxEntriesInMemory(parameters.getIngestMapMaxEntriesInMemory());
+        }
     }
 
     /**
@@ -339,6 +339,16 @@ public class VitamConfigurationParameters {
 
     private Integer ontologyCacheTimeoutInSeconds = 300;
 
+    private Integer securityCacheMaxEntries;
+
+    private Integer securityCacheTimeoutInSeconds;
+
+    private Integer securityCacheVersionRefreshInSeconds;
+
+    private Integer elasticsearchScrollSlices;
+
+    private Integer ingestMapMaxEntriesInMemory;
+
     /**
      * VitamData empty constructor for YAMLFactory
      */
@@ -1385,4 +1395,44 @@ public class VitamConfigurationParameters {
     public void setOntologyCacheTimeoutInSeconds(int ontologyCacheTimeoutInSeconds) {
         this.ontologyCacheTimeoutInSeconds = ontologyCacheTimeoutInSeconds;
     }
+
+    public Integer getSecurityCacheMaxEntries() {
+        return securityCacheMaxEntries;
+    }
+
+    public void setSecurityCacheMaxEntries(Integer securityCacheMaxEntries) {
+        this.securityCacheMaxEntries = securityCacheMaxEntries;
+    }
+
+    public Integer getSecurityCacheTimeoutInSeconds() {
+        return securityCacheTimeoutInSeconds;
+    }
+
+    public void setSecurityCacheTimeoutInSeconds(Integer securityCacheTimeoutInSeconds) {
+        this.securityCacheTimeoutInSeconds = securityCacheTimeoutInSeconds;
+    }
+
+    public Integer getSecurityCacheVersionRefreshInSeconds() {
+        return securityCacheVersionRefreshInSeconds;
+    }
+
+    public void setSecurityCacheVersionRefreshInSeconds(Integer securityCacheVersionRefreshInSeconds) {
+        this.securityCacheVersionRefreshInSeconds = securityCacheVersionRefreshInSeconds;
+    }
+
+    public Integer getElasticsearchScrollSlices() {
+        return elasticsearchScrollSlices;
+    }
+
+    public void setElasticsearchScrollSlices(Integer elasticsearchScrollSlices) {
+        this.elasticsearchScrollSlices = elasticsearchScrollSlices;
+    }
+
+    public Integer getIngestMapMaxEntriesInMemory() {
+        return ingestMapMaxEntriesInMemory;
+    }
+
+    public void setIngestMapMaxEntriesInMemory(Integer ingestMapMaxEntriesInMemory) {
+        this.ingestMapMaxEntriesInMemory = ingestMapMaxEntriesInMemory;
+    }
 }
@@ -29,8 +29,24 @@ package fr.gouv.vitam.common.client;
 import fr.gouv.vitam.common.model.administration.OntologyModel;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @FunctionalInterface
 public interface OntologyLoader {
     List<OntologyModel> loadOntologies();
+
+    /**
+     * @return ontologies indexed by identifier
+     */
+    default Map<String, OntologyModel> loadOntologiesByIdentifier() {
+        return loadOntologies().stream().collect(Collectors.toMap(OntologyModel::getIdentifier, o -> o));
+    }
+
+    /**
+     * @return a value that changes each time the ontologies are modified, or null if the loader cannot tell
+     */
+    default String loadOntologiesVersion() {
+        return null;
+    }
 }
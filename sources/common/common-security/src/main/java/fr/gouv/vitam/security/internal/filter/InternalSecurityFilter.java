@@ -43,6 +43,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
@@ -51,11 +52,16 @@ import fr.gouv.vitam.common.ServerIdentity;
 import fr.gouv.vitam.common.StringUtils;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.auth.web.filter.CertUtils;
+import fr.gouv.vitam.common.cache.ReferentialLookupCache;
+import fr.gouv.vitam.common.database.builder.request.single.Select;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.error.VitamCode;
 import fr.gouv.vitam.common.error.VitamCodeHelper;
 import fr.gouv.vitam.common.error.VitamError;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
-import fr.gouv.vitam.common.exception.VitamClientInternalException;
+import fr.gouv.vitam.common.exception.VitamException;
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.RequestResponse;
@@ -69,7 +75,6 @@ import fr.gouv.vitam.functional.administration.common.exception.AdminManagementC
 import fr.gouv.vitam.functional.administration.common.exception.ReferentialNotFoundException;
 import fr.gouv.vitam.security.internal.client.InternalSecurityClient;
 import fr.gouv.vitam.security.internal.client.InternalSecurityClientFactory;
-import fr.gouv.vitam.security.internal.common.exception.InternalSecurityException;
 import fr.gouv.vitam.security.internal.common.model.IdentityModel;
 import fr.gouv.vitam.security.internal.exception.VitamSecurityException;
 
@@ -94,10 +99,28 @@ public class InternalSecurityFilter implements ContainerRequestFilter {
 
     private AdminManagementClientFactory adminManagementClientFactory;
 
+    private static final String IDENTITIES_VERSION = "Identities";
+    private static final String CONTEXTS_VERSION = "Contexts";
+
+    /**
+     * Identities by certificate fingerprint and active contexts by identifier, tagged with the version of their
+     * referential : an entry is read again as soon as any certificate (addition, context link, revocation) or any
+     * context is changed. Versions are read at most once every securityCacheVersionRefreshInSeconds, so that a
+     * request served from cache does not make any remote call.
+     */
+    private final ReferentialLookupCache<String, IdentityModel> identityCache;
+    private final ReferentialLookupCache<String, ContextModel> contextCache;
+    private final ReferentialLookupCache<String, String> versionCache;
+    private final ObjectNode selectContextsVersion;
+
     public InternalSecurityFilter() {
         super();
         this.internalSecurityClientFactory = InternalSecurityClientFactory.getInstance();
         this.adminManagementClientFactory = AdminManagementClientFactory.getInstance();
+        this.identityCache = createIdentityCache();
+        this.contextCache = createContextCache();
+        this.versionCache = createVersionCache();
+        this.selectContextsVersion = getSelectContextsVersion();
     }
 
     @VisibleForTesting
@@ -107,6 +130,40 @@ public class InternalSecurityFilter implements ContainerRequestFilter {
         this.httpServletRequest = httpServletRequest;
         this.internalSecurityClientFactory = internalSecurityClientFactory;
         this.adminManagementClientFactory = adminManagementClientFactory;
+        this.identityCache = createIdentityCache();
+        this.contextCache = createContextCache();
+        this.versionCache = createVersionCache();
+        this.selectContextsVersion = getSelectContextsVersion();
+    }
+
+    private static ReferentialLookupCache<String, IdentityModel> createIdentityCache() {
+        return new ReferentialLookupCache<>("Security identity", VitamConfiguration.getSecurityCacheMaxEntries(),
+            VitamConfiguration.getSecurityCacheTimeoutInSeconds());
+    }
+
+    private static ReferentialLookupCache<String, ContextModel> createContextCache() {
+        return new ReferentialLookupCache<>("Security context", VitamConfiguration.getSecurityCacheMaxEntries(),
+            VitamConfiguration.getSecurityCacheTimeoutInSeconds());
+    }
+
+    private static ReferentialLookupCache<String, String> createVersionCache() {
+        return new ReferentialLookupCache<>("Security referential version", 2,
+            VitamConfiguration.getSecurityCacheVersionRefreshInSeconds());
+    }
+
+    /**
+     * Select the last updated context only : any change of a context changes either the total or the last update date
+     */
+    private static ObjectNode getSelectContextsVersion() {
+        try {
+            Select select = new Select();
+            select.setLimitFilter(0, 1);
+            select.addOrderByDescFilter(ContextModel.TAG_LAST_UPDATE);
+            select.addUsedProjection(ContextModel.TAG_LAST_UPDATE);
+            return select.getFinalSelect();
+        } catch (InvalidParseOperationException e) {
+            throw new VitamRuntimeException(e);
+        }
     }
 
     @Override
@@ -127,13 +184,13 @@ public class InternalSecurityFilter implements ContainerRequestFilter {
 
         final X509Certificate cert = clientCertChain[0];
 
-        try (InternalSecurityClient internalSecurityClient = internalSecurityClientFactory.getClient()) {
-            Optional<IdentityModel> result = internalSecurityClient.findIdentity(cert.getEncoded());
-
-            IdentityModel identityModel = result
-                .orElseThrow(() -> new VitamSecurityException("Certificate revoked or not found in database."));
+        try {
+            IdentityModel identityModel = getIdentity(cert.getEncoded());
+            if (identityModel == null) {
+                throw new VitamSecurityException("Certificate revoked or not found in database.");
+            }
 
-            final ContextModel contextModel = getContext(identityModel);
+            final ContextModel contextModel = getCachedContext(identityModel.getContextId());
             String uri = requestContext.getUriInfo().getPath();
 
             if (null == uri) {
@@ -158,8 +215,7 @@ public class InternalSecurityFilter implements ContainerRequestFilter {
             VitamThreadUtils.getVitamSession()
                 .setSecurityProfileIdentifier(contextModel.getSecurityProfileIdentifier());
 
-        } catch (VitamClientInternalException | InternalSecurityException |
-            CertificateEncodingException | VitamSecurityException e) {
+        } catch (VitamException | CertificateEncodingException | VitamSecurityException e) {
 
             LOGGER.error("Security Error :", e);
             final VitamError vitamError = generateVitamError(e);
@@ -265,12 +321,88 @@ public class InternalSecurityFilter implements ContainerRequestFilter {
     }
 
     /**
-     * Get context model from database and set it to VitamSecurityContext
+     * Get identity model of the certificate from cache if no certificate changed since it was read, else from database
+     *
+     * @param certificate encoded certificate
+     * @return the identity, or null if the certificate is not found
+     */
+    private IdentityModel getIdentity(byte[] certificate) throws VitamException {
+        String version = versionCache.get(IDENTITIES_VERSION, key -> readIdentitiesVersion());
+        if (version == null) {
+            return findIdentity(certificate);
+        }
+        final String fingerprint = new Digest(DigestType.SHA256).update(certificate).digestHex();
+        return identityCache.get(fingerprint, version, key -> findIdentity(certificate));
+    }
+
+    private IdentityModel findIdentity(byte[] certificate) throws VitamException {
+        try (InternalSecurityClient internalSecurityClient = internalSecurityClientFactory.getClient()) {
+            Optional<IdentityModel> result = internalSecurityClient.findIdentity(certificate);
+            return result.orElse(null);
+        }
+    }
+
+    /**
+     * @return the version of the identities, null if it can not be read
+     */
+    private String readIdentitiesVersion() {
+        try (InternalSecurityClient internalSecurityClient = internalSecurityClientFactory.getClient()) {
+            return internalSecurityClient.getIdentitiesVersion();
+        } catch (VitamException e) {
+            LOGGER.warn("Could not read identities version, identity is read from database", e);
+            return null;
+        }
+    }
+
+    /**
+     * Get active context model from cache if the context referential did not change since it was read, else from
+     * database
+     *
+     * @param contextId
+     */
+    private ContextModel getCachedContext(String contextId) {
+        String version = versionCache.get(CONTEXTS_VERSION, key -> readContextsVersion());
+        if (version == null) {
+            return getContext(contextId);
+        }
+        return contextCache.get(contextId, version, this::getContext);
+    }
+
+    /**
+     * @return the version of the context referential (count and last update date), null if it can not be read
+     */
+    private String readContextsVersion() {
+        try (AdminManagementClient adminManagementClient = adminManagementClientFactory.getClient()) {
+            RequestResponse<ContextModel> response = adminManagementClient.findContexts(selectContextsVersion);
+            if (response == null || !response.isOk()) {
+                return null;
+            }
+            RequestResponseOK<ContextModel> responseOK = (RequestResponseOK<ContextModel>) response;
+            if (responseOK.getHits() == null) {
+                return null;
+            }
+            String lastUpdate = responseOK.getResults().isEmpty() ? "" : responseOK.getFirstResult().getLastupdate();
+            return responseOK.getHits().getTotal() + "@" + lastUpdate;
+        } catch (InvalidParseOperationException | AdminManagementClientServerException e) {
+            LOGGER.warn("Could not read context referential version, context is read from database", e);
+            return null;
+        }
+    }
+
+    /**
+     * Forget the referential versions already read, as if the refresh delay was elapsed
+     */
+    @VisibleForTesting
+    void refreshVersions() {
+        versionCache.invalidateAll();
+    }
+
+    /**
+     * Get active context model from database
      *
-     * @param identityModel
+     * @param contextId
      */
-    private ContextModel getContext(IdentityModel identityModel) {
-        final String contextId = identityModel.getContextId();
+    private ContextModel getContext(String contextId) {
         try (AdminManagementClient adminManagementClient = adminManagementClientFactory.getClient()) {
             RequestResponse<ContextModel>
                 contextResponse = adminManagementClient.findContextById(contextId);
@@ -4,7 +4,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -67,7 +70,9 @@ import fr.gouv.vitam.common.thread.RunWithCustomExecutor;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutorRule;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.common.exception.AdminManagementClientServerException;
 import fr.gouv.vitam.security.internal.client.InternalSecurityClient;
+import fr.gouv.vitam.security.internal.common.exception.InternalSecurityException;
 import fr.gouv.vitam.security.internal.common.model.IdentityModel;
 import fr.gouv.vitam.security.internal.exception.VitamSecurityException;
 import sun.misc.BASE64Encoder;
@@ -127,6 +132,8 @@ public class InternalSecurityFilterTest {
         adminManagementClient = mock(AdminManagementClient.class);
         when(internalSecurityClientFactory.getClient()).thenReturn(internalSecurityClient);
         when(adminManagementClientFactory.getClient()).thenReturn(adminManagementClient);
+        when(adminManagementClient.findContexts(any())).thenReturn(getContextsVersion(1, "2019-01-01T00:00:00.000"));
+        when(internalSecurityClient.getIdentitiesVersion()).thenReturn("identities-1");
 
         internalSecurityFilter =
             new InternalSecurityFilter(httpServletRequest, internalSecurityClientFactory, adminManagementClientFactory);
@@ -443,6 +450,189 @@ public class InternalSecurityFilterTest {
     }
 
 
+    /**
+     * When the same certificate is used twice then identity, context and referential versions are read once
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenSameCertificateTwiceThenNoRemoteCallOnSecondRequest() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any())).thenReturn(getIdentityModel(cert));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+
+        internalSecurityFilter.filter(containerRequestContext);
+        internalSecurityFilter.filter(containerRequestContext);
+
+        verify(internalSecurityClient, times(1)).findIdentity(any());
+        verify(internalSecurityClient, times(1)).getIdentitiesVersion();
+        verify(adminManagementClient, times(1)).findContextById(FAKE_CONTEXT_ID);
+        verify(adminManagementClient, times(1)).findContexts(any());
+    }
+
+    /**
+     * When the certificate is revoked then the next request is refused
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenCertificateRevokedThenRefusedOnNextRequest() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any()))
+            .thenReturn(getIdentityModel(cert))
+            .thenReturn(Optional.empty());
+        when(internalSecurityClient.getIdentitiesVersion())
+            .thenReturn("identities-1")
+            .thenReturn("identities-2");
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+
+        internalSecurityFilter.filter(containerRequestContext);
+        internalSecurityFilter.refreshVersions();
+        assertThatThrownBy(() -> internalSecurityFilter.filter(containerRequestContext))
+            .isInstanceOf(VitamSecurityException.class);
+    }
+
+    /**
+     * When a context is updated then the context is read again on next request
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenContextReferentialChangedThenContextQueriedAgain() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any())).thenReturn(getIdentityModel(cert));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null))
+            .thenReturn(getTestContext(ContextStatus.INACTIVE, true, "fakeAccessContract", null));
+        when(adminManagementClient.findContexts(any()))
+            .thenReturn(getContextsVersion(1, "2019-01-01T00:00:00.000"))
+            .thenReturn(getContextsVersion(1, "2019-01-01T00:00:01.000"));
+
+        internalSecurityFilter.filter(containerRequestContext);
+        internalSecurityFilter.refreshVersions();
+        assertThatThrownBy(() -> internalSecurityFilter.filter(containerRequestContext))
+            .isInstanceOf(VitamSecurityException.class);
+
+        verify(adminManagementClient, times(2)).findContextById(FAKE_CONTEXT_ID);
+    }
+
+    /**
+     * When the context referential version can not be read then the context is not taken from cache
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenContextsVersionUnavailableThenContextQueriedEachTime() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any())).thenReturn(getIdentityModel(cert));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+        when(adminManagementClient.findContexts(any())).thenThrow(new AdminManagementClientServerException("KO"));
+
+        internalSecurityFilter.filter(containerRequestContext);
+        internalSecurityFilter.filter(containerRequestContext);
+
+        verify(adminManagementClient, times(2)).findContextById(FAKE_CONTEXT_ID);
+    }
+
+    /**
+     * When the identities version can not be read then the identity is not taken from cache
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenIdentitiesVersionUnavailableThenIdentityQueriedEachTime() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any())).thenReturn(getIdentityModel(cert));
+        when(internalSecurityClient.getIdentitiesVersion()).thenThrow(new InternalSecurityException("KO"));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+
+        internalSecurityFilter.filter(containerRequestContext);
+        internalSecurityFilter.filter(containerRequestContext);
+
+        verify(internalSecurityClient, times(2)).findIdentity(any());
+    }
+
+    private RequestResponse<ContextModel> getContextsVersion(long total, String lastUpdate) {
+        ContextModel contextModel = new ContextModel();
+        contextModel.setLastupdate(lastUpdate);
+        return new RequestResponseOK<ContextModel>().addResult(contextModel).setHits(total, 0, 1, 1);
+    }
+
+    /**
+     * When the certificate is not found then the next request looks it up again
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenCertificateNotFoundThenNotCached() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any()))
+            .thenReturn(Optional.empty())
+            .thenReturn(getIdentityModel(cert));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+
+        assertThatThrownBy(() -> internalSecurityFilter.filter(containerRequestContext))
+            .isInstanceOf(VitamSecurityException.class);
+        internalSecurityFilter.filter(containerRequestContext);
+
+        verify(internalSecurityClient, times(2)).findIdentity(any());
+    }
+
+    /**
+     * When the context is inactive then the next request looks it up again
+     * @throws Exception
+     */
+    @Test
+    @RunWithCustomExecutor
+    public void whenContextInactivatedThenNotCached() throws Exception {
+        when(httpServletRequest.getAttribute("javax.servlet.request.X509Certificate"))
+            .thenReturn(new X509Certificate[] {cert});
+        when(httpServletRequest.getHeader(GlobalDataRest.X_TENANT_ID)).thenReturn(TENANT_ID.toString());
+
+        when(internalSecurityClient.findIdentity(any())).thenReturn(getIdentityModel(cert));
+        when(uriInfo.getPath()).thenReturn("/otherUri");
+        when(adminManagementClient.findContextById(anyString()))
+            .thenReturn(getTestContext(ContextStatus.INACTIVE, true, "fakeAccessContract", null))
+            .thenReturn(getTestContext(ContextStatus.ACTIVE, true, "fakeAccessContract", null));
+
+        assertThatThrownBy(() -> internalSecurityFilter.filter(containerRequestContext))
+            .isInstanceOf(VitamSecurityException.class);
+        internalSecurityFilter.filter(containerRequestContext);
+
+        verify(internalSecurityClient, times(1)).findIdentity(any());
+        verify(adminManagementClient, times(2)).findContextById(FAKE_CONTEXT_ID);
+    }
+
+
     /**
      * Get Fake Context Model for test
      * @param status
@@ -26,9 +26,13 @@
  */
 package fr.gouv.vitam.common.storage;
 
+import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
+import fr.gouv.vitam.common.storage.cas.container.api.PostWriteVerification;
 import fr.gouv.vitam.common.storage.tapelibrary.TapeLibraryConfiguration;
 
+import java.util.List;
+
 /**
  * Storage configuration Contains all configuration items for storage offers
  */
@@ -110,12 +114,44 @@ public class StorageConfiguration extends DefaultVitamApplicationConfiguration {
      * S3 client execution timeout
      */
     private int s3ClientExecutionTimeout;
+    /**
+     * S3 part size for multipart uploads, objects bigger than this size are uploaded by parts (64 MB when not set)
+     */
+    private long s3MultipartPartSize;
+    /**
+     * Swift segment size for parallel segment uploads. When not set, big objects are uploaded by sequential segments
+     * of the swift file limit size
+     */
+    private long swiftSegmentSize;
+    /**
+     * Max number of parts / segments of an object uploaded at the same time (4 when not set)
+     */
+    private int uploadParallelism;
+    /**
+     * Max memory (in bytes) of the part / segment buffers of all uploads running at the same time (512 MB when not
+     * set)
+     */
+    private long uploadBufferPoolMaxSize;
+    /**
+     * Verification of written objects (FULL_READ_BACK when not set)
+     */
+    private PostWriteVerification postWriteVerification;
+    /**
+     * Rate of written objects read back with SAMPLED_READ_BACK verification
+     */
+    private double postWriteVerificationSampleRate;
 
     /**
      * Tape library configuration
      */
     private TapeLibraryConfiguration tapeLibraryConfiguration;
 
+    /**
+     * Workspace : digest algorithms computed on the entries of an archive while it is extracted. Defaults to the
+     * platform digest algorithm when not set, an empty list disables the computation.
+     */
+    private List<DigestType> extractionDigestTypes;
+
     /**
      * @return the swiftUrl
      */
@@ -458,4 +494,67 @@ public class StorageConfiguration extends DefaultVitamApplicationConfiguration {
         this.tapeLibraryConfiguration = tapeLibraryConfiguration;
         return this;
     }
+
+    public List<DigestType> getExtractionDigestTypes() {
+        return extractionDigestTypes;
+    }
+
+    public StorageConfiguration setExtractionDigestTypes(List<DigestType> extractionDigestTypes) {
+        this.extractionDigestTypes = extractionDigestTypes;
+        return this;
+    }
+
+    public long getS3MultipartPartSize() {
+        return s3MultipartPartSize;
+    }
+
+    public StorageConfiguration setS3MultipartPartSize(long s3MultipartPartSize) {
+        this.s3MultipartPartSize = s3MultipartPartSize;
+        return this;
+    }
+
+    public long getSwiftSegmentSize() {
+        return swiftSegmentSize;
+    }
+
+    public StorageConfiguration setSwiftSegmentSize(long swiftSegmentSize) {
+        this.swiftSegmentSize = swiftSegmentSize;
+        return this;
+    }
+
+    public int getUploadParallelism() {
+        return uploadParallelism;
+    }
+
+    public StorageConfiguration setUploadParallelism(int uploadParallelism) {
+        this.uploadParallelism = uploadParallelism;
+        return this;
+    }
+
+    public long getUploadBufferPoolMaxSize() {
+        return uploadBufferPoolMaxSize;
+    }
+
+    public StorageConfiguration setUploadBufferPoolMaxSize(long uploadBufferPoolMaxSize) {
+        this.uploadBufferPoolMaxSize = uploadBufferPoolMaxSize;
+        return this;
+    }
+
+    public PostWriteVerification getPostWriteVerification() {
+        return postWriteVerification;
+    }
+
+    public StorageConfiguration setPostWriteVerification(PostWriteVerification postWriteVerification) {
+        this.postWriteVerification = postWriteVerification;
+        return this;
+    }
+
+    public double getPostWriteVerificationSampleRate() {
+        return postWriteVerificationSampleRate;
+    }
+
+    public StorageConfiguration setPostWriteVerificationSampleRate(double postWriteVerificationSampleRate) {
+        this.postWriteVerificationSampleRate = postWriteVerificationSampleRate;
+        return this;
+    }
 }
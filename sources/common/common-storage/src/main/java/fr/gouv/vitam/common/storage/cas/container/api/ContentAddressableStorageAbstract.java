@@ -28,12 +28,15 @@ package fr.gouv.vitam.common.storage.cas.container.api;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.performance.PerformanceLogger;
 import fr.gouv.vitam.common.storage.StorageConfiguration;
 import fr.gouv.vitam.common.storage.constants.ErrorMessage;
+import fr.gouv.vitam.common.storage.utils.PartBufferPool;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.api.exception.UnavailableFileException;
@@ -43,6 +46,7 @@ import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -50,12 +54,16 @@ import java.util.concurrent.TimeUnit;
  */
 public abstract class ContentAddressableStorageAbstract implements ContentAddressableStorage {
 
+    private static final long DEFAULT_UPLOAD_BUFFER_POOL_MAX_SIZE = 512L * 1024 * 1024;
+
     private static boolean disableContainerCaching = false;
 
     private final Set<String> existingContainer = Collections.synchronizedSet(new HashSet<>());
 
     private final StorageConfiguration configuration;
 
+    private final Supplier<PartBufferPool> partBufferPool = Suppliers.memoize(this::createPartBufferPool);
+
     /**
      * Max result for listing option TODO: have to be configurable ?
      */
@@ -69,6 +77,18 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
         return configuration;
     }
 
+    /**
+     * @return the part buffer pool shared by all the parallel uploads of this storage
+     */
+    protected PartBufferPool getPartBufferPool() {
+        return partBufferPool.get();
+    }
+
+    private PartBufferPool createPartBufferPool() {
+        return new PartBufferPool(configuration.getUploadBufferPoolMaxSize() > 0 ?
+            configuration.getUploadBufferPoolMaxSize() : DEFAULT_UPLOAD_BUFFER_POOL_MAX_SIZE);
+    }
+
     protected String computeObjectDigest(String containerName, String objectName, DigestType algo)
             throws ContentAddressableStorageException {
 
@@ -88,6 +108,40 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
         }
     }
 
+    /**
+     * Verifies a just written object according to the configured post write verification.
+     *
+     * @param containerName the container name
+     * @param objectName the object name
+     * @param digestType the digest type
+     * @param streamDigest the digest computed while writing the object
+     * @throws ContentAddressableStorageException when the read back digest does not match the stream digest
+     */
+    protected void verifyWrittenObject(String containerName, String objectName, DigestType digestType,
+        String streamDigest) throws ContentAddressableStorageException {
+        PostWriteVerification verification = configuration.getPostWriteVerification() != null ?
+            configuration.getPostWriteVerification() : PostWriteVerification.FULL_READ_BACK;
+        switch (verification) {
+            case PART_CHECKSUM:
+                return;
+            case SAMPLED_READ_BACK:
+                if (ThreadLocalRandom.current().nextDouble() >= configuration.getPostWriteVerificationSampleRate()) {
+                    return;
+                }
+                break;
+            case FULL_READ_BACK:
+            default:
+                break;
+        }
+
+        String computedDigest = computeObjectDigest(containerName, objectName, digestType);
+        if (!streamDigest.equals(computedDigest)) {
+            throw new ContentAddressableStorageException(
+                "Illegal state for container " + containerName + " and object " + objectName + ". Stream digest "
+                    + streamDigest + " is not equal to computed digest " + computedDigest);
+        }
+    }
+
     /**
      * Determines if a container exists in cache
      *
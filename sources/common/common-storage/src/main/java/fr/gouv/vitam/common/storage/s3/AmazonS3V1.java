@@ -37,15 +37,20 @@ import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.internal.BucketNameUtils;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import fr.gouv.vitam.common.ParametersChecker;
@@ -63,6 +68,7 @@ import fr.gouv.vitam.common.storage.cas.container.api.ObjectContent;
 import fr.gouv.vitam.common.storage.cas.container.api.VitamPageSet;
 import fr.gouv.vitam.common.storage.cas.container.api.VitamStorageMetadata;
 import fr.gouv.vitam.common.storage.constants.ErrorMessage;
+import fr.gouv.vitam.common.storage.utils.ParallelPartUploader;
 import fr.gouv.vitam.common.stream.SizedInputStream;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
@@ -74,6 +80,7 @@ import org.apache.http.ssl.SSLContexts;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -97,6 +104,11 @@ public class AmazonS3V1 extends ContentAddressableStorageAbstract {
     private static final String X_OBJECT_META_DIGEST_TYPE = "Digest-Type";
     private static final HostnameVerifier ALLOW_ALL_HOSTNAME_VERIFIER = NoopHostnameVerifier.INSTANCE;
 
+    private static final long DEFAULT_MULTIPART_PART_SIZE = 64L * 1024 * 1024;
+    private static final long MAX_MULTIPART_PART_SIZE = 1024L * 1024 * 1024;
+    private static final long MAX_MULTIPART_PARTS = 10_000L;
+    private static final int DEFAULT_UPLOAD_PARALLELISM = 4;
+
     /**
      * Amazon SDK S3 V1 client
      */
@@ -220,7 +232,12 @@ public class AmazonS3V1 extends ContentAddressableStorageAbstract {
         Digest digest = new Digest(digestType);
         InputStream digestInputStream = digest.getDigestInputStream(sis);
 
-        storeObject(containerName, objectName, digestInputStream, size, bucketName);
+        int partSize = getMultipartPartSize(size);
+        if (size > partSize) {
+            storeObjectByParts(containerName, objectName, digestInputStream, size, partSize, bucketName);
+        } else {
+            storeObject(containerName, objectName, digestInputStream, size, bucketName);
+        }
 
         String streamDigest = digest.digestHex();
 
@@ -229,12 +246,7 @@ public class AmazonS3V1 extends ContentAddressableStorageAbstract {
                 "Illegal state. Stream size " + sis.getSize() + " did not match expected size " + size);
         }
 
-        String computedDigest = computeObjectDigest(containerName, objectName, digestType);
-        if (!streamDigest.equals(computedDigest)) {
-            throw new ContentAddressableStorageException(
-                "Illegal state for container " + containerName + " and object " + objectName + ". Stream digest "
-                    + streamDigest + " is not equal to computed digest " + computedDigest);
-        }
+        verifyWrittenObject(containerName, objectName, digestType, streamDigest);
 
         storeDigest(containerName, objectName, digestType, streamDigest, bucketName);
 
@@ -273,6 +285,98 @@ public class AmazonS3V1 extends ContentAddressableStorageAbstract {
         }
     }
 
+    private int getMultipartPartSize(long size) {
+        long partSize = getConfiguration().getS3MultipartPartSize() > 0 ?
+            getConfiguration().getS3MultipartPartSize() : DEFAULT_MULTIPART_PART_SIZE;
+        // S3 allows at most 10 000 parts by upload
+        partSize = Math.max(partSize, (size + MAX_MULTIPART_PARTS - 1) / MAX_MULTIPART_PARTS);
+        return (int) Math.min(partSize, MAX_MULTIPART_PART_SIZE);
+    }
+
+    private void storeObjectByParts(String containerName, String objectName, InputStream stream, long size,
+        int partSize, String bucketName)
+        throws ContentAddressableStorageServerException, ContentAddressableStorageNotFoundException {
+        Stopwatch times = Stopwatch.createStarted();
+        String uploadId = null;
+        boolean completed = false;
+        try {
+            uploadId = client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, objectName))
+                .getUploadId();
+            final String currentUploadId = uploadId;
+            int parallelism = getConfiguration().getUploadParallelism() > 0 ?
+                getConfiguration().getUploadParallelism() : DEFAULT_UPLOAD_PARALLELISM;
+
+            List<PartETag> partETags = ParallelPartUploader.upload(stream, size, partSize, parallelism,
+                getPartBufferPool(), (partNumber, buffer, length) -> uploadPart(containerName, objectName, bucketName, currentUploadId,
+                    partNumber, buffer, length));
+
+            client.completeMultipartUpload(
+                new CompleteMultipartUploadRequest(bucketName, objectName, uploadId, partETags));
+            completed = true;
+        } catch (AmazonServiceException e) {
+            LOGGER.debug(
+                String.format("Error when trying to upload object %s in container %s. Reason: errorMessage=%s",
+                    objectName, containerName, e.getMessage()),
+                e);
+            if (AmazonS3APIErrorCodes.NO_SUCH_BUCKET.getErrorCode().equals(e.getErrorCode())) {
+                throw new ContentAddressableStorageNotFoundException(
+                    "Error when trying to upload object : container does not exists", e);
+            } else {
+                throw new ContentAddressableStorageServerException("Error when trying to upload object", e);
+            }
+        } catch (SdkBaseException e) {
+            LOGGER.debug(
+                String.format("Error when trying to upload object %s in container %s. Reason: errorMessage=%s",
+                    objectName, containerName, e.getMessage()),
+                e);
+            throw new ContentAddressableStorageServerException("Error when trying to upload object", e);
+        } catch (ContentAddressableStorageServerException | ContentAddressableStorageNotFoundException e) {
+            throw e;
+        } catch (ContentAddressableStorageException e) {
+            throw new ContentAddressableStorageServerException("Error when trying to upload object", e);
+        } finally {
+            if (!completed && uploadId != null) {
+                abortMultipartUpload(bucketName, objectName, uploadId);
+            }
+            PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(), containerName,
+                "REAL_S3_PUT_OBJECT", times.elapsed(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private PartETag uploadPart(String containerName, String objectName, String bucketName, String uploadId,
+        int partNumber, byte[] buffer, int length) throws ContentAddressableStorageServerException {
+        Stopwatch times = Stopwatch.createStarted();
+        try {
+            // Content-MD5 lets the server reject corrupted parts
+            UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                .withBucketName(bucketName)
+                .withKey(objectName)
+                .withUploadId(uploadId)
+                .withPartNumber(partNumber)
+                .withPartSize(length)
+                .withMD5Digest(new Digest(DigestType.MD5).update(buffer, 0, length).digest64())
+                .withInputStream(new ByteArrayInputStream(buffer, 0, length));
+            return client.uploadPart(uploadPartRequest).getPartETag();
+        } catch (SdkBaseException e) {
+            LOGGER.debug(String.format(
+                "Error when trying to upload part %d of object %s in container %s. Reason: errorMessage=%s",
+                partNumber, objectName, containerName, e.getMessage()), e);
+            throw new ContentAddressableStorageServerException("Error when trying to upload object part", e);
+        } finally {
+            PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(), containerName,
+                "REAL_S3_PUT_OBJECT_PART", times.elapsed(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void abortMultipartUpload(String bucketName, String objectName, String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, objectName, uploadId));
+        } catch (SdkBaseException e) {
+            LOGGER.warn(String.format("Could not abort multipart upload %s of object %s in bucket %s", uploadId,
+                objectName, bucketName), e);
+        }
+    }
+
     private void storeDigest(String containerName, String objectName, DigestType digestType, String digest,
         String bucketName) throws ContentAddressableStorageException {
 
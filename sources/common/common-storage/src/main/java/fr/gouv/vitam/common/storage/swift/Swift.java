@@ -44,6 +44,7 @@ import fr.gouv.vitam.common.storage.cas.container.api.ObjectContent;
 import fr.gouv.vitam.common.storage.cas.container.api.VitamPageSet;
 import fr.gouv.vitam.common.storage.cas.container.api.VitamStorageMetadata;
 import fr.gouv.vitam.common.storage.constants.ErrorMessage;
+import fr.gouv.vitam.common.storage.utils.ParallelPartUploader;
 import fr.gouv.vitam.common.stream.SizedInputStream;
 import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
@@ -77,6 +78,8 @@ public class Swift extends ContentAddressableStorageAbstract {
 
     private static final String X_OBJECT_META_DIGEST = "X-Object-Meta-Digest";
     private static final String X_OBJECT_META_DIGEST_TYPE = "X-Object-Meta-Digest-Type";
+    private static final String ETAG = "ETag";
+    private static final int DEFAULT_UPLOAD_PARALLELISM = 4;
 
     private final Supplier<OSClient> osClient;
 
@@ -153,7 +156,11 @@ public class Swift extends ContentAddressableStorageAbstract {
 
         InputStream autoclose = new VitamAutoCloseInputStream(digestInputStream);
         if (size != null && size > swiftLimit) {
-            bigFile(containerName, objectName, autoclose, size);
+            if (getConfiguration().getSwiftSegmentSize() > 0) {
+                bigFileByParallelSegments(containerName, objectName, autoclose, size);
+            } else {
+                bigFile(containerName, objectName, autoclose, size);
+            }
         } else {
             smallFile(containerName, objectName, autoclose);
         }
@@ -165,19 +172,14 @@ public class Swift extends ContentAddressableStorageAbstract {
                 "Illegal state. Stream size " + sis.getSize() + " did not match expected size " + size);
         }
 
-        String computedDigest = computeObjectDigest(containerName, objectName, digestType);
-        if (!streamDigest.equals(computedDigest)) {
-            throw new ContentAddressableStorageException(
-                "Illegal state for container " + containerName + " and object " + objectName +
-                    ". Stream digest " + streamDigest + " is not equal to computed digest " +
-                    computedDigest);
-        }
+        verifyWrittenObject(containerName, objectName, digestType, streamDigest);
 
         storeDigest(containerName, objectName, digestType, streamDigest);
         return streamDigest;
     }
 
-    private void bigFile(String containerName, String objectName, InputStream stream, Long size) {
+    private void bigFile(String containerName, String objectName, InputStream stream, Long size)
+        throws ContentAddressableStorageServerException {
         Stopwatch times = Stopwatch.createStarted();
         try {
             CountingInputStream segmentInputStream;
@@ -185,7 +187,7 @@ public class Swift extends ContentAddressableStorageAbstract {
             long fileSizeRead = 0;
             Stopwatch segmentTime = Stopwatch.createUnstarted();
             do {
-                final String objectNameToPut = objectName + "/" + i;
+                final String objectNameToPut = getSegmentName(objectName, i);
                 BoundedInputStream boundedInputStream =
                     new BoundedInputStream(stream, swiftLimit);
                 // for prevent closed stream in swift client
@@ -195,10 +197,12 @@ public class Swift extends ContentAddressableStorageAbstract {
 
                 LOGGER.info("number of segment: " + objectNameToPut);
                 // for get the number of byte read to the stream
-                segmentInputStream = new CountingInputStream(autoCloseInputStream);
+                Digest segmentDigest = new Digest(DigestType.MD5);
+                segmentInputStream = new CountingInputStream(segmentDigest.getDigestInputStream(autoCloseInputStream));
                 segmentTime.start();
-                osClient.get().objectStorage().objects()
+                String etag = osClient.get().objectStorage().objects()
                     .put(containerName, objectNameToPut, Payloads.create(segmentInputStream));
+                checkEtag(containerName, objectNameToPut, etag, segmentDigest.digestHex());
                 PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(), containerName,
                     "REAL_SWIFT_PUT_OBJECT_SEGMENT", segmentTime.elapsed(
                         TimeUnit.MILLISECONDS));
@@ -207,14 +211,7 @@ public class Swift extends ContentAddressableStorageAbstract {
                 fileSizeRead = fileSizeRead + segmentInputStream.getByteCount();
             } while (fileSizeRead != size);
 
-            String dloManifest = "";
-            ObjectPutOptions objectPutOptions = ObjectPutOptions.create();
-            objectPutOptions.getOptions().put("X-Object-Manifest", containerName + "/" + objectName + "/");
-            osClient.get().objectStorage().objects().put(
-                containerName,
-                objectName,
-                Payloads.create(new VitamAutoCloseInputStream(new ByteArrayInputStream(dloManifest.getBytes()))),
-                objectPutOptions);
+            putManifest(containerName, objectName);
         } finally {
             StreamUtils.closeSilently(stream);
             PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(), containerName,
@@ -223,10 +220,78 @@ public class Swift extends ContentAddressableStorageAbstract {
 
     }
 
-    private void smallFile(String containerName, String objectName, InputStream stream) {
+    /**
+     * Segments are read in bounded buffers and several of them are sent at the same time. Each segment is sent with
+     * its MD5 ETag, so that swift rejects a corrupted segment.
+     */
+    private void bigFileByParallelSegments(String containerName, String objectName, InputStream stream, Long size)
+        throws ContentAddressableStorageException {
+        Stopwatch times = Stopwatch.createStarted();
+        try {
+            int segmentSize = (int) Math.min(Math.min(swiftLimit, getConfiguration().getSwiftSegmentSize()),
+                Integer.MAX_VALUE - 8);
+            int parallelism = getConfiguration().getUploadParallelism() > 0 ?
+                getConfiguration().getUploadParallelism() : DEFAULT_UPLOAD_PARALLELISM;
+
+            ParallelPartUploader.upload(stream, size, segmentSize, parallelism, getPartBufferPool(),
+                (partNumber, buffer, length) -> {
+                    Stopwatch segmentTime = Stopwatch.createStarted();
+                    final String objectNameToPut = getSegmentName(objectName, partNumber);
+                    String md5 = new Digest(DigestType.MD5).update(buffer, 0, length).digestHex();
+                    ObjectPutOptions segmentPutOptions = ObjectPutOptions.create();
+                    segmentPutOptions.getOptions().put(ETAG, md5);
+                    String etag = osClient.get().objectStorage().objects().put(containerName, objectNameToPut,
+                        Payloads.create(new ByteArrayInputStream(buffer, 0, length)), segmentPutOptions);
+                    checkEtag(containerName, objectNameToPut, etag, md5);
+                    PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(),
+                        containerName, "REAL_SWIFT_PUT_OBJECT_SEGMENT", segmentTime.elapsed(TimeUnit.MILLISECONDS));
+                    return etag;
+                });
+
+            putManifest(containerName, objectName);
+        } finally {
+            StreamUtils.closeSilently(stream);
+            PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(), containerName,
+                "REAL_SWIFT_PUT_OBJECT", times.elapsed(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void putManifest(String containerName, String objectName) {
+        String dloManifest = "";
+        ObjectPutOptions objectPutOptions = ObjectPutOptions.create();
+        objectPutOptions.getOptions().put("X-Object-Manifest", containerName + "/" + objectName + "/");
+        osClient.get().objectStorage().objects().put(
+            containerName,
+            objectName,
+            Payloads.create(new VitamAutoCloseInputStream(new ByteArrayInputStream(dloManifest.getBytes()))),
+            objectPutOptions);
+    }
+
+    /**
+     * Segments are concatenated by the DLO manifest in lexicographic order : segment numbers are zero padded
+     */
+    private static String getSegmentName(String objectName, int segmentNumber) {
+        return String.format("%s/%08d", objectName, segmentNumber);
+    }
+
+    private void checkEtag(String containerName, String objectName, String etag, String md5)
+        throws ContentAddressableStorageServerException {
+        // The ETag is not returned by every swift implementation
+        if (etag != null && !etag.isEmpty() && !etag.equalsIgnoreCase(md5)) {
+            throw new ContentAddressableStorageServerException(
+                "Illegal state for container " + containerName + " and object " + objectName + ". Stream MD5 " + md5 +
+                    " is not equal to ETag " + etag);
+        }
+    }
+
+    private void smallFile(String containerName, String objectName, InputStream stream)
+        throws ContentAddressableStorageServerException {
         Stopwatch times = Stopwatch.createStarted();
         try {
-            osClient.get().objectStorage().objects().put(containerName, objectName, Payloads.create(stream));
+            Digest md5 = new Digest(DigestType.MD5);
+            String etag = osClient.get().objectStorage().objects()
+                .put(containerName, objectName, Payloads.create(md5.getDigestInputStream(stream)));
+            checkEtag(containerName, objectName, etag, md5.digestHex());
         } finally {
             PerformanceLogger.getInstance().log("STP_Offer_" + getConfiguration().getProvider(),
                 containerName, "REAL_SWIFT_PUT_OBJECT", times.elapsed(TimeUnit.MILLISECONDS));
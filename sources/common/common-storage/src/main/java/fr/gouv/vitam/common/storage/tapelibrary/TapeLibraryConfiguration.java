@@ -67,6 +67,21 @@ public class TapeLibraryConfiguration {
      */
     private Integer archiveRetentionCacheTimeoutInMinutes = 30;
 
+    /**
+     * Max disk usage of archive (Tar) files retained in local FS. No limit if not set
+     */
+    private Long archiveRetentionCacheMaxSizeInMB;
+
+    /**
+     * Archive (Tar) files eviction order when max disk usage is exceeded : LRU or LFU
+     */
+    private String archiveRetentionCacheEvictionPolicy = "LRU";
+
+    /**
+     * Read order waiting time after which it is served before orders of the mounted tapes
+     */
+    private Integer readOrderMaxWaitingTimeInMinutes = 60;
+
     /**
      * File bucket & bucket configuration
      */
@@ -166,4 +181,32 @@ public class TapeLibraryConfiguration {
         this.archiveRetentionCacheTimeoutInMinutes = archiveRetentionCacheTimeoutInMinutes;
         return this;
     }
+
+    public Long getArchiveRetentionCacheMaxSizeInMB() {
+        return archiveRetentionCacheMaxSizeInMB;
+    }
+
+    public TapeLibraryConfiguration setArchiveRetentionCacheMaxSizeInMB(Long archiveRetentionCacheMaxSizeInMB) {
+        this.archiveRetentionCacheMaxSizeInMB = archiveRetentionCacheMaxSizeInMB;
+        return this;
+    }
+
+    public String getArchiveRetentionCacheEvictionPolicy() {
+        return archiveRetentionCacheEvictionPolicy;
+    }
+
+    public TapeLibraryConfiguration setArchiveRetentionCacheEvictionPolicy(
+        String archiveRetentionCacheEvictionPolicy) {
+        this.archiveRetentionCacheEvictionPolicy = archiveRetentionCacheEvictionPolicy;
+        return this;
+    }
+
+    public Integer getReadOrderMaxWaitingTimeInMinutes() {
+        return readOrderMaxWaitingTimeInMinutes;
+    }
+
+    public TapeLibraryConfiguration setReadOrderMaxWaitingTimeInMinutes(Integer readOrderMaxWaitingTimeInMinutes) {
+        this.readOrderMaxWaitingTimeInMinutes = readOrderMaxWaitingTimeInMinutes;
+        return this;
+    }
 }
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.storage.utils;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uploads a stream as consecutive parts, several parts being sent at the same time.<br/>
+ * The stream is read sequentially into at most {@code parallelism} part buffers taken from a {@link PartBufferPool}
+ * shared by all uploads, so that the memory used by concurrent uploads is bounded by the pool size and part buffers
+ * are reused from one upload to the next.
+ */
+public final class ParallelPartUploader {
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new VitamThreadFactory());
+
+    private ParallelPartUploader() {
+        // Empty constructor
+    }
+
+    /**
+     * Upload of a single part
+     *
+     * @param <T> the part upload result
+     */
+    @FunctionalInterface
+    public interface PartUploader<T> {
+
+        /**
+         * @param partNumber the part number, starting from 1
+         * @param buffer the part buffer (only valid during the call)
+         * @param length the part length
+         * @return the part upload result
+         * @throws ContentAddressableStorageException on upload error
+         */
+        T upload(int partNumber, byte[] buffer, int length) throws ContentAddressableStorageException;
+    }
+
+    /**
+     * Reads exactly {@code size} bytes from the stream and uploads them by parts.
+     *
+     * @param inputStream the stream to upload
+     * @param size the stream size
+     * @param partSize the size of each part (the last one may be smaller)
+     * @param parallelism max number of parts of this stream uploaded at the same time
+     * @param bufferPool the part buffer pool shared by all uploads
+     * @param partUploader the part upload
+     * @param <T> the part upload result
+     * @return the part upload results, ordered by part number
+     * @throws ContentAddressableStorageException on read or upload error
+     */
+    public static <T> List<T> upload(InputStream inputStream, long size, int partSize, int parallelism,
+        PartBufferPool bufferPool, PartUploader<T> partUploader) throws ContentAddressableStorageException {
+
+        final int nbParts = (int) ((size + partSize - 1) / partSize);
+        final Semaphore uploadSlots = new Semaphore(Math.max(1, parallelism));
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final List<Future<T>> futures = new ArrayList<>(nbParts);
+        boolean completed = false;
+
+        try {
+            long remaining = size;
+            for (int partNumber = 1; partNumber <= nbParts && !failed.get(); partNumber++) {
+
+                uploadSlots.acquire();
+                byte[] buffer;
+                try {
+                    buffer = bufferPool.acquire(partSize);
+                } catch (InterruptedException e) {
+                    uploadSlots.release();
+                    throw e;
+                }
+
+                final int length = (int) Math.min(partSize, remaining);
+                try {
+                    IOUtils.readFully(inputStream, buffer, 0, length);
+                } catch (IOException e) {
+                    bufferPool.release(buffer);
+                    uploadSlots.release();
+                    throw e;
+                }
+                remaining -= length;
+
+                final int currentPartNumber = partNumber;
+                final byte[] currentBuffer = buffer;
+                futures.add(EXECUTOR.submit(() -> {
+                    try {
+                        if (failed.get()) {
+                            // Skipped, the failure is reported by the failed part
+                            return null;
+                        }
+                        return partUploader.upload(currentPartNumber, currentBuffer, length);
+                    } catch (ContentAddressableStorageException | RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        bufferPool.release(currentBuffer);
+                        uploadSlots.release();
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<>(nbParts);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            completed = true;
+            return results;
+
+        } catch (IOException e) {
+            throw new ContentAddressableStorageException("Could not read part from input stream", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContentAddressableStorageException("Interrupted while uploading parts", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ContentAddressableStorageException) {
+                throw (ContentAddressableStorageException) e.getCause();
+            }
+            throw new ContentAddressableStorageException("Could not upload part", e.getCause());
+        } finally {
+            if (!completed) {
+                // Pending parts are skipped, waiting for them ensures that every buffer is back to the shared pool
+                failed.set(true);
+                for (Future<T> future : futures) {
+                    try {
+                        Uninterruptibles.getUninterruptibly(future);
+                    } catch (ExecutionException e) {
+                        // Already failed
+                    }
+                }
+            }
+        }
+    }
+}
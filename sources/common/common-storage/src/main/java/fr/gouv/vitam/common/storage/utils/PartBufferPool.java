@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.storage.utils;
+
+import fr.gouv.vitam.common.ParametersChecker;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pool of part buffers shared by all the parallel uploads of a storage.<br/>
+ * The memory held by the pool (buffers in use and free buffers kept for reuse) is bounded to {@code maxSize} bytes:
+ * when the budget is exhausted, {@link #acquire(int)} first drops free buffers of other sizes, then waits for buffers to
+ * be released. A single buffer bigger than the whole budget is only allocated when no other buffer is held.
+ */
+public final class PartBufferPool {
+
+    private final long maxSize;
+    private final Map<Integer, Deque<byte[]>> freeBuffersBySize = new HashMap<>();
+    private long allocatedSize;
+
+    /**
+     * @param maxSize max memory (in bytes) held by the pool
+     */
+    public PartBufferPool(long maxSize) {
+        ParametersChecker.checkValue("maxSize", maxSize, 1);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get a buffer of exactly {@code size} bytes, reusing a free one when possible. Blocks until the pool budget allows
+     * it.
+     *
+     * @param size the buffer size
+     * @return the buffer, to be given back with {@link #release(byte[])}
+     * @throws InterruptedException if interrupted while waiting for a buffer
+     */
+    public synchronized byte[] acquire(int size) throws InterruptedException {
+        while (true) {
+            Deque<byte[]> freeBuffers = freeBuffersBySize.get(size);
+            if (freeBuffers != null && !freeBuffers.isEmpty()) {
+                return freeBuffers.pop();
+            }
+            if (allocatedSize + size <= maxSize || allocatedSize == 0) {
+                allocatedSize += size;
+                return new byte[size];
+            }
+            if (!dropFreeBuffer()) {
+                wait();
+            }
+        }
+    }
+
+    /**
+     * Give back a buffer obtained with {@link #acquire(int)}.
+     *
+     * @param buffer the buffer
+     */
+    public synchronized void release(byte[] buffer) {
+        freeBuffersBySize.computeIfAbsent(buffer.length, size -> new ArrayDeque<>()).push(buffer);
+        notifyAll();
+    }
+
+    /**
+     * @return the memory (in bytes) currently held by the pool
+     */
+    public synchronized long getAllocatedSize() {
+        return allocatedSize;
+    }
+
+    private boolean dropFreeBuffer() {
+        Iterator<Deque<byte[]>> iterator = freeBuffersBySize.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<byte[]> freeBuffers = iterator.next();
+            if (!freeBuffers.isEmpty()) {
+                allocatedSize -= freeBuffers.pop().length;
+                if (freeBuffers.isEmpty()) {
+                    iterator.remove();
+                }
+                return true;
+            }
+            iterator.remove();
+        }
+        return false;
+    }
+}
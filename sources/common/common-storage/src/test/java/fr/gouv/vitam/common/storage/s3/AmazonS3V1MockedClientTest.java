@@ -38,23 +38,34 @@ import java.io.InputStream;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.amazonaws.SdkBaseException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.junit.FakeInputStream;
 import fr.gouv.vitam.common.storage.StorageConfiguration;
+import fr.gouv.vitam.common.storage.cas.container.api.PostWriteVerification;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -236,4 +247,64 @@ public class AmazonS3V1MockedClientTest {
         }).isInstanceOf(ContentAddressableStorageServerException.class)
                 .hasMessage("Error when trying to list next objects");
     }
+
+    @Test
+    public void upload_big_object_should_upload_parts_and_skip_read_back_when_part_checksum_verification()
+        throws Exception {
+        // Given
+        AmazonS3V1 multipartAmazonS3V1 = new AmazonS3V1(new StorageConfiguration()
+            .setS3MultipartPartSize(1_000L)
+            .setUploadParallelism(2)
+            .setPostWriteVerification(PostWriteVerification.PART_CHECKSUM), amazonS3Client);
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("uploadId");
+        Mockito.when(amazonS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+            .thenReturn(initiateResult);
+        Mockito.when(amazonS3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag" + request.getPartNumber());
+            return result;
+        });
+        Mockito.when(amazonS3Client.copyObject(any(CopyObjectRequest.class))).thenReturn(new CopyObjectResult());
+
+        // When
+        String digest = multipartAmazonS3V1
+            .putObject(CONTAINER_0, OBJECT_ID_0, new FakeInputStream(3_500L), DigestType.SHA512, 3_500L);
+
+        // Then
+        assertThat(digest).isEqualTo(new Digest(DigestType.SHA512).update(new FakeInputStream(3_500L)).digestHex());
+        ArgumentCaptor<UploadPartRequest> partCaptor = ArgumentCaptor.forClass(UploadPartRequest.class);
+        Mockito.verify(amazonS3Client, Mockito.times(4)).uploadPart(partCaptor.capture());
+        assertThat(partCaptor.getAllValues()).extracting(UploadPartRequest::getPartSize)
+            .containsExactlyInAnyOrder(1_000L, 1_000L, 1_000L, 500L);
+        assertThat(partCaptor.getAllValues()).allMatch(request -> request.getMd5Digest() != null);
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor =
+            ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        Mockito.verify(amazonS3Client).completeMultipartUpload(completeCaptor.capture());
+        assertThat(completeCaptor.getValue().getPartETags()).extracting(PartETag::getPartNumber)
+            .containsExactly(1, 2, 3, 4);
+        Mockito.verify(amazonS3Client, Mockito.never()).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    public void upload_big_object_should_abort_multipart_upload_when_part_upload_fails() throws Exception {
+        // Given
+        AmazonS3V1 multipartAmazonS3V1 =
+            new AmazonS3V1(new StorageConfiguration().setS3MultipartPartSize(1_000L), amazonS3Client);
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("uploadId");
+        Mockito.when(amazonS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+            .thenReturn(initiateResult);
+        Mockito.when(amazonS3Client.uploadPart(any(UploadPartRequest.class)))
+            .thenThrow(new SdkBaseException("Client error"));
+
+        // When / Then
+        assertThatThrownBy(() -> multipartAmazonS3V1
+            .putObject(CONTAINER_0, OBJECT_ID_0, new FakeInputStream(3_500L), DigestType.SHA512, 3_500L))
+            .isInstanceOf(ContentAddressableStorageServerException.class);
+        Mockito.verify(amazonS3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        Mockito.verify(amazonS3Client, Mockito.never()).completeMultipartUpload(any());
+    }
 }
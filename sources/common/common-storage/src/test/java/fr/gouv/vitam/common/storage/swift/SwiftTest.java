@@ -32,6 +32,7 @@ import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.junit.JunitHelper;
 import fr.gouv.vitam.common.storage.StorageConfiguration;
+import fr.gouv.vitam.common.storage.cas.container.api.PostWriteVerification;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -44,10 +45,15 @@ import java.io.InputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -206,4 +212,31 @@ public class SwiftTest {
         // When / Then
         swift.putObject(CONTAINER_NAME, OBJECT_NAME, stream, VitamConfiguration.getDefaultDigestType(), 3_500L);
     }
+
+    @Test
+    public void should_upload_segments_in_parallel_without_read_back_when_part_checksum_verification()
+        throws Exception {
+        // Given
+        swiftInstanceRule.stubFor(post(urlMatching("/swift/v1(.*)")).willReturn(
+            aResponse().withStatus(202)));
+
+        configuration.setSwiftSegmentSize(1_000L);
+        configuration.setUploadParallelism(2);
+        configuration.setPostWriteVerification(PostWriteVerification.PART_CHECKSUM);
+        this.swift = new Swift(new SwiftKeystoneFactoryV3(configuration), configuration, 1_500L);
+        InputStream stream = PropertiesUtils.getResourceAsStream(OBJECT_NAME);
+
+        // When
+        swift.putObject(CONTAINER_NAME, OBJECT_NAME, stream, VitamConfiguration.getDefaultDigestType(), 3_500L);
+
+        // Then
+        for (int i = 1; i <= 4; i++) {
+            swiftInstanceRule.verify(putRequestedFor(
+                urlEqualTo("/swift/v1/" + CONTAINER_NAME + "/" + OBJECT_NAME + "/0000000" + i))
+                .withHeader(ETAG, matching("[0-9a-f]{32}")));
+        }
+        swiftInstanceRule.verify(putRequestedFor(urlEqualTo("/swift/v1/" + CONTAINER_NAME + "/" + OBJECT_NAME))
+            .withHeader("X-Object-Manifest", equalTo(CONTAINER_NAME + "/" + OBJECT_NAME + "/")));
+        swiftInstanceRule.verify(0, getRequestedFor(urlMatching("/swift/v1/" + CONTAINER_NAME + "/.*")));
+    }
 }
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.storage.utils;
+
+import fr.gouv.vitam.common.junit.FakeInputStream;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelPartUploaderTest {
+
+    @Test
+    public void should_upload_all_parts_in_order() throws Exception {
+        // Given
+        byte[] data = new byte[2_500];
+        new FakeInputStream(2_500L).read(data);
+        Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+
+        // When
+        List<Integer> results = ParallelPartUploader.upload(new ByteArrayInputStream(data), 2_500L, 1_000, 2,
+            new PartBufferPool(10_000L),
+            (partNumber, buffer, length) -> {
+                uploadedParts.put(partNumber, Arrays.copyOf(buffer, length));
+                return partNumber;
+            });
+
+        // Then
+        assertThat(results).containsExactly(1, 2, 3);
+        ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        for (int i = 1; i <= 3; i++) {
+            uploaded.write(uploadedParts.get(i));
+        }
+        assertThat(uploaded.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    public void should_bound_parts_uploaded_at_the_same_time() throws Exception {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // When
+        ParallelPartUploader.upload(new FakeInputStream(10_000L), 10_000L, 1_000, 3,
+            new PartBufferPool(10_000L),
+            (partNumber, buffer, length) -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                running.decrementAndGet();
+                return partNumber;
+            });
+
+        // Then
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    @Test
+    public void should_fail_when_a_part_upload_fails() {
+        assertThatThrownBy(() -> ParallelPartUploader.upload(new FakeInputStream(3_000L), 3_000L, 1_000, 2,
+            new PartBufferPool(10_000L),
+            (partNumber, buffer, length) -> {
+                if (partNumber == 2) {
+                    throw new ContentAddressableStorageException("part error");
+                }
+                return partNumber;
+            })).isInstanceOf(ContentAddressableStorageException.class).hasMessage("part error");
+    }
+
+    @Test
+    public void should_fail_when_stream_is_shorter_than_expected() {
+        InputStream stream = new FakeInputStream(1_500L);
+        PartBufferPool bufferPool = new PartBufferPool(10_000L);
+        assertThatThrownBy(() -> ParallelPartUploader.upload(stream, 3_000L, 1_000, 2, bufferPool,
+            (partNumber, buffer, length) -> partNumber)).isInstanceOf(ContentAddressableStorageException.class);
+        assertThat(bufferPool.getAllocatedSize()).isLessThanOrEqualTo(2_000L);
+    }
+
+    @Test(timeout = 10_000L)
+    public void should_bound_memory_of_concurrent_uploads_with_shared_buffer_pool() throws Exception {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(3_000L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ParallelPartUploader.PartUploader<Integer> partUploader = (partNumber, buffer, length) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            running.decrementAndGet();
+            return partNumber;
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        // When
+        try {
+            List<Future<List<Integer>>> uploads = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                uploads.add(executorService.submit(() -> ParallelPartUploader.upload(new FakeInputStream(10_000L),
+                    10_000L, 1_000, 3, bufferPool, partUploader)));
+            }
+            for (Future<List<Integer>> upload : uploads) {
+                assertThat(upload.get()).hasSize(10);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // Then : 3 uploads of parallelism 3, but only 3 part buffers for all of them, reused from part to part
+        assertThat(maxRunning.get()).isBetween(1, 3);
+        assertThat(bufferPool.getAllocatedSize()).isLessThanOrEqualTo(3_000L);
+    }
+
+    @Test(timeout = 10_000L)
+    public void should_release_buffers_to_shared_pool_when_a_part_upload_fails() {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(2_000L);
+
+        // When
+        assertThatThrownBy(() -> ParallelPartUploader.upload(new FakeInputStream(10_000L), 10_000L, 1_000, 2,
+            bufferPool, (partNumber, buffer, length) -> {
+                if (partNumber == 2) {
+                    throw new ContentAddressableStorageException("part error");
+                }
+                return partNumber;
+            })).isInstanceOf(ContentAddressableStorageException.class).hasMessage("part error");
+
+        // Then : buffers are back to the pool (a leaked buffer would block the next upload)
+        assertThat(bufferPool.getAllocatedSize()).isLessThanOrEqualTo(2_000L);
+        assertThatCode(() -> ParallelPartUploader.upload(new FakeInputStream(4_000L), 4_000L, 1_000, 2,
+            bufferPool, (partNumber, buffer, length) -> partNumber)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.storage.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PartBufferPoolTest {
+
+    @Test
+    public void should_reuse_released_buffers() throws Exception {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(10_000L);
+        byte[] buffer = bufferPool.acquire(1_000);
+
+        // When
+        bufferPool.release(buffer);
+        byte[] reusedBuffer = bufferPool.acquire(1_000);
+
+        // Then
+        assertThat(reusedBuffer).isSameAs(buffer);
+        assertThat(bufferPool.getAllocatedSize()).isEqualTo(1_000L);
+    }
+
+    @Test
+    public void should_wait_for_released_buffer_when_pool_is_full() throws Exception {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(2_000L);
+        byte[] buffer1 = bufferPool.acquire(1_000);
+        bufferPool.acquire(1_000);
+
+        // When
+        CompletableFuture<byte[]> pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bufferPool.acquire(1_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then
+        assertThatThrownBy(() -> pending.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        bufferPool.release(buffer1);
+        assertThat(pending.get(10, TimeUnit.SECONDS)).isSameAs(buffer1);
+        assertThat(bufferPool.getAllocatedSize()).isEqualTo(2_000L);
+    }
+
+    @Test
+    public void should_drop_free_buffers_of_other_sizes_when_pool_is_full() throws Exception {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(2_000L);
+        bufferPool.release(bufferPool.acquire(1_000));
+        bufferPool.release(bufferPool.acquire(1_000));
+
+        // When
+        byte[] buffer = bufferPool.acquire(2_000);
+
+        // Then
+        assertThat(buffer).hasSize(2_000);
+        assertThat(bufferPool.getAllocatedSize()).isEqualTo(2_000L);
+    }
+
+    @Test
+    public void should_allocate_buffer_bigger_than_pool_when_pool_is_empty() throws Exception {
+        // Given
+        PartBufferPool bufferPool = new PartBufferPool(1_000L);
+
+        // When
+        byte[] buffer = bufferPool.acquire(5_000);
+
+        // Then
+        assertThat(buffer).hasSize(5_000);
+        assertThat(bufferPool.getAllocatedSize()).isEqualTo(5_000L);
+    }
+}
@@ -43,10 +43,12 @@ import java.util.Optional;
 public class AdminManagementOntologyLoader implements OntologyLoader {
     private final AdminManagementClientFactory factory;
     private final ObjectNode select;
+    private final ObjectNode selectVersion;
 
     public AdminManagementOntologyLoader(AdminManagementClientFactory factory, Optional<String> collectionName) {
         this.factory = factory;
         this.select = getSelectOntology(collectionName);
+        this.selectVersion = getSelectOntologyVersion(collectionName);
     }
 
     private ObjectNode getSelectOntology(Optional<String> collectionName) {
@@ -65,6 +67,46 @@ public class AdminManagementOntologyLoader implements OntologyLoader {
         }
     }
 
+    /**
+     * Select the last updated ontology only : any import adds, updates or removes ontologies, so it changes either the
+     * total or the last update date.
+     */
+    private ObjectNode getSelectOntologyVersion(Optional<String> collectionName) {
+        try {
+            Select selectOntologies = new Select();
+            if (collectionName.isPresent()) {
+                selectOntologies.setQuery(
+                    QueryHelper.in(OntologyModel.TAG_COLLECTIONS, collectionName.get())
+                );
+            }
+            selectOntologies.setLimitFilter(0, 1);
+            selectOntologies.addOrderByDescFilter(OntologyModel.LAST_UPDATE);
+            selectOntologies.addUsedProjection(OntologyModel.LAST_UPDATE);
+            return selectOntologies.getFinalSelect();
+        } catch (InvalidParseOperationException | InvalidCreateOperationException e) {
+            throw new VitamRuntimeException(e);
+        }
+    }
+
+    @Override
+    public String loadOntologiesVersion() {
+        try (AdminManagementClient adminClient = factory.getClient()) {
+            RequestResponse<OntologyModel> responseOntologies = adminClient.findOntologies(selectVersion);
+            if (!responseOntologies.isOk()) {
+                throw new VitamRuntimeException("Could not load ontologies version.");
+            }
+
+            RequestResponseOK<OntologyModel> responseOK = (RequestResponseOK<OntologyModel>) responseOntologies;
+            if (responseOK.getHits() == null) {
+                return null;
+            }
+            String lastUpdate = responseOK.getResults().isEmpty() ? "" : responseOK.getFirstResult().getLastupdate();
+            return responseOK.getHits().getTotal() + "@" + lastUpdate;
+        } catch (InvalidParseOperationException e) {
+            throw new VitamRuntimeException("Could not load ontologies version.", e);
+        }
+    }
+
     @Override
     public List<OntologyModel> loadOntologies() {
         try (AdminManagementClient adminClient = factory.getClient()) {
@@ -81,4 +81,13 @@ public interface InternalSecurityClient extends BasicClient {
      * @throws InternalSecurityException
      */
     boolean contextIsUsed(String contextId) throws VitamClientInternalException, InternalSecurityException;
+
+    /**
+     * Get the version of the identities, changed by any certificate addition, context link or revocation
+     *
+     * @return the version of the identities
+     * @throws VitamClientInternalException
+     * @throws InternalSecurityException
+     */
+    String getIdentitiesVersion() throws VitamClientInternalException, InternalSecurityException;
 }
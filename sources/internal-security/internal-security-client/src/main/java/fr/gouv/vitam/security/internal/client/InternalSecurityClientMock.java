@@ -79,4 +79,9 @@ class InternalSecurityClientMock extends AbstractMockClient implements InternalS
     public boolean contextIsUsed(String contextId) {
         return false;
     }
+
+    @Override
+    public String getIdentitiesVersion() {
+        return "0";
+    }
 }
@@ -102,6 +102,27 @@ public class InternalSecurityClientRest extends DefaultClient implements Interna
         }
     }
 
+    @Override
+    public String getIdentitiesVersion() throws VitamClientInternalException, InternalSecurityException {
+        Response response = null;
+        try {
+            response = performRequest(HttpMethod.GET, "/identity/version", new MultivaluedHashMap<>(),
+                MediaType.TEXT_PLAIN_TYPE);
+
+            final Status status = Status.fromStatusCode(response.getStatus());
+            if (status.equals(Status.OK)) {
+                return response.readEntity(String.class);
+            }
+
+            String message = response.readEntity(String.class);
+            LOGGER.error("http status is: {}, content is: {}", status, message);
+            throw new InternalSecurityException(message);
+
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     @Override
     public IsPersonalCertificateRequiredModel isPersonalCertificateRequiredByPermission(String permission)
         throws VitamClientInternalException, InternalSecurityException {
@@ -27,8 +27,11 @@
 package fr.gouv.vitam.security.internal.rest.repository;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import fr.gouv.vitam.common.database.server.mongodb.MongoDbAccess;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.BsonHelper;
@@ -39,11 +42,14 @@ import fr.gouv.vitam.security.internal.common.model.IdentityModel;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Updates.set;
 
 /**
@@ -123,6 +129,25 @@ public class IdentityRepository implements CertificateCRLCheckStateUpdater<Ident
         return (identityCollection.count(eq("ContextId", contextId)) == 0) ? false : true;
     }
 
+    /**
+     * Version of the identities, computed from the identifier, context and status of every certificate : it changes
+     * as soon as a certificate is added, linked to another context or revoked
+     *
+     * @return the version of the identities
+     */
+    public String getIdentitiesVersion() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        try (MongoCursor<Document> cursor = identityCollection.find()
+            .projection(include("_id", "ContextId", CertificateBaseModel.STATUS_TAG))
+            .sort(ascending("_id"))
+            .iterator()) {
+            while (cursor.hasNext()) {
+                hasher.putString(cursor.next().toJson(), StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
     /**
      * {@inheritDoc}
      */
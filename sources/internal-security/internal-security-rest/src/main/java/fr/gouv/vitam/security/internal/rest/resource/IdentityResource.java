@@ -78,4 +78,14 @@ public class IdentityResource {
     public Response contextIsUsed(@PathParam("contextId") String contextId) {
         return Response.ok().entity(identityService.contextIsUsed(contextId)).build();
     }
+
+    /**
+     * @return the version of the identities, changed by any certificate addition, context link or revocation
+     */
+    @GET
+    @Path("version")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response getIdentitiesVersion() {
+        return Response.ok().entity(identityService.getIdentitiesVersion()).build();
+    }
 }
@@ -125,4 +125,11 @@ public class IdentityService {
         return identityRepository.contextIsUsed(contextId);
     }
 
+    /**
+     * @return the version of the identities, changed by any certificate addition, context link or revocation
+     */
+    public String getIdentitiesVersion() {
+        return identityRepository.getIdentitiesVersion();
+    }
+
 }
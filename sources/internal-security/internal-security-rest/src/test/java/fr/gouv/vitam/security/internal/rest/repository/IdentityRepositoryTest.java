@@ -33,6 +33,7 @@ import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.mongo.MongoRule;
+import fr.gouv.vitam.security.internal.common.model.CertificateStatus;
 import fr.gouv.vitam.security.internal.common.model.IdentityModel;
 import org.bson.Document;
 import org.junit.Before;
@@ -40,6 +41,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.Optional;
 
 import static com.mongodb.client.model.Filters.eq;
@@ -198,4 +200,34 @@ public class IdentityRepositoryTest {
             .containsEntry("SerialNumber", "127890284121982523460526876445101669455454");
     }
 
+    @Test
+    public void should_change_identities_version_on_context_link_and_revocation()
+        throws InvalidParseOperationException {
+        // Given
+        GUID id = GUIDFactory.newGUID();
+
+        IdentityModel identityModel = new IdentityModel();
+        identityModel.setContextId("1");
+        identityModel.setIssuerDN("issuerDN");
+        identityModel.setSubjectDN("distinguishedName");
+        identityModel.setSerialNumber(String.valueOf(BigInteger.TEN));
+        identityModel.setId(id.toString());
+
+        String emptyVersion = identityRepository.getIdentitiesVersion();
+        identityRepository.createIdentity(identityModel);
+        String createdVersion = identityRepository.getIdentitiesVersion();
+
+        // When
+        identityRepository.linkContextToIdentity("distinguishedName", "2", String.valueOf(BigInteger.TEN));
+        String linkedVersion = identityRepository.getIdentitiesVersion();
+        identityRepository.updateCertificateState(Collections.singletonList(id.toString()), CertificateStatus.REVOKED);
+        String revokedVersion = identityRepository.getIdentitiesVersion();
+
+        // Then
+        assertThat(createdVersion).isNotEqualTo(emptyVersion);
+        assertThat(linkedVersion).isNotEqualTo(createdVersion);
+        assertThat(revokedVersion).isNotEqualTo(linkedVersion);
+        assertThat(identityRepository.getIdentitiesVersion()).isEqualTo(revokedVersion);
+    }
+
 }
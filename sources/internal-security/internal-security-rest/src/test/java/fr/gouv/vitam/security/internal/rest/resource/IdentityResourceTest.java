@@ -97,4 +97,17 @@ public class IdentityResourceTest {
         Response response = identityResource.contextIsUsed(CONTEXT_ID);
         assertThat(response.getStatus()).isEqualTo(Response.Status.OK.getStatusCode());
     }
+
+    @Test
+    public void shouldGetIdentitiesVersion() {
+        // Given
+        given(identityService.getIdentitiesVersion()).willReturn("version");
+
+        // When
+        Response response = identityResource.getIdentitiesVersion();
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(Response.Status.OK.getStatusCode());
+        assertThat(response.getEntity()).isEqualTo("version");
+    }
 }
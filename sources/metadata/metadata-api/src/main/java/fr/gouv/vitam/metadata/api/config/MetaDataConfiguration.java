@@ -49,6 +49,8 @@ public class MetaDataConfiguration extends DbConfigurationImpl {
     private int schemaValidatorCacheMaxEntries = 100;
     private int schemaValidatorCacheTimeoutInSeconds = 300;
 
+    private int graphComputeParallelism = 1;
+
     /**
      * MetaDataConfiguration constructor
      *
@@ -172,6 +174,15 @@ public class MetaDataConfiguration extends DbConfigurationImpl {
         return this;
     }
 
+    public int getGraphComputeParallelism() {
+        return graphComputeParallelism;
+    }
+
+    public MetaDataConfiguration setGraphComputeParallelism(int graphComputeParallelism) {
+        this.graphComputeParallelism = graphComputeParallelism;
+        return this;
+    }
+
     public String getUrlProcessing() {
         return urlProcessing;
     }
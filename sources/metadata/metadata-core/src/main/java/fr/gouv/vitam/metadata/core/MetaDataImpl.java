@@ -31,7 +31,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
 import com.mongodb.client.MongoCollection;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.client.OntologyLoader;
 import fr.gouv.vitam.common.database.builder.facet.Facet;
 import fr.gouv.vitam.common.database.builder.facet.FacetHelper;
@@ -92,6 +94,7 @@ import fr.gouv.vitam.metadata.core.database.collections.MongoDbVarNameAdapter;
 import fr.gouv.vitam.metadata.core.database.collections.Result;
 import fr.gouv.vitam.metadata.core.model.UpdateUnit;
 import fr.gouv.vitam.metadata.core.model.UpdateUnitKey;
+import fr.gouv.vitam.metadata.core.model.BulkUpdateResult;
 import fr.gouv.vitam.metadata.core.model.UpdatedDocument;
 import fr.gouv.vitam.metadata.core.utils.MetadataJsonResponseUtils;
 import fr.gouv.vitam.metadata.core.utils.OriginatingAgencyBucketResult;
@@ -731,86 +734,66 @@ public class MetaDataImpl {
         final RequestMultiple request = updateRequest.getRequest();
         unitIds = request.getRoots();
 
-        List<UpdateUnit> updatedUnits = unitIds.stream()
-            .map(unitId -> updateAndTransformUnit(updateRequest, unitId))
-            .collect(Collectors.toList());
+        List<OntologyModel> ontologyModels = this.unitOntologyLoader.loadOntologies();
+        List<UpdateUnit> updatedUnits = new ArrayList<>();
+        for (List<String> bulkUnitIds : Iterables.partition(unitIds, VitamConfiguration.getMaxElasticsearchBulk())) {
+            BulkUpdateResult bulkUpdateResult = dbRequest
+                .execBulkUpdateRequest(updateRequest, bulkUnitIds, this.unitOntologyValidator, this.unitValidator,
+                    ontologyModels);
+            bulkUnitIds.forEach(
+                unitId -> updatedUnits.add(transformUpdatedUnit(unitId, bulkUpdateResult, "Update unit OK.")));
+        }
 
         return new RequestResponseOK<UpdateUnit>(updateQuery)
             .addAllResults(updatedUnits)
             .setTotal(updatedUnits.size());
     }
 
-    private UpdateUnit updateAndTransformUnit(UpdateParserMultiple updateRequest, String unitId) {
-
-        try {
-
-            UpdatedDocument updatedDocument = dbRequest
-                .execUpdateRequest(updateRequest, unitId, MetadataCollections.UNIT, this.unitOntologyValidator, this.unitValidator, this.unitOntologyLoader.loadOntologies());
-
-            String diffs = String.join("\n", VitamDocument.getConcernedDiffLines(
-                VitamDocument.getUnifiedDiff(JsonHandler.prettyPrint(updatedDocument.getBeforeUpdate()),
-                    JsonHandler.prettyPrint(updatedDocument.getAfterUpdate()))));
-
-            if (diffs.isEmpty()) {
-                LOGGER.warn("No updates found for unit update " + unitId);
-                // FIXME : Return OK for idempotency?
-                return error(unitId, KO, UNIT_METADATA_NO_CHANGES, "No updates.");
-            }
-
-            return new UpdateUnit(unitId, StatusCode.OK, UNIT_METADATA_UPDATE, "Update unit OK.", diffs);
-
-        } catch (MetadataValidationException e) {
-            LOGGER.error("An error occurred during unit update " + unitId, e);
-            return error(unitId, KO, CHECK_UNIT_SCHEMA, e.getMessage());
-        } catch (MetaDataNotFoundException e) {
-            LOGGER.error("Unit not found during unit update " + unitId, e);
-            return error(unitId, KO, UNIT_UNKNOWN_OR_FORBIDDEN, e.getMessage());
-        } catch (Exception e) {
-            LOGGER.error("An error occurred during unit update " + unitId, e);
-            return error(unitId, FATAL, UNIT_METADATA_UPDATE, e.getMessage());
-        }
-    }
-
     public RequestResponse<UpdateUnit> updateUnitsRules(List<String> unitIds, RuleActions ruleActions,
         Map<String, DurationData> bindRuleToDuration) {
 
-        List<UpdateUnit> unitRules = unitIds.stream()
-            .map(unitId -> updateAndTransformUnitRules(unitId, ruleActions, bindRuleToDuration))
-            .collect(Collectors.toList());
+        List<OntologyModel> ontologyModels = this.unitOntologyLoader.loadOntologies();
+        List<UpdateUnit> unitRules = new ArrayList<>();
+        for (List<String> bulkUnitIds : Iterables.partition(unitIds, VitamConfiguration.getMaxElasticsearchBulk())) {
+            BulkUpdateResult bulkUpdateResult = dbRequest
+                .execBulkRuleRequest(bulkUnitIds, ruleActions, bindRuleToDuration, this.unitOntologyValidator,
+                    this.unitValidator, ontologyModels);
+            bulkUnitIds.forEach(
+                unitId -> unitRules.add(transformUpdatedUnit(unitId, bulkUpdateResult, "Update unit rules OK.")));
+        }
 
         return new RequestResponseOK<UpdateUnit>()
             .addAllResults(unitRules)
             .setTotal(unitRules.size());
     }
 
-    private UpdateUnit updateAndTransformUnitRules(String unitId, RuleActions ruleActions,
-        Map<String, DurationData> bindRuleToDuration) {
-        try {
-            UpdatedDocument updatedDocument =
-                dbRequest.execRuleRequest(unitId, ruleActions, bindRuleToDuration, this.unitOntologyValidator,
-                    unitValidator, this.unitOntologyLoader.loadOntologies());
-
-            String diffs = String.join("\n", VitamDocument.getConcernedDiffLines(
-                VitamDocument.getUnifiedDiff(JsonHandler.prettyPrint(updatedDocument.getBeforeUpdate()),
-                    JsonHandler.prettyPrint(updatedDocument.getAfterUpdate()))));
+    private UpdateUnit transformUpdatedUnit(String unitId, BulkUpdateResult bulkUpdateResult, String okMessage) {
 
-            if (diffs.isEmpty()) {
-                // FIXME : Return OK for idempotency?
-                return error(unitId, KO, UNIT_METADATA_NO_CHANGES, "No updates.");
+        UpdatedDocument updatedDocument = bulkUpdateResult.getUpdatedDocuments().get(unitId);
+        if (updatedDocument == null) {
+            Exception e = bulkUpdateResult.getFailures().get(unitId);
+            if (e instanceof MetadataValidationException) {
+                LOGGER.error("An error occurred during unit update " + unitId, e);
+                return error(unitId, KO, CHECK_UNIT_SCHEMA, e.getMessage());
+            }
+            if (e instanceof MetaDataNotFoundException) {
+                LOGGER.error("Unit not found during unit update " + unitId, e);
+                return error(unitId, KO, UNIT_UNKNOWN_OR_FORBIDDEN, e.getMessage());
             }
+            LOGGER.error("An error occurred during unit update " + unitId, e);
+            return error(unitId, FATAL, UNIT_METADATA_UPDATE, e == null ? null : e.getMessage());
+        }
 
-            return new UpdateUnit(unitId, StatusCode.OK, UNIT_METADATA_UPDATE, "Update unit rules OK.", diffs);
+        String diffs = String.join("\n", VitamDocument.getConcernedDiffLines(
+            VitamDocument.getUnifiedDiff(updatedDocument.getBeforeUpdate(), updatedDocument.getAfterUpdate())));
 
-        } catch (MetadataValidationException e) {
-            LOGGER.error("An error occurred during unit update " + unitId, e);
-            return error(unitId, KO, CHECK_UNIT_SCHEMA, e.getMessage());
-        } catch (MetaDataNotFoundException e) {
-            LOGGER.error("Unit not found during unit update " + unitId, e);
-            return error(unitId, KO, UNIT_UNKNOWN_OR_FORBIDDEN, e.getMessage());
-        } catch (Exception e) {
-            LOGGER.error("An error occurred during unit update " + unitId, e);
-            return error(unitId, FATAL, UNIT_METADATA_UPDATE, e.getMessage());
+        if (diffs.isEmpty()) {
+            LOGGER.warn("No updates found for unit update " + unitId);
+            // FIXME : Return OK for idempotency?
+            return error(unitId, KO, UNIT_METADATA_NO_CHANGES, "No updates.");
         }
+
+        return new UpdateUnit(unitId, StatusCode.OK, UNIT_METADATA_UPDATE, okMessage, diffs);
     }
 
     private UpdateUnit error(String unitId, StatusCode status, UpdateUnitKey key, String message) {
@@ -830,8 +813,7 @@ public class MetaDataImpl {
             .execUpdateRequest(updateRequest, unitId, MetadataCollections.UNIT, this.unitOntologyValidator, this.unitValidator, this.unitOntologyLoader.loadOntologies());
 
         String diffs = String.join("\n", VitamDocument.getConcernedDiffLines(
-            VitamDocument.getUnifiedDiff(JsonHandler.prettyPrint(updatedDocument.getBeforeUpdate()),
-                JsonHandler.prettyPrint(updatedDocument.getAfterUpdate()))));
+            VitamDocument.getUnifiedDiff(updatedDocument.getBeforeUpdate(), updatedDocument.getAfterUpdate())));
 
         return new UpdateUnit(unitId, StatusCode.OK, UNIT_METADATA_UPDATE, "Update unit OK.", diffs);
     }
@@ -32,11 +32,16 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import fr.gouv.vitam.common.VitamConfiguration;
@@ -71,6 +76,7 @@ import fr.gouv.vitam.common.database.utils.MetadataDocumentHelper;
 import fr.gouv.vitam.common.exception.BadRequestException;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.exception.VitamDBException;
+import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.SysErrLogger;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -86,6 +92,7 @@ import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
 import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
 import fr.gouv.vitam.metadata.core.graph.GraphLoader;
+import fr.gouv.vitam.metadata.core.model.BulkUpdateResult;
 import fr.gouv.vitam.metadata.core.model.UpdatedDocument;
 import fr.gouv.vitam.metadata.core.trigger.FieldHistoryManager;
 import fr.gouv.vitam.metadata.core.validation.MetadataValidationException;
@@ -104,8 +111,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -117,6 +126,7 @@ import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.exists;
 import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.include;
 import static fr.gouv.vitam.common.database.builder.query.action.UpdateActionHelper.push;
 
 /**
@@ -159,101 +169,6 @@ public class DbRequest {
             new FieldHistoryManager(HISTORY_TRIGGER_NAME));
     }
 
-    /**
-     * Execute rule action on unit
-     *
-     * @param ontologyModels
-     * @param documentId the unitId
-     * @param ruleActions the list of ruleAction (by category)
-     */
-    public UpdatedDocument execRuleRequest(final String documentId, final RuleActions ruleActions,
-        Map<String, DurationData> bindRuleToDuration, OntologyValidator ontologyValidator, UnitValidator unitValidator, List<OntologyModel> ontologyModels)
-        throws InvalidParseOperationException, MetaDataExecutionException, InvalidCreateOperationException,
-        MetaDataNotFoundException, MetadataValidationException {
-
-        final Integer tenantId = ParameterHelper.getTenantParameter();
-
-        int tries = 0;
-
-        while (tries < 3) {
-            MetadataCollections metadataCollections = MetadataCollections.UNIT;
-
-            MongoCollection<MetadataDocument<?>> collection = metadataCollections.getCollection();
-            MetadataDocument<?> document = collection.find(and(
-                eq(MetadataDocument.ID, documentId),
-                eq(MetadataDocument.TENANT_ID, VitamThreadUtils.getVitamSession().getTenantId())
-            )).first();
-            if (document == null) {
-                throw new MetaDataNotFoundException("Document not found by id " + documentId);
-            }
-
-            final JsonNode jsonDocument = JsonHandler.toJsonNode(document);
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("DEBUG update {} to update to {}", jsonDocument,
-                    JsonHandler.prettyPrint(ruleActions));
-            }
-            DynamicParserTokens parserTokens = new DynamicParserTokens(metadataCollections.getVitamDescriptionResolver(), ontologyModels);
-            final MongoDbInMemory mongoInMemory = new MongoDbInMemory(jsonDocument,
-                parserTokens);
-
-            // Add operationId to #operations
-            UpdateMultiQuery updateQuery = new UpdateMultiQuery();
-            updateQuery
-                .addActions(push(VitamFieldsHelper.operations(), VitamThreadUtils.getVitamSession().getRequestId()));
-
-            final RequestParserMultiple updateRequest = new UpdateParserMultiple(new MongoDbVarNameAdapter());
-            updateRequest.parse(updateQuery.getFinalUpdateById());
-            mongoInMemory.getUpdateJson(updateRequest);
-
-            // Update rules
-            final ObjectNode updatedJsonDocument =
-                (ObjectNode) mongoInMemory.getUpdateJsonForRule(ruleActions, bindRuleToDuration);
-
-            fieldHistoryManager.trigger(jsonDocument, updatedJsonDocument);
-
-            Integer documentVersion = document.getVersion();
-            int newDocumentVersion = documentVersion + 1;
-            Integer atomicVersion = document.getAtomicVersion();
-            int newAtomicVersion = atomicVersion == null ? newDocumentVersion : atomicVersion + 1;
-
-            updatedJsonDocument.put(VitamDocument.VERSION, newDocumentVersion);
-            updatedJsonDocument.put(MetadataDocument.ATOMIC_VERSION, newAtomicVersion);
-
-            Unit updatedDocument = new Unit(updatedJsonDocument);
-
-            // Ontology checks & format transformation
-            final ObjectNode transformedUpdatedDocument
-                = ontologyValidator.verifyAndReplaceFields(updatedJsonDocument);
-
-            // Unit validation
-            unitValidator.validateUnit(transformedUpdatedDocument);
-
-            // Make Update
-            final Bson condition;
-            if (atomicVersion == null) {
-                condition = and(
-                    eq(MetadataDocument.ID, documentId),
-                    eq(MetadataDocument.TENANT_ID, VitamThreadUtils.getVitamSession().getTenantId()),
-                    exists(MetadataDocument.ATOMIC_VERSION, false));
-            } else {
-                condition = and(
-                    eq(MetadataDocument.ID, documentId),
-                    eq(MetadataDocument.TENANT_ID, VitamThreadUtils.getVitamSession().getTenantId()),
-                    eq(MetadataDocument.ATOMIC_VERSION, atomicVersion));
-            }
-
-            LOGGER.debug("DEBUG update {}", transformedUpdatedDocument);
-            UpdateResult result = collection.replaceOne(condition, updatedDocument);
-            if (result.getModifiedCount() == 1) {
-                indexFieldsUpdated(updatedDocument, tenantId);
-                return new UpdatedDocument(documentId, jsonDocument, JsonHandler.toJsonNode(updatedDocument));
-            }
-            tries++;
-        }
-
-        throw new MetaDataExecutionException("Can not modify document " + documentId);
-    }
-
     /**
      * The request should be already analyzed.
      *
@@ -913,6 +828,8 @@ public class DbRequest {
         final Integer tenantId = ParameterHelper.getTenantParameter();
 
         int tries = 0;
+        DynamicParserTokens parserTokens =
+            new DynamicParserTokens(metadataCollection.getVitamDescriptionResolver(), ontologyModels);
         while (tries < 3) {
 
             MongoCollection<MetadataDocument<?>> collection = metadataCollection.getCollection();
@@ -926,33 +843,10 @@ public class DbRequest {
                 throw new MetaDataNotFoundException("Document not found by id " + documentId);
             }
 
-            final Integer documentVersion = document.getVersion();
-
             final JsonNode jsonDocument = JsonHandler.toJsonNode(document);
-            DynamicParserTokens parserTokens = new DynamicParserTokens(metadataCollection.getVitamDescriptionResolver(), ontologyModels);
-            final MongoDbInMemory mongoInMemory = new MongoDbInMemory(jsonDocument, parserTokens);
-            final ObjectNode updatedJsonDocument = (ObjectNode) mongoInMemory.getUpdateJson(requestParser);
-
-            if (metadataCollection == MetadataCollections.UNIT) {
-                fieldHistoryManager.trigger(jsonDocument, updatedJsonDocument);
-            }
-
-            int newDocumentVersion =
-                incrementDocumentVersionIfRequired(metadataCollection, mongoInMemory, documentVersion);
-            updatedJsonDocument.put(VitamDocument.VERSION, newDocumentVersion);
-
+            final ObjectNode transformedUpdatedDocument = applyUpdateRequest(document, jsonDocument, requestParser,
+                metadataCollection, parserTokens, ontologyValidator, unitValidator);
             Integer atomicVersion = document.getAtomicVersion();
-            int newAtomicVersion = atomicVersion == null ? newDocumentVersion : atomicVersion + 1;
-            updatedJsonDocument.put(MetadataDocument.ATOMIC_VERSION, newAtomicVersion);
-
-            // Ontology checks & format transformation
-            final ObjectNode transformedUpdatedDocument =
-                ontologyValidator.verifyAndReplaceFields(updatedJsonDocument);
-
-            if (metadataCollection == MetadataCollections.UNIT) {
-                // Unit validation
-                unitValidator.validateUnit(transformedUpdatedDocument);
-            }
 
             // Make Update
             final Bson condition;
@@ -984,6 +878,339 @@ public class DbRequest {
         throw new MetaDataExecutionException("Can not modify document " + documentId);
     }
 
+    /**
+     * Execute an update request on a bulk of units.
+     * <p>
+     * Units are loaded with a single query, updated in memory, then persisted with an unordered bulk of replaces
+     * conditioned by their atomic version. Only units concurrently modified meanwhile are reloaded and updated again.
+     * Updated units are then indexed with a single elasticsearch bulk request.
+     *
+     * @param requestParser the update request applied to each unit
+     * @param documentIds the unit ids
+     * @param ontologyValidator the ontology validator
+     * @param unitValidator the unit validator
+     * @param ontologyModels the ontology models
+     * @return updated units and per unit failures
+     */
+    public BulkUpdateResult execBulkUpdateRequest(final RequestParserMultiple requestParser,
+        Collection<String> documentIds, OntologyValidator ontologyValidator, UnitValidator unitValidator,
+        List<OntologyModel> ontologyModels) {
+
+        DynamicParserTokens parserTokens =
+            new DynamicParserTokens(MetadataCollections.UNIT.getVitamDescriptionResolver(), ontologyModels);
+
+        return bulkUpdateUnitsWithRetries(documentIds,
+            (document, jsonDocument) -> applyUpdateRequest(document, jsonDocument, requestParser,
+                MetadataCollections.UNIT, parserTokens, ontologyValidator, unitValidator));
+    }
+
+    /**
+     * Execute rule actions on a bulk of units (see {@link #execBulkUpdateRequest})
+     *
+     * @param documentIds the unit ids
+     * @param ruleActions the list of ruleAction (by category)
+     * @param bindRuleToDuration the rule durations
+     * @param ontologyValidator the ontology validator
+     * @param unitValidator the unit validator
+     * @param ontologyModels the ontology models
+     * @return updated units and per unit failures
+     */
+    public BulkUpdateResult execBulkRuleRequest(Collection<String> documentIds, final RuleActions ruleActions,
+        Map<String, DurationData> bindRuleToDuration, OntologyValidator ontologyValidator,
+        UnitValidator unitValidator, List<OntologyModel> ontologyModels) {
+
+        DynamicParserTokens parserTokens =
+            new DynamicParserTokens(MetadataCollections.UNIT.getVitamDescriptionResolver(), ontologyModels);
+
+        return bulkUpdateUnitsWithRetries(documentIds,
+            (document, jsonDocument) -> applyRuleActions(document, jsonDocument, ruleActions,
+                bindRuleToDuration, parserTokens, ontologyValidator, unitValidator));
+    }
+
+    private BulkUpdateResult bulkUpdateUnitsWithRetries(Collection<String> documentIds,
+        UnitTransformation transformation) {
+
+        final Integer tenantId = ParameterHelper.getTenantParameter();
+        MongoCollection<MetadataDocument<?>> collection = MetadataCollections.UNIT.getCollection();
+
+        BulkUpdateResult bulkUpdateResult = new BulkUpdateResult();
+        Map<String, PendingUpdate> updatedUnits = new HashMap<>();
+
+        Set<String> remainingIds = new LinkedHashSet<>(documentIds);
+        Map<String, MetadataDocument<?>> documents = findUnitsByIds(collection, remainingIds, tenantId);
+
+        int tries = 0;
+        while (!remainingIds.isEmpty() && tries < 3) {
+
+            List<PendingUpdate> pendingUpdates = new ArrayList<>();
+            for (String documentId : remainingIds) {
+                MetadataDocument<?> document = documents.get(documentId);
+                if (document == null) {
+                    bulkUpdateResult.addFailure(documentId,
+                        new MetaDataNotFoundException("Document not found by id " + documentId));
+                    continue;
+                }
+                try {
+                    final JsonNode jsonDocument = JsonHandler.toJsonNode(document);
+                    ObjectNode updatedJsonDocument = transformation.apply(document, jsonDocument);
+                    pendingUpdates.add(new PendingUpdate(documentId, document.getAtomicVersion(), jsonDocument,
+                        updatedJsonDocument));
+                } catch (Exception e) {
+                    // Invalid update for this document only
+                    bulkUpdateResult.addFailure(documentId, e);
+                }
+            }
+            remainingIds.clear();
+
+            if (pendingUpdates.isEmpty()) {
+                break;
+            }
+
+            List<WriteModel<MetadataDocument<?>>> replaces = pendingUpdates.stream()
+                .map(pendingUpdate -> new ReplaceOneModel<MetadataDocument<?>>(
+                    atomicVersionCondition(pendingUpdate.documentId, pendingUpdate.atomicVersion, tenantId),
+                    pendingUpdate.finalDocument))
+                .collect(Collectors.toList());
+
+            int matchedCount;
+            try {
+                matchedCount = collection.bulkWrite(replaces, new BulkWriteOptions().ordered(false)).getMatchedCount();
+            } catch (MongoBulkWriteException e) {
+                for (BulkWriteError writeError : e.getWriteErrors()) {
+                    PendingUpdate pendingUpdate = pendingUpdates.get(writeError.getIndex());
+                    bulkUpdateResult.addFailure(pendingUpdate.documentId,
+                        new MetaDataExecutionException(writeError.getMessage()));
+                }
+                Set<Integer> failedIndexes =
+                    e.getWriteErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+                List<PendingUpdate> writtenUpdates = new ArrayList<>();
+                for (int i = 0; i < pendingUpdates.size(); i++) {
+                    if (!failedIndexes.contains(i)) {
+                        writtenUpdates.add(pendingUpdates.get(i));
+                    }
+                }
+                pendingUpdates = writtenUpdates;
+                matchedCount = e.getWriteResult().getMatchedCount();
+            } catch (MongoException e) {
+                for (PendingUpdate pendingUpdate : pendingUpdates) {
+                    bulkUpdateResult.addFailure(pendingUpdate.documentId, new MetaDataExecutionException(e));
+                }
+                break;
+            }
+
+            if (matchedCount == pendingUpdates.size()) {
+                pendingUpdates.forEach(pendingUpdate -> updatedUnits.put(pendingUpdate.documentId, pendingUpdate));
+                break;
+            }
+
+            // Some units have been concurrently updated. Units still holding the token of this attempt were written
+            // by it, others are reloaded and serve as input of the next try.
+            Set<String> persistedIds = findPersistedUnitIds(collection, pendingUpdates, tenantId);
+            List<String> conflictingIds = new ArrayList<>();
+            for (PendingUpdate pendingUpdate : pendingUpdates) {
+                if (persistedIds.contains(pendingUpdate.documentId)) {
+                    updatedUnits.put(pendingUpdate.documentId, pendingUpdate);
+                } else {
+                    conflictingIds.add(pendingUpdate.documentId);
+                }
+            }
+            remainingIds.addAll(conflictingIds);
+            documents = findUnitsByIds(collection, conflictingIds, tenantId);
+            tries++;
+        }
+
+        for (String documentId : remainingIds) {
+            bulkUpdateResult.addFailure(documentId,
+                new MetaDataExecutionException("Can not modify document " + documentId));
+        }
+
+        if (updatedUnits.isEmpty()) {
+            return bulkUpdateResult;
+        }
+
+        List<Unit> finalDocuments = updatedUnits.values().stream()
+            .map(pendingUpdate -> pendingUpdate.finalDocument)
+            .collect(Collectors.toList());
+        try {
+            // Whole documents are indexed
+            MetadataCollections.UNIT.getEsClient().insertFullDocuments(MetadataCollections.UNIT, tenantId,
+                finalDocuments);
+        } catch (MetaDataExecutionException e) {
+            // Units are already updated in database : index them one by one, as the single update does
+            LOGGER.warn("Could not index updated units in bulk, indexing them one by one", e);
+            for (Unit finalDocument : finalDocuments) {
+                try {
+                    indexFieldsUpdated(finalDocument, tenantId);
+                } catch (MetaDataExecutionException ex) {
+                    LOGGER.error("Could not index updated unit " + finalDocument.getId() + ", reindex is required",
+                        ex);
+                }
+            }
+        }
+
+        for (PendingUpdate pendingUpdate : updatedUnits.values()) {
+            bulkUpdateResult.addUpdatedDocument(new UpdatedDocument(pendingUpdate.documentId,
+                pendingUpdate.beforeUpdate, pendingUpdate.afterUpdate));
+        }
+        return bulkUpdateResult;
+    }
+
+    /**
+     * Bulk write results do not tell which replaces did not match : a unit is considered updated when it holds the
+     * token written by this attempt. Concurrent writers starting from the same atomic version write the same
+     * versions, so versions can not tell them apart.
+     */
+    private Set<String> findPersistedUnitIds(MongoCollection<MetadataDocument<?>> collection,
+        List<PendingUpdate> pendingUpdates, Integer tenantId) {
+        Map<String, String> tokens = pendingUpdates.stream()
+            .collect(Collectors.toMap(pendingUpdate -> pendingUpdate.documentId, pendingUpdate -> pendingUpdate.token));
+        Set<String> persistedIds = new HashSet<>();
+        try (MongoCursor<MetadataDocument<?>> cursor = collection.find(and(
+            in(MetadataDocument.ID, tokens.keySet()),
+            eq(MetadataDocument.TENANT_ID, tenantId),
+            in(MetadataDocument.ATOMIC_VERSION_TOKEN, tokens.values())
+        )).projection(include(MetadataDocument.ID, MetadataDocument.ATOMIC_VERSION_TOKEN)).iterator()) {
+            while (cursor.hasNext()) {
+                MetadataDocument<?> document = cursor.next();
+                if (Objects.equals(tokens.get(document.getId()),
+                    document.getString(MetadataDocument.ATOMIC_VERSION_TOKEN))) {
+                    persistedIds.add(document.getId());
+                }
+            }
+        }
+        return persistedIds;
+    }
+
+    private Map<String, MetadataDocument<?>> findUnitsByIds(MongoCollection<MetadataDocument<?>> collection,
+        Collection<String> documentIds, Integer tenantId) {
+        Map<String, MetadataDocument<?>> documents = new HashMap<>();
+        try (MongoCursor<MetadataDocument<?>> cursor = collection.find(and(
+            in(MetadataDocument.ID, documentIds),
+            eq(MetadataDocument.TENANT_ID, tenantId)
+        )).iterator()) {
+            while (cursor.hasNext()) {
+                MetadataDocument<?> document = cursor.next();
+                documents.put(document.getId(), document);
+            }
+        }
+        return documents;
+    }
+
+    private Bson atomicVersionCondition(String documentId, Integer atomicVersion, Integer tenantId) {
+        if (atomicVersion == null) {
+            return and(
+                eq(MetadataDocument.ID, documentId),
+                eq(MetadataDocument.TENANT_ID, tenantId),
+                exists(MetadataDocument.ATOMIC_VERSION, false));
+        }
+        return and(
+            eq(MetadataDocument.ID, documentId),
+            eq(MetadataDocument.TENANT_ID, tenantId),
+            eq(MetadataDocument.ATOMIC_VERSION, atomicVersion));
+    }
+
+    private ObjectNode applyUpdateRequest(MetadataDocument<?> document, JsonNode jsonDocument,
+        RequestParserMultiple requestParser, MetadataCollections metadataCollection,
+        DynamicParserTokens parserTokens, OntologyValidator ontologyValidator, UnitValidator unitValidator)
+        throws InvalidParseOperationException, MetadataValidationException {
+
+        final Integer documentVersion = document.getVersion();
+
+        final MongoDbInMemory mongoInMemory = new MongoDbInMemory(jsonDocument, parserTokens);
+        final ObjectNode updatedJsonDocument = (ObjectNode) mongoInMemory.getUpdateJson(requestParser);
+
+        if (metadataCollection == MetadataCollections.UNIT) {
+            fieldHistoryManager.trigger(jsonDocument, updatedJsonDocument);
+        }
+
+        int newDocumentVersion =
+            incrementDocumentVersionIfRequired(metadataCollection, mongoInMemory, documentVersion);
+        updatedJsonDocument.put(VitamDocument.VERSION, newDocumentVersion);
+
+        Integer atomicVersion = document.getAtomicVersion();
+        int newAtomicVersion = atomicVersion == null ? newDocumentVersion : atomicVersion + 1;
+        updatedJsonDocument.put(MetadataDocument.ATOMIC_VERSION, newAtomicVersion);
+
+        // Ontology checks & format transformation
+        final ObjectNode transformedUpdatedDocument =
+            ontologyValidator.verifyAndReplaceFields(updatedJsonDocument);
+
+        if (metadataCollection == MetadataCollections.UNIT) {
+            // Unit validation
+            unitValidator.validateUnit(transformedUpdatedDocument);
+        }
+        return transformedUpdatedDocument;
+    }
+
+    private ObjectNode applyRuleActions(MetadataDocument<?> document, JsonNode jsonDocument,
+        RuleActions ruleActions, Map<String, DurationData> bindRuleToDuration, DynamicParserTokens parserTokens,
+        OntologyValidator ontologyValidator, UnitValidator unitValidator)
+        throws InvalidParseOperationException, InvalidCreateOperationException, MetadataValidationException {
+
+        final MongoDbInMemory mongoInMemory = new MongoDbInMemory(jsonDocument, parserTokens);
+
+        // Add operationId to #operations
+        UpdateMultiQuery updateQuery = new UpdateMultiQuery();
+        updateQuery
+            .addActions(push(VitamFieldsHelper.operations(), VitamThreadUtils.getVitamSession().getRequestId()));
+
+        final RequestParserMultiple updateRequest = new UpdateParserMultiple(new MongoDbVarNameAdapter());
+        updateRequest.parse(updateQuery.getFinalUpdateById());
+        mongoInMemory.getUpdateJson(updateRequest);
+
+        // Update rules
+        final ObjectNode updatedJsonDocument =
+            (ObjectNode) mongoInMemory.getUpdateJsonForRule(ruleActions, bindRuleToDuration);
+
+        fieldHistoryManager.trigger(jsonDocument, updatedJsonDocument);
+
+        Integer documentVersion = document.getVersion();
+        int newDocumentVersion = documentVersion + 1;
+        Integer atomicVersion = document.getAtomicVersion();
+        int newAtomicVersion = atomicVersion == null ? newDocumentVersion : atomicVersion + 1;
+
+        updatedJsonDocument.put(VitamDocument.VERSION, newDocumentVersion);
+        updatedJsonDocument.put(MetadataDocument.ATOMIC_VERSION, newAtomicVersion);
+
+        // Ontology checks & format transformation
+        final ObjectNode transformedUpdatedDocument
+            = ontologyValidator.verifyAndReplaceFields(updatedJsonDocument);
+
+        // Unit validation
+        unitValidator.validateUnit(transformedUpdatedDocument);
+
+        return updatedJsonDocument;
+    }
+
+    /**
+     * Computes the json of the unit to persist from a loaded unit
+     */
+    @FunctionalInterface
+    private interface UnitTransformation {
+        ObjectNode apply(MetadataDocument<?> document, JsonNode jsonDocument)
+            throws InvalidParseOperationException, InvalidCreateOperationException, MetadataValidationException;
+    }
+
+    private static class PendingUpdate {
+        private final String documentId;
+        private final Integer atomicVersion;
+        private final JsonNode beforeUpdate;
+        private final JsonNode afterUpdate;
+        private final String token;
+        private final Unit finalDocument;
+
+        private PendingUpdate(String documentId, Integer atomicVersion, JsonNode beforeUpdate,
+            ObjectNode afterUpdate) {
+            this.documentId = documentId;
+            this.atomicVersion = atomicVersion;
+            this.beforeUpdate = beforeUpdate;
+            this.afterUpdate = afterUpdate;
+            this.token = GUIDFactory.newGUID().getId();
+            this.finalDocument = new Unit(afterUpdate);
+            this.finalDocument.put(MetadataDocument.ATOMIC_VERSION_TOKEN, token);
+        }
+    }
+
     private int incrementDocumentVersionIfRequired(MetadataCollections metadataCollection,
         MongoDbInMemory mongoInMemory,
         int documentVersion) {
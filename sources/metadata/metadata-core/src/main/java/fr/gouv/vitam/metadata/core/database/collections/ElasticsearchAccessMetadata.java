@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.metadata.core.database.collections;
 
+import com.google.common.annotations.VisibleForTesting;
+import fr.gouv.vitam.common.BaseXx;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
 import fr.gouv.vitam.common.database.builder.request.configuration.GlobalDatas;
@@ -36,8 +38,10 @@ import fr.gouv.vitam.common.database.server.elasticsearch.ElasticsearchNode;
 import fr.gouv.vitam.common.database.server.elasticsearch.ElasticsearchUtil;
 import fr.gouv.vitam.common.database.server.mongodb.VitamDocument;
 import fr.gouv.vitam.common.exception.BadRequestException;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.exception.VitamException;
 import fr.gouv.vitam.common.json.BsonHelper;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
@@ -68,9 +72,14 @@ import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -88,6 +97,11 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
     public static final String MAPPING_UNIT_FILE = "/unit-es-mapping.json";
     public static final String MAPPING_OBJECT_GROUP_FILE = "/og-es-mapping.json";
 
+    private static final String SLICED_PREFIX = "SLICED_";
+    private static final String SLICE_SEPARATOR = ",";
+    private static final String SEARCH_AFTER_PREFIX = "SEARCH_AFTER_";
+    private static final String UNDERSCORE_ID = "_id";
+
     private static final String OFFSET_LIMIT_INCORRECT =
         "Offset and limit are incorrect, the request could not be executed";
 
@@ -239,14 +253,23 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
             int limitES = (limit != null && limit > 0) ? limit : GlobalDatasDb.DEFAULT_LIMIT_SCROLL;
             int scrollTimeoutES =
                 (scrollTimeout != null && scrollTimeout > 0) ? scrollTimeout : GlobalDatasDb.DEFAULT_SCROLL_TIMEOUT;
+            if (isSlicedScroll(scrollId, sorts)) {
+                return slicedScroll(collection, tenantId, query, limitES, scrollTimeoutES, scrollId, resultRequest);
+            }
+            if (scrollId.equals(GlobalDatasDb.SEARCH_AFTER_ACTIVATE_KEYWORD) ||
+                scrollId.startsWith(SEARCH_AFTER_PREFIX)) {
+                return searchAfter(collection, tenantId, query, sorts, limitES, scrollId, resultRequest);
+            }
             request = getClient().prepareSearch(getAliasName(collection, tenantId))
                 .setScroll(new TimeValue(scrollTimeoutES))
                 .setQuery(query)
-                .setSize(limitES);
+                .setSize(limitES)
+                .setFetchSource(MetadataDocument.ES_PROJECTION, null);
             if (sorts != null) {
                 sorts.forEach(request::addSort);
             }
-            if (scrollId.equals(GlobalDatasDb.SCROLL_ACTIVATE_KEYWORD)) {
+            if (scrollId.equals(GlobalDatasDb.SCROLL_ACTIVATE_KEYWORD) ||
+                scrollId.equals(GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD)) {
                 response = request.get();
             } else {
                 response = getClient().prepareSearchScroll(scrollId).setScroll(new TimeValue(scrollTimeoutES)).execute()
@@ -326,6 +349,145 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
         return resultRequest;
     }
 
+    /**
+     * A sliced scroll is only used for unsorted requests: slices are read in parallel, so pages are not ordered.
+     * A sorted request starting with the sliced keyword falls back to a plain scroll.
+     */
+    private static boolean isSlicedScroll(String scrollId, List<SortBuilder> sorts) {
+        if (scrollId.startsWith(SLICED_PREFIX)) {
+            return true;
+        }
+        return scrollId.equals(GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD) &&
+            (sorts == null || sorts.isEmpty()) &&
+            VitamConfiguration.getElasticsearchScrollSlices() > 1;
+    }
+
+    /**
+     * Scroll by parallel slices: each page fires one scroll request per slice and merges the hits. The returned scroll
+     * id is the list of the scroll ids of all slices (exhausted slices are kept so that the total stays consistent).
+     * The limit is split between the slices (fewer slices when the limit is smaller than the slice count), so that a
+     * page never holds more than limit hits, and no hit already passed by a slice scroll has to be dropped.
+     */
+    private Result slicedScroll(MetadataCollections collection, Integer tenantId, QueryBuilder query, int limitES,
+        int scrollTimeoutES, String scrollId, Result<?> resultRequest) throws MetaDataExecutionException {
+        final TimeValue keepAlive = new TimeValue(scrollTimeoutES);
+        final List<ActionFuture<SearchResponse>> futures = new ArrayList<>();
+        if (scrollId.equals(GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD)) {
+            final int limit = Math.max(1, limitES);
+            final int slices = Math.min(VitamConfiguration.getElasticsearchScrollSlices(), limit);
+            for (int i = 0; i < slices; i++) {
+                final SearchRequestBuilder request = getClient().prepareSearch(getAliasName(collection, tenantId))
+                    .setScroll(keepAlive)
+                    .setQuery(query)
+                    .setSize(limit / slices + (i < limit % slices ? 1 : 0))
+                    .setFetchSource(MetadataDocument.ES_PROJECTION, null);
+                if (slices > 1) {
+                    request.slice(new SliceBuilder(i, slices));
+                }
+                futures.add(request.execute());
+            }
+        } else {
+            for (String sliceScrollId : scrollId.substring(SLICED_PREFIX.length()).split(SLICE_SEPARATOR)) {
+                futures.add(getClient().prepareSearchScroll(sliceScrollId).setScroll(keepAlive).execute());
+            }
+        }
+
+        long total = 0;
+        final List<String> sliceScrollIds = new ArrayList<>(futures.size());
+        for (ActionFuture<SearchResponse> future : futures) {
+            final SearchResponse response;
+            try {
+                response = future.actionGet();
+            } catch (final Exception e) {
+                LOGGER.debug(e.getMessage(), e);
+                throw new MetaDataExecutionException(e.getMessage(), e);
+            }
+            if (response.status() != RestStatus.OK) {
+                LOGGER.debug("Error " + response.status() + " from sliced scroll : " + query);
+                throw new MetaDataExecutionException("Error " + response.status());
+            }
+            sliceScrollIds.add(response.getScrollId());
+            total += response.getHits().getTotalHits();
+            for (SearchHit hit : response.getHits()) {
+                resultRequest.addId(hit.getId(), hit.getScore());
+            }
+        }
+        if (total == 0) {
+            LOGGER.debug("No result from sliced scroll : " + query);
+            return collection == MetadataCollections.UNIT ? MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
+                : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
+        }
+        resultRequest.setScrollId(SLICED_PREFIX + String.join(SLICE_SEPARATOR, sliceScrollIds));
+        resultRequest.setTotal(total);
+        return resultRequest;
+    }
+
+    /**
+     * Deep pagination with search_after: no scroll context is kept on the cluster, the returned scroll id encodes the
+     * sort values of the last hit. The requested sorts are completed with the _id tiebreaker so that pages are stable.
+     */
+    private Result searchAfter(MetadataCollections collection, Integer tenantId, QueryBuilder query,
+        List<SortBuilder> sorts, int limitES, String scrollId, Result<?> resultRequest)
+        throws MetaDataExecutionException {
+        final SearchRequestBuilder request = getClient().prepareSearch(getAliasName(collection, tenantId))
+            .setQuery(query)
+            .setSize(limitES)
+            .setFetchSource(MetadataDocument.ES_PROJECTION, null);
+        if (sorts != null) {
+            sorts.forEach(request::addSort);
+        }
+        request.addSort(SortBuilders.fieldSort(UNDERSCORE_ID).order(SortOrder.ASC));
+        try {
+            if (scrollId.startsWith(SEARCH_AFTER_PREFIX)) {
+                request.searchAfter(decodeSearchAfter(scrollId.substring(SEARCH_AFTER_PREFIX.length())));
+            }
+            final SearchResponse response = request.get();
+            if (response.status() != RestStatus.OK) {
+                LOGGER.debug("Error " + response.status() + " from : " + request + ":" + query);
+                throw new MetaDataExecutionException("Error " + response.status());
+            }
+            final SearchHits hits = response.getHits();
+            if (hits.getTotalHits() == 0) {
+                LOGGER.debug("No result from : " + request);
+                return collection == MetadataCollections.UNIT ?
+                    MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
+                    : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
+            }
+            SearchHit last = null;
+            for (SearchHit hit : hits) {
+                resultRequest.addId(hit.getId(), hit.getScore());
+                last = hit;
+            }
+            // When the page is empty, keep the same position
+            resultRequest.setScrollId(last == null ? scrollId :
+                SEARCH_AFTER_PREFIX + encodeSearchAfter(last.getSortValues()));
+            resultRequest.setTotal(hits.getTotalHits());
+            return resultRequest;
+        } catch (InvalidParseOperationException e) {
+            throw new MetaDataExecutionException("Invalid search_after position " + scrollId, e);
+        } catch (MetaDataExecutionException e) {
+            throw e;
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+            throw new MetaDataExecutionException(e.getMessage(), e);
+        }
+    }
+
+    @VisibleForTesting
+    static String encodeSearchAfter(Object[] sortValues) throws InvalidParseOperationException {
+        return BaseXx.getBase64UrlWithoutPadding(JsonHandler.writeAsString(sortValues).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @VisibleForTesting
+    static Object[] decodeSearchAfter(String position) throws InvalidParseOperationException {
+        try {
+            return JsonHandler.getFromString(
+                new String(BaseXx.getFromBase64UrlWithoutPadding(position), StandardCharsets.UTF_8), Object[].class);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParseOperationException(e);
+        }
+    }
+
     /**
      * Makes a search request on elasticsearch on a collection with aggregations and a query
      *
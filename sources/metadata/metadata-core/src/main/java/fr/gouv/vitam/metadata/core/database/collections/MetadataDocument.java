@@ -60,6 +60,10 @@ public abstract class MetadataDocument<E> extends VitamDocument<E> {
      * Internal version of the document: Incremented for each update (including computed fields)
      */
     public static final String ATOMIC_VERSION = "_av";
+    /**
+     * Token of the bulk update attempt that last set the atomic version of the document
+     */
+    public static final String ATOMIC_VERSION_TOKEN = "_avt";
     /**
      * Object Type (text, audio, video, document, image, ...) Unit Type (facture, paye, ...)
      */
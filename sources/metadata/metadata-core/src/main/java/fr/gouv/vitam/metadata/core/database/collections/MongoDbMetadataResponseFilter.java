@@ -115,6 +115,7 @@ public class MongoDbMetadataResponseFilter {
                     break;
                 case ATOMIC_VERSION:
                     remove(document, MetadataDocument.ATOMIC_VERSION);
+                    remove(document, MetadataDocument.ATOMIC_VERSION_TOKEN);
                     break;
                 case MIN:
                     replace(document, Unit.MINDEPTH, VitamFieldsHelper.min());
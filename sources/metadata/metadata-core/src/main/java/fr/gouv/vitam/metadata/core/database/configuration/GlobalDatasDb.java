@@ -101,7 +101,17 @@ public class GlobalDatasDb extends GlobalDatasParser {
     /**
      * KEYWORD to activate scroll
      */
-    public static final String SCROLL_ACTIVATE_KEYWORD = "START";
+    public static final String SCROLL_ACTIVATE_KEYWORD = GlobalDatasParser.SCROLL_ACTIVATE_KEYWORD;
+
+    /**
+     * KEYWORD to activate scroll by parallel slices
+     */
+    public static final String SLICED_SCROLL_ACTIVATE_KEYWORD = GlobalDatasParser.SLICED_SCROLL_ACTIVATE_KEYWORD;
+
+    /**
+     * KEYWORD to activate search_after pagination
+     */
+    public static final String SEARCH_AFTER_ACTIVATE_KEYWORD = GlobalDatasParser.SEARCH_AFTER_ACTIVATE_KEYWORD;
 
     /**
      * default limit scroll size
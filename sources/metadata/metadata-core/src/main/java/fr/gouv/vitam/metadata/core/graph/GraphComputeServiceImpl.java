@@ -32,6 +32,8 @@ import static fr.gouv.vitam.common.database.builder.request.configuration.Builde
 import static fr.gouv.vitam.common.database.parser.query.ParserTokens.PROJECTIONARGS.ID;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -39,6 +41,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.StreamSupport;
@@ -65,9 +73,11 @@ import fr.gouv.vitam.common.exception.VitamRuntimeException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.DatabaseCursor;
 import fr.gouv.vitam.common.model.GraphComputeResponse;
 import fr.gouv.vitam.common.model.GraphComputeResponse.GraphComputeAction;
 import fr.gouv.vitam.common.model.RequestResponseOK;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.metadata.api.exception.MetaDataDocumentSizeException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataException;
@@ -80,6 +90,7 @@ import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
 import fr.gouv.vitam.metadata.core.graph.api.GraphComputeService;
 import joptsimple.internal.Strings;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.bson.Document;
 
@@ -99,6 +110,7 @@ public class GraphComputeServiceImpl implements GraphComputeService {
     private MetaDataImpl metaData;
 
     private String currentOperation = null;
+    private int graphComputeParallelism = 1;
 
     /**
      * @param vitamRepositoryProvider
@@ -155,6 +167,26 @@ public class GraphComputeServiceImpl implements GraphComputeService {
             VitamConfiguration.getTenants());
     }
 
+    /**
+     * @param vitamRepositoryProvider
+     * @param metaData
+     * @param graphComputeParallelism number of batches computed in parallel when computing graph by DSL
+     * @return GraphComputeServiceImpl
+     */
+    public static synchronized GraphComputeService initialize(
+        VitamRepositoryProvider vitamRepositoryProvider,
+        MetaDataImpl metaData,
+        int graphComputeParallelism) {
+        GraphComputeService graphComputeService = initialize(vitamRepositoryProvider, metaData);
+        ((GraphComputeServiceImpl) graphComputeService).setGraphComputeParallelism(graphComputeParallelism);
+        return graphComputeService;
+    }
+
+    @VisibleForTesting
+    void setGraphComputeParallelism(int graphComputeParallelism) {
+        this.graphComputeParallelism = graphComputeParallelism;
+    }
+
     public static GraphComputeService getInstance() {
         return instance;
     }
@@ -175,12 +207,15 @@ public class GraphComputeServiceImpl implements GraphComputeService {
 
             ScrollSpliterator<Set<String>> scroll = executeQuery(queryDSL);
 
-
-            StreamSupport.stream(scroll, false).forEach(
-                item -> {
-                    GraphComputeResponse stats = computeGraph(MetadataCollections.UNIT, item, true);
-                    response.increment(stats);
-                });
+            if (graphComputeParallelism <= 1) {
+                StreamSupport.stream(scroll, false).forEach(
+                    item -> {
+                        GraphComputeResponse stats = computeGraph(MetadataCollections.UNIT, item, true);
+                        response.increment(stats);
+                    });
+            } else {
+                computeGraphInParallel(scroll, response);
+            }
             return response;
         } finally {
             lock.set(false);
@@ -188,6 +223,53 @@ public class GraphComputeServiceImpl implements GraphComputeService {
 
     }
 
+    /**
+     * Compute graph of scrolled batches of units, at most graphComputeParallelism batches at a time.
+     * The parent cache is shared by all batches of the run.
+     */
+    private void computeGraphInParallel(ScrollSpliterator<Set<String>> scroll, GraphComputeResponse response)
+        throws MetaDataException {
+
+        final Integer scopedTenant = VitamThreadUtils.getVitamSession().getTenantId();
+        final String scopedXRequestId = VitamThreadUtils.getVitamSession().getRequestId();
+
+        // Invalidate cache once, before batches are dispatched
+        tryInvalidateCache();
+
+        ExecutorService batchExecutor =
+            Executors.newFixedThreadPool(graphComputeParallelism, VitamThreadFactory.getInstance());
+        Semaphore inFlightBatches = new Semaphore(graphComputeParallelism);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try {
+            Iterator<Set<String>> iterator = Spliterators.iterator(scroll);
+            while (iterator.hasNext()) {
+                Set<String> item = iterator.next();
+                inFlightBatches.acquire();
+                batches.add(CompletableFuture.runAsync(() -> {
+                    VitamThreadUtils.getVitamSession().setTenantId(scopedTenant);
+                    VitamThreadUtils.getVitamSession().setRequestId(scopedXRequestId);
+                    GraphComputeResponse stats = computeGraph(MetadataCollections.UNIT, item, true);
+                    synchronized (response) {
+                        response.increment(stats);
+                        if (stats.getErrorMessage() != null) {
+                            response.setErrorMessage(stats.getErrorMessage());
+                        }
+                    }
+                }, batchExecutor).whenComplete((result, e) -> inFlightBatches.release()));
+            }
+
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetaDataException(e);
+        } catch (ExecutionException e) {
+            throw new MetaDataException(e.getCause());
+        } finally {
+            batchExecutor.shutdownNow();
+        }
+    }
+
     /**
      * @param queryDSL
      * @return ScrollSpliterator
@@ -216,6 +298,10 @@ public class GraphComputeServiceImpl implements GraphComputeService {
 
 
 
+        // Scroll items are batches of ids : their total is unknown until all units have been scrolled
+        final long[] scrolledUnits = {0L};
+        final long[] scrolledBatches = {0L};
+
         return new ScrollSpliterator<>(request,
             query -> {
                 try {
@@ -234,6 +320,13 @@ public class GraphComputeServiceImpl implements GraphComputeService {
                         }
 
                     }
+
+                    scrolledUnits[0] += response.getResults().size();
+                    scrolledBatches[0] += rr.getResults().size();
+                    boolean hasMoreUnits = !response.getResults().isEmpty() &&
+                        scrolledUnits[0] < response.getHits().getTotal();
+                    rr.setHits(new DatabaseCursor(scrolledBatches[0] + (hasMoreUnits ? 1 : 0), 0,
+                        rr.getResults().size(), rr.getResults().size(), response.getHits().getScrollId()));
                     return rr;
 
                 } catch (InvalidParseOperationException |
@@ -245,7 +338,8 @@ public class GraphComputeServiceImpl implements GraphComputeService {
                     // WARN: But if we want to use it in workflow, then we have to distinguish between KO and FATAL
                     throw new IllegalStateException(e);
                 }
-            }, GlobalDatasDb.DEFAULT_SCROLL_TIMEOUT, GlobalDatasDb.LIMIT_LOAD);
+            }, GlobalDatasDb.DEFAULT_SCROLL_TIMEOUT, GlobalDatasDb.LIMIT_LOAD,
+            GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD);
     }
 
 
@@ -311,20 +405,76 @@ public class GraphComputeServiceImpl implements GraphComputeService {
         return response;
     }
 
-    private void tryInvalidateCache() {
+    private synchronized void tryInvalidateCache() {
         String operation = VitamThreadUtils.getVitamSession().getRequestId();
-        // Invalidate cache if operation change
+        // Invalidate changed cache entries if operation change
         if (!Objects.equals(operation, currentOperation)) {
             this.currentOperation = operation;
             LOGGER.info(
                 "[Graph compute] cache before invalidate : " + GraphComputeCache.getInstance().getCache().stats());
-            getCache().invalidateAll();
+            invalidateChangedEntries();
         } else if (RandomUtils.nextInt(1, 20) % 2 == 0) {
             // If we want to see randomly cache stats. To be removed when stats not needed
             LOGGER.info("[Graph compute] cache : " + GraphComputeCache.getInstance().getCache().stats());
         }
     }
 
+    /**
+     * Units may have been reclassified or had their graph computed by an other instance since previous operation.
+     * Instead of dropping the whole cache, cached units are compared to database and only changed ones are invalidated.
+     */
+    private void invalidateChangedEntries() {
+        List<String> cachedIds = new ArrayList<>(getCache().asMap().keySet());
+        if (cachedIds.isEmpty()) {
+            return;
+        }
+
+        int invalidated = 0;
+        try {
+            for (List<String> ids : ListUtils.partition(cachedIds, VitamConfiguration.getBatchSize())) {
+                Map<String, Document> storedUnits = new HashMap<>();
+                try (MongoCursor<Document> cursor = vitamRepositoryProvider
+                    .getVitamMongoRepository(MetadataCollections.UNIT.getVitamCollection())
+                    .findDocuments(in(Unit.ID, ids), VitamConfiguration.getBatchSize())
+                    .projection(include(Unit.UP, Unit.ORIGINATING_AGENCY, Unit.ORIGINATING_AGENCIES, Unit.UNITUPS))
+                    .iterator()) {
+                    while (cursor.hasNext()) {
+                        Document storedUnit = cursor.next();
+                        storedUnits.put(storedUnit.getString(Unit.ID), storedUnit);
+                    }
+                }
+
+                for (String id : ids) {
+                    Document cachedUnit = getCache().getIfPresent(id);
+                    if (cachedUnit != null && !isUpToDate(cachedUnit, storedUnits.get(id))) {
+                        getCache().invalidate(id);
+                        invalidated++;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("[Graph compute] Could not check cache entries, invalidate all", e);
+            getCache().invalidateAll();
+            return;
+        }
+
+        LOGGER.info(String.format("[Graph compute] %d of %d cache entries invalidated", invalidated, cachedIds.size()));
+    }
+
+    private static boolean isUpToDate(Document cachedUnit, Document storedUnit) {
+        return storedUnit != null &&
+            sameElements(cachedUnit.get(Unit.UP), storedUnit.get(Unit.UP)) &&
+            Objects.equals(cachedUnit.get(Unit.ORIGINATING_AGENCY), storedUnit.get(Unit.ORIGINATING_AGENCY)) &&
+            sameElements(cachedUnit.get(Unit.ORIGINATING_AGENCIES), storedUnit.get(Unit.ORIGINATING_AGENCIES)) &&
+            sameElements(cachedUnit.get(Unit.UNITUPS), storedUnit.get(Unit.UNITUPS));
+    }
+
+    private static boolean sameElements(Object cached, Object stored) {
+        Collection<?> cachedValues = cached == null ? Collections.emptySet() : (Collection<?>) cached;
+        Collection<?> storedValues = stored == null ? Collections.emptySet() : (Collection<?>) stored;
+        return new HashSet<>(cachedValues).equals(new HashSet<>(storedValues));
+    }
+
     @Override
     public void bulkUpdateMongo(MetadataCollections metaDaCollection, List<WriteModel<Document>> collection)
         throws DatabaseException {
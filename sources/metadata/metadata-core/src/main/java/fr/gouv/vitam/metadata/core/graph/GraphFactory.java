@@ -37,10 +37,22 @@ public class GraphFactory {
      */
     public static synchronized GraphFactory initialize(VitamRepositoryProvider vitamRepositoryProvider,
         MetaDataImpl metaData) {
+        return initialize(vitamRepositoryProvider, metaData, 1);
+    }
+
+    /**
+     * get Thread-Safe instance instance. <br/>
+     *
+     * @param graphComputeParallelism number of batches computed in parallel when computing graph by DSL
+     * @return current instance of GraphFactory, create if null
+     */
+    public static synchronized GraphFactory initialize(VitamRepositoryProvider vitamRepositoryProvider,
+        MetaDataImpl metaData, int graphComputeParallelism) {
 
         if (instance == null) {
             instance = new GraphFactory();
-            graphComputeService = GraphComputeServiceImpl.initialize(vitamRepositoryProvider, metaData);
+            graphComputeService =
+                GraphComputeServiceImpl.initialize(vitamRepositoryProvider, metaData, graphComputeParallelism);
         }
         return instance;
 
@@ -52,7 +52,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
@@ -82,9 +81,7 @@ public class OntologyValidator {
 
         ObjectNode transformedJsonNode = jsonNode.deepCopy();
 
-        List<OntologyModel> ontologyModels = ontologyLoader.loadOntologies();
-        Map<String, OntologyModel> ontologyModelMap =
-            ontologyModels.stream().collect(Collectors.toMap(OntologyModel::getIdentifier, oM -> oM));
+        Map<String, OntologyModel> ontologyModelMap = ontologyLoader.loadOntologiesByIdentifier();
 
         List<String> errors = new ArrayList<>();
         Iterator<Map.Entry<String, JsonNode>> iterator = transformedJsonNode.fields();
@@ -60,6 +60,7 @@ import fr.gouv.vitam.metadata.core.database.collections.ObjectGroup;
 import fr.gouv.vitam.metadata.core.database.collections.Result;
 import fr.gouv.vitam.metadata.core.database.collections.ResultDefault;
 import fr.gouv.vitam.metadata.core.database.collections.Unit;
+import fr.gouv.vitam.metadata.core.model.BulkUpdateResult;
 import fr.gouv.vitam.metadata.core.model.UpdateUnit;
 import fr.gouv.vitam.metadata.core.model.UpdatedDocument;
 import fr.gouv.vitam.metadata.core.validation.OntologyValidator;
@@ -87,6 +88,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -442,11 +444,13 @@ public class MetaDataImplTest {
             new ResultDefault(FILTERARGS.UNITS).addFinal(unit1Before),
             new ResultDefault(FILTERARGS.UNITS).addFinal(unit2Before));
 
-        when(request.execUpdateRequest(any(), any(), eq(MetadataCollections.UNIT), any(OntologyValidator.class),
+        when(request.execBulkUpdateRequest(any(), anyCollection(), any(OntologyValidator.class),
             any(UnitValidator.class), anyList()))
-            .thenReturn(
-                new UpdatedDocument("unit1", JsonHandler.toJsonNode(unit1Before), JsonHandler.toJsonNode(unit1After)),
-                new UpdatedDocument("unit2", JsonHandler.toJsonNode(unit2Before), JsonHandler.toJsonNode(unit2After)));
+            .thenReturn(new BulkUpdateResult()
+                .addUpdatedDocument(new UpdatedDocument("unitId1", JsonHandler.toJsonNode(unit1Before),
+                    JsonHandler.toJsonNode(unit1After)))
+                .addUpdatedDocument(new UpdatedDocument("unitId2", JsonHandler.toJsonNode(unit2Before),
+                    JsonHandler.toJsonNode(unit2After))));
 
         // When
         final JsonNode updateRequest = JsonHandler.getFromFile(PropertiesUtils.findFile("updateUnits.json"));
@@ -33,6 +33,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
 import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.database.builder.query.VitamFieldsHelper;
@@ -88,11 +89,13 @@ import fr.gouv.vitam.functional.administration.client.AdminManagementClientFacto
 import fr.gouv.vitam.metadata.api.exception.MetaDataAlreadyExistException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
+import fr.gouv.vitam.metadata.core.model.BulkUpdateResult;
 import fr.gouv.vitam.metadata.core.model.UpdatedDocument;
 import fr.gouv.vitam.metadata.core.trigger.FieldHistoryManager;
 import fr.gouv.vitam.metadata.core.trigger.History;
 import fr.gouv.vitam.metadata.core.validation.CachedArchiveUnitProfileLoader;
 import fr.gouv.vitam.metadata.core.validation.CachedSchemaValidatorLoader;
+import fr.gouv.vitam.metadata.core.validation.MetadataValidationErrorCode;
 import fr.gouv.vitam.metadata.core.validation.MetadataValidationException;
 import fr.gouv.vitam.metadata.core.validation.OntologyValidator;
 import fr.gouv.vitam.metadata.core.validation.UnitValidator;
@@ -2382,7 +2385,7 @@ public class DbRequestTest {
             new MongoDbMetadataRepository<ObjectGroup>(() -> MetadataCollections.OBJECTGROUP.getCollection()),
             fieldHistoryManager);
         UpdatedDocument updatedDocument =
-            dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
+            execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
                 Collections.emptyList());
 
         // Then
@@ -2462,7 +2465,7 @@ public class DbRequestTest {
             new MongoDbMetadataRepository<ObjectGroup>(() -> MetadataCollections.OBJECTGROUP.getCollection()),
             fieldHistoryManager);
         assertThatThrownBy(
-            () -> dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
+            () -> execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
                 Collections.emptyList()))
             .isInstanceOf(MetadataValidationException.class);
 
@@ -2531,7 +2534,7 @@ public class DbRequestTest {
             new MongoDbMetadataRepository<ObjectGroup>(() -> MetadataCollections.OBJECTGROUP.getCollection()),
             fieldHistoryManager);
         assertThatThrownBy(
-            () -> dbRequest.execRuleRequest(uuid, ruleActions, emptyMap(), ontologyValidator, unitValidator,
+            () -> execRuleRequest(dbRequest, uuid, ruleActions, emptyMap(), ontologyValidator, unitValidator,
                 Collections.emptyList()))
             .isInstanceOf(MetadataValidationException.class);
 
@@ -2586,7 +2589,7 @@ public class DbRequestTest {
         // When
         final DbRequest dbRequest = new DbRequest();
         assertThatThrownBy(
-            () -> dbRequest.execRuleRequest(uuid, ruleActions, emptyMap(), ontologyValidator, unitValidator,
+            () -> execRuleRequest(dbRequest, uuid, ruleActions, emptyMap(), ontologyValidator, unitValidator,
                 Collections.emptyList()))
             .isInstanceOf(MetadataValidationException.class);
 
@@ -2656,7 +2659,7 @@ public class DbRequestTest {
         doAnswer((args) -> args.getArgument(0)).when(ontologyValidator).verifyAndReplaceFields(any());
 
         // When
-        UpdatedDocument updatedDocument = dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId,
+        UpdatedDocument updatedDocument = execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId,
             ontologyValidator, mock(UnitValidator.class), Collections.emptyList());
 
         // Then
@@ -2713,7 +2716,7 @@ public class DbRequestTest {
         );
 
         // When
-        UpdatedDocument updatedDocument = dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator, Collections.emptyList());
+        UpdatedDocument updatedDocument = execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator, Collections.emptyList());
 
         // Then
         assertThat(updatedDocument).isNotNull();
@@ -2773,7 +2776,7 @@ public class DbRequestTest {
 
         // When
         assertThatThrownBy(
-            () -> dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
+            () -> execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId, ontologyValidator, unitValidator,
                 Collections.emptyList()))
             .isInstanceOf(MetadataValidationException.class);
     }
@@ -2831,7 +2834,7 @@ public class DbRequestTest {
             fieldHistoryManager
         );
 
-        UpdatedDocument updatedDocument = dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId,
+        UpdatedDocument updatedDocument = execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId,
             ontologyValidator, unitValidator, Collections.emptyList());
 
         // Then
@@ -2860,7 +2863,7 @@ public class DbRequestTest {
             fieldHistoryManager
         );
 
-        updatedDocument = dbRequest.execRuleRequest(uuid, ruleActions, ruleDurationByRuleId,
+        updatedDocument = execRuleRequest(dbRequest, uuid, ruleActions, ruleDurationByRuleId,
             ontologyValidator, unitValidator, Collections.emptyList());
 
         // Then
@@ -2872,4 +2875,162 @@ public class DbRequestTest {
                 .get("PreventInheritance").asText())).isEqualTo(Boolean.FALSE);
 
     }
+
+    @RunWithCustomExecutor
+    @Test
+    public void testBulkUpdateWithConcurrentUpdateAndFailures() throws Exception {
+
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID_0);
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(TENANT_ID_0));
+
+        String uuid1 = "aeaqaaaabeghay2jabzuaalbarkww4iaaab1";
+        String uuid2 = "aeaqaaaabeghay2jabzuaalbarkww4iaaab2";
+        String invalidUuid = "aeaqaaaabeghay2jabzuaalbarkww4iaaab3";
+        String unknownUuid = "aeaqaaaabeghay2jabzuaalbarkww4iaaab4";
+
+        List<Unit> units = new ArrayList<>();
+        for (String uuid : Arrays.asList(uuid1, uuid2, invalidUuid)) {
+            ObjectNode unitJson = (ObjectNode) JsonHandler.getFromFile(PropertiesUtils.getResourceFile("unitToUpdate.json"));
+            unitJson.put("_id", uuid);
+            units.add(new Unit(unitJson));
+        }
+        MetadataCollections.UNIT.getCollection().insertMany(units);
+        MetadataCollections.UNIT.getEsClient().insertFullDocuments(MetadataCollections.UNIT, TENANT_ID_0, units);
+
+        // Concurrent update of first unit while its bulk update is computed
+        doAnswer(args -> {
+            JsonNode unitBeforeChanges = args.getArgument(0);
+            if (uuid1.equals(unitBeforeChanges.get("_id").asText())
+                && unitBeforeChanges.get("_av").asInt() == 0) {
+                MetadataCollections.UNIT.getCollection().updateOne(Filters.eq("_id", uuid1),
+                    Updates.combine(Updates.set("Description", "Concurrent description"), Updates.inc("_av", 1)));
+            }
+            return null;
+        }).when(fieldHistoryManager).trigger(any(), any());
+
+        OntologyValidator ontologyValidator = mock(OntologyValidator.class);
+        doAnswer((args) -> args.getArgument(0)).when(ontologyValidator).verifyAndReplaceFields(any());
+        UnitValidator unitValidator = mock(UnitValidator.class);
+        doAnswer(args -> {
+            ObjectNode unitJson = args.getArgument(0);
+            if (invalidUuid.equals(unitJson.get("_id").asText())) {
+                throw new MetadataValidationException(MetadataValidationErrorCode.SCHEMA_VALIDATION_FAILURE,
+                    "Invalid unit");
+            }
+            return null;
+        }).when(unitValidator).validateUnit(any());
+
+        final UpdateMultiQuery update = new UpdateMultiQuery();
+        update.addActions(set("Title", "New Title"));
+        final UpdateParserMultiple updateParser = new UpdateParserMultiple(mongoDbVarNameAdapter);
+        updateParser.parse(update.getFinalUpdate());
+
+        final DbRequest dbRequest = new DbRequest(
+            new MongoDbMetadataRepository<Unit>(() -> MetadataCollections.UNIT.getCollection()),
+            new MongoDbMetadataRepository<ObjectGroup>(() -> MetadataCollections.OBJECTGROUP.getCollection()),
+            fieldHistoryManager);
+
+        // When
+        BulkUpdateResult bulkUpdateResult = dbRequest.execBulkUpdateRequest(updateParser,
+            Arrays.asList(uuid1, uuid2, invalidUuid, unknownUuid), ontologyValidator, unitValidator,
+            Collections.emptyList());
+
+        // Then
+        assertThat(bulkUpdateResult.getUpdatedDocuments().keySet()).containsExactlyInAnyOrder(uuid1, uuid2);
+        assertThat(bulkUpdateResult.getFailures().get(invalidUuid)).isInstanceOf(MetadataValidationException.class);
+        assertThat(bulkUpdateResult.getFailures().get(unknownUuid)).isInstanceOf(MetaDataNotFoundException.class);
+        assertThat(bulkUpdateResult.getFailures()).hasSize(2);
+
+        // Concurrent update is kept
+        Unit unit1 = (Unit) MetadataCollections.UNIT.getCollection().find(Filters.eq("_id", uuid1)).first();
+        assertThat(unit1.getString("Title")).isEqualTo("New Title");
+        assertThat(unit1.getString("Description")).isEqualTo("Concurrent description");
+        assertThat(unit1.getInteger("_av")).isEqualTo(2);
+        assertThat(bulkUpdateResult.getUpdatedDocuments().get(uuid1).getBeforeUpdate().get("Description").asText())
+            .isEqualTo("Concurrent description");
+
+        Unit unit2 = (Unit) MetadataCollections.UNIT.getCollection().find(Filters.eq("_id", uuid2)).first();
+        assertThat(unit2.getString("Title")).isEqualTo("New Title");
+        assertThat(unit2.getInteger("_v")).isEqualTo(1);
+        assertThat(unit2.getInteger("_av")).isEqualTo(1);
+
+        Unit invalidUnit = (Unit) MetadataCollections.UNIT.getCollection().find(Filters.eq("_id", invalidUuid)).first();
+        assertThat(invalidUnit.getString("Title")).isEqualTo("Violence et silence.odp");
+        assertThat(invalidUnit.getInteger("_av")).isEqualTo(0);
+
+        // Updated units are indexed
+        SearchResponse searchResponse = MetadataCollections.UNIT.getEsClient()
+            .basicSearch(MetadataCollections.UNIT, TENANT_ID_0, Collections.emptyList(),
+                QueryBuilders.matchPhraseQuery("Title", "New Title"));
+        assertThat(searchResponse.getHits().getHits()).extracting(SearchHit::getId)
+            .containsExactlyInAnyOrder(uuid1, uuid2);
+    }
+
+    @RunWithCustomExecutor
+    @Test
+    public void testBulkRuleUpdate() throws Exception {
+
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID_0);
+        VitamThreadUtils.getVitamSession().setRequestId("aeeaaaaaacagqkjjaaxpwallds4xu6iaaaaq");
+
+        String uuid1 = "aeaqaaaabeghay2jabzuaalbarkww4iaaac1";
+        String uuid2 = "aeaqaaaabeghay2jabzuaalbarkww4iaaac2";
+
+        List<Unit> units = new ArrayList<>();
+        for (String uuid : Arrays.asList(uuid1, uuid2)) {
+            ObjectNode unitJson = (ObjectNode) JsonHandler.getFromFile(PropertiesUtils.getResourceFile("unitToUpdate.json"));
+            unitJson.put("_id", uuid);
+            units.add(new Unit(unitJson));
+        }
+        MetadataCollections.UNIT.getCollection().insertMany(units);
+        MetadataCollections.UNIT.getEsClient().insertFullDocuments(MetadataCollections.UNIT, TENANT_ID_0, units);
+
+        RuleActions ruleActions = new RuleActions();
+        ruleActions.getAdd().add(ImmutableMap.of(
+            "AccessRule", new RuleCategoryAction()
+                .setRules(Collections.singletonList(
+                    new RuleAction().setRule("ACC-00001").setStartDate("2000-01-01")
+                ))));
+        Map<String, DurationData> ruleDurationByRuleId = ImmutableMap.of(
+            "ACC-00001", new DurationData(1, ChronoUnit.YEARS));
+
+        OntologyValidator ontologyValidator = mock(OntologyValidator.class);
+        doAnswer((args) -> args.getArgument(0)).when(ontologyValidator).verifyAndReplaceFields(any());
+
+        final DbRequest dbRequest = new DbRequest(
+            new MongoDbMetadataRepository<Unit>(() -> MetadataCollections.UNIT.getCollection()),
+            new MongoDbMetadataRepository<ObjectGroup>(() -> MetadataCollections.OBJECTGROUP.getCollection()),
+            fieldHistoryManager);
+
+        // When
+        BulkUpdateResult bulkUpdateResult = dbRequest.execBulkRuleRequest(Arrays.asList(uuid1, uuid2), ruleActions,
+            ruleDurationByRuleId, ontologyValidator, mock(UnitValidator.class), Collections.emptyList());
+
+        // Then
+        assertThat(bulkUpdateResult.getFailures()).isEmpty();
+        assertThat(bulkUpdateResult.getUpdatedDocuments().keySet()).containsExactlyInAnyOrder(uuid1, uuid2);
+        for (String uuid : Arrays.asList(uuid1, uuid2)) {
+            JsonNode unit = JsonHandler.toJsonNode(
+                MetadataCollections.UNIT.getCollection().find(Filters.eq("_id", uuid)).first());
+            assertThat(unit.get("_mgt").get("AccessRule").get("Rules").get(0).get("EndDate").asText())
+                .isEqualTo("2001-01-01");
+            assertThat(unit.get("_ops").toString()).contains("aeeaaaaaacagqkjjaaxpwallds4xu6iaaaaq");
+            assertThat(unit.get("_av").asInt()).isEqualTo(1);
+            JsonAssert.assertJsonEquals(JsonHandler.unprettyPrint(unit),
+                JsonHandler.unprettyPrint(bulkUpdateResult.getUpdatedDocuments().get(uuid).getAfterUpdate()));
+        }
+    }
+
+    private static UpdatedDocument execRuleRequest(DbRequest dbRequest, String documentId, RuleActions ruleActions,
+        Map<String, DurationData> bindRuleToDuration, OntologyValidator ontologyValidator,
+        UnitValidator unitValidator, List<OntologyModel> ontologyModels) throws Exception {
+        BulkUpdateResult result = dbRequest.execBulkRuleRequest(Collections.singletonList(documentId), ruleActions,
+            bindRuleToDuration, ontologyValidator, unitValidator, ontologyModels);
+        if (result.getFailures().containsKey(documentId)) {
+            throw result.getFailures().get(documentId);
+        }
+        return result.getUpdatedDocuments().get(documentId);
+    }
 }
@@ -28,6 +28,7 @@ package fr.gouv.vitam.metadata.core.database.collections;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Lists;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.database.builder.query.Query;
 import fr.gouv.vitam.common.database.collections.DynamicParserTokens;
 import fr.gouv.vitam.common.database.collections.VitamCollection;
@@ -45,7 +46,9 @@ import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
+import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
 import org.elasticsearch.search.sort.SortOrder;
@@ -59,8 +62,10 @@ import org.junit.rules.TemporaryFolder;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -196,6 +201,101 @@ public class ElasticsearchAccessMetadataTest {
             .deleteEntryIndex(MetadataCollections.UNIT, TENANT_ID_0, VitamCollection.getTypeunique(), id2);
     }
 
+    @Test
+    public void should_return_all_units_when_sliced_scroll_is_requested() throws Exception {
+        // Given
+        Set<String> ids = indexUnits(25);
+        BoolQueryBuilder queryBuilder = new BoolQueryBuilder().must(QueryBuilders.matchAllQuery());
+
+        // When
+        Set<String> scrolled = new HashSet<>();
+        String scrollId = GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD;
+        long total;
+        do {
+            Result result = elasticsearchAccessMetadata
+                .search(MetadataCollections.UNIT, TENANT_ID_0, VitamCollection.getTypeunique(), queryBuilder, null, 0,
+                    8, null, scrollId, 0);
+            assertThat(result.getNbResult()).isLessThanOrEqualTo(8);
+            scrolled.addAll(result.getCurrentIds());
+            scrollId = result.getScrollId();
+            total = result.getTotal();
+        } while (scrolled.size() < total);
+
+        // Then
+        assertThat(total).isEqualTo(25);
+        assertThat(scrolled).isEqualTo(ids);
+    }
+
+    @Test
+    public void should_not_exceed_limit_when_sliced_scroll_limit_is_smaller_than_slices() throws Exception {
+        // Given
+        Set<String> ids = indexUnits(7);
+        BoolQueryBuilder queryBuilder = new BoolQueryBuilder().must(QueryBuilders.matchAllQuery());
+        int limit = VitamConfiguration.getElasticsearchScrollSlices() - 1;
+
+        // When
+        Set<String> scrolled = new HashSet<>();
+        String scrollId = GlobalDatasDb.SLICED_SCROLL_ACTIVATE_KEYWORD;
+        long total;
+        do {
+            Result result = elasticsearchAccessMetadata
+                .search(MetadataCollections.UNIT, TENANT_ID_0, VitamCollection.getTypeunique(), queryBuilder, null, 0,
+                    limit, null, scrollId, 0);
+            assertThat(result.getNbResult()).isLessThanOrEqualTo(limit);
+            scrolled.addAll(result.getCurrentIds());
+            scrollId = result.getScrollId();
+            total = result.getTotal();
+        } while (scrolled.size() < total);
+
+        // Then
+        assertThat(total).isEqualTo(7);
+        assertThat(scrolled).isEqualTo(ids);
+    }
+
+    @Test
+    public void should_return_stable_pages_when_search_after_is_requested() throws Exception {
+        // Given
+        Set<String> ids = indexUnits(25);
+        BoolQueryBuilder queryBuilder = new BoolQueryBuilder().must(QueryBuilders.matchAllQuery());
+        List<SortBuilder> sorts = Collections.singletonList(new FieldSortBuilder("_max").order(SortOrder.DESC));
+
+        // When
+        List<String> scrolled = new ArrayList<>();
+        String scrollId = GlobalDatasDb.SEARCH_AFTER_ACTIVATE_KEYWORD;
+        Result result;
+        do {
+            result = elasticsearchAccessMetadata
+                .search(MetadataCollections.UNIT, TENANT_ID_0, VitamCollection.getTypeunique(), queryBuilder, sorts, 0,
+                    10, null, scrollId, 0);
+            scrolled.addAll(result.getCurrentIds());
+            scrollId = result.getScrollId();
+        } while (result.getNbResult() > 0);
+
+        // Then
+        assertThat(scrolled).hasSize(25);
+        assertThat(new HashSet<>(scrolled)).isEqualTo(ids);
+    }
+
+    @Test
+    public void should_decode_encoded_search_after_position() throws Exception {
+        Object[] position = ElasticsearchAccessMetadata
+            .decodeSearchAfter(ElasticsearchAccessMetadata.encodeSearchAfter(new Object[] {5, "unit#aeaqaaaa"}));
+        assertThat(position).containsExactly(5, "unit#aeaqaaaa");
+    }
+
+    private Set<String> indexUnits(int nb) throws Exception {
+        elasticsearchAccessMetadata.addIndex(MetadataCollections.UNIT, TENANT_ID_0);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < nb; i++) {
+            String id = GUIDFactory.newUnitGUID(TENANT_ID_0).toString();
+            assertThat(elasticsearchAccessMetadata.addEntryIndex(MetadataCollections.UNIT, TENANT_ID_0, id,
+                i % 2 == 0 ? unit_with_max_4 : unit_with_max_5)).isTrue();
+            ids.add(id);
+        }
+        elasticsearchAccessMetadata.refreshIndex(MetadataCollections.UNIT, TENANT_ID_0);
+        return ids;
+    }
+
     @Test
     public void testElasticsearchAccessMetadatas() throws InvalidParseOperationException {
         // add index
@@ -1,5 +1,6 @@
 package fr.gouv.vitam.metadata.core.graph;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Sets;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCursor;
@@ -8,12 +9,18 @@ import fr.gouv.vitam.common.cache.VitamCache;
 import fr.gouv.vitam.common.database.api.VitamRepositoryProvider;
 import fr.gouv.vitam.common.database.api.impl.VitamElasticsearchRepository;
 import fr.gouv.vitam.common.database.api.impl.VitamMongoRepository;
+import fr.gouv.vitam.common.database.builder.request.multiple.SelectMultiQuery;
 import fr.gouv.vitam.common.exception.DatabaseException;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.GraphComputeResponse;
+import fr.gouv.vitam.common.model.RequestResponseOK;
+import fr.gouv.vitam.common.mongo.FakeMongoCursor;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutor;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutorRule;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+import fr.gouv.vitam.common.thread.VitamThreadUtils;
+import fr.gouv.vitam.metadata.core.MetaDataImpl;
 import fr.gouv.vitam.metadata.core.database.collections.MetadataCollections;
 import org.assertj.core.util.Lists;
 import org.bson.Document;
@@ -34,6 +41,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -74,6 +83,9 @@ public class GraphComputeServiceImplTest {
     @Mock
     private MongoCursor mongoCursorGot;
 
+    @Mock
+    private MetaDataImpl metaData;
+
 
     @Spy
     private VitamCache<String, Document> cache = GraphComputeCache.getInstance();
@@ -201,4 +213,83 @@ public class GraphComputeServiceImplTest {
             Sets.newHashSet(), false);
         assertThat(response.getGotCount()).isEqualTo(0);
     }
+
+    @Test
+    @RunWithCustomExecutor
+    public void whenComputeGraphByDSLThenAllScrolledBatchesAreComputed() throws Exception {
+        givenTwoScrollPagesOfUnits();
+
+        // When
+        GraphComputeResponse response = graphBuilderService.computeGraph(new SelectMultiQuery().getFinalSelect());
+
+        // Then
+        assertThat(response.getUnitCount()).isEqualTo(2);
+        verify(metaData, times(2)).selectUnitsByQuery(any());
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void whenComputeGraphByDSLInParallelThenAllScrolledBatchesAreComputed() throws Exception {
+        givenTwoScrollPagesOfUnits();
+        graphBuilderService.setGraphComputeParallelism(4);
+
+        // When
+        GraphComputeResponse response = graphBuilderService.computeGraph(new SelectMultiQuery().getFinalSelect());
+
+        // Then
+        assertThat(response.getUnitCount()).isEqualTo(2);
+        assertThat(response.getErrorMessage()).isNull();
+        verify(metaData, times(2)).selectUnitsByQuery(any());
+        assertThat(graphBuilderService.isInProgress()).isFalse();
+    }
+
+    private void givenTwoScrollPagesOfUnits() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(1);
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(1).getId());
+
+        RequestResponseOK<JsonNode> firstPage = new RequestResponseOK<JsonNode>()
+            .addResult(JsonHandler.createObjectNode().put("#id", "unit1"))
+            .addResult(JsonHandler.createObjectNode().put("#id", "unit2"))
+            .setHits(3, 0, 2, 2, "scrollId");
+        RequestResponseOK<JsonNode> secondPage = new RequestResponseOK<JsonNode>()
+            .addResult(JsonHandler.createObjectNode().put("#id", "unit3"))
+            .setHits(3, 2, 1, 1, "scrollId");
+        when(metaData.selectUnitsByQuery(any())).thenReturn(firstPage, secondPage);
+
+        // One unit found by batch
+        given(findIterableUnit.iterator())
+            .willAnswer(o -> new FakeMongoCursor<>(Lists.newArrayList(new Document("_id", GUIDFactory.newGUID().getId()))));
+        given(vitamRepositoryProvider.getVitamESRepository(MetadataCollections.UNIT.getVitamCollection()))
+            .willReturn(unitEsRepository);
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void whenOperationChangesThenOnlyChangedCacheEntriesAreInvalidated() {
+        // Given
+        cache.getCache().invalidateAll();
+        cache.getCache().put("unit1", new Document("_id", "unit1")
+            .append("_up", Lists.newArrayList("parent1", "parent2")).append("_sp", "sp1"));
+        cache.getCache().put("unit2", new Document("_id", "unit2")
+            .append("_up", Lists.newArrayList("parent1")));
+        cache.getCache().put("unit3", new Document("_id", "unit3"));
+
+        // unit2 reclassified, unit3 deleted
+        given(findIterableUnit.iterator()).willReturn(new FakeMongoCursor<>(Lists.newArrayList(
+            new Document("_id", "unit1").append("_up", Lists.newArrayList("parent2", "parent1")).append("_sp", "sp1"),
+            new Document("_id", "unit2").append("_up", Lists.newArrayList("parent3")))));
+        VitamThreadUtils.getVitamSession().setRequestId(GUIDFactory.newRequestIdGUID(1).getId());
+
+        try {
+            // When
+            graphBuilderService.computeGraph(MetadataCollections.UNIT, Sets.newHashSet(), false);
+
+            // Then
+            assertThat(cache.getCache().getIfPresent("unit1")).isNotNull();
+            assertThat(cache.getCache().getIfPresent("unit2")).isNull();
+            assertThat(cache.getCache().getIfPresent("unit3")).isNull();
+        } finally {
+            cache.getCache().invalidateAll();
+        }
+    }
 }
@@ -95,7 +95,8 @@ public class AdminMetadataApplication extends Application {
                 metaDataConfiguration.getSchemaValidatorCacheTimeoutInSeconds()
             );
 
-            GraphFactory.initialize(vitamRepositoryProvider, metadata);
+            GraphFactory.initialize(vitamRepositoryProvider, metadata,
+                metaDataConfiguration.getGraphComputeParallelism());
 
             final MetadataManagementResource metadataReconstructionResource =
                 new MetadataManagementResource(vitamRepositoryProvider, offsetRepository,
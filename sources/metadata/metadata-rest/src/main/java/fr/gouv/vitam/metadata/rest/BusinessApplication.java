@@ -88,7 +88,8 @@ public class BusinessApplication extends Application {
                 metaDataConfiguration.getSchemaValidatorCacheTimeoutInSeconds()
             );
 
-            GraphFactory.initialize(vitamRepositoryProvider, metadata);
+            GraphFactory.initialize(vitamRepositoryProvider, metadata,
+                metaDataConfiguration.getGraphComputeParallelism());
 
             MetadataRuleService metadataRuleService = new MetadataRuleService(metadata);
             MetadataResource metaDataResource = new MetadataResource(metadata, metadataRuleService, metaDataConfiguration);
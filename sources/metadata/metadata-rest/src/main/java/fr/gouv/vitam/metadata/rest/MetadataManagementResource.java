@@ -161,7 +161,8 @@ public class MetadataManagementResource {
         OffsetRepository offsetRepository, MetaDataImpl metadata, MetaDataConfiguration configuration) {
         this(new ReconstructionService(vitamRepositoryProvider, offsetRepository),
             new StoreGraphService(vitamRepositoryProvider),
-            GraphComputeServiceImpl.initialize(vitamRepositoryProvider, metadata),
+            GraphComputeServiceImpl.initialize(vitamRepositoryProvider, metadata,
+                configuration.getGraphComputeParallelism()),
             new ReclassificationDistributionService(metadata),
             ProcessingManagementClientFactory.getInstance(),
             LogbookOperationsClientFactory.getInstance(),
@@ -46,6 +46,8 @@ public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
     private Integer maxDistributionInMemoryBufferSize = 100_000;
     private Integer maxDistributionOnDiskBufferSize = 100_000_000;
 
+    private boolean slidingWindowDistribution = false;
+
     /**
      * @return the urlMetadata
      */
@@ -138,4 +140,21 @@ public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
         this.maxDistributionOnDiskBufferSize = maxDistributionOnDiskBufferSize;
         return this;
     }
+
+    /**
+     * @return true if worker tasks are distributed with a sliding window instead of batches
+     */
+    public boolean isSlidingWindowDistribution() {
+        return slidingWindowDistribution;
+    }
+
+    /**
+     * @param slidingWindowDistribution true to keep a bounded number of worker tasks in flight, refilled as each
+     * task finishes, instead of waiting for every task of a batch
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setSlidingWindowDistribution(boolean slidingWindowDistribution) {
+        this.slidingWindowDistribution = slidingWindowDistribution;
+        return this;
+    }
 }
@@ -46,6 +46,11 @@ public class DistributorIndex {
      * Ths index in the current elements list
      */
     private int offset;
+    /**
+     * The offset in bytes of the line at offset in a JSONL distribution file, so that a resumed distribution can start
+     * reading the file at this position. Null if unknown.
+     */
+    private Long byteOffset;
     /**
      * The latest itemStatus
      */
@@ -93,6 +98,14 @@ public class DistributorIndex {
         this.offset = offset;
     }
 
+    public Long getByteOffset() {
+        return byteOffset;
+    }
+
+    public void setByteOffset(Long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
     public ItemStatus getItemStatus() {
         return itemStatus;
     }
@@ -0,0 +1,227 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import fr.gouv.vitam.worker.core.distribution.JsonLineModel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bookkeeping of a sliding window distribution.
+ * <p>
+ * Elements are read in order from the distribution source and split into worker tasks. A task is identified by the
+ * offset of its first element. The low-water mark is the offset of the first element that is not yet processed: every
+ * element before it is done, so it is the offset that can be safely persisted in the DistributorIndex.
+ * <p>
+ * The window never spans more than {@code windowSize} elements from the low-water mark, so that the remaining
+ * elements of a checkpoint have the same bound as in the batch distribution and can be filtered on recover.
+ */
+class DistributionWindow {
+
+    private final Iterator<JsonLineModel> source;
+    private final int windowSize;
+    private final Deque<JsonLineModel> readAhead = new ArrayDeque<>();
+    private final TreeMap<Integer, List<String>> inFlightTasks = new TreeMap<>();
+    private final TreeMap<Integer, List<String>> unprocessedTasks = new TreeMap<>();
+
+    /**
+     * Elements of the recovered window (from the DistributorIndex) that are still to be processed
+     */
+    private final Set<String> recoveredElements;
+    private final int recoveredWindowEnd;
+
+    private int nextOffset;
+    private JsonLineModel lastRead;
+
+    /**
+     * @param source the elements to distribute, starting at offset
+     * @param offset the offset of the first element of the source
+     * @param windowSize the maximum number of elements between the low-water mark and the last read element
+     * @param remainingElementsFromRecover elements of the first window that are not yet processed, empty to process
+     * all of them
+     */
+    DistributionWindow(Iterator<JsonLineModel> source, int offset, int windowSize,
+        Collection<String> remainingElementsFromRecover) {
+        this.source = source;
+        this.windowSize = windowSize;
+        this.nextOffset = offset;
+        this.recoveredElements = new HashSet<>(remainingElementsFromRecover);
+        this.recoveredWindowEnd = offset + windowSize;
+    }
+
+    /**
+     * @return true if there are elements left to read
+     */
+    boolean hasNext() {
+        return !readAhead.isEmpty() || source.hasNext();
+    }
+
+    /**
+     * A new task can be submitted if elements are left to read, if less than maxTasksInFlight tasks are running, if
+     * a whole task fits in the window and if the next element belongs to the distribution group of the running tasks.
+     *
+     * @param maxTasksInFlight maximum number of running tasks
+     * @param bulkSize maximum number of elements in a task
+     * @return true if the next task can be submitted
+     */
+    boolean canSubmit(int maxTasksInFlight, int bulkSize) {
+        if (!hasNext() || inFlightTasks.size() >= maxTasksInFlight) {
+            return false;
+        }
+        if (nextOffset + bulkSize > getLowWaterMark() + windowSize) {
+            return false;
+        }
+        // A new distribution group only starts when all the tasks of the previous one are done
+        return inFlightTasks.isEmpty() || !isGroupChange(lastRead, peek());
+    }
+
+    /**
+     * Read the elements of the next task: at most bulkSize elements of the same distribution group. Elements that
+     * were already processed before a pause are read but not returned.
+     *
+     * @param bulkSize maximum number of elements in a task
+     * @return the elements of the next task, may be empty
+     */
+    List<JsonLineModel> nextChunk(int bulkSize) {
+        List<JsonLineModel> chunk = new ArrayList<>();
+        int read = 0;
+        while (read < bulkSize && hasNext()) {
+            if (read > 0 && isGroupChange(lastRead, peek())) {
+                break;
+            }
+            JsonLineModel element = readAhead.isEmpty() ? source.next() : readAhead.pollFirst();
+            if (!isAlreadyProcessed(nextOffset, element)) {
+                chunk.add(element);
+            }
+            lastRead = element;
+            nextOffset++;
+            read++;
+        }
+        return chunk;
+    }
+
+    /**
+     * @param start offset of the first element of the task
+     * @param elements identifiers of the elements of the task
+     */
+    void submit(int start, List<String> elements) {
+        inFlightTasks.put(start, elements);
+    }
+
+    /**
+     * @param start offset of the first element of the task
+     * @param processed false if the task was not executed (pause or cancel)
+     */
+    void complete(int start, boolean processed) {
+        List<String> elements = inFlightTasks.remove(start);
+        if (!processed && elements != null) {
+            unprocessedTasks.put(start, elements);
+        }
+    }
+
+    /**
+     * @return the offset of the next element to read
+     */
+    int getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return the number of running tasks
+     */
+    int getInFlightCount() {
+        return inFlightTasks.size();
+    }
+
+    /**
+     * @return the offset of the first element that is not yet processed
+     */
+    int getLowWaterMark() {
+        int lowWaterMark = nextOffset;
+        if (!inFlightTasks.isEmpty()) {
+            lowWaterMark = Math.min(lowWaterMark, inFlightTasks.firstKey());
+        }
+        if (!unprocessedTasks.isEmpty()) {
+            lowWaterMark = Math.min(lowWaterMark, unprocessedTasks.firstKey());
+        }
+        return lowWaterMark;
+    }
+
+    /**
+     * @return true if all the elements are read and no task is left running or unprocessed
+     */
+    boolean isFinished() {
+        return !hasNext() && inFlightTasks.isEmpty() && unprocessedTasks.isEmpty();
+    }
+
+    /**
+     * The elements of the window starting at the low-water mark that are not yet processed: running and unprocessed
+     * tasks, and the elements that are not read yet (they are read ahead and kept for the next tasks).
+     *
+     * @return the remaining elements to persist with the low-water mark
+     */
+    List<String> getRemainingElements() {
+        Map<Integer, List<String>> tasks = new TreeMap<>(inFlightTasks);
+        tasks.putAll(unprocessedTasks);
+        List<String> remainingElements = new ArrayList<>();
+        tasks.values().forEach(remainingElements::addAll);
+
+        int windowEnd = getLowWaterMark() + windowSize;
+        while (nextOffset + readAhead.size() < windowEnd && source.hasNext()) {
+            readAhead.addLast(source.next());
+        }
+        int offset = nextOffset;
+        for (JsonLineModel element : readAhead) {
+            if (offset >= windowEnd) {
+                break;
+            }
+            if (!isAlreadyProcessed(offset, element)) {
+                remainingElements.add(element.getId());
+            }
+            offset++;
+        }
+        return remainingElements;
+    }
+
+    private JsonLineModel peek() {
+        if (readAhead.isEmpty()) {
+            readAhead.addLast(source.next());
+        }
+        return readAhead.peekFirst();
+    }
+
+    private boolean isAlreadyProcessed(int offset, JsonLineModel element) {
+        return offset < recoveredWindowEnd && !recoveredElements.isEmpty() &&
+            !recoveredElements.contains(element.getId());
+    }
+
+    private static boolean isGroupChange(JsonLineModel current, JsonLineModel next) {
+        return current != null && next != null &&
+            current.getDistribGroup() != null && next.getDistribGroup() != null &&
+            !current.getDistribGroup().equals(next.getDistribGroup());
+    }
+}
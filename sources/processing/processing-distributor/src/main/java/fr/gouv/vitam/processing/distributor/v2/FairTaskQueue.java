@@ -0,0 +1,501 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import fr.gouv.vitam.common.ParametersChecker;
+
+/**
+ * Bounded task queue shared by the workers of a family.<br/>
+ * Tasks are stored in one sub-queue per operation, grouped by tenant, and dequeued with a two level weighted round
+ * robin: tenants are served in turn, and inside a tenant, operations are served in turn. Each operation is served
+ * {@link WorkerTaskPriority#getWeight()} tasks in a row, each tenant the highest weight of its operations. A small
+ * operation is thus no longer queued behind all the tasks of a mass operation started before it.<br/>
+ * Tasks that are not bound to an operation (interrupt signals of the workers) are served first. A signal taken by a
+ * thread it is not meant for is {@link #requeue(Runnable) requeued} behind the operation tasks queued so far.<br/>
+ * Removal of a given element is not supported.
+ */
+class FairTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /**
+     * Statistics of an operation are kept this long after its last queued task was served
+     */
+    private static final long STATISTICS_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final Deque<Runnable> unscheduled = new ArrayDeque<>();
+    private final Deque<RequeuedTask> requeued = new ArrayDeque<>();
+    private final Deque<TenantQueue> tenants = new ArrayDeque<>();
+    private final Map<Integer, TenantQueue> tenantsById = new HashMap<>();
+    private final Map<String, OperationStatistics> statistics = new ConcurrentHashMap<>();
+    private int count;
+    private long operationTasksQueued;
+    private long operationTasksServed;
+
+    /**
+     * @param capacity the maximum number of queued tasks, all operations included
+     */
+    FairTaskQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queue a task of an operation, waiting if necessary for space to become available.
+     *
+     * @param task the task
+     * @param operationId the operation of the task
+     * @param tenantId the tenant of the operation
+     * @param priority the priority class of the operation
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void put(Runnable task, String operationId, int tenantId, WorkerTaskPriority priority)
+        throws InterruptedException {
+        ParametersChecker.checkParameter("task, operationId and priority are mandatory", task, operationId, priority);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            TenantQueue tenant = tenantsById.get(tenantId);
+            if (tenant == null) {
+                tenant = new TenantQueue(tenantId);
+                tenantsById.put(tenantId, tenant);
+                tenants.addLast(tenant);
+            }
+            OperationQueue operation = tenant.operationsById.get(operationId);
+            if (operation == null) {
+                operation = new OperationQueue(operationId, priority, newStatistics(operationId, tenantId, priority));
+                tenant.operationsById.put(operationId, operation);
+                tenant.operations.addLast(operation);
+            }
+            operation.tasks.addLast(new ScheduledTask(task, System.currentTimeMillis()));
+            operation.statistics.queued.incrementAndGet();
+            operationTasksQueued++;
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue a task that is not bound to an operation. It will be served before the tasks of the operations.
+     */
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        ParametersChecker.checkParameter("task is mandatory", task);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            enqueueUnscheduled(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue again a task that is not bound to an operation, behind the tasks of the operations queued so far. It is
+     * served once these tasks have been served, or as soon as no operation task is queued.<br/>
+     * The task has just been taken from this queue, so capacity is not checked, to never block the taking thread.
+     *
+     * @param task the task
+     */
+    void requeue(Runnable task) {
+        ParametersChecker.checkParameter("task is mandatory", task);
+        lock.lock();
+        try {
+            requeued.addLast(new RequeuedTask(task, operationTasksQueued));
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        ParametersChecker.checkParameter("task is mandatory", task);
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            enqueueUnscheduled(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        ParametersChecker.checkParameter("task is mandatory", task);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueueUnscheduled(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            if (!unscheduled.isEmpty()) {
+                return unscheduled.peekFirst();
+            }
+            if (isRequeuedTaskDue()) {
+                return requeued.peekFirst().task;
+            }
+            TenantQueue tenant = tenants.peekFirst();
+            return tenant == null ? null : tenant.operations.peekFirst().tasks.peekFirst().task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return Math.max(0, capacity - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+        ParametersChecker.checkParameter("collection is mandatory", collection);
+        if (collection == this) {
+            throw new IllegalArgumentException("cannot drain to itself");
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                collection.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the queued tasks, in no particular order
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        lock.lock();
+        try {
+            List<Runnable> snapshot = new ArrayList<>(unscheduled);
+            for (RequeuedTask requeuedTask : requeued) {
+                snapshot.add(requeuedTask.task);
+            }
+            for (TenantQueue tenant : tenants) {
+                for (OperationQueue operation : tenant.operations) {
+                    for (ScheduledTask scheduledTask : operation.tasks) {
+                        snapshot.add(scheduledTask.task);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the statistics of the operations that queued tasks recently, by operation id
+     */
+    Map<String, OperationStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private void enqueueUnscheduled(Runnable task) {
+        unscheduled.addLast(task);
+        count++;
+        notEmpty.signal();
+    }
+
+    private boolean isRequeuedTaskDue() {
+        RequeuedTask requeuedTask = requeued.peekFirst();
+        return requeuedTask != null &&
+            (tenants.isEmpty() || operationTasksServed >= requeuedTask.operationTasksQueuedBefore);
+    }
+
+    private Runnable dequeue() {
+        Runnable task = unscheduled.pollFirst();
+        if (task == null && isRequeuedTaskDue()) {
+            task = requeued.pollFirst().task;
+        }
+        if (task == null) {
+            TenantQueue tenant = tenants.peekFirst();
+            if (tenant.credit == 0) {
+                tenant.credit = tenant.weight();
+            }
+            OperationQueue operation = tenant.operations.peekFirst();
+            if (operation.credit == 0) {
+                operation.credit = operation.priority.getWeight();
+            }
+            ScheduledTask scheduledTask = operation.tasks.pollFirst();
+            operation.credit--;
+            tenant.credit--;
+            operation.statistics.served(System.currentTimeMillis() - scheduledTask.queuedAt);
+            operationTasksServed++;
+
+            if (operation.tasks.isEmpty()) {
+                tenant.operations.pollFirst();
+                tenant.operationsById.remove(operation.operationId);
+            } else if (operation.credit == 0) {
+                tenant.operations.addLast(tenant.operations.pollFirst());
+            }
+            if (tenant.operations.isEmpty()) {
+                tenants.pollFirst();
+                tenantsById.remove(tenant.tenantId);
+            } else if (tenant.credit == 0) {
+                tenants.addLast(tenants.pollFirst());
+            }
+            task = scheduledTask.task;
+        }
+        count--;
+        notFull.signal();
+        return task;
+    }
+
+    private OperationStatistics newStatistics(String operationId, int tenantId, WorkerTaskPriority priority) {
+        long now = System.currentTimeMillis();
+        statistics.values().removeIf(
+            stats -> stats.getQueueDepth() == 0 && now - stats.lastActivity.get() > STATISTICS_RETENTION_MILLIS);
+        return statistics.computeIfAbsent(operationId, id -> new OperationStatistics(id, tenantId, priority));
+    }
+
+    private static final class ScheduledTask {
+        private final Runnable task;
+        private final long queuedAt;
+
+        private ScheduledTask(Runnable task, long queuedAt) {
+            this.task = task;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    private static final class RequeuedTask {
+        private final Runnable task;
+        private final long operationTasksQueuedBefore;
+
+        private RequeuedTask(Runnable task, long operationTasksQueuedBefore) {
+            this.task = task;
+            this.operationTasksQueuedBefore = operationTasksQueuedBefore;
+        }
+    }
+
+    private static final class OperationQueue {
+        private final String operationId;
+        private final WorkerTaskPriority priority;
+        private final OperationStatistics statistics;
+        private final Deque<ScheduledTask> tasks = new ArrayDeque<>();
+        private int credit;
+
+        private OperationQueue(String operationId, WorkerTaskPriority priority, OperationStatistics statistics) {
+            this.operationId = operationId;
+            this.priority = priority;
+            this.statistics = statistics;
+        }
+    }
+
+    private static final class TenantQueue {
+        private final int tenantId;
+        private final Deque<OperationQueue> operations = new ArrayDeque<>();
+        private final Map<String, OperationQueue> operationsById = new HashMap<>();
+        private int credit;
+
+        private TenantQueue(int tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        private int weight() {
+            int weight = 0;
+            for (OperationQueue operation : operations) {
+                weight = Math.max(weight, operation.priority.getWeight());
+            }
+            return weight;
+        }
+    }
+
+    /**
+     * Queue depth and wait time of the tasks of an operation
+     */
+    static final class OperationStatistics {
+        private final String operationId;
+        private final int tenantId;
+        private final WorkerTaskPriority priority;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong served = new AtomicLong();
+        private final AtomicLong totalWaitTime = new AtomicLong();
+        private final AtomicLong maxWaitTime = new AtomicLong();
+        private final AtomicLong lastActivity = new AtomicLong(System.currentTimeMillis());
+
+        private OperationStatistics(String operationId, int tenantId, WorkerTaskPriority priority) {
+            this.operationId = operationId;
+            this.tenantId = tenantId;
+            this.priority = priority;
+        }
+
+        private void served(long waitTime) {
+            queued.decrementAndGet();
+            served.incrementAndGet();
+            totalWaitTime.addAndGet(waitTime);
+            maxWaitTime.accumulateAndGet(waitTime, Math::max);
+            lastActivity.set(System.currentTimeMillis());
+        }
+
+        String getOperationId() {
+            return operationId;
+        }
+
+        int getTenantId() {
+            return tenantId;
+        }
+
+        WorkerTaskPriority getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return the number of tasks of the operation waiting in the queue
+         */
+        int getQueueDepth() {
+            return queued.get();
+        }
+
+        /**
+         * @return the number of tasks of the operation taken by a worker
+         */
+        long getServedTasks() {
+            return served.get();
+        }
+
+        /**
+         * @return the mean time in milliseconds spent in the queue by the tasks of the operation
+         */
+        long getMeanWaitTime() {
+            long count = served.get();
+            return count == 0 ? 0 : totalWaitTime.get() / count;
+        }
+
+        /**
+         * @return the max time in milliseconds spent in the queue by a task of the operation
+         */
+        long getMaxWaitTime() {
+            return maxWaitTime.get();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Reads the UTF-8 lines of a distribution file and keeps the byte offset of every line read since the last
+ * checkpoint.
+ * <p>
+ * The byte offset of the checkpoint line is persisted with the DistributorIndex, so that a resumed distribution
+ * reads the file from this offset (ranged workspace read) instead of reading again all the lines before it.
+ */
+class LineOffsetReader implements Iterator<String> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+    private final TreeMap<Integer, Long> lineOffsets = new TreeMap<>();
+
+    private int position = 0;
+    private int limit = 0;
+    private long byteOffset;
+    private int lineNumber;
+
+    private String nextLine;
+    private long nextLineEndOffset;
+
+    /**
+     * @param inputStream the distribution file, starting at the beginning of a line
+     * @param lineNumber the number of the first line of the stream
+     * @param byteOffset the byte offset in the file of the first line of the stream
+     */
+    LineOffsetReader(InputStream inputStream, int lineNumber, long byteOffset) {
+        this.inputStream = inputStream;
+        this.lineNumber = lineNumber;
+        this.byteOffset = byteOffset;
+        this.lineOffsets.put(lineNumber, byteOffset);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine == null) {
+            nextLine = readLine();
+        }
+        return nextLine != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        lineNumber++;
+        lineOffsets.put(lineNumber, nextLineEndOffset);
+        return line;
+    }
+
+    /**
+     * Skip lines without keeping their offsets (resume from a DistributorIndex without byte offset)
+     *
+     * @param count number of lines to skip
+     */
+    void skipLines(int count) {
+        for (int i = 0; i < count && hasNext(); i++) {
+            nextLine = null;
+            lineNumber++;
+        }
+        lineOffsets.clear();
+        lineOffsets.put(lineNumber, byteOffset);
+    }
+
+    /**
+     * Get the byte offset of a line and forget the offsets of the previous lines.
+     *
+     * @param line the line number, greater or equal to the last checkpoint and lower or equal to the number of read
+     * lines
+     * @return the byte offset of the beginning of the line, null if unknown
+     */
+    Long checkpoint(int line) {
+        Long offset = lineOffsets.get(line);
+        lineOffsets.headMap(line).clear();
+        return offset;
+    }
+
+    private String readLine() {
+        currentLine.reset();
+        boolean lineRead = false;
+        try {
+            while (true) {
+                if (position == limit) {
+                    limit = inputStream.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        break;
+                    }
+                }
+                lineRead = true;
+                int index = position;
+                while (index < limit && buffer[index] != LINE_FEED) {
+                    index++;
+                }
+                currentLine.write(buffer, position, index - position);
+                byteOffset += index - position;
+                if (index < limit) {
+                    // Line feed found
+                    position = index + 1;
+                    byteOffset++;
+                    break;
+                }
+                position = limit;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!lineRead) {
+            return null;
+        }
+        nextLineEndOffset = byteOffset;
+        byte[] bytes = currentLine.toByteArray();
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -20,6 +20,7 @@ package fr.gouv.vitam.processing.distributor.v2;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -60,19 +61,17 @@ import fr.gouv.vitam.worker.client.exception.PauseCancelException;
 import fr.gouv.vitam.worker.client.exception.WorkerUnreachableException;
 import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.worker.core.distribution.JsonLineModel;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 import fr.gouv.vitam.workspace.client.WorkspaceBufferingInputStream;
 import org.apache.commons.collections4.iterators.PeekingIterator;
 
 import javax.ws.rs.core.Response;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -82,8 +81,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -314,18 +316,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             } else if (step.getDistribution().getKind().equals(DistributionKind.LIST_IN_JSONL_FILE)) {
 
                 // distribute on stream
-
-                File tmpDirectory = new File(VitamConfiguration.getVitamTmpFolder());
-
-                try (InputStream inputStream = new WorkspaceBufferingInputStream(workspaceClientFactory,
-                    workParams.getContainerName(), step.getDistribution().getElement(),
-                    serverConfiguration.getMaxDistributionOnDiskBufferSize(),
-                    serverConfiguration.getMaxDistributionInMemoryBufferSize(), tmpDirectory);
-                    BufferedReader br = new BufferedReader(
-                        new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-
-                    distributeOnStream(workParams, step, br, useDistributorIndex, tenantId);
-                }
+                distributeOnStream(workParams, step, useDistributorIndex, tenantId);
 
             } else {
                 // update the number of element to process
@@ -457,6 +448,13 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             processDataAccess.updateStep(operationId, uniqueStepId, sizeList, false, tenantId);
         }
 
+        if (serverConfiguration.isSlidingWindowDistribution()) {
+            Iterator<JsonLineModel> elements =
+                objectsList.subList(Math.min(offset, sizeList), sizeList).stream().map(JsonLineModel::new).iterator();
+            return distributeOnSlidingWindow(workerParameters, step, level, elements, offset,
+                remainingElementsFromRecover, false, false, line -> null, tenantId);
+        }
+
         final Set<ItemStatus> cancelled = new HashSet<>();
         final Set<ItemStatus> paused = new HashSet<>();
         boolean fatalOccurred = false;
@@ -559,16 +557,18 @@ public class ProcessDistributorImpl implements ProcessDistributor {
 
     /**
      * Distribution on stream.
+     * <p>
+     * When recovering from a DistributorIndex with a byte offset, the distribution file is read from this offset.
+     * Otherwise, the lines before the offset are read and skipped.
      *
      * @param workerParameters workerParameters
      * @param step step
-     * @param bufferedReader
      * @param initFromDistributorIndex
      * @param tenantId
      * @return
      */
     private boolean distributeOnStream(WorkerParameters workerParameters, Step step,
-        BufferedReader bufferedReader, boolean initFromDistributorIndex, Integer tenantId)
+        boolean initFromDistributorIndex, Integer tenantId)
         throws ProcessingException {
 
         final String operationId = workerParameters.getContainerName();
@@ -579,6 +579,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
 
         // initialization
         int offset = 0;
+        Long byteOffset = null;
 
         boolean updateElementToProcess = true;
         DistributorIndex distributorIndex;
@@ -627,8 +628,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
                  * Initialization from DistributorIndex
                  */
                 offset = distributorIndex.getOffset();
-
-                skipOffsetLines(bufferedReader, offset);
+                byteOffset = distributorIndex.getByteOffset();
 
                 distributorIndex.getItemStatus().getItemsStatus()
                     .remove(PauseOrCancelAction.ACTION_PAUSE.name());
@@ -651,6 +651,38 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             }
         }
 
+        File tmpDirectory = new File(VitamConfiguration.getVitamTmpFolder());
+
+        try (InputStream inputStream = new WorkspaceBufferingInputStream(workspaceClientFactory,
+            operationId, step.getDistribution().getElement(), firstNonNull(byteOffset, 0L),
+            serverConfiguration.getMaxDistributionOnDiskBufferSize(),
+            serverConfiguration.getMaxDistributionInMemoryBufferSize(), tmpDirectory)) {
+
+            final LineOffsetReader lineOffsetReader;
+            if (byteOffset != null) {
+                lineOffsetReader = new LineOffsetReader(inputStream, offset, byteOffset);
+            } else {
+                lineOffsetReader = new LineOffsetReader(inputStream, 0, 0L);
+                lineOffsetReader.skipLines(offset);
+            }
+
+            return distributeOnStream(workerParameters, step, lineOffsetReader, offset, remainingElementsFromRecover,
+                updateElementToProcess, initFromDistributorIndex, tenantId, operationId, requestId, contractId,
+                contextId, applicationId);
+
+        } catch (IOException | ContentAddressableStorageNotFoundException e) {
+            throw new ProcessingException("Could not read distribution file " + step.getDistribution().getElement(),
+                e);
+        }
+    }
+
+    private boolean distributeOnStream(WorkerParameters workerParameters, Step step,
+        LineOffsetReader lineOffsetReader, int offset, List<String> remainingElementsFromRecover,
+        boolean updateElementToProcess, boolean initFromDistributorIndex, Integer tenantId, String operationId,
+        String requestId, String contractId, String contextId, String applicationId)
+        throws ProcessingException {
+
+        DistributorIndex distributorIndex;
         final Set<ItemStatus> cancelled = new HashSet<>();
         final Set<ItemStatus> paused = new HashSet<>();
 
@@ -658,7 +690,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         int bulkSize = findBulkSize(step.getDistribution());
         int globalBatchSize = VitamConfiguration.getDistributeurBatchSize() * bulkSize;
 
-        PeekingIterator<String> linesPeekIterator = new PeekingIterator<>(bufferedReader.lines().iterator());
+        PeekingIterator<String> linesPeekIterator = new PeekingIterator<>(lineOffsetReader);
 
         boolean isEmptyDistribution = !initFromDistributorIndex && !linesPeekIterator.hasNext();
         if (isEmptyDistribution) {
@@ -667,16 +699,29 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             return false;
         }
 
+        if (serverConfiguration.isSlidingWindowDistribution()) {
+            Iterator<JsonLineModel> elements = Iterators.transform(linesPeekIterator, line -> {
+                try {
+                    return JsonHandler.getFromString(line, JsonLineModel.class);
+                } catch (InvalidParseOperationException e) {
+                    throw new IllegalArgumentException("Invalid Model", e);
+                }
+            });
+            return distributeOnSlidingWindow(workerParameters, step, ProcessDistributor.NOLEVEL, elements, offset,
+                remainingElementsFromRecover, true, updateElementToProcess, lineOffsetReader::checkpoint, tenantId);
+        }
+
         while (linesPeekIterator.hasNext()) {
 
-            int nextOffset = offset + globalBatchSize;
+            int nextOffset = offset;
             List<JsonLineModel> distributionList = new ArrayList<>();
             List<CompletableFuture<ItemStatus>> completableFutureList = new ArrayList<>();
             List<WorkerTask> currentWorkerTaskList = new ArrayList<>();
 
-            for (int i = offset; i < nextOffset && linesPeekIterator.hasNext(); i++) {
+            while (nextOffset < offset + globalBatchSize && linesPeekIterator.hasNext()) {
 
                 JsonLineModel currentJsonLineModel = readJsonLineModelFromBufferFromString(linesPeekIterator.next());
+                nextOffset++;
 
                 distributionList.add(currentJsonLineModel);
 
@@ -758,6 +803,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
                 distributorIndex =
                     new DistributorIndex(ProcessDistributor.NOLEVEL, offset, itemStatus, requestId, step.getId(),
                         remainingElements);
+                distributorIndex.setByteOffset(lineOffsetReader.checkpoint(offset));
                 // All elements of the current level are treated so finish it
                 if (!linesPeekIterator.hasNext()) {
                     distributorIndex.setLevelFinished(true);
@@ -776,14 +822,139 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         return true;
     }
 
-    private void skipOffsetLines(BufferedReader bufferedReader, int offset) throws ProcessingException {
-        for (int i = 0; i < offset; i++) {
+    /**
+     * Distribution with a sliding window of worker tasks.
+     * <p>
+     * Instead of waiting for every task of a batch before sending the next one, at most
+     * {@link VitamConfiguration#getDistributeurBatchSize()} tasks are kept in flight and a new task is sent as soon as
+     * one completes. Tasks of a new distribution group are only sent when all the tasks of the previous group are
+     * done. The persisted DistributorIndex offset is the low-water mark of the processed elements, and the
+     * remaining elements are those of the window starting at this offset that are not yet processed.
+     *
+     * @param workerParameters workerParameters
+     * @param step step
+     * @param level the current level
+     * @param elements the elements to distribute, starting at offset
+     * @param offset offset of the first element
+     * @param remainingElementsFromRecover not yet processed elements of the first window when recovering
+     * @param withMetadata true to send the params of the elements to the workers
+     * @param updateElementToProcess true to update the number of elements to process while reading elements
+     * @param byteOffsets byte offset in the distribution file of a checkpoint offset, null if unknown
+     * @param tenantId tenantId
+     * @return true as the distributor index is used
+     * @throws ProcessingException
+     */
+    private boolean distributeOnSlidingWindow(WorkerParameters workerParameters, Step step, String level,
+        Iterator<JsonLineModel> elements, int offset, List<String> remainingElementsFromRecover,
+        boolean withMetadata, boolean updateElementToProcess, IntFunction<Long> byteOffsets, Integer tenantId)
+        throws ProcessingException {
+
+        final String operationId = workerParameters.getContainerName();
+        final String requestId = VitamThreadUtils.getVitamSession().getRequestId();
+        final String contractId = VitamThreadUtils.getVitamSession().getContractId();
+        final String contextId = VitamThreadUtils.getVitamSession().getContextId();
+        final String applicationId = VitamThreadUtils.getVitamSession().getApplicationSessionId();
+
+        final int bulkSize = findBulkSize(step.getDistribution());
+        final int maxTasksInFlight = VitamConfiguration.getDistributeurBatchSize();
+        final int windowSize = maxTasksInFlight * bulkSize;
+
+        final DistributionWindow window =
+            new DistributionWindow(elements, offset, windowSize, remainingElementsFromRecover);
+        final BlockingQueue<WorkerTaskCompletion> completions = new LinkedBlockingQueue<>();
+        final Set<ItemStatus> cancelled = new HashSet<>();
+        final Set<ItemStatus> paused = new HashSet<>();
+
+        int persistedOffset = offset;
+        boolean interrupted = false;
+
+        while (true) {
+            // Fill the window
+            while (!interrupted && window.canSubmit(maxTasksInFlight, bulkSize)) {
+                final int start = window.getNextOffset();
+                final List<JsonLineModel> chunk = window.nextChunk(bulkSize);
+                if (chunk.isEmpty()) {
+                    // All elements were already processed before pause
+                    continue;
+                }
+                if (updateElementToProcess) {
+                    processDataAccess.updateStep(operationId, step.getId(), chunk.size(), false, tenantId);
+                }
+
+                final List<String> objectNameList =
+                    chunk.stream().map(JsonLineModel::getId).collect(Collectors.toList());
+                workerParameters.setObjectNameList(objectNameList);
+                if (withMetadata) {
+                    workerParameters
+                        .setObjectMetadataList(chunk.stream().map(JsonLineModel::getParams).collect(Collectors.toList()));
+                }
+
+                final WorkerTask workerTask =
+                    new WorkerTask(
+                        new DescriptionStep(step, ((DefaultWorkerParameters) workerParameters).newInstance()),
+                        tenantId, requestId, contractId, contextId, applicationId, workerClientFactory);
+
+                window.submit(start, objectNameList);
+                prepare(workerTask, operationId, tenantId).whenComplete((itemStatus, e) -> {
+                    if (e == null) {
+                        completions.add(new WorkerTaskCompletion(start, workerTask, itemStatus));
+                    } else {
+                        LOGGER.error("Exception occured when executing task", e);
+                        completions.add(new WorkerTaskCompletion(start, workerTask,
+                            new ItemStatus(WORKER_CALL_EXCEPTION).setItemsStatus(WORKER_CALL_EXCEPTION,
+                                new ItemStatus(WORKER_CALL_EXCEPTION).increment(StatusCode.FATAL))));
+                    }
+                });
+            }
+
+            if (window.getInFlightCount() == 0) {
+                break;
+            }
+
+            // Wait for the next completed task
+            final WorkerTaskCompletion completion;
             try {
-                bufferedReader.readLine();
-            } catch (IOException e) {
+                completion = completions.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new ProcessingException(e);
             }
+            window.complete(completion.getStart(), completion.getWorkerTask().isCompleted());
+            final ItemStatus itemStatus =
+                aggregateItemStatus(step.getStepResponses(), cancelled, paused, completion.getItemStatus());
+
+            if (itemStatus.getGlobalStatus().isGreaterOrEqualToFatal() || !cancelled.isEmpty() ||
+                !paused.isEmpty()) {
+                // Stop sending tasks and wait for the running ones
+                interrupted = true;
+            } else if (window.getLowWaterMark() - persistedOffset >= windowSize) {
+                persistedOffset = window.getLowWaterMark();
+                DistributorIndex distributorIndex = new DistributorIndex(level, persistedOffset, itemStatus,
+                    requestId, step.getId(), window.getRemainingElements());
+                distributorIndex.setByteOffset(byteOffsets.apply(persistedOffset));
+                updatePersitedDistributorIndexIfNotFatal(operationId, persistedOffset, distributorIndex, itemStatus,
+                    AN_EXCEPTION_HAS_BEEN_THROWN_WHEN_TRYING_TO_PERSIST_DISTRIBUTOR_INDEX);
+            }
         }
+
+        final ItemStatus itemStatus = step.getStepResponses();
+        if (itemStatus.getGlobalStatus().isGreaterOrEqualToFatal()) {
+            // Do not update index as we have to restart from old saved index
+            checkCancelledOrPaused(cancelled, paused);
+            return true;
+        }
+
+        int lowWaterMark = window.getLowWaterMark();
+        DistributorIndex distributorIndex = new DistributorIndex(level, lowWaterMark, itemStatus, requestId,
+            step.getId(), window.getRemainingElements());
+        distributorIndex.setByteOffset(byteOffsets.apply(lowWaterMark));
+        // All elements of the current level are treated so finish it
+        distributorIndex.setLevelFinished(window.isFinished());
+        updatePersitedDistributorIndexIfNotFatal(operationId, lowWaterMark, distributorIndex, itemStatus,
+            AN_EXCEPTION_HAS_BEEN_THROWN_WHEN_TRYING_TO_PERSIST_DISTRIBUTOR_INDEX);
+
+        checkCancelledOrPaused(cancelled, paused);
+        return true;
     }
 
     private JsonLineModel readJsonLineModelFromBufferFromString(String value) throws ProcessingException {
@@ -862,20 +1033,25 @@ public class ProcessDistributorImpl implements ProcessDistributor {
 
         return sequence
             .thenApplyAsync((List<ItemStatus> is) -> is.stream()
-                .reduce(step.getStepResponses(), (identity, iterationItemStatus) -> {
-                    // compute cancelled actions
-                    if (PauseOrCancelAction.ACTION_CANCEL.name().equals(iterationItemStatus.getItemId()) &&
-                        iterationItemStatus.getGlobalStatus().equals(StatusCode.UNKNOWN)) {
-                        cancelled.add(iterationItemStatus);
-                    }
-                    // compute paused actions
-                    if (PauseOrCancelAction.ACTION_PAUSE.name().equals(iterationItemStatus.getItemId()) &&
-                        iterationItemStatus.getGlobalStatus().equals(StatusCode.UNKNOWN)) {
-                        paused.add(iterationItemStatus);
-                    }
-                    return identity.setItemsStatus(iterationItemStatus);
-                }));
+                .reduce(step.getStepResponses(),
+                    (identity, iterationItemStatus) -> aggregateItemStatus(identity, cancelled, paused,
+                        iterationItemStatus)));
+
+    }
 
+    private ItemStatus aggregateItemStatus(ItemStatus identity, Set<ItemStatus> cancelled, Set<ItemStatus> paused,
+        ItemStatus iterationItemStatus) {
+        // compute cancelled actions
+        if (PauseOrCancelAction.ACTION_CANCEL.name().equals(iterationItemStatus.getItemId()) &&
+            iterationItemStatus.getGlobalStatus().equals(StatusCode.UNKNOWN)) {
+            cancelled.add(iterationItemStatus);
+        }
+        // compute paused actions
+        if (PauseOrCancelAction.ACTION_PAUSE.name().equals(iterationItemStatus.getItemId()) &&
+            iterationItemStatus.getGlobalStatus().equals(StatusCode.UNKNOWN)) {
+            paused.add(iterationItemStatus);
+        }
+        return identity.setItemsStatus(iterationItemStatus);
     }
 
     private void checkCancelledOrPaused(Set<ItemStatus> cancelled, Set<ItemStatus> paused) {
@@ -901,8 +1077,9 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             LOGGER.error("No WorkerFamilyManager found for : " + step.getWorkerGroupId());
             return CompletableFuture.completedFuture(new ItemStatus(step.getStepName()).increment(StatusCode.FATAL));
         }
+        final WorkerTaskPriority priority = WorkerTaskPriority.of(task.getWorkerParameters());
         return CompletableFuture
-            .supplyAsync(task, wmf)
+            .supplyAsync(task, wmf.forOperation(operationId, tenantId, priority))
             .exceptionally((completionException) -> {
                 LOGGER.error("Exception occured when executing task", completionException);
                 Throwable cause = completionException.getCause();
@@ -945,6 +1122,33 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         // Nothing
     }
 
+    /**
+     * Result of a worker task sent by the sliding window distribution
+     */
+    private static class WorkerTaskCompletion {
+        private final int start;
+        private final WorkerTask workerTask;
+        private final ItemStatus itemStatus;
+
+        WorkerTaskCompletion(int start, WorkerTask workerTask, ItemStatus itemStatus) {
+            this.start = start;
+            this.workerTask = workerTask;
+            this.itemStatus = itemStatus;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        WorkerTask getWorkerTask() {
+            return workerTask;
+        }
+
+        ItemStatus getItemStatus() {
+            return itemStatus;
+        }
+    }
+
 
     @Override
     public ProcessDataAccess getProcessDataAccess() {
@@ -27,7 +27,6 @@
 
 package fr.gouv.vitam.processing.distributor.v2;
 
-import java.util.concurrent.BlockingQueue;
 import java.util.stream.IntStream;
 
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -42,10 +41,10 @@ public class WorkerExecutor implements Runnable {
     private static final VitamLogger
         LOGGER = VitamLoggerFactory.getInstance(WorkerExecutor.class);
     private final InterruptSignal interruptSignal;
-    private BlockingQueue<Runnable> queue;
+    private FairTaskQueue queue;
     private WorkerBean workerBean;
 
-    public WorkerExecutor(BlockingQueue<Runnable> queue, WorkerBean workerBean) {
+    WorkerExecutor(FairTaskQueue queue, WorkerBean workerBean) {
         this.workerBean = workerBean;
         this.interruptSignal = new InterruptSignal();
         this.queue = queue;
@@ -78,11 +77,12 @@ public class WorkerExecutor implements Runnable {
         }
     }
 
-    private boolean checkIfWorkerThreadIsAlive(Runnable task) throws InterruptedException {
+    private boolean checkIfWorkerThreadIsAlive(Runnable task) {
         if (task == interruptSignal) {
             return true;
         } else if (task instanceof InterruptSignal) {
-            queue.put(task);
+            // Signal of another worker : give it back behind the pending tasks, for a thread of its worker
+            queue.requeue(task);
         }
         return false;
     }
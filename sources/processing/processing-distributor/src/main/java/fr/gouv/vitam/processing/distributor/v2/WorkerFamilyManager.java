@@ -29,9 +29,8 @@ package fr.gouv.vitam.processing.distributor.v2;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.thread.VitamThreadFactory;
@@ -40,8 +39,13 @@ import fr.gouv.vitam.processing.common.model.WorkerBean;
 // manage many worker per worker family
 public class WorkerFamilyManager implements Executor {
 
+    /**
+     * Operation id and tenant of the tasks submitted through {@link #execute(Runnable)}
+     */
+    static final String UNKNOWN_OPERATION = "UNKNOWN_OPERATION";
+    static final int UNKNOWN_TENANT = -1;
 
-    private BlockingQueue<Runnable> queue;
+    private FairTaskQueue queue;
 
     private Map<String, WorkerExecutor> workers = new HashMap<>();
 
@@ -49,7 +53,7 @@ public class WorkerFamilyManager implements Executor {
         if (queueSize < 2) {
             throw new IllegalArgumentException("queue size must be greater than 2");
         }
-        queue = new ArrayBlockingQueue<>(queueSize, true);
+        queue = new FairTaskQueue(queueSize);
     }
 
     public void registerWorker(WorkerBean workerBean) {
@@ -77,15 +81,64 @@ public class WorkerFamilyManager implements Executor {
         }
     }
 
+    /**
+     * Queue a task that is not bound to an operation, with a normal priority.
+     *
+     * @param command the task
+     */
     @Override
     public void execute(Runnable command) {
+        execute(command, UNKNOWN_OPERATION, UNKNOWN_TENANT, WorkerTaskPriority.NORMAL);
+    }
+
+    /**
+     * Get an executor queuing the tasks of an operation. The workers of the family are shared between the running
+     * operations according to their priority, instead of in submission order.
+     *
+     * @param operationId the operation id
+     * @param tenantId the tenant of the operation
+     * @param priority the priority class of the operation
+     * @return the executor
+     */
+    public Executor forOperation(String operationId, int tenantId, WorkerTaskPriority priority) {
+        return command -> execute(command, operationId, tenantId, priority);
+    }
+
+    private void execute(Runnable command, String operationId, int tenantId, WorkerTaskPriority priority) {
         try {
-            queue.put(command);
+            queue.put(command, operationId, tenantId, priority);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * @return the number of queued tasks by operation id
+     */
+    public Map<String, Integer> getQueueDepthByOperation() {
+        return queue.getStatistics().values().stream()
+            .collect(Collectors.toMap(FairTaskQueue.OperationStatistics::getOperationId,
+                FairTaskQueue.OperationStatistics::getQueueDepth));
+    }
+
+    /**
+     * @return the mean time in milliseconds spent in the queue by the tasks, by operation id
+     */
+    public Map<String, Long> getMeanWaitTimeByOperation() {
+        return queue.getStatistics().values().stream()
+            .collect(Collectors.toMap(FairTaskQueue.OperationStatistics::getOperationId,
+                FairTaskQueue.OperationStatistics::getMeanWaitTime));
+    }
+
+    /**
+     * @return the max time in milliseconds spent in the queue by a task, by operation id
+     */
+    public Map<String, Long> getMaxWaitTimeByOperation() {
+        return queue.getStatistics().values().stream()
+            .collect(Collectors.toMap(FairTaskQueue.OperationStatistics::getOperationId,
+                FairTaskQueue.OperationStatistics::getMaxWaitTime));
+    }
+
     public Map<String, WorkerExecutor> getWorkers() {
         return workers;
     }
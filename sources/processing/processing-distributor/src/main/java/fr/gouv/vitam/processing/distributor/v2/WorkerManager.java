@@ -18,6 +18,7 @@
 
 package fr.gouv.vitam.processing.distributor.v2;
 
+import com.codahale.metrics.Gauge;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.VitamConfiguration;
@@ -25,6 +26,8 @@ import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.metrics.VitamMetricRegistry;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.WorkerFamilyNotFoundException;
 import fr.gouv.vitam.processing.common.model.WorkerBean;
@@ -126,7 +129,7 @@ public class WorkerManager implements IWorkerManager {
 
     @Override
     public void registerWorker(WorkerBean workerBean) {
-        workersFamily.putIfAbsent(workerBean.getFamily(), new WorkerFamilyManager(QUEUE_SIZE));
+        workersFamily.computeIfAbsent(workerBean.getFamily(), this::createWorkerFamilyManager);
         workersFamily.compute(workerBean.getFamily(), (key, workerManager) -> {
             workerManager.registerWorker(workerBean);
             return workerManager;
@@ -134,6 +137,18 @@ public class WorkerManager implements IWorkerManager {
         marshallToDB();
     }
 
+    private WorkerFamilyManager createWorkerFamilyManager(String family) {
+        WorkerFamilyManager workerFamilyManager = new WorkerFamilyManager(QUEUE_SIZE);
+        VitamMetricRegistry registry = CommonBusinessApplication.getBusinessMetricsRegistry();
+        registry.register("Worker family " + family + " queue depth by operation",
+            (Gauge<Map<String, Integer>>) workerFamilyManager::getQueueDepthByOperation);
+        registry.register("Worker family " + family + " mean wait time by operation",
+            (Gauge<Map<String, Long>>) workerFamilyManager::getMeanWaitTimeByOperation);
+        registry.register("Worker family " + family + " max wait time by operation",
+            (Gauge<Map<String, Long>>) workerFamilyManager::getMaxWaitTimeByOperation);
+        return workerFamilyManager;
+    }
+
     @Override
     public void unregisterWorker(String workerFamily, String worker) throws WorkerFamilyNotFoundException {
         final WorkerFamilyManager workerManager = workersFamily.get(workerFamily);
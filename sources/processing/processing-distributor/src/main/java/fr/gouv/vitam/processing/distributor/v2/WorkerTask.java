@@ -32,6 +32,7 @@ import fr.gouv.vitam.common.model.processing.Step;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.processing.common.model.WorkerBean;
 import fr.gouv.vitam.processing.common.model.WorkerTaskState;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.worker.client.WorkerClient;
 import fr.gouv.vitam.worker.client.WorkerClientConfiguration;
 import fr.gouv.vitam.worker.client.WorkerClientFactory;
@@ -203,6 +204,10 @@ public class WorkerTask implements Supplier<ItemStatus> {
         return descriptionStep.getWorkParams().getObjectNameList();
     }
 
+    public WorkerParameters getWorkerParameters() {
+        return descriptionStep.getWorkParams();
+    }
+
     public boolean isCompleted() {
         return WorkerTaskState.COMPLETED.equals(workerTaskState);
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import com.google.common.base.Strings;
+import fr.gouv.vitam.logbook.common.parameters.LogbookTypeProcess;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameterName;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+
+/**
+ * Priority class of the tasks of an operation, used by {@link WorkerFamilyManager} to share the workers of a family
+ * between running operations.<br/>
+ * The weight is the number of tasks of an operation dequeued in a row before the scheduler moves to the next
+ * operation.
+ */
+public enum WorkerTaskPriority {
+    /**
+     * Interactive workflows on which a producer is waiting (ingest, DIP export, referential imports)
+     */
+    HIGH(4),
+    /**
+     * Default priority
+     */
+    NORMAL(2),
+    /**
+     * Long running mass workflows
+     */
+    LOW(1);
+
+    private final int weight;
+
+    WorkerTaskPriority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return the number of tasks served in a row for an operation of this priority
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Get the priority class of a workflow type
+     *
+     * @param logbookTypeProcess the type of the workflow, may be null
+     * @return the priority class
+     */
+    public static WorkerTaskPriority of(LogbookTypeProcess logbookTypeProcess) {
+        if (logbookTypeProcess == null) {
+            return NORMAL;
+        }
+        switch (logbookTypeProcess) {
+            case INGEST:
+            case INGEST_TEST:
+            case HOLDINGSCHEME:
+            case FILINGSCHEME:
+            case MASTERDATA:
+            case EXPORT_DIP:
+                return HIGH;
+            case MASS_UPDATE:
+            case RECLASSIFICATION:
+            case ELIMINATION:
+            case PRESERVATION:
+            case AUDIT:
+            case DATA_MIGRATION:
+            case EXPORT_PROBATIVE_VALUE:
+            case COMPUTE_INHERITED_RULES:
+            case COMPUTE_INHERITED_RULES_DELETE:
+                return LOW;
+            default:
+                return NORMAL;
+        }
+    }
+
+    /**
+     * Get the priority class of the workflow described by the given parameters
+     *
+     * @param workerParameters the worker parameters
+     * @return the priority class, NORMAL if the type of the workflow is not known
+     */
+    public static WorkerTaskPriority of(WorkerParameters workerParameters) {
+        String type = workerParameters.getParameterValue(WorkerParameterName.logBookTypeProcess);
+        if (Strings.isNullOrEmpty(type)) {
+            return NORMAL;
+        }
+        try {
+            return of(LogbookTypeProcess.getLogbookTypeProcess(type));
+        } catch (IllegalArgumentException e) {
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import fr.gouv.vitam.worker.core.distribution.JsonLineModel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DistributionWindowTest {
+
+    private static List<JsonLineModel> elements(int count, Integer distribGroup) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new JsonLineModel("id" + i, distribGroup, null))
+            .collect(Collectors.toList());
+    }
+
+    private static List<String> ids(List<JsonLineModel> chunk) {
+        return chunk.stream().map(JsonLineModel::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void should_move_low_water_mark_only_when_first_task_completes() {
+        // Given
+        DistributionWindow window =
+            new DistributionWindow(elements(10, null).iterator(), 0, 6, Collections.emptyList());
+
+        // When
+        List<String> first = ids(window.nextChunk(2));
+        window.submit(0, first);
+        List<String> second = ids(window.nextChunk(2));
+        window.submit(2, second);
+        List<String> third = ids(window.nextChunk(2));
+        window.submit(4, third);
+
+        // Then
+        assertThat(window.getInFlightCount()).isEqualTo(3);
+        assertThat(window.canSubmit(4, 2)).isFalse();
+
+        window.complete(2, true);
+        assertThat(window.getLowWaterMark()).isEqualTo(0);
+        assertThat(window.canSubmit(4, 2)).isFalse();
+
+        window.complete(0, true);
+        assertThat(window.getLowWaterMark()).isEqualTo(4);
+        assertThat(window.canSubmit(4, 2)).isTrue();
+        assertThat(window.getNextOffset()).isEqualTo(6);
+    }
+
+    @Test
+    public void should_not_mix_distribution_groups() {
+        // Given
+        List<JsonLineModel> elements = new ArrayList<>(elements(3, 1));
+        elements.addAll(elements(3, 2));
+        DistributionWindow window = new DistributionWindow(elements.iterator(), 0, 100, Collections.emptyList());
+
+        // When
+        List<JsonLineModel> first = window.nextChunk(2);
+        window.submit(0, ids(first));
+        List<JsonLineModel> second = window.nextChunk(2);
+        window.submit(2, ids(second));
+
+        // Then
+        assertThat(second).hasSize(1);
+        assertThat(window.canSubmit(10, 2)).isFalse();
+        window.complete(0, true);
+        assertThat(window.canSubmit(10, 2)).isFalse();
+        window.complete(2, true);
+        assertThat(window.canSubmit(10, 2)).isTrue();
+        assertThat(window.nextChunk(2)).extracting(JsonLineModel::getDistribGroup).containsExactly(2, 2);
+    }
+
+    @Test
+    public void should_compute_remaining_elements_with_unread_elements_of_the_window() {
+        // Given
+        DistributionWindow window =
+            new DistributionWindow(elements(10, null).iterator(), 0, 6, Collections.emptyList());
+        window.submit(0, ids(window.nextChunk(2)));
+        window.submit(2, ids(window.nextChunk(2)));
+
+        // When
+        window.complete(0, true);
+        window.complete(2, false);
+
+        // Then
+        assertThat(window.getLowWaterMark()).isEqualTo(2);
+        assertThat(window.getRemainingElements()).containsExactly("id2", "id3", "id4", "id5", "id6", "id7");
+        // read ahead elements are still distributed
+        assertThat(ids(window.nextChunk(3))).containsExactly("id4", "id5", "id6");
+        assertThat(window.isFinished()).isFalse();
+    }
+
+    @Test
+    public void should_skip_already_processed_elements_of_recovered_window() {
+        // Given
+        List<JsonLineModel> elements = elements(10, null).subList(4, 10);
+        DistributionWindow window =
+            new DistributionWindow(elements.iterator(), 4, 4, Arrays.asList("id5", "id7"));
+
+        // When
+        List<String> chunk = ids(window.nextChunk(4));
+        List<String> next = ids(window.nextChunk(4));
+
+        // Then
+        assertThat(chunk).containsExactly("id5", "id7");
+        assertThat(next).containsExactly("id8", "id9");
+        assertThat(window.hasNext()).isFalse();
+    }
+
+    @Test
+    public void should_be_finished_when_all_tasks_are_processed() {
+        // Given
+        DistributionWindow window =
+            new DistributionWindow(elements(3, null).iterator(), 0, 10, Collections.emptyList());
+
+        // When
+        window.submit(0, ids(window.nextChunk(5)));
+        window.complete(0, true);
+
+        // Then
+        assertThat(window.isFinished()).isTrue();
+        assertThat(window.getLowWaterMark()).isEqualTo(3);
+        assertThat(window.getRemainingElements()).isEmpty();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import fr.gouv.vitam.logbook.common.parameters.LogbookTypeProcess;
+import fr.gouv.vitam.processing.common.model.WorkerBean;
+import fr.gouv.vitam.processing.common.model.WorkerRemoteConfiguration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FairTaskQueueTest {
+
+    private static final class NamedTask implements Runnable {
+        private final String name;
+
+        private NamedTask(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            // nothing to do
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static void putAll(FairTaskQueue queue, String operationId, int tenantId, WorkerTaskPriority priority,
+        int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            queue.put(new NamedTask(operationId + i), operationId, tenantId, priority);
+        }
+    }
+
+    private static List<String> takeAll(FairTaskQueue queue) throws InterruptedException {
+        List<String> names = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            names.add(queue.take().toString());
+        }
+        return names;
+    }
+
+    @Test
+    public void should_not_starve_small_operation_behind_mass_operation() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(100);
+        putAll(queue, "massUpdate", 0, WorkerTaskPriority.LOW, 20);
+        putAll(queue, "ingest", 0, WorkerTaskPriority.HIGH, 4);
+
+        // When
+        List<String> names = takeAll(queue);
+
+        // Then
+        assertThat(names).hasSize(24);
+        assertThat(names.subList(0, 5)).containsExactly("massUpdate0", "ingest0", "ingest1", "ingest2", "ingest3");
+        assertThat(names.subList(5, 24)).allMatch(name -> name.startsWith("massUpdate"));
+    }
+
+    @Test
+    public void should_serve_operations_by_weight() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(100);
+        putAll(queue, "low", 0, WorkerTaskPriority.LOW, 10);
+        putAll(queue, "normal", 0, WorkerTaskPriority.NORMAL, 10);
+
+        // When
+        List<String> names = takeAll(queue);
+
+        // Then
+        assertThat(names.subList(0, 6))
+            .containsExactly("low0", "normal0", "normal1", "low1", "normal2", "normal3");
+    }
+
+    @Test
+    public void should_share_workers_between_tenants() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(100);
+        putAll(queue, "op1", 0, WorkerTaskPriority.NORMAL, 3);
+        putAll(queue, "op2", 0, WorkerTaskPriority.NORMAL, 3);
+        putAll(queue, "op3", 1, WorkerTaskPriority.NORMAL, 3);
+
+        // When
+        List<String> names = takeAll(queue);
+
+        // Then
+        assertThat(names)
+            .containsExactly("op10", "op11", "op30", "op31", "op20", "op21", "op32", "op12", "op22");
+    }
+
+    @Test
+    public void should_serve_unscheduled_tasks_first() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(10);
+        putAll(queue, "op", 0, WorkerTaskPriority.HIGH, 3);
+        Runnable signal = new InterruptSignal();
+        queue.put(signal);
+
+        // When
+        Runnable first = queue.take();
+
+        // Then
+        assertThat(first).isSameAs(signal);
+        assertThat(queue.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_block_producer_when_full() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(2);
+        putAll(queue, "op1", 0, WorkerTaskPriority.LOW, 2);
+        assertThat(queue.offer(new NamedTask("signal"))).isFalse();
+        assertThat(queue.remainingCapacity()).isEqualTo(0);
+
+        // When
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                queue.put(new NamedTask("op20"), "op2", 0, WorkerTaskPriority.HIGH);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(producer).isNotDone();
+        queue.take();
+
+        // Then
+        producer.get(10, TimeUnit.SECONDS);
+        assertThat(takeAll(queue)).containsExactly("op11", "op20");
+    }
+
+    @Test
+    public void should_compute_statistics_by_operation() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(10);
+        putAll(queue, "op1", 0, WorkerTaskPriority.NORMAL, 3);
+        putAll(queue, "op2", 1, WorkerTaskPriority.LOW, 1);
+        Thread.sleep(20);
+
+        // When
+        queue.take();
+        queue.take();
+
+        // Then
+        FairTaskQueue.OperationStatistics op1 = queue.getStatistics().get("op1");
+        assertThat(op1.getQueueDepth()).isEqualTo(1);
+        assertThat(op1.getServedTasks()).isEqualTo(2);
+        assertThat(op1.getMeanWaitTime()).isGreaterThanOrEqualTo(20);
+        assertThat(op1.getMaxWaitTime()).isGreaterThanOrEqualTo(op1.getMeanWaitTime());
+        assertThat(queue.getStatistics().get("op2").getQueueDepth()).isEqualTo(1);
+        assertThat(queue.getStatistics().get("op2").getPriority()).isEqualTo(WorkerTaskPriority.LOW);
+    }
+
+    @Test
+    public void should_map_workflow_types_to_priorities() {
+        assertThat(WorkerTaskPriority.of(LogbookTypeProcess.INGEST)).isEqualTo(WorkerTaskPriority.HIGH);
+        assertThat(WorkerTaskPriority.of(LogbookTypeProcess.MASS_UPDATE)).isEqualTo(WorkerTaskPriority.LOW);
+        assertThat(WorkerTaskPriority.of(LogbookTypeProcess.TRACEABILITY)).isEqualTo(WorkerTaskPriority.NORMAL);
+        assertThat(WorkerTaskPriority.of((LogbookTypeProcess) null)).isEqualTo(WorkerTaskPriority.NORMAL);
+    }
+
+    @Test
+    public void should_serve_requeued_signal_behind_queued_operation_tasks() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(10);
+        putAll(queue, "op1", 0, WorkerTaskPriority.NORMAL, 2);
+        Runnable signal = new NamedTask("signal");
+
+        // When
+        queue.requeue(signal);
+        putAll(queue, "op2", 0, WorkerTaskPriority.NORMAL, 2);
+
+        // Then
+        assertThat(queue.peek().toString()).isEqualTo("op10");
+        assertThat(takeAll(queue)).containsExactly("op10", "op11", "signal", "op20", "op21");
+    }
+
+    @Test
+    public void should_not_starve_operation_tasks_with_signal_of_another_worker() throws Exception {
+        // Given
+        FairTaskQueue queue = new FairTaskQueue(10);
+        WorkerExecutor stoppedWorker = new WorkerExecutor(queue,
+            new WorkerBean("stoppedWorker", "DefaultWorker", 1, 0, "status",
+                new WorkerRemoteConfiguration("localhost", 8999)));
+        WorkerExecutor runningWorker = new WorkerExecutor(queue,
+            new WorkerBean("runningWorker", "DefaultWorker", 2, 0, "status",
+                new WorkerRemoteConfiguration("localhost", 8999)));
+        CountDownLatch operationTaskDone = new CountDownLatch(1);
+        queue.put(operationTaskDone::countDown, "op1", 0, WorkerTaskPriority.NORMAL);
+        stoppedWorker.stop();
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            // When : only the threads of the other worker are running
+            executorService.submit(runningWorker);
+            executorService.submit(runningWorker);
+
+            // Then : the pending task is served although the signal is taken first
+            assertThat(operationTaskDone.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // When : the stopped worker thread starts
+            Future<?> stoppedWorkerThread = executorService.submit(stoppedWorker);
+
+            // Then : it gets its signal back
+            stoppedWorkerThread.get(10, TimeUnit.SECONDS);
+        } finally {
+            runningWorker.stop();
+            executorService.shutdown();
+            assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
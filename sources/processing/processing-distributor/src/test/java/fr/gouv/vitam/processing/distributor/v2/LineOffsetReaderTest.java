@@ -0,0 +1,103 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019) <p> contact.vitam@culture.gouv.fr <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently. <p> This software is governed by the CeCILL 2.1 license under French law and
+ * abiding by the rules of distribution of free software. You can use, modify and/ or redistribute the software under
+ * the terms of the CeCILL 2.1 license as circulated by CEA, CNRS and INRIA at the following URL
+ * "http://www.cecill.info". <p> As a counterpart to the access to the source code and rights to copy, modify and
+ * redistribute granted by the license, users are provided only with a limited warranty and the software's author, the
+ * holder of the economic rights, and the successive licensors have only limited liability. <p> In this respect, the
+ * user's attention is drawn to the risks associated with loading, using, modifying and/or developing or reproducing the
+ * software by the user in light of its specific status of free software, that may mean that it is complicated to
+ * manipulate, and that also therefore means that it is reserved for developers and experienced professionals having
+ * in-depth computer knowledge. Users are therefore encouraged to load and test the software's suitability as regards
+ * their requirements in conditions enabling the security of their systems and/or data to be ensured and, more
+ * generally, to use and operate it in the same conditions as regards security. <p> The fact that you are presently
+ * reading this means that you have had knowledge of the CeCILL 2.1 license and that you accept its terms.
+ */
+package fr.gouv.vitam.processing.distributor.v2;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LineOffsetReaderTest {
+
+    private static final String CONTENT = "{\"id\":\"a\"}\n{\"id\":\"é\"}\r\n\n{\"id\":\"c\"}";
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> readAll(LineOffsetReader reader) {
+        List<String> lines = new ArrayList<>();
+        reader.forEachRemaining(lines::add);
+        return lines;
+    }
+
+    @Test
+    public void should_read_lines_like_buffered_reader() {
+        // Given
+        LineOffsetReader reader = new LineOffsetReader(stream(CONTENT), 0, 0L);
+
+        // When
+        List<String> lines = readAll(reader);
+
+        // Then
+        assertThat(lines).containsExactly("{\"id\":\"a\"}", "{\"id\":\"é\"}", "", "{\"id\":\"c\"}");
+        assertThat(readAll(new LineOffsetReader(stream(CONTENT + "\n"), 0, 0L))).hasSize(4);
+        assertThat(new LineOffsetReader(stream(""), 0, 0L).hasNext()).isFalse();
+    }
+
+    @Test
+    public void should_give_byte_offset_of_read_lines() {
+        // Given
+        LineOffsetReader reader = new LineOffsetReader(stream(CONTENT), 0, 0L);
+        readAll(reader);
+
+        // When / Then
+        assertThat(reader.checkpoint(0)).isEqualTo(0L);
+        assertThat(reader.checkpoint(1)).isEqualTo(11L);
+        // "é" is 2 bytes long, and the line ends with \r\n
+        assertThat(reader.checkpoint(2)).isEqualTo(24L);
+        assertThat(reader.checkpoint(3)).isEqualTo(25L);
+        // offsets before the last checkpoint are forgotten
+        assertThat(reader.checkpoint(1)).isNull();
+    }
+
+    @Test
+    public void should_resume_from_byte_offset() {
+        // Given
+        LineOffsetReader reader = new LineOffsetReader(stream(CONTENT), 0, 0L);
+        readAll(reader);
+        long byteOffset = reader.checkpoint(2);
+
+        // When
+        LineOffsetReader resumed =
+            new LineOffsetReader(stream(CONTENT.substring(CONTENT.indexOf("\n\n") + 1)), 2, byteOffset);
+
+        // Then
+        assertThat(readAll(resumed)).containsExactly("", "{\"id\":\"c\"}");
+        assertThat(resumed.checkpoint(3)).isEqualTo(25L);
+    }
+
+    @Test
+    public void should_skip_lines() {
+        // Given
+        LineOffsetReader reader = new LineOffsetReader(stream(CONTENT), 0, 0L);
+
+        // When
+        reader.skipLines(2);
+
+        // Then
+        assertThat(reader.next()).isEmpty();
+        assertThat(reader.checkpoint(2)).isEqualTo(24L);
+        assertThat(reader.checkpoint(3)).isEqualTo(25L);
+    }
+}
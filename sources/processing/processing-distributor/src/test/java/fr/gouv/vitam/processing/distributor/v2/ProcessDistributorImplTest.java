@@ -70,6 +70,7 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response;
@@ -79,11 +80,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static fr.gouv.vitam.common.GlobalDataRest.X_CHUNK_LENGTH;
@@ -97,6 +103,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -604,6 +611,176 @@ public class ProcessDistributorImplTest {
 
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void shouldDistributeOnStreamWithSlidingWindow() throws Exception {
+
+        AtomicInteger actualLevel = new AtomicInteger(0);
+
+        File file = createRandomDataSetInfo();
+
+        givenWorkspaceClientReturnsFileContent(file, "FakeOperationId", file.getAbsolutePath());
+        when(processWorkflow.getStatus()).thenReturn(StatusCode.STARTED);
+
+        when(workerClient.submitStep(any()))
+            .thenAnswer(invocation -> {
+
+                Map<WorkerParameterName, String> mapParameters =
+                    ((DescriptionStep) invocation.getArguments()[0])
+                        .getWorkParams().getMapParameters();
+
+                JsonNode objectMetadataList =
+                    JsonHandler.getFromString(mapParameters.get(WorkerParameterName.objectMetadataList));
+
+                String level = objectMetadataList.get(0).get("distributionNumber").textValue();
+
+                synchronized (this) {
+
+                    if (!String.valueOf(actualLevel.get()).equals(level)) {
+
+                        int newLevel = actualLevel.incrementAndGet();
+
+                        assertThat(level).isEqualTo(String.valueOf(newLevel));
+                    }
+                }
+
+                return getMockedItemStatus(StatusCode.OK);
+
+            });
+
+        serverConfiguration.setSlidingWindowDistribution(true);
+
+        ItemStatus itemStatus = processDistributor
+            .distribute(workerParameters, getStep(DistributionKind.LIST_IN_JSONL_FILE, file.getAbsolutePath()),
+                operationId,
+                PauseRecover.NO_RECOVER);
+
+        verify(workerClient, times(750)).submitStep(any());
+
+        assertThat(itemStatus).isNotNull();
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        assertThat(itemStatus.getItemsStatus().get("ItemId").getStatusMeter().get(StatusCode.OK.getStatusLevel()))
+            .isEqualTo(750);
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void shouldNotWaitForSlowTaskWithSlidingWindow() throws Exception {
+
+        File file = testFolder.newFile();
+        try (PrintWriter writer = new PrintWriter(new FileOutputStream(file))) {
+            for (int entry = 0; entry < 300; entry++) {
+                writer.append("{ \"id\": \"").append("id" + entry).append("\"}\n");
+            }
+        }
+        givenWorkspaceClientReturnsFileContent(file, "FakeOperationId", file.getAbsolutePath());
+        when(processWorkflow.getStatus()).thenReturn(StatusCode.STARTED);
+
+        // The task of element 90 only ends when element 150 is sent, that is after the end of its batch
+        final CountDownLatch nextBatchSubmitted = new CountDownLatch(1);
+        final AtomicInteger slowTaskReleased = new AtomicInteger(0);
+        when(workerClient.submitStep(any())).thenAnswer(invocation -> {
+            DescriptionStep descriptionStep = invocation.getArgument(0);
+            String objectName = descriptionStep.getWorkParams().getObjectNameList().iterator().next();
+            if ("id150".equals(objectName)) {
+                nextBatchSubmitted.countDown();
+            }
+            if ("id90".equals(objectName) && nextBatchSubmitted.await(10, TimeUnit.SECONDS)) {
+                slowTaskReleased.incrementAndGet();
+            }
+            return getMockedItemStatus(StatusCode.OK);
+        });
+
+        serverConfiguration.setSlidingWindowDistribution(true);
+
+        ItemStatus itemStatus = processDistributor
+            .distribute(workerParameters, getStep(DistributionKind.LIST_IN_JSONL_FILE, file.getAbsolutePath()),
+                operationId, PauseRecover.NO_RECOVER);
+
+        assertThat(slowTaskReleased.get()).isEqualTo(1);
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        verify(workerClient, times(300)).submitStep(any());
+
+        ArgumentCaptor<DistributorIndex> distributorIndex = ArgumentCaptor.forClass(DistributorIndex.class);
+        verify(processDataManagement, atLeastOnce())
+            .persistDistributorIndex(eq("distributorIndex"), eq(operationId), distributorIndex.capture());
+        DistributorIndex lastIndex = distributorIndex.getValue();
+        assertThat(lastIndex.getOffset()).isEqualTo(300);
+        assertThat(lastIndex.getByteOffset()).isEqualTo(file.length());
+        assertThat(lastIndex.isLevelFinished()).isTrue();
+        assertThat(lastIndex.getRemainingElements()).isEmpty();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void whenPauseWithSlidingWindowThenPersistRemainingElementsOfTheWindow() throws Exception {
+
+        File file = testFolder.newFile();
+        try (PrintWriter writer = new PrintWriter(new FileOutputStream(file))) {
+            for (int entry = 0; entry < 300; entry++) {
+                writer.append("{ \"id\": \"").append("id" + entry).append("\"}\n");
+            }
+        }
+        givenWorkspaceClientReturnsFileContent(file, "FakeOperationId", file.getAbsolutePath());
+        when(processWorkflow.getStatus()).thenReturn(StatusCode.STARTED);
+
+        final Set<String> processed = ConcurrentHashMap.newKeySet();
+        when(workerClient.submitStep(any())).thenAnswer(invocation -> {
+            DescriptionStep descriptionStep = invocation.getArgument(0);
+            String objectName = descriptionStep.getWorkParams().getObjectNameList().iterator().next();
+            if ("id150".equals(objectName)) {
+                processDistributor.pause(operationId);
+            }
+            processed.add(objectName);
+            return getMockedItemStatus(StatusCode.OK);
+        });
+
+        serverConfiguration.setSlidingWindowDistribution(true);
+        Step step = getStep(DistributionKind.LIST_IN_JSONL_FILE, file.getAbsolutePath());
+
+        ItemStatus itemStatus =
+            processDistributor.distribute(workerParameters, step, operationId, PauseRecover.NO_RECOVER);
+
+        assertThat(itemStatus.getStatusMeter().get(StatusCode.UNKNOWN.getStatusLevel())).isGreaterThan(0);
+
+        ArgumentCaptor<DistributorIndex> distributorIndex = ArgumentCaptor.forClass(DistributorIndex.class);
+        verify(processDataManagement, atLeastOnce())
+            .persistDistributorIndex(eq("distributorIndex"), eq(operationId), distributorIndex.capture());
+        DistributorIndex lastIndex = distributorIndex.getValue();
+        assertThat(lastIndex.isLevelFinished()).isFalse();
+
+        // Every element before the offset is processed, elements of the window are processed or remaining
+        int offset = lastIndex.getOffset();
+        for (int entry = 0; entry < offset; entry++) {
+            assertThat(processed).contains("id" + entry);
+        }
+        for (int entry = offset; entry < offset + VitamConfiguration.getDistributeurBatchSize(); entry++) {
+            assertThat(processed.contains("id" + entry))
+                .isNotEqualTo(lastIndex.getRemainingElements().contains("id" + entry));
+        }
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void whenDistributeDistributionKindListWithLevelAndSlidingWindowOK() throws Exception {
+
+        when(processWorkflow.getStatus()).thenReturn(StatusCode.STARTED);
+
+        final File fileContracts = PropertiesUtils.getResourceFile("ingestLevelStack.json");
+        givenWorkspaceClientReturnsFileContent(fileContracts, any(), any());
+
+        serverConfiguration.setSlidingWindowDistribution(true);
+
+        ItemStatus itemStatus = processDistributor
+            .distribute(workerParameters,
+                getStep(DistributionKind.LIST_ORDERING_IN_FILE, ProcessDistributor.ELEMENT_UNITS), operationId,
+                PauseRecover.NO_RECOVER);
+
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        assertThat(itemStatus.getItemsStatus().get("ItemId").getStatusMeter().get(StatusCode.OK.getStatusLevel()))
+            .isEqualTo(170);
+    }
+
     private File createRandomDataSetInfo() throws IOException {
 
         File file = testFolder.newFile();
@@ -665,6 +842,43 @@ public class ProcessDistributorImplTest {
         assertFalse(imap.isEmpty());
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void whenDistributeKindFullLargeFileResumptionWithByteOffsetThenReadFromByteOffset() throws Exception {
+
+        when(processWorkflow.getStatus()).thenReturn(StatusCode.STARTED);
+
+        File file = PropertiesUtils.getResourceFile(FILE_FULL_GUIDS);
+        givenWorkspaceClientReturnsFileContent(file, operationId, FILE_FULL_GUIDS);
+        List<String> lines = Files.readAllLines(file.toPath());
+        long byteOffset = 0L;
+        for (int line = 0; line < 7; line++) {
+            byteOffset += lines.get(line).getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+
+        Step step = getStep(DistributionKind.LIST_IN_JSONL_FILE, FILE_FULL_GUIDS);
+        step.setPauseOrCancelAction(PauseOrCancelAction.ACTION_RECOVER);
+
+        DistributorIndex distributorIndex =
+            new DistributorIndex(ProcessDistributor.NOLEVEL, 7, new ItemStatus(), FAKE_REQUEST_ID, step.getId(),
+                new ArrayList<>());
+        distributorIndex.setByteOffset(byteOffset);
+        when(processDataManagement.getDistributorIndex("distributorIndex", operationId)).thenReturn(distributorIndex);
+
+        ItemStatus itemStatus =
+            processDistributor.distribute(workerParameters, step, operationId, PauseRecover.RECOVER_FROM_API_PAUSE);
+
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        verify(workspaceClient).getObject(eq(operationId), eq(FILE_FULL_GUIDS), eq(byteOffset), anyLong());
+        verify(workerClient, times(lines.size() - 7)).submitStep(any());
+
+        ArgumentCaptor<DistributorIndex> persistedIndex = ArgumentCaptor.forClass(DistributorIndex.class);
+        verify(processDataManagement, atLeastOnce())
+            .persistDistributorIndex(eq("distributorIndex"), eq(operationId), persistedIndex.capture());
+        assertThat(persistedIndex.getValue().getOffset()).isEqualTo(lines.size());
+        assertThat(persistedIndex.getValue().getByteOffset()).isEqualTo(file.length());
+    }
+
     private void givenWorkspaceClientReturnsFileContent(File file, String containerName, String objectId)
         throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
         when(workspaceClient.getObject(containerName, objectId)).thenAnswer(
@@ -38,6 +38,7 @@ import fr.gouv.vitam.common.storage.tapelibrary.TapeLibraryConfiguration;
 import fr.gouv.vitam.common.storage.tapelibrary.TapeRobotConf;
 import fr.gouv.vitam.storage.engine.common.collection.OfferCollections;
 import fr.gouv.vitam.storage.engine.common.model.TapeCatalog;
+import fr.gouv.vitam.storage.offers.tape.cas.ArchiveCacheEvictionPolicy;
 import fr.gouv.vitam.storage.offers.tape.cas.ArchiveOutputRetentionPolicy;
 import fr.gouv.vitam.storage.offers.tape.cas.ArchiveReferentialRepository;
 import fr.gouv.vitam.storage.offers.tape.cas.BackupFileStorage;
@@ -71,6 +72,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -141,8 +143,16 @@ public class TapeLibraryFactory {
             new FileBucketTarCreatorManager(configuration, basicFileStorage, bucketTopologyHelper,
                 objectReferentialRepository, archiveReferentialRepository, writeOrderCreator);
 
+        long archiveRetentionCacheMaxSizeInBytes = configuration.getArchiveRetentionCacheMaxSizeInMB() == null ?
+            Long.MAX_VALUE : configuration.getArchiveRetentionCacheMaxSizeInMB() * 1024L * 1024L;
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
-            new ArchiveOutputRetentionPolicy(configuration.getArchiveRetentionCacheTimeoutInMinutes(), readRequestReferentialRepository);
+            new ArchiveOutputRetentionPolicy(configuration.getArchiveRetentionCacheTimeoutInMinutes(),
+                archiveRetentionCacheMaxSizeInBytes,
+                ArchiveCacheEvictionPolicy.valueOf(configuration.getArchiveRetentionCacheEvictionPolicy()),
+                readRequestReferentialRepository);
+
+        // Retain archive files already read from tape before restart
+        archiveOutputRetentionPolicy.rebuildFromDirectory(Paths.get(configuration.getOutputTarStorageFolder()));
 
         tapeLibraryContentAddressableStorage =
             new TapeLibraryContentAddressableStorage(basicFileStorage, objectReferentialRepository,
@@ -222,7 +232,8 @@ public class TapeLibraryFactory {
                     new TapeDriveWorkerManager(readWriteQueue, archiveReferentialRepository,
                         readRequestReferentialRepository, libraryPool, driveTape,
                         configuration.getInputTarStorageFolder(), configuration.isForceOverrideNonEmptyCartridges(),
-                        archiveOutputRetentionPolicy));
+                        archiveOutputRetentionPolicy,
+                        Duration.ofMinutes(configuration.getReadOrderMaxWaitingTimeInMinutes())));
         }
 
         // Everything's alright. Start tar creation listeners
@@ -26,57 +26,136 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.offers.tape.cas;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
 import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.storage.offers.tape.utils.LocalFileUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This cache is used to purge archive files in output folder.
- * FIXME:   should purge by remaining disk space < 20% for example
- * Or disk space should be large enough
- * The problem if someone read multiple tar file in same time then the risque of full disk is possible
+ *
+ * Archive files expire after a period without access, and are evicted (LRU or LFU) as soon as the total size of cached
+ * archives exceeds the configured byte budget. Archives referenced by in-flight read requests are pinned and never
+ * purged until the read request is removed or stays idle for longer than the cache timeout.
  */
 public class ArchiveOutputRetentionPolicy {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ArchiveOutputRetentionPolicy.class);
-    private final Cache<String, Path> cache;
+
+    private static final String METRIC_PREFIX = "Tape archive cache ";
+
     private final long cacheTimeoutInMinutes;
+    private final long cacheTimeoutInMillis;
+    private final long maxCacheSizeInBytes;
+    private final ArchiveCacheEvictionPolicy evictionPolicy;
     private final ReadRequestReferentialCleaner requestReferentialCleaner;
     private final Executor cleanUpExecutor = Executors.newFixedThreadPool(1, VitamThreadFactory.getInstance());
 
+    // Guarded by this
+    private final Map<String, ArchiveCacheEntry> entries = new HashMap<>();
+    private final Map<String, ReadRequestPin> pinsByReadRequestId = new HashMap<>();
+    private final Map<String, Set<String>> readRequestIdsByArchiveId = new HashMap<>();
+    private long accessSequence = 0L;
+    private long bytesOnDisk = 0L;
+    private long hitCount = 0L;
+    private long missCount = 0L;
+    private long evictionCount = 0L;
+
     public ArchiveOutputRetentionPolicy(long cacheTimeoutInMinutes,
         ReadRequestReferentialCleaner requestReferentialCleaner) {
-        this(cacheTimeoutInMinutes, TimeUnit.MINUTES, 4, requestReferentialCleaner);
+        this(cacheTimeoutInMinutes, Long.MAX_VALUE, ArchiveCacheEvictionPolicy.LRU, requestReferentialCleaner);
+    }
+
+    public ArchiveOutputRetentionPolicy(long cacheTimeoutInMinutes, long maxCacheSizeInBytes,
+        ArchiveCacheEvictionPolicy evictionPolicy, ReadRequestReferentialCleaner requestReferentialCleaner) {
+        this(cacheTimeoutInMinutes, TimeUnit.MINUTES, maxCacheSizeInBytes, evictionPolicy, requestReferentialCleaner,
+            CommonBusinessApplication.getBusinessMetricsRegistry());
     }
 
     @VisibleForTesting
-    public ArchiveOutputRetentionPolicy(long cacheTimeoutInMinutes, TimeUnit timeUnit, int concurrencyLevel,
-        ReadRequestReferentialCleaner requestReferentialCleaner) {
+    public ArchiveOutputRetentionPolicy(long cacheTimeoutInMinutes, TimeUnit timeUnit, long maxCacheSizeInBytes,
+        ArchiveCacheEvictionPolicy evictionPolicy, ReadRequestReferentialCleaner requestReferentialCleaner,
+        MetricRegistry metricRegistry) {
         this.cacheTimeoutInMinutes = cacheTimeoutInMinutes;
+        this.cacheTimeoutInMillis = timeUnit.toMillis(cacheTimeoutInMinutes);
+        this.maxCacheSizeInBytes = maxCacheSizeInBytes;
+        this.evictionPolicy = evictionPolicy;
         this.requestReferentialCleaner = requestReferentialCleaner;
-        cache = CacheBuilder.newBuilder()
-            .expireAfterAccess(cacheTimeoutInMinutes, timeUnit)
-            .concurrencyLevel(concurrencyLevel)
-            .removalListener((RemovalListener<String, Path>) removalNotification -> cleanUpExecutor
-                .execute(() -> cleanUpExpiredEntry(removalNotification.getKey(), removalNotification.getValue()))).build();
 
-        // CleanUp to force call to removalListener (This is needed in case where we have just read and no write operations to cache)
+        metricRegistry.register(METRIC_PREFIX + "hit count", (Gauge<Long>) this::getHitCount);
+        metricRegistry.register(METRIC_PREFIX + "miss count", (Gauge<Long>) this::getMissCount);
+        metricRegistry.register(METRIC_PREFIX + "eviction count", (Gauge<Long>) this::getEvictionCount);
+        metricRegistry.register(METRIC_PREFIX + "bytes on disk", (Gauge<Long>) this::getBytesOnDisk);
+
+        // CleanUp to force expiration of entries (This is needed in case where we have just read and no write operations to cache)
         Executors
             .newScheduledThreadPool(1, VitamThreadFactory.getInstance())
             .scheduleWithFixedDelay(() -> cleanUp(), 0, cacheTimeoutInMinutes + 1, timeUnit);
     }
 
+    /**
+     * Registers archive files found in output folder (after a restart for example).
+     * Oldest files are considered as least recently used. Incomplete files (still being read from tape) are ignored.
+     *
+     * @param outputTarStorageFolder archive output folder
+     */
+    public void rebuildFromDirectory(Path outputTarStorageFolder) throws IOException {
+
+        if (!Files.isDirectory(outputTarStorageFolder)) {
+            return;
+        }
+
+        List<Path> archiveFiles;
+        try (Stream<Path> files = Files.list(outputTarStorageFolder)) {
+            archiveFiles = files
+                .filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().endsWith(LocalFileUtils.TAR_EXTENSION))
+                .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                .collect(Collectors.toList());
+        }
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (Path archiveFile : archiveFiles) {
+                String archiveId = archiveFile.getFileName().toString();
+                if (!entries.containsKey(archiveId)) {
+                    long size = archiveFile.toFile().length();
+                    entries.put(archiveId, new ArchiveCacheEntry(archiveId, archiveFile.toAbsolutePath(), size, now,
+                        ++accessSequence));
+                    bytesOnDisk += size;
+                }
+            }
+            evictOverBudget(null);
+        }
+
+        LOGGER.info(String.format("Archive cache rebuilt from %s. %d archives (%d bytes) on disk",
+            outputTarStorageFolder, archiveFiles.size(), getBytesOnDisk()));
+    }
+
     private void cleanUpExpiredEntry(String tarFileId, Path filePath) {
 
         FileUtils.deleteQuietly(filePath.toFile());
@@ -94,7 +173,23 @@ public class ArchiveOutputRetentionPolicy {
     }
 
     public void put(String archiveId, Path path) {
-        cache.put(archiveId, path);
+        long size = path.toFile().length();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            ArchiveCacheEntry entry = entries.get(archiveId);
+            if (entry == null) {
+                entries.put(archiveId, new ArchiveCacheEntry(archiveId, path, size, now, ++accessSequence));
+            } else {
+                bytesOnDisk -= entry.getSize();
+                entry.update(path, size);
+                entry.touch(now, ++accessSequence);
+            }
+            bytesOnDisk += size;
+            renewPins(archiveId, now);
+
+            // The archive just read from tape is never evicted by its own insertion
+            evictOverBudget(archiveId);
+        }
         LOGGER.debug(
             String.format("Add archive file (%s) cache retention in file system.", path.toFile().getAbsolutePath()));
     }
@@ -102,17 +197,129 @@ public class ArchiveOutputRetentionPolicy {
     public Path get(String archiveId) {
         LOGGER.debug(
             String.format("Access to archive file (%s) from cache retention in file system.", archiveId));
-        return cache.getIfPresent(archiveId);
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            ArchiveCacheEntry entry = entries.get(archiveId);
+            if (entry != null && isExpired(entry, now)) {
+                remove(entry);
+                entry = null;
+            }
+            if (entry == null) {
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            entry.touch(now, ++accessSequence);
+            renewPins(archiveId, now);
+            return entry.getPath();
+        }
     }
 
     public void invalidate(String archiveId) {
         LOGGER.debug(
             String.format("Remove archive file (%s) from cache retention in file system.", archiveId));
-        cache.invalidate(archiveId);
+        synchronized (this) {
+            ArchiveCacheEntry entry = entries.get(archiveId);
+            if (entry != null) {
+                remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Pins archives required by a read request so that they are not purged before the read request is removed.
+     * Archives may be pinned before they are read from tape.
+     *
+     * @param readRequestId read request identifier
+     * @param archiveIds archives required by the read request
+     */
+    public synchronized void pin(String readRequestId, Collection<String> archiveIds) {
+        ReadRequestPin pin = pinsByReadRequestId
+            .computeIfAbsent(readRequestId, id -> new ReadRequestPin(System.currentTimeMillis()));
+        for (String archiveId : archiveIds) {
+            pin.archiveIds.add(archiveId);
+            readRequestIdsByArchiveId.computeIfAbsent(archiveId, id -> new HashSet<>()).add(readRequestId);
+        }
+    }
+
+    /**
+     * Pins archives required by a read request, and gets those already on disk, in a single step so that no archive
+     * found on disk can be evicted before it is pinned.
+     *
+     * @param readRequestId read request identifier
+     * @param archiveIds archives required by the read request
+     * @return path of the archives on disk, by archive id
+     */
+    public synchronized Map<String, Path> pinAndGet(String readRequestId, Collection<String> archiveIds) {
+        long now = System.currentTimeMillis();
+        for (String archiveId : archiveIds) {
+            ArchiveCacheEntry entry = entries.get(archiveId);
+            if (entry != null && isExpired(entry, now)) {
+                remove(entry);
+            }
+        }
+
+        pin(readRequestId, archiveIds);
+
+        Map<String, Path> archivesOnDisk = new HashMap<>();
+        for (String archiveId : archiveIds) {
+            ArchiveCacheEntry entry = entries.get(archiveId);
+            if (entry == null) {
+                missCount++;
+                continue;
+            }
+            hitCount++;
+            entry.touch(now, ++accessSequence);
+            archivesOnDisk.put(archiveId, entry.getPath());
+        }
+        return archivesOnDisk;
+    }
+
+    /**
+     * Releases archives pinned by a read request
+     *
+     * @param readRequestId read request identifier
+     */
+    public synchronized void unpin(String readRequestId) {
+        ReadRequestPin pin = pinsByReadRequestId.remove(readRequestId);
+        if (pin == null) {
+            return;
+        }
+        for (String archiveId : pin.archiveIds) {
+            Set<String> readRequestIds = readRequestIdsByArchiveId.get(archiveId);
+            if (readRequestIds != null) {
+                readRequestIds.remove(readRequestId);
+                if (readRequestIds.isEmpty()) {
+                    readRequestIdsByArchiveId.remove(archiveId);
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isPinned(String archiveId) {
+        return readRequestIdsByArchiveId.containsKey(archiveId);
     }
 
     public void cleanUp() {
-        cache.cleanUp();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+
+            // Release pins of idle read requests
+            List<String> idleReadRequestIds = pinsByReadRequestId.entrySet().stream()
+                .filter(pin -> now - pin.getValue().lastActivityMillis > cacheTimeoutInMillis)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+            idleReadRequestIds.forEach(this::unpin);
+
+            for (ArchiveCacheEntry entry : new ArrayList<>(entries.values())) {
+                if (isExpired(entry, now)) {
+                    remove(entry);
+                }
+            }
+
+            evictOverBudget(null);
+        }
+
         // RequestReferentialCleaner
         try {
             requestReferentialCleaner.cleanUp();
@@ -121,7 +328,67 @@ public class ArchiveOutputRetentionPolicy {
         }
     }
 
+    private boolean isExpired(ArchiveCacheEntry entry, long now) {
+        return now - entry.getLastAccessTimeMillis() > cacheTimeoutInMillis && !isPinned(entry.getArchiveId());
+    }
+
+    private void renewPins(String archiveId, long now) {
+        Set<String> readRequestIds = readRequestIdsByArchiveId.get(archiveId);
+        if (readRequestIds != null) {
+            readRequestIds.forEach(readRequestId -> pinsByReadRequestId.get(readRequestId).lastActivityMillis = now);
+        }
+    }
+
+    private void evictOverBudget(String excludedArchiveId) {
+        while (bytesOnDisk > maxCacheSizeInBytes) {
+            Optional<ArchiveCacheEntry> candidate = entries.values().stream()
+                .filter(entry -> !entry.getArchiveId().equals(excludedArchiveId))
+                .filter(entry -> !isPinned(entry.getArchiveId()))
+                .min(evictionPolicy.getEvictionOrder());
+
+            if (!candidate.isPresent()) {
+                LOGGER.warn(String.format(
+                    "Archive cache size (%d bytes) exceeds max cache size (%d bytes). All archives are in use",
+                    bytesOnDisk, maxCacheSizeInBytes));
+                return;
+            }
+            evictionCount++;
+            remove(candidate.get());
+        }
+    }
+
+    private void remove(ArchiveCacheEntry entry) {
+        entries.remove(entry.getArchiveId());
+        bytesOnDisk -= entry.getSize();
+        cleanUpExecutor.execute(() -> cleanUpExpiredEntry(entry.getArchiveId(), entry.getPath()));
+    }
+
     public long getCacheTimeoutInMinutes() {
         return cacheTimeoutInMinutes;
     }
-}
\ No newline at end of file
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getBytesOnDisk() {
+        return bytesOnDisk;
+    }
+
+    private static class ReadRequestPin {
+        private final Set<String> archiveIds = new HashSet<>();
+        private long lastActivityMillis;
+
+        private ReadRequestPin(long lastActivityMillis) {
+            this.lastActivityMillis = lastActivityMillis;
+        }
+    }
+}
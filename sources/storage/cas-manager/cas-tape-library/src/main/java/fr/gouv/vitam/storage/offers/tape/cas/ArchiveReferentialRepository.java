@@ -28,6 +28,7 @@ package fr.gouv.vitam.storage.offers.tape.cas;
 
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
@@ -42,7 +43,10 @@ import fr.gouv.vitam.storage.engine.common.model.TapeArchiveReferentialEntity;
 import fr.gouv.vitam.storage.offers.tape.exception.ArchiveReferentialException;
 import org.bson.Document;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class ArchiveReferentialRepository {
 
@@ -87,6 +91,28 @@ public class ArchiveReferentialRepository {
         }
     }
 
+    public List<TapeArchiveReferentialEntity> bulkFind(Set<String> archiveIds)
+        throws ArchiveReferentialException {
+
+        try (MongoCursor<Document> iterator = collection.find(
+            Filters.in(TapeArchiveReferentialEntity.ID, archiveIds)).iterator()) {
+
+            List<TapeArchiveReferentialEntity> result = new ArrayList<>();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                try {
+                    result.add(fromBson(document, TapeArchiveReferentialEntity.class));
+                } catch (InvalidParseOperationException e) {
+                    throw new IllegalStateException("Could not parse documents from DB " + BsonHelper.stringify(document), e);
+                }
+            }
+            return result;
+
+        } catch (MongoException ex) {
+            throw new ArchiveReferentialException("Could not find storage location by ids " + archiveIds, ex);
+        }
+    }
+
     public void updateLocationToReadyOnDisk(String archiveId, long size, String digest) throws ArchiveReferentialException {
         try {
             UpdateResult updateResult = collection.updateOne(
@@ -26,6 +26,7 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.offers.tape.cas;
 
+import com.google.common.annotations.VisibleForTesting;
 import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.VitamConfiguration;
@@ -34,6 +35,7 @@ import fr.gouv.vitam.common.database.server.query.QueryCriteriaOperator;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.iterables.BulkIterator;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.MetadatasObject;
@@ -86,6 +88,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -107,6 +110,7 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
     private final TapeCatalogService tapeCatalogService;
     private final String outputTarStorageFolder;
     private final ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy;
+    private final int bulkSize;
 
     public TapeLibraryContentAddressableStorage(
         BasicFileStorage basicFileStorage,
@@ -117,6 +121,21 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
         QueueRepository readWriteQueue, TapeCatalogService tapeCatalogService,
         String outputTarStorageFolder,
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy) {
+        this(basicFileStorage, objectReferentialRepository, archiveReferentialRepository,
+            readRequestReferentialRepository, fileBucketTarCreatorManager, readWriteQueue, tapeCatalogService,
+            outputTarStorageFolder, archiveOutputRetentionPolicy, VitamConfiguration.getBatchSize());
+    }
+
+    @VisibleForTesting
+    TapeLibraryContentAddressableStorage(
+        BasicFileStorage basicFileStorage,
+        ObjectReferentialRepository objectReferentialRepository,
+        ArchiveReferentialRepository archiveReferentialRepository,
+        ReadRequestReferentialRepository readRequestReferentialRepository,
+        FileBucketTarCreatorManager fileBucketTarCreatorManager,
+        QueueRepository readWriteQueue, TapeCatalogService tapeCatalogService,
+        String outputTarStorageFolder,
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy, int bulkSize) {
         this.basicFileStorage = basicFileStorage;
         this.objectReferentialRepository = objectReferentialRepository;
         this.archiveReferentialRepository = archiveReferentialRepository;
@@ -126,6 +145,7 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
         this.tapeCatalogService = tapeCatalogService;
         this.outputTarStorageFolder = outputTarStorageFolder;
         this.archiveOutputRetentionPolicy = archiveOutputRetentionPolicy;
+        this.bulkSize = bulkSize;
     }
 
     @Override
@@ -278,19 +298,23 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
         String readRequestId = GUIDFactory.newGUID().getId();
 
         Map<String, TarLocation> tarLocationMap = new HashMap<>();
-        Set<String> archiveSet = new HashSet<>();
+        Set<String> archiveSet = new LinkedHashSet<>();
+        boolean created = false;
         try {
+            // Resolve all object locations with one query per bulk
+            Map<String, TapeObjectReferentialEntity> objectReferentialEntities =
+                bulkFindObjectReferentialEntities(containerName, objectsIds);
+
             for (String objectName : objectsIds) {
 
-                Optional<TapeObjectReferentialEntity> object =
-                    objectReferentialRepository.find(containerName, objectName);
-                if (!object.isPresent()) {
+                TapeObjectReferentialEntity object = objectReferentialEntities.get(objectName);
+                if (object == null) {
                     throw new ContentAddressableStorageNotFoundException(
                         ErrorMessage.OBJECT_NOT_FOUND + containerName + "/" + objectName);
                 }
 
                 // Get TARs containing the object segments
-                TapeLibraryObjectStorageLocation location = object.get().getLocation();
+                TapeLibraryObjectStorageLocation location = object.getLocation();
                 if (!(location instanceof TapeLibraryTarObjectStorageLocation)) {
                     // TODO: 15/07/19 object is in the local FS and not yet in TAR (throw exception or read it from local FS ?)
                     throw new UnsupportedOperationException("Object stored in tar. Not implemented yet");
@@ -305,34 +329,38 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
                 }
 
                 for (TarEntryDescription o : tarEntryDescriptions) {
-                    // If Tar in cache then already in DISK. Access TAR in cache increase expire time
                     archiveSet.add(o.getTarFileId());
-
-                    String tarFileIdWithoutExtension = StringUtils.substringBeforeLast(o.getTarFileId(), ".");
-                    Path path = archiveOutputRetentionPolicy.get(o.getTarFileId());
-                    if (null != path) {
-                        tarLocationMap.putIfAbsent(tarFileIdWithoutExtension, TarLocation.DISK);
-                    } else {
-                        tarLocationMap.putIfAbsent(tarFileIdWithoutExtension, TarLocation.TAPE);
-                    }
                 }
 
+                // Entry offsets are kept so that objects are served from TAR without any further lookup
+                filesInTape.add(new FileInTape(objectName, object.getStorageId(), tarEntryDescriptions));
+            }
 
-                filesInTape.add(new FileInTape(objectName, object.get().getStorageId(), tarEntryDescriptions));
+            // Keep archives on disk until the read request is removed. Archives are pinned while their presence on
+            // disk is checked, so that none is evicted once recorded in DISK location. Access to TAR in cache
+            // increases expire time
+            Map<String, Path> archivesOnDisk = archiveOutputRetentionPolicy.pinAndGet(readRequestId, archiveSet);
+            for (String tarId : archiveSet) {
+                tarLocationMap.put(StringUtils.substringBeforeLast(tarId, "."),
+                    archivesOnDisk.containsKey(tarId) ? TarLocation.DISK : TarLocation.TAPE);
             }
 
             tapeReadRequestReferentialEntity =
                 new TapeReadRequestReferentialEntity(readRequestId, containerName, tarLocationMap, filesInTape);
             readRequestReferentialRepository.insert(tapeReadRequestReferentialEntity);
 
+            Map<String, TapeArchiveReferentialEntity> archiveReferentialEntities =
+                bulkFindArchiveReferentialEntities(archiveSet);
+            Map<String, String> bucketByTapeCode = new HashMap<>();
+
+            // One read order per archive
             for (String tarId : archiveSet) {
-                Optional<TapeArchiveReferentialEntity> tapeLibraryTarReferentialEntity =
-                    archiveReferentialRepository.find(tarId);
-                if (!tapeLibraryTarReferentialEntity.isPresent()) {
+                TapeArchiveReferentialEntity tapeLibraryTarReferentialEntity = archiveReferentialEntities.get(tarId);
+                if (tapeLibraryTarReferentialEntity == null) {
                     throw new IllegalStateException("TAR information not found for tarId : " + tarId);
                 }
 
-                TapeLibraryArchiveStorageLocation tarLocation = tapeLibraryTarReferentialEntity.get().getLocation();
+                TapeLibraryArchiveStorageLocation tarLocation = tapeLibraryTarReferentialEntity.getLocation();
                 if (!(tarLocation instanceof TapeLibraryOnTapeArchiveStorageLocation)) {
                     throw new UnsupportedOperationException("Tar file is not yet on tape.");
                 }
@@ -346,7 +374,11 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
                 // Create read orders
                 String tapeCode = ((TapeLibraryOnTapeArchiveStorageLocation) tarLocation).getTapeCode();
                 Integer filePosition = ((TapeLibraryOnTapeArchiveStorageLocation) tarLocation).getFilePosition();
-                String bucketId = getBucketByTapeCode(tapeCode);
+                String bucketId = bucketByTapeCode.get(tapeCode);
+                if (bucketId == null) {
+                    bucketId = getBucketByTapeCode(tapeCode);
+                    bucketByTapeCode.put(tapeCode, bucketId);
+                }
                 ReadOrder readOrder = new ReadOrder(readRequestId, tapeCode, filePosition, tarId, bucketId);
 
                 // add read orders to worker queue
@@ -357,37 +389,56 @@ public class TapeLibraryContentAddressableStorage implements ContentAddressableS
                             QueryCriteriaOperator.EQ)),
                     readOrder);
             }
+            created = true;
 
         } catch (ObjectReferentialException | QueueException | ArchiveReferentialException | TapeCatalogException
             | ReadRequestReferentialException e) {
             throw new ContentAddressableStorageServerException(
                 "Error on reading from tape");
+        } finally {
+            if (!created) {
+                archiveOutputRetentionPolicy.unpin(readRequestId);
+            }
         }
 
         return tapeReadRequestReferentialEntity.getRequestId();
     }
 
-    @Override
-    public void removeReadOrderRequest(String readRequestID)
-        throws ContentAddressableStorageServerException {
+    private Map<String, TapeObjectReferentialEntity> bulkFindObjectReferentialEntities(String containerName,
+        List<String> objectNames) throws ObjectReferentialException {
+
+        Map<String, TapeObjectReferentialEntity> result = new HashMap<>();
+        BulkIterator<String> bulkIterator =
+            new BulkIterator<>(new LinkedHashSet<>(objectNames).iterator(), bulkSize);
+        while (bulkIterator.hasNext()) {
+            List<TapeObjectReferentialEntity> entities =
+                objectReferentialRepository.bulkFind(containerName, new HashSet<>(bulkIterator.next()));
+            for (TapeObjectReferentialEntity entity : entities) {
+                result.put(entity.getId().getObjectName(), entity);
+            }
+        }
+        return result;
+    }
 
-        try {
-            Optional<TapeReadRequestReferentialEntity> readRequestEntity = readRequestReferentialRepository.find(readRequestID);
-
-            if (readRequestEntity.isPresent()) {
-                readRequestEntity.get().getFiles().forEach( fileInTape -> {
-                    for (TarEntryDescription tarEntryDescription : fileInTape.getFileSegments()) {
-                        String tarId = tarEntryDescription.getTarFileId();
-                        String tarIdWithoutExtension = StringUtils.substringBeforeLast(tarId, ".");
-                        archiveOutputRetentionPolicy.invalidate(tarIdWithoutExtension);
-                    }
-                });
+    private Map<String, TapeArchiveReferentialEntity> bulkFindArchiveReferentialEntities(Set<String> archiveIds)
+        throws ArchiveReferentialException {
+
+        Map<String, TapeArchiveReferentialEntity> result = new HashMap<>();
+        BulkIterator<String> bulkIterator = new BulkIterator<>(archiveIds.iterator(), bulkSize);
+        while (bulkIterator.hasNext()) {
+            List<TapeArchiveReferentialEntity> entities =
+                archiveReferentialRepository.bulkFind(new HashSet<>(bulkIterator.next()));
+            for (TapeArchiveReferentialEntity entity : entities) {
+                result.put(entity.getArchiveId(), entity);
             }
-            // TODO: 01/08/2019 cleanup ArchiveOutputRetentionPolicy and local fs
-        } catch (ReadRequestReferentialException e) {
-            throw new ContentAddressableStorageServerException(
-                "Error on removing read request order " + readRequestID);
         }
+        return result;
+    }
+
+    @Override
+    public void removeReadOrderRequest(String readRequestID) {
+        // Archives of the read request may now be evicted from local FS
+        archiveOutputRetentionPolicy.unpin(readRequestID);
     }
 
     private String getBucketByTapeCode(String tapeCode) throws TapeCatalogException {
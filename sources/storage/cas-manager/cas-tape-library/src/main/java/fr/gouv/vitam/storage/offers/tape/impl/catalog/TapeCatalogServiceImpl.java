@@ -332,6 +332,11 @@ public class TapeCatalogServiceImpl implements TapeCatalogService {
         return tapeCatalogRepository.receive(inQuery, inUpdate, messageType, usePriority);
     }
 
+    @Override
+    public <T> List<T> findReady(Bson inQuery, QueueMessageType messageType, int limit) throws QueueException {
+        return tapeCatalogRepository.findReady(inQuery, messageType, limit);
+    }
+
     private Document toBson(Object object) {
         return Document.parse(JsonHandler.unprettyPrint(object));
     }
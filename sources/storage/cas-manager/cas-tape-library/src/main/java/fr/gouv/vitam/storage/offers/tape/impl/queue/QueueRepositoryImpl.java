@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.ReturnDocument;
@@ -236,4 +237,25 @@ public class QueueRepositoryImpl implements QueueRepository {
 
     }
 
+    @Override
+    public <T> List<T> findReady(Bson inQuery, QueueMessageType messageType, int limit) throws QueueException {
+
+        Bson query = and(eq(QueueMessageEntity.STATE, QueueState.READY.getState()),
+            eq(QueueMessageEntity.MESSAGE_TYPE, messageType.name()), inQuery);
+
+        List<T> messages = new ArrayList<>();
+        try (MongoCursor<Document> cursor = collection.find(query)
+            .sort(Sorts.ascending(QueueMessageEntity.PRIORITY, QueueMessageEntity.TAG_CREATION_DATE))
+            .limit(limit)
+            .iterator()) {
+            while (cursor.hasNext()) {
+                messages.add(
+                    JsonHandler.getFromString(BsonHelper.stringify(cursor.next()), (Class<T>) messageType.getClazz()));
+            }
+        } catch (InvalidParseOperationException e) {
+            throw new QueueException(e);
+        }
+        return messages;
+    }
+
 }
@@ -101,4 +101,17 @@ public interface QueueRepository {
     <T> Optional<T> receive(Bson inQuery, Bson inUpdate, QueueMessageType messageType, boolean usePriority)
         throws QueueException;
 
+    /**
+     * Ready messages, by priority then creation date, without taking them.
+     * A message to process must then be taken with receive, as it may have been taken in between.
+     *
+     * @param inQuery filter
+     * @param messageType
+     * @param limit max messages returned
+     * @param <T>
+     * @return
+     * @throws QueueException
+     */
+    <T> List<T> findReady(Bson inQuery, QueueMessageType messageType, int limit) throws QueueException;
+
 }
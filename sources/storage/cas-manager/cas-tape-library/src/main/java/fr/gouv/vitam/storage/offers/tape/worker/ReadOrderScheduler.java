@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.offers.tape.worker;
+
+import fr.gouv.vitam.common.LocalDateUtil;
+import fr.gouv.vitam.storage.engine.common.model.ReadOrder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Elevator (SCAN) scheduling of read orders.<br/>
+ * <br/>
+ * Read orders on the tape mounted in a drive are served by file position, in the current direction of the drive until
+ * no order is left ahead, then in the other direction. A drive without order on its tape mounts the tape of the oldest
+ * order.<br/>
+ * An order of another tape waiting for more than the max waiting time makes the drive switch to its tape. The drive
+ * then serves the starved orders of this tape before switching again, so that tapes with starved orders are not
+ * loaded and unloaded for each order.
+ */
+public class ReadOrderScheduler {
+
+    private static final Comparator<ReadOrder> OLDEST_FIRST = Comparator
+        .comparingInt(ReadOrder::getPriority)
+        .thenComparing(ReadOrder::getCreated);
+
+    private final Duration maxWaitingTime;
+    private final Map<Integer, Boolean> ascendingByDrive = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> servingStarvedByDrive = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxWaitingTime waiting time after which an order is served before any other
+     */
+    public ReadOrderScheduler(Duration maxWaitingTime) {
+        this.maxWaitingTime = maxWaitingTime;
+    }
+
+    /**
+     * Next order of a drive : starved order, else order on its mounted tape, else order on a tape to mount
+     *
+     * @param driveIndex index of the drive
+     * @param mountedTapeCode code of the tape mounted in the drive, null if none
+     * @param currentPosition current file position of the mounted tape
+     * @param readyOrders ready orders
+     * @param excludedTapeCodes tapes used by other drives
+     * @param now current date
+     * @return the order to serve, empty if none
+     */
+    public Optional<ReadOrder> selectNext(int driveIndex, String mountedTapeCode, int currentPosition,
+        List<ReadOrder> readyOrders, Set<String> excludedTapeCodes, LocalDateTime now) {
+
+        Optional<ReadOrder> order =
+            selectStarved(driveIndex, mountedTapeCode, currentPosition, readyOrders, excludedTapeCodes, now);
+        if (order.isPresent()) {
+            return order;
+        }
+
+        if (mountedTapeCode != null) {
+            order = selectOnMountedTape(driveIndex, mountedTapeCode, currentPosition, readyOrders);
+            if (order.isPresent()) {
+                return order;
+            }
+        }
+
+        return selectTapeToMount(driveIndex, readyOrders, excludedTapeCodes);
+    }
+
+    /**
+     * Starved orders selection : starved orders of the mounted tape when it was mounted to serve starved orders, else
+     * the oldest starved order of another tape.
+     *
+     * @param driveIndex index of the drive
+     * @param mountedTapeCode code of the tape mounted in the drive, null if none
+     * @param currentPosition current file position of the mounted tape
+     * @param readyOrders ready orders
+     * @param excludedTapeCodes tapes used by other drives
+     * @param now current date
+     * @return the starved order to serve, empty if none
+     */
+    public Optional<ReadOrder> selectStarved(int driveIndex, String mountedTapeCode, int currentPosition,
+        List<ReadOrder> readyOrders, Set<String> excludedTapeCodes, LocalDateTime now) {
+        String starvationDate = getStarvationDate(now);
+        List<ReadOrder> starvedOrders = readyOrders.stream()
+            .filter(order -> !excludedTapeCodes.contains(order.getTapeCode()))
+            .filter(order -> order.getCreated().compareTo(starvationDate) < 0)
+            .collect(Collectors.toList());
+
+        if (mountedTapeCode != null && servingStarvedByDrive.getOrDefault(driveIndex, false)) {
+            Optional<ReadOrder> order =
+                selectOnMountedTape(driveIndex, mountedTapeCode, currentPosition, starvedOrders);
+            if (order.isPresent()) {
+                return order;
+            }
+        }
+        servingStarvedByDrive.put(driveIndex, false);
+
+        Optional<ReadOrder> order = starvedOrders.stream()
+            .filter(o -> !o.getTapeCode().equals(mountedTapeCode))
+            .min(OLDEST_FIRST);
+        if (order.isPresent()) {
+            servingStarvedByDrive.put(driveIndex, true);
+            ascendingByDrive.put(driveIndex, true);
+        }
+        return order;
+    }
+
+    /**
+     * Elevator selection on the tape mounted in the drive
+     *
+     * @param driveIndex index of the drive
+     * @param mountedTapeCode code of the tape mounted in the drive
+     * @param currentPosition current file position of the mounted tape
+     * @param readyOrders ready orders, orders of other tapes are ignored
+     * @return the nearest order in the direction of the drive, empty if no order on the tape
+     */
+    public Optional<ReadOrder> selectOnMountedTape(int driveIndex, String mountedTapeCode, int currentPosition,
+        List<ReadOrder> readyOrders) {
+
+        boolean ascending = ascendingByDrive.getOrDefault(driveIndex, true);
+
+        Optional<ReadOrder> order = selectInDirection(mountedTapeCode, currentPosition, readyOrders, ascending);
+        if (!order.isPresent()) {
+            // Nothing left ahead, reverse
+            ascending = !ascending;
+            order = selectInDirection(mountedTapeCode, currentPosition, readyOrders, ascending);
+        }
+
+        ascendingByDrive.put(driveIndex, ascending);
+        return order;
+    }
+
+    /**
+     * Select the tape of the oldest order, and its first order by file position
+     *
+     * @param driveIndex index of the drive
+     * @param readyOrders ready orders
+     * @param excludedTapeCodes tapes used by other drives
+     * @return the first order to read on the tape to mount, empty if no order
+     */
+    public Optional<ReadOrder> selectTapeToMount(int driveIndex, List<ReadOrder> readyOrders,
+        Set<String> excludedTapeCodes) {
+
+        Optional<ReadOrder> oldest = readyOrders.stream()
+            .filter(order -> !excludedTapeCodes.contains(order.getTapeCode()))
+            .min(OLDEST_FIRST);
+        if (!oldest.isPresent()) {
+            return Optional.empty();
+        }
+
+        ascendingByDrive.put(driveIndex, true);
+        String tapeCode = oldest.get().getTapeCode();
+        return readyOrders.stream()
+            .filter(order -> tapeCode.equals(order.getTapeCode()))
+            .min(Comparator.comparing(ReadOrder::getFilePosition).thenComparing(OLDEST_FIRST));
+    }
+
+    /**
+     * @param now current date
+     * @return creation date before which an order is starved, in queue date format
+     */
+    public String getStarvationDate(LocalDateTime now) {
+        return LocalDateUtil.getFormattedDateForMongo(now.minus(maxWaitingTime));
+    }
+
+    private Optional<ReadOrder> selectInDirection(String tapeCode, int currentPosition, List<ReadOrder> readyOrders,
+        boolean ascending) {
+        Comparator<ReadOrder> byPosition = ascending ?
+            Comparator.comparing(ReadOrder::getFilePosition) :
+            Comparator.comparing(ReadOrder::getFilePosition).reversed();
+        return readyOrders.stream()
+            .filter(order -> tapeCode.equals(order.getTapeCode()))
+            .filter(order -> ascending ?
+                order.getFilePosition() >= currentPosition :
+                order.getFilePosition() <= currentPosition)
+            .min(byPosition.thenComparing(OLDEST_FIRST));
+    }
+}
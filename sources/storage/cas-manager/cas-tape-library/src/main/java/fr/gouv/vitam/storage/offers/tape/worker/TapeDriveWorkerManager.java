@@ -26,6 +26,7 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.offers.tape.worker;
 
+import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -45,7 +46,10 @@ import fr.gouv.vitam.storage.offers.tape.exception.QueueException;
 import fr.gouv.vitam.storage.offers.tape.spec.QueueRepository;
 import fr.gouv.vitam.storage.offers.tape.spec.TapeDriveService;
 import fr.gouv.vitam.storage.offers.tape.spec.TapeLibraryPool;
+import org.bson.conversions.Bson;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -58,13 +62,21 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.nin;
 
 public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDriveOrderProducer {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(TapeDriveWorkerManager.class);
     private static final String TAPE_DRIVE_WORKER = "TapeDriveWorker_";
+    private static final Duration DEFAULT_READ_ORDER_MAX_WAITING_TIME = Duration.ofMinutes(60);
+    /**
+     * Max ready read orders considered by the read order scheduler at once
+     */
+    private static final int MAX_SCHEDULED_READ_ORDERS = 1000;
     private final QueueRepository readWriteQueue;
+    private final ReadOrderScheduler readOrderScheduler;
     private final List<TapeDriveWorker> workers;
 
     private final Map<Integer, OptimisticDriveResourceStatus> optimisticDriveResourceStatusMap =
@@ -78,6 +90,18 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
         TapeLibraryPool tapeLibraryPool,
         Map<Integer, TapeCatalog> driveTape, String inputTarPath, boolean forceOverrideNonEmptyCartridges,
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy) {
+        this(readWriteQueue, archiveReferentialRepository, readRequestReferentialRepository, tapeLibraryPool,
+            driveTape, inputTarPath, forceOverrideNonEmptyCartridges, archiveOutputRetentionPolicy,
+            DEFAULT_READ_ORDER_MAX_WAITING_TIME);
+    }
+
+    public TapeDriveWorkerManager(
+        QueueRepository readWriteQueue,
+        ArchiveReferentialRepository archiveReferentialRepository,
+        ReadRequestReferentialRepository readRequestReferentialRepository,
+        TapeLibraryPool tapeLibraryPool,
+        Map<Integer, TapeCatalog> driveTape, String inputTarPath, boolean forceOverrideNonEmptyCartridges,
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy, Duration readOrderMaxWaitingTime) {
 
         ParametersChecker
             .checkParameter("All params is required required", tapeLibraryPool, readWriteQueue,
@@ -85,6 +109,7 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
                 archiveOutputRetentionPolicy);
         this.archiveOutputRetentionPolicy = archiveOutputRetentionPolicy;
         this.readWriteQueue = readWriteQueue;
+        this.readOrderScheduler = new ReadOrderScheduler(readOrderMaxWaitingTime);
         this.workers = new ArrayList<>();
 
         for (Map.Entry<Integer, TapeDriveService> driveEntry : tapeLibraryPool.drives()) {
@@ -199,7 +224,7 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
             order = selectWriteOrderByBucket(driveWorker.getCurrentTape().getBucket());
 
             if (!order.isPresent()) {
-                order = selectReadOrderByTapeCode(driveWorker.getCurrentTape().getCode());
+                order = selectReadOrderByTapeCode(driveWorker);
             }
         }
 
@@ -212,7 +237,7 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
         }
 
         if (!order.isPresent()) {
-            order = selectReadOrderExcludingTapeCodes();
+            order = selectReadOrderExcludingTapeCodes(driveWorker);
         }
 
         return order;
@@ -238,7 +263,11 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
 
         if (driveWorker.getCurrentTape() != null) {
 
-            order = selectReadOrderByTapeCode(driveWorker.getCurrentTape().getCode());
+            order = selectStarvedReadOrder(driveWorker);
+
+            if (!order.isPresent()) {
+                order = selectReadOrderByTapeCode(driveWorker);
+            }
 
             if (!order.isPresent()) {
                 order = selectWriteOrderByBucket(driveWorker.getCurrentTape().getBucket());
@@ -246,7 +275,7 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
         }
 
         if (!order.isPresent()) {
-            order = selectReadOrderExcludingTapeCodes();
+            order = selectReadOrderExcludingTapeCodes(driveWorker);
         }
 
         if (!order.isPresent()) {
@@ -268,11 +297,65 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
         return readWriteQueue.receive(queueMessageType);
     }
 
-    private Optional<? extends ReadWriteOrder> selectReadOrderByTapeCode(String tapeCode) throws QueueException {
-        return readWriteQueue.receive(
-            eq(ReadOrder.TAPE_CODE, tapeCode),
-            QueueMessageType.ReadOrder
-        );
+    private Optional<? extends ReadWriteOrder> selectReadOrderByTapeCode(TapeDriveWorker driveWorker)
+        throws QueueException {
+        TapeCatalog currentTape = driveWorker.getCurrentTape();
+        Bson query = eq(ReadOrder.TAPE_CODE, currentTape.getCode());
+
+        List<ReadOrder> readyOrders =
+            readWriteQueue.findReady(query, QueueMessageType.ReadOrder, MAX_SCHEDULED_READ_ORDERS);
+        Optional<ReadOrder> scheduled = readOrderScheduler
+            .selectOnMountedTape(driveWorker.getIndex(), currentTape.getCode(), getCurrentPosition(currentTape),
+                readyOrders);
+
+        return takeReadOrder(scheduled, query);
+    }
+
+    /**
+     * Read order waiting for too long, on the current tape or on a tape not used by another drive
+     */
+    private Optional<? extends ReadWriteOrder> selectStarvedReadOrder(TapeDriveWorker driveWorker)
+        throws QueueException {
+        LocalDateTime now = LocalDateUtil.now();
+        Set<String> otherDrivesTapeCodes = getActiveTapeCodes(driveWorker.getIndex());
+        Bson query = and(
+            lt(QueueMessageEntity.TAG_CREATION_DATE, readOrderScheduler.getStarvationDate(now)),
+            nin(ReadOrder.TAPE_CODE, otherDrivesTapeCodes));
+
+        List<ReadOrder> readyOrders =
+            readWriteQueue.findReady(query, QueueMessageType.ReadOrder, MAX_SCHEDULED_READ_ORDERS);
+        TapeCatalog currentTape = driveWorker.getCurrentTape();
+        Optional<ReadOrder> scheduled = readOrderScheduler.selectStarved(driveWorker.getIndex(),
+            currentTape.getCode(), getCurrentPosition(currentTape), readyOrders, otherDrivesTapeCodes, now);
+        if (!scheduled.isPresent()) {
+            return Optional.empty();
+        }
+        if (!scheduled.get().getTapeCode().equals(currentTape.getCode())) {
+            LOGGER.warn("Read order " + scheduled.get().getId() + " waiting since " + scheduled.get().getCreated() +
+                ", tape " + currentTape.getCode() + " is unloaded to serve it");
+        }
+        return takeReadOrder(scheduled, query);
+    }
+
+    /**
+     * Take the scheduled read order.<br/>
+     * Orders added since the scheduling lookup, or if the scheduled one was taken in between, are taken in arrival
+     * order.
+     */
+    private Optional<? extends ReadWriteOrder> takeReadOrder(Optional<ReadOrder> scheduled, Bson query)
+        throws QueueException {
+        if (scheduled.isPresent()) {
+            Optional<? extends ReadWriteOrder> order = readWriteQueue
+                .receive(and(eq(QueueMessageEntity.ID, scheduled.get().getId()), query), QueueMessageType.ReadOrder);
+            if (order.isPresent()) {
+                return order;
+            }
+        }
+        return readWriteQueue.receive(query, QueueMessageType.ReadOrder);
+    }
+
+    private int getCurrentPosition(TapeCatalog tape) {
+        return tape.getCurrentPosition() != null ? tape.getCurrentPosition() : 0;
     }
 
     private Optional<? extends ReadWriteOrder> selectWriteOrderExcludingActiveBuckets() throws QueueException {
@@ -295,22 +378,32 @@ public class TapeDriveWorkerManager implements TapeDriveOrderConsumer, TapeDrive
         );
     }
 
-    private Optional<? extends ReadWriteOrder> selectReadOrderExcludingTapeCodes() throws QueueException {
+    private Optional<? extends ReadWriteOrder> selectReadOrderExcludingTapeCodes(TapeDriveWorker driveWorker)
+        throws QueueException {
 
-        Set<String> activeTapeCodes =
-            Stream.concat(
-                this.optimisticDriveResourceStatusMap.values().stream()
-                    .map(optimisticDriveResourceStatus -> optimisticDriveResourceStatus.targetTapeCode),
-                this.optimisticDriveResourceStatusMap.values().stream()
-                    .map(optimisticDriveResourceStatus -> optimisticDriveResourceStatus.lastTapeCode)
-            )
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<String> activeTapeCodes = getActiveTapeCodes(null);
+        Bson query = nin(ReadOrder.TAPE_CODE, activeTapeCodes);
 
-        return readWriteQueue.receive(
-            nin(ReadOrder.TAPE_CODE, activeTapeCodes),
-            QueueMessageType.ReadOrder
-        );
+        List<ReadOrder> readyOrders =
+            readWriteQueue.findReady(query, QueueMessageType.ReadOrder, MAX_SCHEDULED_READ_ORDERS);
+        Optional<ReadOrder> scheduled =
+            readOrderScheduler.selectTapeToMount(driveWorker.getIndex(), readyOrders, activeTapeCodes);
+
+        return takeReadOrder(scheduled, query);
+    }
+
+    /**
+     * @param excludedDriveIndex drive whose tapes are ignored, null for all drives
+     * @return tapes loaded in drives, or about to be
+     */
+    private Set<String> getActiveTapeCodes(Integer excludedDriveIndex) {
+        return this.optimisticDriveResourceStatusMap.entrySet().stream()
+            .filter(entry -> !entry.getKey().equals(excludedDriveIndex))
+            .map(Map.Entry::getValue)
+            .flatMap(optimisticDriveResourceStatus -> Stream
+                .of(optimisticDriveResourceStatus.targetTapeCode, optimisticDriveResourceStatus.lastTapeCode))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
     }
 
     private static class OptimisticDriveResourceStatus {
@@ -1,9 +1,12 @@
 package fr.gouv.vitam.storage.offers.tape.cas;
 
+import com.codahale.metrics.MetricRegistry;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.storage.offers.tape.exception.ReadRequestReferentialException;
 import org.assertj.core.api.Assertions;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.internal.verification.Times;
 import org.mockito.internal.verification.VerificationModeFactory;
 
@@ -11,6 +14,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.mock;
@@ -19,13 +25,17 @@ import static org.mockito.Mockito.when;
 
 public class ArchiveOutputRetentionPolicyTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void test_put_get_ok() throws ReadRequestReferentialException {
         ReadRequestReferentialCleaner readRequestReferentialCleaner = mock(ReadRequestReferentialCleaner.class);
         when(readRequestReferentialCleaner.cleanUp()).thenReturn(1L);
 
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
-            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 1, readRequestReferentialCleaner);
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, Long.MAX_VALUE,
+                ArchiveCacheEvictionPolicy.LRU, readRequestReferentialCleaner, new MetricRegistry());
         archiveOutputRetentionPolicy.put("aaa", Paths.get("aaa"));
         archiveOutputRetentionPolicy.cleanUp();
         Assertions.assertThat(archiveOutputRetentionPolicy.get("aaa")).isNotNull();
@@ -40,7 +50,8 @@ public class ArchiveOutputRetentionPolicyTest {
 
         Path tempFile = Files.createTempFile(GUIDFactory.newGUID().getId(), ".tar");
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
-            new ArchiveOutputRetentionPolicy(5, TimeUnit.MILLISECONDS, 1, readRequestReferentialCleaner);
+            new ArchiveOutputRetentionPolicy(5, TimeUnit.MILLISECONDS, Long.MAX_VALUE,
+                ArchiveCacheEvictionPolicy.LRU, readRequestReferentialCleaner, new MetricRegistry());
         archiveOutputRetentionPolicy.put(tempFile.toFile().getAbsolutePath(), tempFile);
 
         TimeUnit.MILLISECONDS.sleep(10);
@@ -58,7 +69,8 @@ public class ArchiveOutputRetentionPolicyTest {
 
         Path tempFile = Files.createTempFile(GUIDFactory.newGUID().getId(), ".tar");
         ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
-            new ArchiveOutputRetentionPolicy(1000, TimeUnit.MILLISECONDS, 1, readRequestReferentialCleaner);
+            new ArchiveOutputRetentionPolicy(1000, TimeUnit.MILLISECONDS, Long.MAX_VALUE,
+                ArchiveCacheEvictionPolicy.LRU, readRequestReferentialCleaner, new MetricRegistry());
         archiveOutputRetentionPolicy.put(tempFile.toFile().getAbsolutePath(), tempFile);
 
         // Manually invalidate entry in cache
@@ -76,4 +88,218 @@ public class ArchiveOutputRetentionPolicyTest {
         verify(readRequestReferentialCleaner, VerificationModeFactory.atLeastOnce()).cleanUp();
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_lru_eviction_when_max_size_exceeded() throws Exception {
+        // Given
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 30L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        Path tar2 = createArchiveFile("tar2.tar", 10);
+        Path tar3 = createArchiveFile("tar3.tar", 10);
+        Path tar4 = createArchiveFile("tar4.tar", 10);
+
+        archiveOutputRetentionPolicy.put("tar1.tar", tar1);
+        archiveOutputRetentionPolicy.put("tar2.tar", tar2);
+        archiveOutputRetentionPolicy.put("tar3.tar", tar3);
+        // tar1 accessed again, tar2 is the least recently used archive
+        archiveOutputRetentionPolicy.get("tar1.tar");
+
+        // When
+        archiveOutputRetentionPolicy.put("tar4.tar", tar4);
+
+        // Then
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar2.tar")).isNull();
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar3.tar")).isEqualTo(tar3);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar4.tar")).isEqualTo(tar4);
+        Assertions.assertThat(archiveOutputRetentionPolicy.getBytesOnDisk()).isEqualTo(30L);
+        Assertions.assertThat(archiveOutputRetentionPolicy.getEvictionCount()).isEqualTo(1L);
+        awaitDeletion(tar2);
+        Assertions.assertThat(tar1.toFile().exists()).isTrue();
+    }
+
+    @Test
+    public void test_lfu_eviction_when_max_size_exceeded() throws Exception {
+        // Given
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 30L, ArchiveCacheEvictionPolicy.LFU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        Path tar2 = createArchiveFile("tar2.tar", 10);
+        Path tar3 = createArchiveFile("tar3.tar", 10);
+        Path tar4 = createArchiveFile("tar4.tar", 10);
+
+        archiveOutputRetentionPolicy.put("tar1.tar", tar1);
+        archiveOutputRetentionPolicy.put("tar2.tar", tar2);
+        archiveOutputRetentionPolicy.put("tar3.tar", tar3);
+        // tar1 & tar2 are hot. tar3 is the most recently used, but the least frequently used archive
+        for (int i = 0; i < 3; i++) {
+            archiveOutputRetentionPolicy.get("tar1.tar");
+            archiveOutputRetentionPolicy.get("tar2.tar");
+        }
+        archiveOutputRetentionPolicy.get("tar3.tar");
+
+        // When
+        archiveOutputRetentionPolicy.put("tar4.tar", tar4);
+
+        // Then
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar3.tar")).isNull();
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar2.tar")).isEqualTo(tar2);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar4.tar")).isEqualTo(tar4);
+        awaitDeletion(tar3);
+    }
+
+    @Test
+    public void test_pinned_archives_are_not_evicted() throws Exception {
+        // Given
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 20L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        Path tar2 = createArchiveFile("tar2.tar", 10);
+        Path tar3 = createArchiveFile("tar3.tar", 10);
+
+        archiveOutputRetentionPolicy.pin("readRequest1", Arrays.asList("tar1.tar", "tar2.tar"));
+        archiveOutputRetentionPolicy.put("tar1.tar", tar1);
+        archiveOutputRetentionPolicy.put("tar2.tar", tar2);
+
+        // When : all other archives pinned. Max size exceeded
+        archiveOutputRetentionPolicy.put("tar3.tar", tar3);
+
+        // Then
+        Assertions.assertThat(archiveOutputRetentionPolicy.getBytesOnDisk()).isEqualTo(30L);
+        Assertions.assertThat(archiveOutputRetentionPolicy.getEvictionCount()).isEqualTo(0L);
+        Assertions.assertThat(archiveOutputRetentionPolicy.isPinned("tar1.tar")).isTrue();
+
+        // When : read request removed
+        archiveOutputRetentionPolicy.unpin("readRequest1");
+        archiveOutputRetentionPolicy.cleanUp();
+
+        // Then : least recently used archive evicted
+        Assertions.assertThat(archiveOutputRetentionPolicy.isPinned("tar1.tar")).isFalse();
+        Assertions.assertThat(archiveOutputRetentionPolicy.getBytesOnDisk()).isEqualTo(20L);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isNull();
+        awaitDeletion(tar1);
+    }
+
+    @Test
+    public void test_pin_and_get_returns_archives_on_disk_and_protects_them_from_eviction() throws Exception {
+        // Given
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 20L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        Path tar2 = createArchiveFile("tar2.tar", 10);
+        archiveOutputRetentionPolicy.put("tar1.tar", tar1);
+        archiveOutputRetentionPolicy.put("tar2.tar", tar2);
+
+        // When
+        Map<String, Path> archivesOnDisk =
+            archiveOutputRetentionPolicy.pinAndGet("readRequest1", Arrays.asList("tar1.tar", "tar3.tar"));
+
+        // Then
+        Assertions.assertThat(archivesOnDisk).containsOnly(Assertions.entry("tar1.tar", tar1));
+        Assertions.assertThat(archiveOutputRetentionPolicy.isPinned("tar1.tar")).isTrue();
+        Assertions.assertThat(archiveOutputRetentionPolicy.isPinned("tar3.tar")).isTrue();
+
+        // When : max size exceeded, tar1 being the least recently used before pinAndGet
+        archiveOutputRetentionPolicy.put("tar3.tar", createArchiveFile("tar3.tar", 10));
+
+        // Then : unpinned tar2 evicted instead of tar1
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar2.tar")).isNull();
+        awaitDeletion(tar2);
+    }
+
+    @Test
+    public void test_pinned_archives_do_not_expire_until_read_request_idle() throws Exception {
+        // Given
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(200, TimeUnit.MILLISECONDS, Long.MAX_VALUE, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        archiveOutputRetentionPolicy.pin("readRequest1", Collections.singletonList("tar1.tar"));
+        archiveOutputRetentionPolicy.put("tar1.tar", tar1);
+
+        // When
+        TimeUnit.MILLISECONDS.sleep(150);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+        TimeUnit.MILLISECONDS.sleep(150);
+
+        // Then : pin renewed by last access
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+
+        // When : read request idle
+        TimeUnit.MILLISECONDS.sleep(400);
+        archiveOutputRetentionPolicy.cleanUp();
+
+        // Then
+        Assertions.assertThat(archiveOutputRetentionPolicy.isPinned("tar1.tar")).isFalse();
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isNull();
+        awaitDeletion(tar1);
+    }
+
+    @Test
+    public void test_rebuild_from_directory() throws Exception {
+        // Given
+        Path tar1 = createArchiveFile("tar1.tar", 10);
+        Path tar2 = createArchiveFile("tar2.tar", 20);
+        Path tmp = createArchiveFile("tar3.tar.TMP", 5);
+        Assertions.assertThat(tar1.toFile().setLastModified(1_000_000L)).isTrue();
+        Assertions.assertThat(tar2.toFile().setLastModified(2_000_000L)).isTrue();
+
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 25L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+
+        // When
+        archiveOutputRetentionPolicy.rebuildFromDirectory(temporaryFolder.getRoot().toPath());
+
+        // Then : oldest archive evicted to fit max size. Incomplete files ignored
+        Assertions.assertThat(archiveOutputRetentionPolicy.getBytesOnDisk()).isEqualTo(20L);
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar2.tar")).isEqualTo(tar2.toAbsolutePath());
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar1.tar")).isNull();
+        Assertions.assertThat(archiveOutputRetentionPolicy.get("tar3.tar.TMP")).isNull();
+        awaitDeletion(tar1);
+        Assertions.assertThat(tmp.toFile().exists()).isTrue();
+    }
+
+    @Test
+    public void test_metrics() throws Exception {
+        // Given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ArchiveOutputRetentionPolicy archiveOutputRetentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 10L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), metricRegistry);
+
+        // When
+        archiveOutputRetentionPolicy.get("tar1.tar");
+        archiveOutputRetentionPolicy.put("tar1.tar", createArchiveFile("tar1.tar", 10));
+        archiveOutputRetentionPolicy.get("tar1.tar");
+        archiveOutputRetentionPolicy.put("tar2.tar", createArchiveFile("tar2.tar", 5));
+
+        // Then
+        Assertions.assertThat(metricRegistry.getGauges().get("Tape archive cache hit count").getValue()).isEqualTo(1L);
+        Assertions.assertThat(metricRegistry.getGauges().get("Tape archive cache miss count").getValue()).isEqualTo(1L);
+        Assertions.assertThat(metricRegistry.getGauges().get("Tape archive cache eviction count").getValue())
+            .isEqualTo(1L);
+        Assertions.assertThat(metricRegistry.getGauges().get("Tape archive cache bytes on disk").getValue())
+            .isEqualTo(5L);
+    }
+
+    private Path createArchiveFile(String fileName, int size) throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve(fileName);
+        Files.write(path, new byte[size]);
+        return path;
+    }
+
+    private void awaitDeletion(Path path) throws InterruptedException {
+        for (int i = 0; i < 100 && path.toFile().exists(); i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertThat(path.toFile().exists()).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package fr.gouv.vitam.storage.offers.tape.cas;
 
+import com.google.common.collect.ImmutableSet;
 import fr.gouv.vitam.common.database.server.mongodb.MongoDbAccess;
 import fr.gouv.vitam.common.database.server.mongodb.SimpleMongoDBAccess;
 import fr.gouv.vitam.common.guid.GUIDFactory;
@@ -16,11 +17,13 @@ import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Optional;
 
 import static fr.gouv.vitam.common.database.collections.VitamCollection.getMongoClientOptions;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 public class ArchiveReferentialRepositoryTest {
 
@@ -113,6 +116,29 @@ public class ArchiveReferentialRepositoryTest {
         assertThat(tarReferentialEntity.isPresent()).isTrue();
     }
 
+    @Test
+    public void bulkFindExistingPartial() throws Exception {
+
+        // Given
+        for (int i = 0; i < 5; i++) {
+            archiveReferentialRepository.insert(new TapeArchiveReferentialEntity(
+                "tarId" + i, new TapeLibraryBuildingOnDiskArchiveStorageLocation(), 10L, "digest" + i, "date1"
+            ));
+        }
+
+        // When
+        List<TapeArchiveReferentialEntity> tarReferentialEntities =
+            archiveReferentialRepository.bulkFind(ImmutableSet.of("tarId1", "Unknown", "tarId3"));
+
+        // Then
+        assertThat(tarReferentialEntities).extracting(
+            TapeArchiveReferentialEntity::getArchiveId,
+            TapeArchiveReferentialEntity::getDigestValue).containsExactlyInAnyOrder(
+            tuple("tarId1", "digest1"),
+            tuple("tarId3", "digest3")
+        );
+    }
+
     @Test
     public void updateLocationToReadyOnDiskExisting() throws Exception {
 
@@ -5,7 +5,10 @@ import fr.gouv.vitam.common.database.server.mongodb.MongoDbAccess;
 import fr.gouv.vitam.common.database.server.mongodb.SimpleMongoDBAccess;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.iterables.BulkIterator;
 import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.mongo.MongoRule;
 import fr.gouv.vitam.storage.engine.common.collection.OfferCollections;
 import fr.gouv.vitam.storage.engine.common.model.TapeLibraryInputFileObjectStorageLocation;
@@ -20,9 +23,12 @@ import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static fr.gouv.vitam.common.database.collections.VitamCollection.getMongoClientOptions;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,6 +36,8 @@ import static org.assertj.core.api.Assertions.tuple;
 
 public class ObjectReferentialRepositoryTest {
 
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ObjectReferentialRepositoryTest.class);
+
     public static final String TAPE_OBJECT_REFERENTIAL_COLLECTION =
         OfferCollections.TAPE_OBJECT_REFERENTIAL.getName() + GUIDFactory.newGUID().getId();
 
@@ -209,6 +217,58 @@ public class ObjectReferentialRepositoryTest {
         );
     }
 
+    @Test
+    public void bulkFindVersusFindLatency() throws ObjectReferentialException {
+
+        // Given
+        int nbObjects = 2000;
+        int bulkSize = 500;
+        List<String> objectNames = new ArrayList<>();
+        for (int i = 0; i < nbObjects; i++) {
+            objectReferentialRepository.insertOrUpdate(
+                new TapeObjectReferentialEntity(
+                    new TapeLibraryObjectReferentialId("container", "objectName" + i),
+                    10L, DigestType.SHA512.getName(), "digest" + i, "storageId" + i,
+                    new TapeLibraryInputFileObjectStorageLocation(), "date1-" + i, "date2-" + i
+                ));
+            objectNames.add("objectName" + i);
+        }
+
+        // When : one query per object
+        long perObjectStart = System.nanoTime();
+        int perObjectQueries = 0;
+        List<String> perObjectDigests = new ArrayList<>();
+        for (String objectName : objectNames) {
+            perObjectQueries++;
+            objectReferentialRepository.find("container", objectName)
+                .ifPresent(entity -> perObjectDigests.add(entity.getDigest()));
+        }
+        long perObjectDuration = System.nanoTime() - perObjectStart;
+
+        // When : one query per bulk
+        long bulkStart = System.nanoTime();
+        int bulkQueries = 0;
+        List<String> bulkDigests = new ArrayList<>();
+        BulkIterator<String> bulkIterator = new BulkIterator<>(objectNames.iterator(), bulkSize);
+        while (bulkIterator.hasNext()) {
+            bulkQueries++;
+            objectReferentialRepository.bulkFind("container", new HashSet<>(bulkIterator.next()))
+                .forEach(entity -> bulkDigests.add(entity.getDigest()));
+        }
+        long bulkDuration = System.nanoTime() - bulkStart;
+
+        // Then
+        LOGGER.info(String.format("Per object lookup: %d queries in %d ms. Bulk lookup: %d queries in %d ms",
+            perObjectQueries, TimeUnit.NANOSECONDS.toMillis(perObjectDuration),
+            bulkQueries, TimeUnit.NANOSECONDS.toMillis(bulkDuration)));
+
+        assertThat(bulkDigests).containsExactlyInAnyOrderElementsOf(perObjectDigests);
+        assertThat(bulkDigests).hasSize(nbObjects);
+        assertThat(perObjectQueries).isEqualTo(nbObjects);
+        assertThat(bulkQueries).isEqualTo(nbObjects / bulkSize);
+        assertThat(bulkDuration).isLessThan(perObjectDuration);
+    }
+
     @Test
     public void updateStorageLocationWithSameStorageId() throws Exception {
 
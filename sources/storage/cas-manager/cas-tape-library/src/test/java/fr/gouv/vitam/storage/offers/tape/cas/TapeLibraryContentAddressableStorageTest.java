@@ -1,5 +1,7 @@
 package fr.gouv.vitam.storage.offers.tape.cas;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.database.server.query.QueryCriteria;
 import fr.gouv.vitam.common.digest.Digest;
@@ -7,6 +9,8 @@ import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.model.MetadatasObject;
 import fr.gouv.vitam.common.storage.ContainerInformation;
 import fr.gouv.vitam.common.storage.cas.container.api.ObjectContent;
+import fr.gouv.vitam.storage.engine.common.model.FileInTape;
+import fr.gouv.vitam.storage.engine.common.model.ReadOrder;
 import fr.gouv.vitam.storage.engine.common.model.TapeArchiveReferentialEntity;
 import fr.gouv.vitam.storage.engine.common.model.TapeCatalog;
 import fr.gouv.vitam.storage.engine.common.model.TapeLibraryObjectReferentialId;
@@ -15,6 +19,7 @@ import fr.gouv.vitam.storage.engine.common.model.TapeLibraryTarObjectStorageLoca
 import fr.gouv.vitam.storage.engine.common.model.TapeObjectReferentialEntity;
 import fr.gouv.vitam.storage.engine.common.model.TapeReadRequestReferentialEntity;
 import fr.gouv.vitam.storage.engine.common.model.TarEntryDescription;
+import fr.gouv.vitam.storage.engine.common.model.TarLocation;
 import fr.gouv.vitam.storage.offers.tape.exception.ArchiveReferentialException;
 import fr.gouv.vitam.storage.offers.tape.exception.ObjectReferentialException;
 import fr.gouv.vitam.storage.offers.tape.exception.ReadRequestReferentialException;
@@ -39,14 +44,20 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -54,7 +65,9 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -387,7 +400,7 @@ public class TapeLibraryContentAddressableStorageTest {
         int fileSize = 6;
         String tarId = "20190625115513038-406fceff-2c4f-475c-898f-493331756eda.tar";
         TapeLibraryObjectReferentialId objectReferentialId =
-            new TapeLibraryObjectReferentialId("0_object", "aeaaaaaaaafklihzablkmallwljiqoiaaaaq");
+            new TapeLibraryObjectReferentialId("0_object", "aeaaaaaaaaecntv2ab5tmallrz6wdwqaaaaq");
         TapeLibraryTarObjectStorageLocation tarObjectStorageLocation = new TapeLibraryTarObjectStorageLocation(
             Arrays.asList(
                 new TarEntryDescription(
@@ -418,8 +431,10 @@ public class TapeLibraryContentAddressableStorageTest {
         ArgumentCaptor<List<QueryCriteria>> captor = ArgumentCaptor.forClass(List.class);
 
         when(tapeCatalogService.find(captor.capture())).thenReturn(Arrays.asList(tape));
-        when(objectReferentialRepository.find(anyString(), anyString())).thenReturn(objectReferentialEntity);
-        when(archiveReferentialRepository.find(anyString())).thenReturn(tarReferentialEntity);
+        when(objectReferentialRepository.bulkFind(anyString(), any()))
+            .thenReturn(Collections.singletonList(objectReferentialEntity.get()));
+        when(archiveReferentialRepository.bulkFind(any()))
+            .thenReturn(Collections.singletonList(tarReferentialEntity.get()));
 
         String readOrderId = tapeLibraryContentAddressableStorage
             .createReadOrderRequest("0_object", Arrays.asList("aeaaaaaaaaecntv2ab5tmallrz6wdwqaaaaq"));
@@ -440,6 +455,144 @@ public class TapeLibraryContentAddressableStorageTest {
         assertThat(readRequestReferentialRepository.find(readOrderId).get().isCompleted()).isTrue();
     }
 
+    @Test
+    public void createReadOrderWithBulkObjectAndArchiveLookups() throws Exception {
+        // Given
+        TapeLibraryContentAddressableStorage storage =
+            new TapeLibraryContentAddressableStorage(basicFileStorage, objectReferentialRepository,
+                archiveReferentialRepository, readRequestReferentialRepository, fileBucketTarCreatorManager,
+                readWriteQueueRepository, tapeCatalogService, outputTarsPath, archiveOutputRetentionPolicy, 2);
+
+        // 5 objects in 2 archives. obj2 is split over both archives
+        List<TapeObjectReferentialEntity> objects = Arrays.asList(
+            createTarObjectEntity("obj0", new TarEntryDescription("tar1.tar", "obj0-0", 0L, 10L, "d0")),
+            createTarObjectEntity("obj1", new TarEntryDescription("tar1.tar", "obj1-0", 1024L, 10L, "d1")),
+            createTarObjectEntity("obj2", new TarEntryDescription("tar1.tar", "obj2-0", 2048L, 10L, "d2"),
+                new TarEntryDescription("tar2.tar", "obj2-1", 0L, 10L, "d2")),
+            createTarObjectEntity("obj3", new TarEntryDescription("tar2.tar", "obj3-0", 1024L, 10L, "d3")),
+            createTarObjectEntity("obj4", new TarEntryDescription("tar2.tar", "obj4-0", 2048L, 10L, "d4")));
+
+        doAnswer(args -> {
+            Set<String> objectNames = args.getArgument(1);
+            return objects.stream()
+                .filter(entity -> objectNames.contains(entity.getId().getObjectName()))
+                .collect(Collectors.toList());
+        }).when(objectReferentialRepository).bulkFind(eq("0_object"), any());
+
+        doReturn(Arrays.asList(
+            new TapeArchiveReferentialEntity("tar1.tar", new TapeLibraryOnTapeArchiveStorageLocation("TAPE1", 3),
+                5120L, "digest1", null),
+            new TapeArchiveReferentialEntity("tar2.tar", new TapeLibraryOnTapeArchiveStorageLocation("TAPE1", 4),
+                5120L, "digest2", null)))
+            .when(archiveReferentialRepository).bulkFind(any());
+
+        TapeCatalog tape = new TapeCatalog();
+        tape.setCode("TAPE1");
+        tape.setBucket("bucket");
+        doReturn(Collections.singletonList(tape)).when(tapeCatalogService).find(any());
+
+        // When
+        String readOrderId =
+            storage.createReadOrderRequest("0_object", Arrays.asList("obj0", "obj1", "obj2", "obj3", "obj4"));
+
+        // Then : 3 bulk object queries (bulk size = 2) and a single archive query, no per object lookup
+        assertThat(readOrderId).isNotNull();
+        verify(objectReferentialRepository, times(3)).bulkFind(eq("0_object"), any());
+        verify(objectReferentialRepository, never()).find(anyString(), anyString());
+        verify(archiveReferentialRepository, times(1)).bulkFind(any());
+        verify(archiveReferentialRepository, never()).find(anyString());
+        verify(tapeCatalogService, times(1)).find(any());
+        verify(archiveOutputRetentionPolicy).pinAndGet(readOrderId, ImmutableSet.of("tar1.tar", "tar2.tar"));
+
+        // One read order per archive
+        ArgumentCaptor<ReadOrder> readOrderCaptor = ArgumentCaptor.forClass(ReadOrder.class);
+        verify(readWriteQueueRepository, times(2)).addIfAbsent(any(), readOrderCaptor.capture());
+        assertThat(readOrderCaptor.getAllValues())
+            .extracting(ReadOrder::getFileName, ReadOrder::getFilePosition, ReadOrder::getReadRequestId)
+            .containsExactly(tuple("tar1.tar", 3, readOrderId), tuple("tar2.tar", 4, readOrderId));
+
+        // Object entry offsets resolved in read request
+        ArgumentCaptor<TapeReadRequestReferentialEntity> readRequestCaptor =
+            ArgumentCaptor.forClass(TapeReadRequestReferentialEntity.class);
+        verify(readRequestReferentialRepository).insert(readRequestCaptor.capture());
+        assertThat(readRequestCaptor.getValue().getFiles()).extracting(FileInTape::getFileName)
+            .containsExactly("obj0", "obj1", "obj2", "obj3", "obj4");
+        assertThat(readRequestCaptor.getValue().getFiles().get(2).getFileSegments())
+            .extracting(TarEntryDescription::getTarFileId, TarEntryDescription::getStartPos)
+            .containsExactly(tuple("tar1.tar", 2048L), tuple("tar2.tar", 0L));
+    }
+
+    @Test
+    public void createReadOrderKeepsArchiveOnDiskWhenEvictedByConcurrentRead() throws Exception {
+        // Given : tar1 on disk, and a cache only large enough for one archive
+        ArchiveOutputRetentionPolicy retentionPolicy =
+            new ArchiveOutputRetentionPolicy(1, TimeUnit.MINUTES, 10L, ArchiveCacheEvictionPolicy.LRU,
+                mock(ReadRequestReferentialCleaner.class), new MetricRegistry());
+        Path tar1 = Paths.get(outputTarsPath, "tar1.tar");
+        Files.write(tar1, new byte[10]);
+        retentionPolicy.put("tar1.tar", tar1);
+        Path tar9 = Paths.get(outputTarsPath, "tar9.tar");
+        Files.write(tar9, new byte[10]);
+
+        TapeLibraryContentAddressableStorage storage =
+            new TapeLibraryContentAddressableStorage(basicFileStorage, objectReferentialRepository,
+                archiveReferentialRepository, readRequestReferentialRepository, fileBucketTarCreatorManager,
+                readWriteQueueRepository, tapeCatalogService, outputTarsPath, retentionPolicy);
+
+        doReturn(Collections.singletonList(
+            createTarObjectEntity("obj0", new TarEntryDescription("tar1.tar", "obj0-0", 0L, 10L, "d0"))))
+            .when(objectReferentialRepository).bulkFind(eq("0_object"), any());
+        doReturn(Collections.singletonList(
+            new TapeArchiveReferentialEntity("tar1.tar", new TapeLibraryOnTapeArchiveStorageLocation("TAPE1", 3),
+                10L, "digest1", null)))
+            .when(archiveReferentialRepository).bulkFind(any());
+
+        // Another worker reads tar9 from tape once tar1 is recorded on disk, which exceeds the cache size
+        doAnswer(args -> {
+            retentionPolicy.put("tar9.tar", tar9);
+            return null;
+        }).when(readRequestReferentialRepository).insert(any());
+
+        // When
+        String readOrderId = storage.createReadOrderRequest("0_object", Collections.singletonList("obj0"));
+
+        // Then : tar1 pinned before the concurrent read, so it is still on disk and no read order is needed
+        ArgumentCaptor<TapeReadRequestReferentialEntity> readRequestCaptor =
+            ArgumentCaptor.forClass(TapeReadRequestReferentialEntity.class);
+        verify(readRequestReferentialRepository).insert(readRequestCaptor.capture());
+        assertThat(readRequestCaptor.getValue().getTarLocations()).containsEntry("tar1", TarLocation.DISK);
+        verify(readWriteQueueRepository, never()).addIfAbsent(any(), any());
+        assertThat(retentionPolicy.isPinned("tar1.tar")).isTrue();
+        assertThat(retentionPolicy.get("tar1.tar")).isEqualTo(tar1);
+        assertThat(retentionPolicy.getEvictionCount()).isEqualTo(0L);
+        assertThat(tar1.toFile()).exists();
+
+        retentionPolicy.unpin(readOrderId);
+    }
+
+    @Test
+    public void createReadOrderWithUnknownObject() throws Exception {
+        // Given
+        doReturn(Collections.singletonList(
+            createTarObjectEntity("obj0", new TarEntryDescription("tar1.tar", "obj0-0", 0L, 10L, "d0"))))
+            .when(objectReferentialRepository).bulkFind(eq("0_object"), any());
+
+        // When / Then
+        assertThatThrownBy(() -> tapeLibraryContentAddressableStorage
+            .createReadOrderRequest("0_object", Arrays.asList("obj0", "unknown")))
+            .isInstanceOf(ContentAddressableStorageNotFoundException.class);
+        verify(readRequestReferentialRepository, never()).insert(any());
+        verify(readWriteQueueRepository, never()).addIfAbsent(any(), any());
+    }
+
+    private TapeObjectReferentialEntity createTarObjectEntity(String objectName,
+        TarEntryDescription... tarEntryDescriptions) {
+        return new TapeObjectReferentialEntity(
+            new TapeLibraryObjectReferentialId("0_object", objectName), 10L, "SHA-512", "digest",
+            objectName + "-storageId", new TapeLibraryTarObjectStorageLocation(Arrays.asList(tarEntryDescriptions)),
+            null, null);
+    }
+
     @Test
     public void getObjectWith1SegmentsOK() throws ObjectReferentialException, IOException,
         ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException,
@@ -29,6 +29,7 @@ package fr.gouv.vitam.storage.offers.tape.impl.queue;
 import static fr.gouv.vitam.common.database.collections.VitamCollection.getMongoClientOptions;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.mongodb.client.model.Filters;
@@ -105,6 +106,29 @@ public class QueueRepositoryImplTest {
         assertThat(found).isNotPresent();
     }
 
+    @Test
+    public void testFindReadyReadOrders() throws QueueException {
+
+        ReadOrder first = new ReadOrder().setTapeCode("VIT0001").setFilePosition(3);
+        ReadOrder second = new ReadOrder().setTapeCode("VIT0001").setFilePosition(1);
+        ReadOrder otherTape = new ReadOrder().setTapeCode("VIT0002").setFilePosition(2);
+        queueRepositoryImpl.add(first);
+        queueRepositoryImpl.add(second);
+        queueRepositoryImpl.add(otherTape);
+        queueRepositoryImpl.complete(second.getId());
+
+        List<ReadOrder> found =
+            queueRepositoryImpl.findReady(Filters.eq(ReadOrder.TAPE_CODE, "VIT0001"), QueueMessageType.ReadOrder, 10);
+        assertThat(found).extracting(ReadOrder::getId).containsExactly(first.getId());
+        assertThat(found.get(0).getState()).isEqualTo(QueueState.READY);
+
+        // Not taken
+        Optional<ReadOrder> received =
+            queueRepositoryImpl.receive(Filters.eq(ReadOrder.TAPE_CODE, "VIT0001"), QueueMessageType.ReadOrder);
+        assertThat(received).isPresent();
+        assertThat(received.get().getId()).isEqualTo(first.getId());
+    }
+
     @Test
     public void testRemoveOk() throws QueueException {
         WriteOrder entity = new WriteOrder().setBucket("mybucket").setArchiveId("myFilePath");
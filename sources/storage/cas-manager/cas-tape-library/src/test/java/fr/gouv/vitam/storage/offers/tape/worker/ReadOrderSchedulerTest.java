@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.offers.tape.worker;
+
+import fr.gouv.vitam.common.LocalDateUtil;
+import fr.gouv.vitam.storage.engine.common.model.ReadOrder;
+import fr.gouv.vitam.storage.offers.tape.worker.TapeLibrarySimulator.ReadOrderPolicy;
+import fr.gouv.vitam.storage.offers.tape.worker.TapeLibrarySimulator.TimedReadOrder;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static fr.gouv.vitam.storage.offers.tape.worker.TapeLibrarySimulator.START;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadOrderSchedulerTest {
+
+    private static final Comparator<ReadOrder> OLDEST_FIRST = Comparator.comparing(ReadOrder::getCreated);
+
+    /**
+     * Oldest order first, whatever the mounted tape
+     */
+    private static final ReadOrderPolicy FIFO_POLICY =
+        (driveIndex, mountedTapeCode, currentPosition, readyOrders, excludedTapeCodes, now) -> readyOrders.stream()
+            .filter(order -> !excludedTapeCodes.contains(order.getTapeCode()))
+            .min(OLDEST_FIRST);
+
+    /**
+     * Oldest order of the mounted tape first, then oldest order of any other tape
+     */
+    private static final ReadOrderPolicy MOUNTED_TAPE_FIRST_POLICY =
+        (driveIndex, mountedTapeCode, currentPosition, readyOrders, excludedTapeCodes, now) -> {
+            Optional<ReadOrder> order = readyOrders.stream()
+                .filter(o -> o.getTapeCode().equals(mountedTapeCode))
+                .min(OLDEST_FIRST);
+            return order.isPresent() ? order : FIFO_POLICY
+                .next(driveIndex, mountedTapeCode, currentPosition, readyOrders, excludedTapeCodes, now);
+        };
+
+    @Test
+    public void should_serve_mounted_tape_by_position_in_current_direction() {
+        // Given
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofHours(1));
+        List<ReadOrder> orders = Arrays.asList(
+            order(0, "TAPE1", 12), order(1, "TAPE1", 3), order(2, "TAPE2", 6), order(3, "TAPE1", 7));
+
+        // When
+        Optional<ReadOrder> next = scheduler.selectOnMountedTape(0, "TAPE1", 5, orders);
+
+        // Then
+        assertThat(next).isPresent();
+        assertThat(next.get().getFilePosition()).isEqualTo(7);
+    }
+
+    @Test
+    public void should_reverse_direction_when_no_order_left_ahead() {
+        // Given
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofHours(1));
+        List<ReadOrder> orders = Arrays.asList(order(0, "TAPE1", 2), order(1, "TAPE1", 4));
+
+        // When
+        Optional<ReadOrder> first = scheduler.selectOnMountedTape(0, "TAPE1", 10, orders);
+        Optional<ReadOrder> second = scheduler.selectOnMountedTape(0, "TAPE1", 5, Collections.singletonList(
+            orders.get(0)));
+        // Direction is kept while orders are left behind
+        Optional<ReadOrder> third = scheduler.selectOnMountedTape(0, "TAPE1", 3,
+            Arrays.asList(order(2, "TAPE1", 1), order(3, "TAPE1", 8)));
+
+        // Then
+        assertThat(first.get().getFilePosition()).isEqualTo(4);
+        assertThat(second.get().getFilePosition()).isEqualTo(2);
+        assertThat(third.get().getFilePosition()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_mount_tape_of_oldest_order_and_start_from_lowest_position() {
+        // Given
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofHours(1));
+        List<ReadOrder> orders = Arrays.asList(
+            order(0, "TAPE1", 5), order(1, "TAPE2", 9), order(2, "TAPE2", 1), order(3, "TAPE1", 2));
+
+        // When
+        Optional<ReadOrder> next = scheduler.selectTapeToMount(0, orders, Collections.singleton("TAPE1"));
+
+        // Then
+        assertThat(next.get().getTapeCode()).isEqualTo("TAPE2");
+        assertThat(next.get().getFilePosition()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_switch_to_tape_of_starved_order() {
+        // Given
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofMinutes(30));
+        List<ReadOrder> orders = Arrays.asList(
+            order(0, "TAPE2", 50), order(60, "TAPE3", 1), order(1800, "TAPE1", 6));
+
+        // When
+        Optional<ReadOrder> starved = scheduler.selectNext(0, "TAPE1", 5, orders, Collections.singleton("TAPE3"),
+            START.plusMinutes(31));
+        Optional<ReadOrder> notStarved = scheduler.selectNext(0, "TAPE1", 5, orders, Collections.singleton("TAPE3"),
+            START.plusMinutes(29));
+
+        // Then
+        assertThat(starved.get().getTapeCode()).isEqualTo("TAPE2");
+        assertThat(notStarved.get().getTapeCode()).isEqualTo("TAPE1");
+    }
+
+    @Test
+    public void should_serve_starved_orders_of_tape_before_switching_again() {
+        // Given
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofMinutes(30));
+        ReadOrder olderOrder = order(0, "TAPE1", 2);
+        ReadOrder starvedOrder1 = order(60, "TAPE2", 1);
+        ReadOrder starvedOrder2 = order(100, "TAPE2", 30);
+        ReadOrder notStarvedOrder = order(2000, "TAPE2", 20);
+
+        // When
+        Optional<ReadOrder> first = scheduler.selectNext(0, "TAPE1", 5,
+            Arrays.asList(starvedOrder1, starvedOrder2, notStarvedOrder), Collections.emptySet(),
+            START.plusMinutes(40));
+        Optional<ReadOrder> second = scheduler.selectNext(0, "TAPE2", 2,
+            Arrays.asList(olderOrder, starvedOrder2, notStarvedOrder), Collections.emptySet(),
+            START.plusMinutes(40));
+        Optional<ReadOrder> third = scheduler.selectNext(0, "TAPE2", 31,
+            Arrays.asList(olderOrder, notStarvedOrder), Collections.emptySet(), START.plusMinutes(40));
+
+        // Then
+        assertThat(first.get()).isSameAs(starvedOrder1);
+        // Starved order of the mounted tape, before older starved orders of other tapes and closer orders
+        assertThat(second.get()).isSameAs(starvedOrder2);
+        assertThat(third.get()).isSameAs(olderOrder);
+    }
+
+    @Test
+    public void should_reduce_mounts_and_seeks_on_simulated_tape_library() {
+        // Given : concurrent exports spread on 8 tapes, read by 2 drives
+        Random random = new Random(42);
+        List<TimedReadOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            orders.add(new TimedReadOrder(random.nextInt(600), "TAPE" + random.nextInt(8), random.nextInt(200)));
+        }
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofHours(4));
+
+        // When
+        TapeLibrarySimulator fifo = new TapeLibrarySimulator(2).run(orders, FIFO_POLICY);
+        TapeLibrarySimulator mountedTapeFirst = new TapeLibrarySimulator(2).run(orders, MOUNTED_TAPE_FIRST_POLICY);
+        TapeLibrarySimulator elevator = new TapeLibrarySimulator(2).run(orders, scheduler::selectNext);
+
+        // Then
+        assertThat(elevator.getMounts()).isLessThan(fifo.getMounts() / 10);
+        assertThat(elevator.getMounts()).isLessThanOrEqualTo(mountedTapeFirst.getMounts());
+        assertThat(elevator.getSoughtFiles()).isLessThan(mountedTapeFirst.getSoughtFiles() / 5);
+        assertThat(elevator.getTotalSeconds()).isLessThan(mountedTapeFirst.getTotalSeconds());
+        assertThat(elevator.getTotalSeconds()).isLessThan(fifo.getTotalSeconds() / 2);
+    }
+
+    @Test
+    public void should_bound_waiting_time_on_simulated_tape_library() {
+        // Given : a large export on a tape, and a single order on another tape
+        Random random = new Random(42);
+        List<TimedReadOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            orders.add(new TimedReadOrder(0, "TAPE1", random.nextInt(1000)));
+        }
+        TimedReadOrder otherTapeOrder = new TimedReadOrder(60, "TAPE2", 10);
+        orders.add(otherTapeOrder);
+        ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofMinutes(30));
+
+        // When
+        TapeLibrarySimulator mountedTapeFirst = new TapeLibrarySimulator(1).run(orders, MOUNTED_TAPE_FIRST_POLICY);
+        TapeLibrarySimulator elevator = new TapeLibrarySimulator(1).run(orders, scheduler::selectNext);
+
+        // Then
+        assertThat(mountedTapeFirst.getWaitingSeconds(otherTapeOrder.getOrder()))
+            .isGreaterThan(Duration.ofHours(3).getSeconds());
+        assertThat(elevator.getWaitingSeconds(otherTapeOrder.getOrder()))
+            .isLessThan(Duration.ofMinutes(35).getSeconds());
+        assertThat(elevator.getMounts()).isEqualTo(3);
+        assertThat(elevator.getTotalSeconds()).isLessThan(mountedTapeFirst.getTotalSeconds());
+    }
+
+    @Test
+    public void should_compute_starvation_with_same_clock_as_order_creation_on_non_utc_host() {
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            for (String zoneId : Arrays.asList("America/Los_Angeles", "Europe/Paris", "Asia/Tokyo")) {
+                // Given
+                TimeZone.setDefault(TimeZone.getTimeZone(zoneId));
+                ReadOrderScheduler scheduler = new ReadOrderScheduler(Duration.ofMinutes(30));
+                List<ReadOrder> orders = Collections.singletonList(
+                    new ReadOrder("readRequest", "TAPE2", 1, "TAPE2-1", "bucket"));
+                LocalDateTime now = LocalDateUtil.now();
+
+                // When
+                Optional<ReadOrder> notStarved =
+                    scheduler.selectStarved(0, "TAPE1", 0, orders, Collections.emptySet(), now);
+                Optional<ReadOrder> starved =
+                    scheduler.selectStarved(0, "TAPE1", 0, orders, Collections.emptySet(), now.plusMinutes(31));
+
+                // Then
+                assertThat(notStarved).as(zoneId).isEmpty();
+                assertThat(starved).as(zoneId).isPresent();
+            }
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    private static ReadOrder order(long arrival, String tapeCode, int filePosition) {
+        return new TimedReadOrder(arrival, tapeCode, filePosition).getOrder();
+    }
+}
@@ -15,20 +15,25 @@ import fr.gouv.vitam.storage.offers.tape.exception.QueueException;
 import fr.gouv.vitam.storage.offers.tape.spec.QueueRepository;
 import fr.gouv.vitam.storage.offers.tape.spec.TapeLibraryPool;
 import org.assertj.core.api.Assertions;
+import org.bson.conversions.Bson;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.internal.verification.Times;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -414,6 +419,33 @@ public class TapeDriveWorkerManagerTest {
         Assertions.assertThat(order.get().isWriteOrder()).isFalse();
     }
 
+    @Test
+    public void test_consume_produce_current_tape_not_null_priority_read_return_next_read_order_by_position()
+        throws QueueException {
+        TapeDriveWorker driveWorker = mock(TapeDriveWorker.class);
+        TapeCatalog tapeCatalog = new TapeCatalog().setCode("TAPE1").setCurrentPosition(5);
+        when(driveWorker.getCurrentTape()).thenReturn(tapeCatalog);
+        when(driveWorker.getIndex()).thenReturn(1);
+        when(driveWorker.getPriority()).thenReturn(ReadWritePriority.READ);
+
+        ReadOrder behindReadOrder = new ReadOrder("readRequest", "TAPE1", 3, "file3", "bucket");
+        ReadOrder aheadReadOrder = new ReadOrder("readRequest", "TAPE1", 7, "file7", "bucket");
+        when(queueRepository.findReady(any(), eq(QueueMessageType.ReadOrder), anyInt()))
+            .thenReturn(Collections.emptyList())
+            .thenReturn(Arrays.asList(behindReadOrder, aheadReadOrder));
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        when(queueRepository.receive(queryCaptor.capture(), eq(QueueMessageType.ReadOrder)))
+            .thenReturn(Optional.of(aheadReadOrder));
+
+        Optional<? extends ReadWriteOrder> order = tapeDriveWorkerManager.consume(driveWorker);
+
+        // Order ahead of the current position is taken
+        verify(queueRepository, new Times(1)).receive(any(), eq(QueueMessageType.ReadOrder));
+        Assertions.assertThat(queryCaptor.getValue().toString()).contains(aheadReadOrder.getId());
+        Assertions.assertThat(order).isPresent();
+        Assertions.assertThat(order.get()).isSameAs(aheadReadOrder);
+    }
+
     @Test
     public void test_consume_produce_current_tape_not_null_not_empty_priority_read_return_write_order()
         throws QueueException {
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.offers.tape.worker;
+
+import fr.gouv.vitam.common.LocalDateUtil;
+import fr.gouv.vitam.storage.engine.common.model.ReadOrder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Simulated tape library serving read orders with a given scheduling policy.<br/>
+ * <br/>
+ * Time is simulated : loading a tape, seeking a file and reading it have fixed costs. Mounts, seeks, sought files and
+ * total time are counted, as well as the max waiting time of an order.
+ */
+public class TapeLibrarySimulator {
+
+    static final long MOUNT_SECONDS = 120;
+    static final long SEEK_SECONDS = 10;
+    static final long SEEK_SECONDS_PER_FILE = 2;
+    static final long READ_SECONDS = 30;
+
+    private static final int MAX_IDLE_ROUNDS = 1000;
+
+    static final LocalDateTime START = LocalDateTime.of(2019, 1, 1, 0, 0);
+
+    /**
+     * Scheduling policy of read orders
+     */
+    @FunctionalInterface
+    public interface ReadOrderPolicy {
+        Optional<ReadOrder> next(int driveIndex, String mountedTapeCode, int currentPosition,
+            List<ReadOrder> readyOrders, Set<String> excludedTapeCodes, LocalDateTime now);
+    }
+
+    private static class Drive {
+        private String tapeCode;
+        private int position;
+        private long availableAt;
+    }
+
+    private final int driveCount;
+
+    private int mounts;
+    private int seeks;
+    private long soughtFiles;
+    private long totalSeconds;
+    private long maxWaitingSeconds;
+    private final Map<ReadOrder, Long> waitingSeconds = new HashMap<>();
+
+    public TapeLibrarySimulator(int driveCount) {
+        this.driveCount = driveCount;
+    }
+
+    /**
+     * Serve the orders, each order being ready from its arrival time
+     *
+     * @param orders orders, with their arrival second
+     * @param policy scheduling policy
+     * @return this
+     */
+    public TapeLibrarySimulator run(List<TimedReadOrder> orders, ReadOrderPolicy policy) {
+
+        List<TimedReadOrder> arrivals = new ArrayList<>(orders);
+        arrivals.sort(Comparator.comparingLong(TimedReadOrder::getArrival));
+
+        List<Drive> drives = new ArrayList<>();
+        for (int i = 0; i < driveCount; i++) {
+            drives.add(new Drive());
+        }
+        List<TimedReadOrder> ready = new ArrayList<>();
+        int idleRounds = 0;
+
+        while (!arrivals.isEmpty() || !ready.isEmpty()) {
+            Drive drive = drives.stream().min(Comparator.comparingLong(d -> d.availableAt)).get();
+            int driveIndex = drives.indexOf(drive);
+            long now = drive.availableAt;
+
+            while (!arrivals.isEmpty() && arrivals.get(0).getArrival() <= now) {
+                ready.add(arrivals.remove(0));
+            }
+
+            Set<String> excludedTapeCodes = new HashSet<>();
+            for (Drive other : drives) {
+                if (other != drive && other.tapeCode != null) {
+                    excludedTapeCodes.add(other.tapeCode);
+                }
+            }
+
+            List<ReadOrder> readyOrders = new ArrayList<>();
+            ready.forEach(timedReadOrder -> readyOrders.add(timedReadOrder.getOrder()));
+            Optional<ReadOrder> next = policy.next(driveIndex, drive.tapeCode, drive.position, readyOrders,
+                excludedTapeCodes, START.plusSeconds(now));
+
+            if (!next.isPresent()) {
+                // Wait for the next arrival, or let other drives serve orders of their tapes
+                long nextEvent = arrivals.isEmpty() ? Long.MAX_VALUE : arrivals.get(0).getArrival();
+                for (Drive other : drives) {
+                    if (other != drive) {
+                        nextEvent = Math.min(nextEvent, Math.max(other.availableAt, now + 1));
+                    }
+                }
+                if (nextEvent == Long.MAX_VALUE || ++idleRounds > MAX_IDLE_ROUNDS) {
+                    throw new IllegalStateException("Orders never served " + ready.size());
+                }
+                drive.availableAt = nextEvent;
+                continue;
+            }
+            idleRounds = 0;
+
+            TimedReadOrder served = ready.stream().filter(o -> o.getOrder() == next.get()).findFirst().get();
+            ready.remove(served);
+            maxWaitingSeconds = Math.max(maxWaitingSeconds, now - served.getArrival());
+            waitingSeconds.put(served.getOrder(), now - served.getArrival());
+
+            ReadOrder order = next.get();
+            if (!order.getTapeCode().equals(drive.tapeCode)) {
+                mounts++;
+                now += MOUNT_SECONDS;
+                drive.tapeCode = order.getTapeCode();
+                drive.position = 0;
+            }
+            int distance = Math.abs(order.getFilePosition() - drive.position);
+            if (distance > 0) {
+                seeks++;
+                soughtFiles += distance;
+                now += SEEK_SECONDS + SEEK_SECONDS_PER_FILE * distance;
+            }
+            now += READ_SECONDS;
+            drive.position = order.getFilePosition() + 1;
+            drive.availableAt = now;
+            totalSeconds = Math.max(totalSeconds, now);
+        }
+        return this;
+    }
+
+    public int getMounts() {
+        return mounts;
+    }
+
+    public int getSeeks() {
+        return seeks;
+    }
+
+    public long getSoughtFiles() {
+        return soughtFiles;
+    }
+
+    public long getTotalSeconds() {
+        return totalSeconds;
+    }
+
+    public long getMaxWaitingSeconds() {
+        return maxWaitingSeconds;
+    }
+
+    public long getWaitingSeconds(ReadOrder order) {
+        return waitingSeconds.get(order);
+    }
+
+    @Override
+    public String toString() {
+        return "mounts=" + mounts + ", seeks=" + seeks + ", soughtFiles=" + soughtFiles + ", totalSeconds=" +
+            totalSeconds + ", maxWaitingSeconds=" + maxWaitingSeconds;
+    }
+
+    /**
+     * Read order arriving at a given second of the simulation
+     */
+    public static class TimedReadOrder {
+        private final long arrival;
+        private final ReadOrder order;
+
+        public TimedReadOrder(long arrival, String tapeCode, int filePosition) {
+            this.arrival = arrival;
+            this.order = new ReadOrder("readRequest", tapeCode, filePosition, tapeCode + "-" + filePosition, "bucket");
+            this.order.setCreated(LocalDateUtil.getFormattedDateForMongo(START.plusSeconds(arrival)));
+        }
+
+        public long getArrival() {
+            return arrival;
+        }
+
+        public ReadOrder getOrder() {
+            return order;
+        }
+    }
+}
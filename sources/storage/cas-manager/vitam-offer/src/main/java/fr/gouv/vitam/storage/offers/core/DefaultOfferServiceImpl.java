@@ -82,6 +82,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -96,6 +98,8 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
 
     private final Map<String, String> mapXCusor;
 
+    private final Set<String> existingContainers = ConcurrentHashMap.newKeySet();
+
     private OfferLogDatabaseService offerDatabaseService;
     private final ReadRequestReferentialRepository readRequestReferentialRepository;
     private StorageConfiguration configuration;
@@ -233,6 +237,10 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
     }
 
     void ensureContainerExists(String containerName) throws ContentAddressableStorageServerException {
+        // Containers are never deleted by the offer : once known, no need to check them again
+        if (existingContainers.contains(containerName)) {
+            return;
+        }
         // Create container if not exists
         Stopwatch stopwatch = Stopwatch.createStarted();
         boolean existsContainer = defaultStorage.isExistingContainer(containerName);
@@ -247,6 +255,7 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
                 .log("STP_Offer_" + configuration.getProvider(), containerName, "INIT_CREATE_CONTAINER",
                     stopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
+        existingContainers.add(containerName);
     }
 
     private String writeObject(String containerName, String objectId, InputStream objectPart, DataCategory type,
@@ -27,7 +27,9 @@
 
 package fr.gouv.vitam.storage.offers.database;
 
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
@@ -36,6 +38,8 @@ import com.mongodb.client.model.Sorts;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.BsonHelper;
 import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.storage.engine.common.collection.OfferCollections;
 import fr.gouv.vitam.storage.engine.common.model.OfferLog;
 import fr.gouv.vitam.storage.engine.common.model.OfferLogAction;
@@ -46,7 +50,15 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
@@ -58,11 +70,21 @@ import static com.mongodb.client.model.Filters.lte;
  */
 public class OfferLogDatabaseService {
 
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(OfferLogDatabaseService.class);
+
     private static final String SEQUENCE = "Sequence";
     private static final String CONTAINER = "Container";
 
+    /**
+     * Max number of offer logs written by a single group commit
+     */
+    private static final int MAX_GROUP_COMMIT_SIZE = 1000;
+
     private MongoCollection<Document> mongoCollection;
 
+    private final BlockingQueue<PendingOfferLog> pendingOfferLogs = new LinkedBlockingQueue<>();
+    private final Lock groupCommitLock = new ReentrantLock();
+
     private OfferSequenceDatabaseService offerSequenceDatabaseService;
 
     /**
@@ -78,7 +100,10 @@ public class OfferLogDatabaseService {
     }
 
     /**
-     * Save on offerLog.
+     * Save on offerLog.<br/>
+     * Concurrent saves are group committed : while an offer log batch is being written, incoming offer logs are queued
+     * and the next writer flushes all of them with a single sequence range allocation and a single insert. The method
+     * returns once the offer log of the caller has been written.
      *
      * @param containerName name of the container
      * @param fileName file name
@@ -88,21 +113,72 @@ public class OfferLogDatabaseService {
      */
     public void save(String containerName, String fileName, OfferLogAction action)
         throws ContentAddressableStorageServerException, ContentAddressableStorageDatabaseException {
+        PendingOfferLog pendingOfferLog = new PendingOfferLog(new OfferLog(containerName, fileName, action));
+        pendingOfferLogs.add(pendingOfferLog);
+
+        groupCommitLock.lock();
         try {
-            OfferLog offerLog = new OfferLog(containerName, fileName, action);
-            offerLog.setSequence(
-                offerSequenceDatabaseService.getNextSequence(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID));
-            String json;
-            try {
-                json = JsonHandler.writeAsString(offerLog);
-            } catch (InvalidParseOperationException exc) {
-                throw new ContentAddressableStorageServerException("Cannot parse storage log", exc);
+            // Batches are bounded, several flushes may be needed to reach the offer log of the caller
+            while (!pendingOfferLog.isDone()) {
+                flushPendingOfferLogs();
             }
-            mongoCollection.insertOne(Document.parse(json));
-        } catch (MongoException e) {
-            throw new ContentAddressableStorageDatabaseException(String.format(
-                "Database Error while saving %s in OfferLog collection", fileName), e);
+        } finally {
+            groupCommitLock.unlock();
+        }
+        pendingOfferLog.checkStatus();
+    }
+
+    private void flushPendingOfferLogs() {
+        List<PendingOfferLog> batch = new ArrayList<>();
+        pendingOfferLogs.drainTo(batch, MAX_GROUP_COMMIT_SIZE);
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<OfferLog> offerLogs = batch.stream().map(PendingOfferLog::getOfferLog).collect(Collectors.toList());
+        Exception error = tryInsert(offerLogs);
+        if (error == null || batch.size() == 1) {
+            for (PendingOfferLog pending : batch) {
+                pending.done(error);
+            }
+            return;
+        }
+
+        // A failed group commit must not fail unrelated writers : offer logs that were not written are retried one
+        // by one, so that only the faulty ones report an error
+        Set<Integer> failedIndexes = getFailedIndexes(error, batch.size());
+        LOGGER.warn("Group commit of {} offer logs failed for {} of them, retrying them one by one", batch.size(),
+            failedIndexes.size(), error);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingOfferLog pending = batch.get(i);
+            if (failedIndexes.contains(i)) {
+                pending.done(tryInsert(Collections.singletonList(pending.getOfferLog())));
+            } else {
+                pending.done(null);
+            }
+        }
+    }
+
+    private Exception tryInsert(List<OfferLog> offerLogs) {
+        try {
+            insert(offerLogs);
+            return null;
+        } catch (ContentAddressableStorageServerException | ContentAddressableStorageDatabaseException e) {
+            return e;
+        } catch (RuntimeException e) {
+            return new ContentAddressableStorageDatabaseException(
+                "Database Error while saving offer logs in OfferLog collection", e);
+        }
+    }
+
+    private Set<Integer> getFailedIndexes(Exception error, int batchSize) {
+        // Unordered bulk inserts report the documents that were not written, any other error leaves the whole batch
+        // in an unknown state
+        if (error.getCause() instanceof MongoBulkWriteException) {
+            return ((MongoBulkWriteException) error.getCause()).getWriteErrors().stream()
+                .map(BulkWriteError::getIndex)
+                .collect(Collectors.toSet());
         }
+        return IntStream.range(0, batchSize).boxed().collect(Collectors.toSet());
     }
 
     /**
@@ -115,14 +191,25 @@ public class OfferLogDatabaseService {
      * @throws ContentAddressableStorageDatabaseException database error
      */
     public void bulkSave(String containerName, List<String> fileNames, OfferLogAction action)
+        throws ContentAddressableStorageServerException, ContentAddressableStorageDatabaseException {
+        List<OfferLog> offerLogs = new ArrayList<>();
+        for (String fileName : fileNames) {
+            offerLogs.add(new OfferLog(containerName, fileName, action));
+        }
+        insert(offerLogs);
+    }
+
+    private void insert(List<OfferLog> offerLogs)
         throws ContentAddressableStorageServerException, ContentAddressableStorageDatabaseException {
         try {
-            long nextSequence = offerSequenceDatabaseService
-                .getNextSequence(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID, fileNames.size());
+            // Single offer logs keep a single sequence increment
+            long nextSequence = offerLogs.size() == 1 ?
+                offerSequenceDatabaseService.getNextSequence(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID) :
+                offerSequenceDatabaseService
+                    .getNextSequence(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID, offerLogs.size());
 
             List<Document> documents = new ArrayList<>();
-            for (String fileName : fileNames) {
-                OfferLog offerLog = new OfferLog(containerName, fileName, action);
+            for (OfferLog offerLog : offerLogs) {
                 offerLog.setSequence(nextSequence);
 
                 String json;
@@ -136,11 +223,16 @@ public class OfferLogDatabaseService {
                 nextSequence++;
             }
 
-            mongoCollection.insertMany(documents, new InsertManyOptions().ordered(false));
+            if (documents.size() == 1) {
+                mongoCollection.insertOne(documents.get(0));
+            } else {
+                mongoCollection.insertMany(documents, new InsertManyOptions().ordered(false));
+            }
 
         } catch (MongoException e) {
             throw new ContentAddressableStorageDatabaseException(String.format(
-                "Database Error while saving %s in OfferLog collection", fileNames), e);
+                "Database Error while saving %s in OfferLog collection",
+                offerLogs.stream().map(OfferLog::getFileName).collect(Collectors.toList())), e);
         }
     }
 
@@ -192,4 +284,45 @@ public class OfferLogDatabaseService {
                 e);
         }
     }
+
+    /**
+     * Offer log waiting for a group commit
+     */
+    private static class PendingOfferLog {
+
+        private final OfferLog offerLog;
+        private volatile boolean done;
+        private volatile Exception error;
+
+        PendingOfferLog(OfferLog offerLog) {
+            this.offerLog = offerLog;
+        }
+
+        OfferLog getOfferLog() {
+            return offerLog;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        void done(Exception error) {
+            this.error = error;
+            this.done = true;
+        }
+
+        void checkStatus() throws ContentAddressableStorageServerException, ContentAddressableStorageDatabaseException {
+            if (!done) {
+                throw new ContentAddressableStorageDatabaseException(String.format(
+                    "Offer log of %s was not saved in OfferLog collection", offerLog.getFileName()));
+            }
+            if (error instanceof ContentAddressableStorageServerException) {
+                throw new ContentAddressableStorageServerException(error.getMessage(), error);
+            }
+            if (error != null) {
+                throw new ContentAddressableStorageDatabaseException(String.format(
+                    "Database Error while saving %s in OfferLog collection", offerLog.getFileName()), error);
+            }
+        }
+    }
 }
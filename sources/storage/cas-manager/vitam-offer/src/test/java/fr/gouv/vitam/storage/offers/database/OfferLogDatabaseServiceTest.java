@@ -30,6 +30,7 @@ import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Sorts;
 import fr.gouv.vitam.common.database.collections.VitamCollection;
 import fr.gouv.vitam.common.guid.GUIDFactory;
@@ -55,11 +56,19 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -385,4 +394,94 @@ public class OfferLogDatabaseServiceTest {
             assertThat(document.get("Container")).isEqualTo(CONTAINER_OBJECT_0);
         }
     }
+
+    @Test
+    public void should_allocate_distinct_sequences_when_concurrent_saves_are_group_committed()
+        throws Exception {
+        // given
+        AtomicLong sequence = new AtomicLong(1L);
+        when(offerSequenceDatabaseService.getNextSequence(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID))
+            .thenAnswer(a -> sequence.getAndIncrement());
+        when(offerSequenceDatabaseService.getNextSequence(eq(OfferSequenceDatabaseService.BACKUP_LOG_SEQUENCE_ID),
+            anyLong())).thenAnswer(a -> sequence.getAndAdd(a.getArgument(1)));
+        int nbThreads = 8;
+        int nbSavesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nbThreads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < nbSavesPerThread; j++) {
+                    offerLogDatabaseService
+                        .save(CONTAINER_OBJECT_0, "object_" + thread + "_" + j + ".json", OfferLogAction.WRITE);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        List<Document> documents =
+            IteratorUtils.toList(mongoRule.getMongoCollection(OfferCollections.OFFER_LOG.getName())
+                .find(Filters.eq("Container", CONTAINER_OBJECT_0)).iterator());
+        assertThat(documents).hasSize(nbThreads * nbSavesPerThread);
+        assertThat(documents.stream().map(d -> ((Number) d.get("Sequence")).longValue()))
+            .doesNotHaveDuplicates()
+            .allMatch(seq -> seq >= 1L && seq <= nbThreads * nbSavesPerThread);
+    }
+
+    @Test
+    public void should_retry_offer_logs_one_by_one_when_group_commit_fails() throws Exception {
+        // given
+        MongoDatabase mongoDatabase = Mockito.mock(MongoDatabase.class);
+        MongoCollection<Document> mongoCollection = Mockito.mock(MongoCollection.class);
+        Mockito.when(mongoDatabase.getCollection(Mockito.any())).thenReturn(mongoCollection);
+        CountDownLatch firstInsertStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+        Mockito.doAnswer(a -> {
+            Document document = a.getArgument(0);
+            if ("first.json".equals(document.get("FileName"))) {
+                firstInsertStarted.countDown();
+                releaseFirstInsert.await();
+            }
+            if ("faulty.json".equals(document.get("FileName"))) {
+                throw new MongoException("mongo error");
+            }
+            return null;
+        }).when(mongoCollection).insertOne(Mockito.any(Document.class));
+        Mockito.doThrow(new MongoException("mongo error")).when(mongoCollection)
+            .insertMany(Mockito.anyList(), Mockito.any(InsertManyOptions.class));
+        offerLogDatabaseService = new OfferLogDatabaseService(offerSequenceDatabaseService, mongoDatabase);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when : offer logs queued behind a pending write are group committed
+        Future<?> first = executor.submit(() -> {
+            offerLogDatabaseService.save(CONTAINER_OBJECT_0, "first.json", OfferLogAction.WRITE);
+            return null;
+        });
+        firstInsertStarted.await();
+        List<Future<?>> others = new ArrayList<>();
+        for (String fileName : Arrays.asList("ok_1.json", "faulty.json", "ok_2.json")) {
+            others.add(executor.submit(() -> {
+                offerLogDatabaseService.save(CONTAINER_OBJECT_0, fileName, OfferLogAction.WRITE);
+                return null;
+            }));
+        }
+        Thread.sleep(500);
+        releaseFirstInsert.countDown();
+
+        // then : only the faulty offer log fails
+        first.get();
+        others.get(0).get();
+        assertThatCode(() -> others.get(1).get()).hasCauseInstanceOf(ContentAddressableStorageDatabaseException.class);
+        others.get(2).get();
+        executor.shutdown();
+        verify(mongoCollection).insertMany(Mockito.anyList(), Mockito.any(InsertManyOptions.class));
+        verify(mongoCollection, Mockito.times(4)).insertOne(Mockito.any(Document.class));
+    }
 }
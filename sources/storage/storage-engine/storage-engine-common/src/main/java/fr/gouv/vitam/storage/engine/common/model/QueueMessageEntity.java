@@ -1,7 +1,5 @@
 package fr.gouv.vitam.storage.engine.common.model;
 
-import java.time.LocalDateTime;
-
 import com.fasterxml.jackson.annotation.JsonProperty;
 import fr.gouv.vitam.common.LocalDateUtil;
 
@@ -20,11 +18,11 @@ public class QueueMessageEntity {
     private QueueState state = QueueState.READY;
 
     @JsonProperty(TAG_LAST_UPDATE)
-    private String lastUpdate = LocalDateUtil.getFormattedDateForMongo(LocalDateTime.now());
+    private String lastUpdate = LocalDateUtil.getFormattedDateForMongo(LocalDateUtil.now());
 
 
     @JsonProperty(TAG_CREATION_DATE)
-    private String created = LocalDateUtil.getFormattedDateForMongo(LocalDateTime.now());
+    private String created = LocalDateUtil.getFormattedDateForMongo(LocalDateUtil.now());
 
     @JsonProperty(MESSAGE_TYPE)
     private QueueMessageType messageType;
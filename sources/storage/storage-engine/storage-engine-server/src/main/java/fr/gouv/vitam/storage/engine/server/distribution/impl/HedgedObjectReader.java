@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.engine.server.distribution.impl;
+
+import fr.gouv.vitam.common.error.VitamCode;
+import fr.gouv.vitam.common.error.VitamCodeHelper;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
+import fr.gouv.vitam.storage.driver.exception.StorageDriverNotFoundException;
+import fr.gouv.vitam.storage.driver.model.StorageGetResult;
+import fr.gouv.vitam.storage.engine.common.exception.StorageException;
+import fr.gouv.vitam.storage.engine.common.exception.StorageNotFoundException;
+import fr.gouv.vitam.storage.engine.common.exception.StorageTechnicalException;
+import fr.gouv.vitam.storage.engine.common.referential.model.StorageOffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read an object from the first offer answering, sending a hedged read to the next offer when the current one did
+ * not answer within its usual (95th percentile) latency. The slowest read is cancelled and its stream is closed.
+ */
+class HedgedObjectReader {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(HedgedObjectReader.class);
+
+    /**
+     * Read of an object on a single offer
+     */
+    @FunctionalInterface
+    interface OfferObjectReader {
+        StorageGetResult read(StorageOffer offer) throws StorageException, StorageDriverException;
+    }
+
+    private final ExecutorService executor;
+    private final OfferReadSelector offerReadSelector;
+
+    HedgedObjectReader(ExecutorService executor, OfferReadSelector offerReadSelector) {
+        this.executor = executor;
+        this.offerReadSelector = offerReadSelector;
+    }
+
+    /**
+     * Read an object, offers being tried in the given order
+     *
+     * @param objectId the object id (for messages)
+     * @param offers offers in reading order
+     * @param offerObjectReader read of the object on a single offer
+     * @return the first result containing the object
+     * @throws StorageNotFoundException if no offer has the object and at least one offer answered
+     * @throws StorageTechnicalException if no offer answered
+     * @throws StorageException on driver configuration error, once the reads already in flight did not return the
+     * object
+     */
+    StorageGetResult read(String objectId, List<StorageOffer> offers, OfferObjectReader offerObjectReader)
+        throws StorageException {
+        HedgedRead hedgedRead = new HedgedRead();
+        StorageGetResult winner = null;
+        StorageException storageException = null;
+        boolean offerOkNoBinary = false;
+        int nextOffer = 0;
+        int inFlight = 0;
+        try {
+            hedgedRead.submit(offers.get(nextOffer++), offerObjectReader);
+            inFlight++;
+            while (inFlight > 0) {
+                ReadOutcome outcome;
+                if (inFlight == 1 && nextOffer < offers.size() && storageException == null) {
+                    String slowOffer = offers.get(nextOffer - 1).getId();
+                    outcome = hedgedRead.outcomes.poll(offerReadSelector.getHedgeDelay(slowOffer),
+                        TimeUnit.MILLISECONDS);
+                    if (outcome == null) {
+                        LOGGER.debug("Offer {} is slow to return {}, hedged read on offer {}", slowOffer, objectId,
+                            offers.get(nextOffer).getId());
+                        hedgedRead.submit(offers.get(nextOffer++), offerObjectReader);
+                        inFlight++;
+                        continue;
+                    }
+                } else {
+                    outcome = hedgedRead.outcomes.take();
+                }
+                inFlight--;
+
+                if (outcome.storageException != null) {
+                    // No read on another offer, but the read already in flight may still return the object
+                    if (storageException == null) {
+                        storageException = outcome.storageException;
+                    }
+                    continue;
+                }
+                if (outcome.result != null && outcome.result.getObject() != null) {
+                    winner = outcome.result;
+                    return winner;
+                }
+                offerOkNoBinary |= outcome.notFound;
+                // Failover: do not wait for the hedge delay once an offer has failed
+                if (nextOffer < offers.size() && storageException == null) {
+                    hedgedRead.submit(offers.get(nextOffer++), offerObjectReader);
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageTechnicalException(e);
+        } finally {
+            hedgedRead.complete(winner);
+        }
+
+        if (storageException != null) {
+            throw storageException;
+        }
+        if (offerOkNoBinary) {
+            throw new StorageNotFoundException(
+                VitamCodeHelper.getLogMessage(VitamCode.STORAGE_OBJECT_NOT_FOUND, objectId));
+        }
+        LOGGER.error(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_OFFER_NOT_FOUND));
+        throw new StorageTechnicalException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_OFFER_NOT_FOUND));
+    }
+
+    private static void close(StorageGetResult result) {
+        if (result != null && result.getObject() != null) {
+            try {
+                result.getObject().close();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not close cancelled read", e);
+            }
+        }
+    }
+
+    private static final class ReadOutcome {
+        private StorageGetResult result;
+        private boolean notFound;
+        private StorageException storageException;
+    }
+
+    private final class HedgedRead {
+        private final BlockingQueue<ReadOutcome> outcomes = new LinkedBlockingQueue<>();
+        private final List<Future<?>> futures = new ArrayList<>();
+        private boolean completed;
+
+        private void submit(StorageOffer offer, OfferObjectReader offerObjectReader) {
+            futures.add(executor.submit(() -> {
+                ReadOutcome outcome = new ReadOutcome();
+                try {
+                    outcome.result = offerObjectReader.read(offer);
+                } catch (StorageDriverNotFoundException e) {
+                    LOGGER.warn("Object not found on offer " + offer.getId() + ", take next offer", e);
+                    outcome.notFound = true;
+                } catch (StorageDriverException e) {
+                    LOGGER.warn("Error with offer " + offer.getId() + ", take next offer", e);
+                } catch (StorageException e) {
+                    outcome.storageException = e;
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Unexpected error with offer " + offer.getId() + ", take next offer", e);
+                }
+                synchronized (this) {
+                    if (completed) {
+                        // Lost the race against another offer
+                        close(outcome.result);
+                    } else {
+                        outcomes.add(outcome);
+                    }
+                }
+            }));
+        }
+
+        private void complete(StorageGetResult winner) {
+            synchronized (this) {
+                completed = true;
+                for (ReadOutcome outcome : outcomes) {
+                    if (outcome.result != winner) {
+                        close(outcome.result);
+                    }
+                }
+                outcomes.clear();
+            }
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.engine.server.distribution.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.storage.engine.common.referential.model.StorageOffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps track of offer read latencies and errors, and decides in which order offers are read and when a hedged read
+ * should be sent to the next offer.
+ */
+public class OfferReadSelector {
+
+    /**
+     * Weight of the last sample in the moving averages
+     */
+    private static final double EWMA_ALPHA = 0.2;
+    /**
+     * Number of latency samples kept per offer to compute the hedge delay
+     */
+    private static final int LATENCY_SAMPLES = 128;
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final double MAX_ERROR_RATE = 0.95;
+    /**
+     * Statistics not refreshed since this delay are forgotten, so that an offer demoted after failures is read again
+     */
+    private static final long STATISTICS_EXPIRATION_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final OfferReadPolicy policy;
+    private final boolean hedgedReads;
+    private final long hedgedReadMinDelay;
+    private final long hedgedReadMaxDelay;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, OfferReadStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param policy order in which offers are read
+     * @param hedgedReads true if a second offer should be read when the first one is slow
+     * @param hedgedReadMinDelay minimum delay (in ms) before sending a hedged read
+     * @param hedgedReadMaxDelay maximum delay (in ms) before sending a hedged read
+     */
+    public OfferReadSelector(OfferReadPolicy policy, boolean hedgedReads, long hedgedReadMinDelay,
+        long hedgedReadMaxDelay) {
+        this(policy, hedgedReads, hedgedReadMinDelay, hedgedReadMaxDelay, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    OfferReadSelector(OfferReadPolicy policy, boolean hedgedReads, long hedgedReadMinDelay,
+        long hedgedReadMaxDelay, LongSupplier clock) {
+        ParametersChecker.checkParameter("Offer read policy is mandatory", policy);
+        ParametersChecker.checkValue("Hedged read min delay", hedgedReadMinDelay, 0);
+        ParametersChecker.checkValue("Hedged read max delay", hedgedReadMaxDelay, hedgedReadMinDelay);
+        this.policy = policy;
+        this.hedgedReads = hedgedReads;
+        this.hedgedReadMinDelay = hedgedReadMinDelay;
+        this.hedgedReadMaxDelay = hedgedReadMaxDelay;
+        this.clock = clock;
+    }
+
+    /**
+     * @return a selector reading offers in strategy order, without hedging (legacy behavior)
+     */
+    public static OfferReadSelector strategyOrder() {
+        return new OfferReadSelector(OfferReadPolicy.STRATEGY_ORDER, false, 0L, 0L);
+    }
+
+    /**
+     * @return true if a hedged read should be sent to the next offer when the current one is slow
+     */
+    public boolean isHedgedReads() {
+        return hedgedReads;
+    }
+
+    /**
+     * Sort offers in reading order
+     *
+     * @param offers offers in strategy order
+     * @return offers in reading order
+     */
+    public List<StorageOffer> order(List<StorageOffer> offers) {
+        if (policy == OfferReadPolicy.STRATEGY_ORDER || offers.size() < 2) {
+            return offers;
+        }
+        long now = clock.getAsLong();
+        List<StorageOffer> ordered = new ArrayList<>(offers);
+        // Stable sort : offers without recent statistics cost 0 and are probed first, ties keep the strategy order
+        ordered.sort(Comparator.comparingDouble(offer -> getExpectedLatency(offer.getId(), now)));
+        return ordered;
+    }
+
+    /**
+     * Delay after which a hedged read should be sent if the given offer has not answered yet
+     *
+     * @param offerId the offer being read
+     * @return the delay in ms, being the 95th percentile of the offer read latency bounded by configuration
+     */
+    public long getHedgeDelay(String offerId) {
+        OfferReadStatistics offerStatistics = statistics.get(offerId);
+        long percentile = offerStatistics == null ? hedgedReadMaxDelay :
+            offerStatistics.getLatencyPercentile(HEDGE_PERCENTILE, hedgedReadMaxDelay);
+        return Math.max(hedgedReadMinDelay, Math.min(hedgedReadMaxDelay, percentile));
+    }
+
+    /**
+     * Record a read answered by an offer (with or without the object)
+     *
+     * @param offerId the offer
+     * @param latency time (in ms) the offer took to answer
+     */
+    public void recordSuccess(String offerId, long latency) {
+        getStatistics(offerId).record(latency, false, clock.getAsLong());
+    }
+
+    /**
+     * Record a read that failed on an offer
+     *
+     * @param offerId the offer
+     * @param latency time (in ms) the offer took to fail
+     */
+    public void recordFailure(String offerId, long latency) {
+        getStatistics(offerId).record(latency, true, clock.getAsLong());
+    }
+
+    /**
+     * @param offerId the offer
+     * @return the moving average of the offer read latency (in ms), 0 if unknown
+     */
+    public double getLatencyAverage(String offerId) {
+        OfferReadStatistics offerStatistics = statistics.get(offerId);
+        return offerStatistics == null ? 0 : offerStatistics.getLatencyAverage();
+    }
+
+    /**
+     * @param offerId the offer
+     * @return the moving average of the offer read error rate (between 0 and 1), 0 if unknown
+     */
+    public double getErrorRate(String offerId) {
+        OfferReadStatistics offerStatistics = statistics.get(offerId);
+        return offerStatistics == null ? 0 : offerStatistics.getErrorRate();
+    }
+
+    private OfferReadStatistics getStatistics(String offerId) {
+        return statistics.computeIfAbsent(offerId, id -> new OfferReadStatistics());
+    }
+
+    private double getExpectedLatency(String offerId, long now) {
+        OfferReadStatistics offerStatistics = statistics.get(offerId);
+        if (offerStatistics == null || offerStatistics.isExpired(now)) {
+            return 0;
+        }
+        // Expected time to get the object, an offer failing once in two reads counting twice its latency
+        return offerStatistics.getLatencyAverage() / (1 - Math.min(MAX_ERROR_RATE, offerStatistics.getErrorRate()));
+    }
+
+    private static final class OfferReadStatistics {
+
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int nbLatencies;
+        private int nextLatency;
+        private double latencyAverage;
+        private double errorRate;
+        private long lastUpdate;
+
+        synchronized void record(long latency, boolean error, long now) {
+            if (nbLatencies == 0) {
+                latencyAverage = latency;
+                errorRate = error ? 1 : 0;
+            } else {
+                latencyAverage += EWMA_ALPHA * (latency - latencyAverage);
+                errorRate += EWMA_ALPHA * ((error ? 1 : 0) - errorRate);
+            }
+            latencies[nextLatency] = latency;
+            nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+            nbLatencies = Math.min(nbLatencies + 1, LATENCY_SAMPLES);
+            lastUpdate = now;
+        }
+
+        synchronized double getLatencyAverage() {
+            return latencyAverage;
+        }
+
+        synchronized double getErrorRate() {
+            return errorRate;
+        }
+
+        synchronized boolean isExpired(long now) {
+            return now - lastUpdate > STATISTICS_EXPIRATION_MS;
+        }
+
+        synchronized long getLatencyPercentile(double percentile, long defaultValue) {
+            if (nbLatencies == 0) {
+                return defaultValue;
+            }
+            long[] sorted = Arrays.copyOf(latencies, nbLatencies);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * nbLatencies) - 1];
+        }
+    }
+}
@@ -105,6 +105,7 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerExce
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.StopWatch;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -204,6 +205,8 @@ public class StorageDistributionImpl implements StorageDistribution {
     private final int batchDigestComputationTimeout;
     private final WorkspaceClientFactory workspaceClientFactory;
     private final BulkStorageDistribution bulkStorageDistribution;
+    private final OfferReadSelector offerReadSelector;
+    private final HedgedObjectReader hedgedObjectReader;
 
     /**
      * Constructs the service with a given configuration
@@ -224,7 +227,12 @@ public class StorageDistributionImpl implements StorageDistribution {
         batchDigestComputationTimeout = configuration.getBatchDigestComputationTimeout();
         this.transfertTimeoutHelper = new TransfertTimeoutHelper(configuration.getTimeoutMsPerKB());
         this.bulkStorageDistribution = new BulkStorageDistribution(NB_RETRY, this.workspaceClientFactory,
-            this.storageLogService, this.transfertTimeoutHelper);
+            this.storageLogService, this.transfertTimeoutHelper, configuration.getBulkPutSpoolMode(),
+            configuration.getBulkPutSpoolLagBudget(), configuration.getBulkPutSpoolMaxSize());
+        this.offerReadSelector = new OfferReadSelector(configuration.getOfferReadPolicy(),
+            configuration.isHedgedReads(), configuration.getHedgedReadMinDelay(),
+            configuration.getHedgedReadMaxDelay());
+        this.hedgedObjectReader = new HedgedObjectReader(executor, offerReadSelector);
     }
 
     @VisibleForTesting
@@ -232,6 +240,15 @@ public class StorageDistributionImpl implements StorageDistribution {
         StorageLog storageLogService,
         ExecutorService batchExecutorService, int batchDigestComputationTimeout,
         BulkStorageDistribution bulkStorageDistribution) {
+        this(workspaceClientFactory, digestType, storageLogService, batchExecutorService,
+            batchDigestComputationTimeout, bulkStorageDistribution, OfferReadSelector.strategyOrder());
+    }
+
+    @VisibleForTesting
+    StorageDistributionImpl(WorkspaceClientFactory workspaceClientFactory, DigestType digestType,
+        StorageLog storageLogService,
+        ExecutorService batchExecutorService, int batchDigestComputationTimeout,
+        BulkStorageDistribution bulkStorageDistribution, OfferReadSelector offerReadSelector) {
         urlWorkspace = null;
         this.transfertTimeoutHelper = new TransfertTimeoutHelper(100L);
         this.workspaceClientFactory = workspaceClientFactory;
@@ -240,6 +257,8 @@ public class StorageDistributionImpl implements StorageDistribution {
         this.batchExecutorService = batchExecutorService;
         this.batchDigestComputationTimeout = batchDigestComputationTimeout;
         this.bulkStorageDistribution = bulkStorageDistribution;
+        this.offerReadSelector = offerReadSelector;
+        this.hedgedObjectReader = new HedgedObjectReader(executor, offerReadSelector);
     }
 
     @Override
@@ -1169,13 +1188,17 @@ public class StorageDistributionImpl implements StorageDistribution {
 
         throws StorageException {
 
+        final List<StorageOffer> orderedOffers = offerReadSelector.order(storageOffers);
+        if (offerReadSelector.isHedgedReads() && orderedOffers.size() > 1) {
+            return hedgedObjectReader.read(objectId, orderedOffers,
+                storageOffer -> readObject(tenantId, objectId, type, storageOffer));
+        }
+
         StorageGetResult result;
         boolean offerOkNoBinary = false;
-        for (final StorageOffer storageOffer : storageOffers) {
-            final Driver driver = retrieveDriverInternal(storageOffer.getId());
-            try (Connection connection = driver.connect(storageOffer.getId())) {
-                final StorageObjectRequest request = new StorageObjectRequest(tenantId, type.getFolder(), objectId);
-                result = connection.getObject(request);
+        for (final StorageOffer storageOffer : orderedOffers) {
+            try {
+                result = readObject(tenantId, objectId, type, storageOffer);
                 if (result.getObject() != null) {
                     return result;
                 }
@@ -1195,6 +1218,31 @@ public class StorageDistributionImpl implements StorageDistribution {
         }
     }
 
+    /**
+     * Read an object on a single offer, recording the offer latency for read ordering and hedging
+     */
+    private StorageGetResult readObject(Integer tenantId, String objectId, DataCategory type,
+        StorageOffer storageOffer) throws StorageException, StorageDriverException {
+        final Driver driver = retrieveDriverInternal(storageOffer.getId());
+        final StopWatch stopWatch = StopWatch.createStarted();
+        try (Connection connection = driver.connect(storageOffer.getId())) {
+            final StorageObjectRequest request = new StorageObjectRequest(tenantId, type.getFolder(), objectId);
+            final StorageGetResult result = connection.getObject(request);
+            offerReadSelector.recordSuccess(storageOffer.getId(), stopWatch.getTime());
+            return result;
+        } catch (final fr.gouv.vitam.storage.driver.exception.StorageDriverNotFoundException exc) {
+            // The offer answered, it is not an offer failure
+            offerReadSelector.recordSuccess(storageOffer.getId(), stopWatch.getTime());
+            throw exc;
+        } catch (final StorageDriverException exc) {
+            // A cancelled hedged read is not an offer failure
+            if (!Thread.currentThread().isInterrupted()) {
+                offerReadSelector.recordFailure(storageOffer.getId(), stopWatch.getTime());
+            }
+            throw exc;
+        }
+    }
+
     @Override
     public JsonNode getContainerInformation(String strategyId, DataCategory type, String objectId,
         List<String> offerIds, boolean noCache)
@@ -26,7 +26,9 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.engine.server.distribution.impl.bulk;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.alert.AlertService;
 import fr.gouv.vitam.common.alert.AlertServiceImpl;
@@ -39,6 +41,7 @@ import fr.gouv.vitam.common.logging.VitamLogLevel;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.server.application.VitamHttpHeader;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
 import fr.gouv.vitam.common.stream.MultiplePipedInputStream;
 import fr.gouv.vitam.common.stream.PrependedMultiplexedInputStream;
 import fr.gouv.vitam.common.stream.VitamAsyncInputStream;
@@ -57,12 +60,15 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundEx
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 
 import javax.ws.rs.core.Response;
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -72,36 +78,69 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.stream.Collectors.toMap;
 
 /**
  * Handles single bulk transfer from workspace to offers. No retries are handled.
+ *
+ * Depending on the {@link BulkPutSpoolMode}, offers either share a single in-memory piped workspace stream (and
+ * advance in lockstep with the slowest one), share a local circular spool file (the fastest offer may get up to the
+ * lag budget ahead of the slowest one), or read a dedicated workspace stream. Spool files of concurrent bulks use at
+ * most spoolMaxSize bytes of local disk, bulks that do not fit are piped.
  */
 class BulkPutTransferManager {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(BulkPutTransferManager.class);
 
+    private static final String BULK_PUT_BYTES_METRIC_PREFIX = "Storage bulk put bytes - offer ";
+    private static final String BULK_PUT_DURATION_METRIC_PREFIX = "Storage bulk put duration - offer ";
+    private static final String SPOOL_SUB_DIRECTORY = "bulk_spool";
+
     private final WorkspaceClientFactory workspaceClientFactory;
     private final DigestType digestType;
     private final AlertService alertService;
     private final ExecutorService executor;
     private final TransfertTimeoutHelper transfertTimeoutHelper;
-
-    BulkPutTransferManager(WorkspaceClientFactory workspaceClientFactory, TransfertTimeoutHelper transfertTimeoutHelper) {
+    private final BulkPutSpoolMode spoolMode;
+    private final long spoolLagBudget;
+    private final long spoolMaxSize;
+    private final AtomicLong reservedSpoolSize = new AtomicLong();
+    private final File spoolDirectory;
+    private final MetricRegistry metricRegistry;
+
+    BulkPutTransferManager(WorkspaceClientFactory workspaceClientFactory, TransfertTimeoutHelper transfertTimeoutHelper,
+        BulkPutSpoolMode spoolMode, long spoolLagBudget, long spoolMaxSize) {
         this(workspaceClientFactory, VitamConfiguration.getDefaultDigestType(), new AlertServiceImpl(),
             VitamThreadPoolExecutor.getDefaultExecutor(),
-            transfertTimeoutHelper);
+            transfertTimeoutHelper, spoolMode, spoolLagBudget, spoolMaxSize,
+            new File(VitamConfiguration.getVitamTmpFolder(), SPOOL_SUB_DIRECTORY),
+            CommonBusinessApplication.getBusinessMetricsRegistry());
     }
 
     @VisibleForTesting
     BulkPutTransferManager(WorkspaceClientFactory workspaceClientFactory, DigestType digestType,
         AlertService alertService, ExecutorService executor, TransfertTimeoutHelper transfertTimeoutHelper) {
+        this(workspaceClientFactory, digestType, alertService, executor, transfertTimeoutHelper,
+            BulkPutSpoolMode.PIPED, 0L, 0L, null, new MetricRegistry());
+    }
+
+    @VisibleForTesting
+    BulkPutTransferManager(WorkspaceClientFactory workspaceClientFactory, DigestType digestType,
+        AlertService alertService, ExecutorService executor, TransfertTimeoutHelper transfertTimeoutHelper,
+        BulkPutSpoolMode spoolMode, long spoolLagBudget, long spoolMaxSize, File spoolDirectory,
+        MetricRegistry metricRegistry) {
         this.workspaceClientFactory = workspaceClientFactory;
         this.digestType = digestType;
         this.alertService = alertService;
         this.executor = executor;
         this.transfertTimeoutHelper = transfertTimeoutHelper;
+        this.spoolMode = spoolMode;
+        this.spoolLagBudget = spoolLagBudget;
+        this.spoolMaxSize = spoolMaxSize;
+        this.spoolDirectory = spoolDirectory;
+        this.metricRegistry = metricRegistry;
     }
 
     BulkPutResult bulkSendDataToOffers(String workspaceContainerGUID, int tenantId,
@@ -109,41 +148,25 @@ class BulkPutTransferManager {
         Map<String, StorageOffer> storageOffers, List<String> workspaceObjectURIs,
         List<String> objectIds) {
 
-        ResultOrError<StreamAndInfo, BulkPutResult> streamWithInfoFromWorkspace = null;
-        ResultOrError<StreamAndInfo, BulkPutResult> prependedStreamWithInfo = null;
-        MultiplePipedInputStream streams = null;
+        ResultOrError<SharedStreams, BulkPutResult> sharedStreams = null;
         List<Future<StorageBulkPutResult>> transferThreadFutures = null;
         Future<List<ObjectInfo>> digestListenerFuture = null;
 
         try {
 
-            // Get multiplexed stream from workspace
-            streamWithInfoFromWorkspace = retrieveBulkDataFromWorkspace(workspaceContainerGUID, workspaceObjectURIs,
-                offerIds);
-            if (streamWithInfoFromWorkspace.hasError()) {
-                return streamWithInfoFromWorkspace.getError();
+            // We need 1 stream per offer + 1 stream for digest computing
+            sharedStreams = openSharedStreams(workspaceContainerGUID, workspaceObjectURIs, objectIds, offerIds);
+            if (sharedStreams.hasError()) {
+                return sharedStreams.getError();
             }
 
-            // Prepend with header entry containing object Ids
-            prependedStreamWithInfo =
-                prependWithObjectIdsHeaderEntry(objectIds, streamWithInfoFromWorkspace.getResult(),
-                    offerIds);
-            if (prependedStreamWithInfo.hasError()) {
-                return prependedStreamWithInfo.getError();
-            }
-
-            // We need 1 thread per offer + 1 thread for digest computing
-            streams =
-                new MultiplePipedInputStream(prependedStreamWithInfo.getResult().getStream(), offerIds.size() + 1);
-
             transferThreadFutures = startTransferThreads(tenantId, dataCategory, objectIds, offerIds, storageDrivers,
-                storageOffers, streams, prependedStreamWithInfo.getResult().getSize());
+                storageOffers, sharedStreams.getResult());
 
-            digestListenerFuture = startDigestComputeThread(offerIds, streams, objectIds);
+            digestListenerFuture = startDigestComputeThread(offerIds, sharedStreams.getResult(), objectIds);
 
             // Await termination with timeout
-            long finalTimeout = transfertTimeoutHelper.getTransferTimeout(
-                prependedStreamWithInfo.getResult().getSize());
+            long finalTimeout = transfertTimeoutHelper.getTransferTimeout(sharedStreams.getResult().getSize());
             TimeoutStopwatch timeoutStopwatch = new TimeoutStopwatch(finalTimeout);
 
             ResultOrError<List<ObjectInfo>, BulkPutResult> objectInfos = awaitDigestListenerThread(digestListenerFuture,
@@ -177,18 +200,129 @@ class BulkPutTransferManager {
                 digestListenerFuture.cancel(true);
             }
 
-            if (streams != null) {
-                streams.close();
+            if (sharedStreams != null && sharedStreams.hasResult()) {
+                sharedStreams.getResult().close();
+            }
+        }
+    }
+
+    private ResultOrError<SharedStreams, BulkPutResult> openSharedStreams(String workspaceContainerGUID,
+        List<String> workspaceObjectURIs, List<String> objectIds, List<String> offerIds) {
+
+        int nbStreams = offerIds.size() + 1;
+        SharedStreams sharedStreams = new SharedStreams();
+        boolean success = false;
+        try {
+
+            if (spoolMode == BulkPutSpoolMode.WORKSPACE_PER_OFFER) {
+                // Every offer reads its own workspace stream
+                for (int rank = 0; rank < nbStreams; rank++) {
+                    ResultOrError<StreamAndInfo, BulkPutResult> prependedStreamWithInfo =
+                        openPrependedWorkspaceStream(workspaceContainerGUID, workspaceObjectURIs, objectIds, offerIds,
+                            sharedStreams);
+                    if (prependedStreamWithInfo.hasError()) {
+                        return ResultOrError.error(prependedStreamWithInfo.getError());
+                    }
+                    sharedStreams.addStream(prependedStreamWithInfo.getResult().getStream());
+                    sharedStreams.setSize(prependedStreamWithInfo.getResult().getSize());
+                }
+                success = true;
+                return ResultOrError.result(sharedStreams);
+            }
+
+            ResultOrError<StreamAndInfo, BulkPutResult> prependedStreamWithInfo =
+                openPrependedWorkspaceStream(workspaceContainerGUID, workspaceObjectURIs, objectIds, offerIds,
+                    sharedStreams);
+            if (prependedStreamWithInfo.hasError()) {
+                return ResultOrError.error(prependedStreamWithInfo.getError());
             }
-            if (prependedStreamWithInfo != null && prependedStreamWithInfo.hasResult()) {
-                prependedStreamWithInfo.getResult().close();
+            long size = prependedStreamWithInfo.getResult().getSize();
+            sharedStreams.setSize(size);
+
+            MultiplePipedInputStream streams;
+            int spoolSize = getSpoolSize(size);
+            if (spoolMode == BulkPutSpoolMode.LOCAL_FILE && tryReserveSpoolSize(spoolSize)) {
+                // Reverse closing order: spool file closed, then deleted, then its size released
+                sharedStreams.addResource(() -> releaseSpoolSize(spoolSize));
+                Files.createDirectories(spoolDirectory.toPath());
+                File spoolFile = File.createTempFile("bulk_", ".spool", spoolDirectory);
+                sharedStreams.addResource(() -> FileUtils.deleteQuietly(spoolFile));
+                streams = new MultiplePipedInputStream(prependedStreamWithInfo.getResult().getStream(), nbStreams,
+                    spoolFile, spoolSize);
+            } else {
+                if (spoolMode == BulkPutSpoolMode.LOCAL_FILE) {
+                    LOGGER.warn("Bulk put spool max size {} reached. Falling back to piped streams", spoolMaxSize);
+                }
+                streams = new MultiplePipedInputStream(prependedStreamWithInfo.getResult().getStream(), nbStreams);
+            }
+            sharedStreams.addResource(streams);
+            for (int rank = 0; rank < nbStreams; rank++) {
+                sharedStreams.addStream(streams.getInputStream(rank));
+            }
+            success = true;
+            return ResultOrError.result(sharedStreams);
+
+        } catch (IOException e) {
+            LOGGER.error("Could not create bulk spool file", e);
+            return reportGlobalNonBlockerFailure(offerIds);
+        } finally {
+            if (!success) {
+                sharedStreams.close();
+            }
+        }
+    }
+
+    /**
+     * @return the size of the circular spool file of a bulk: the lag budget, down to the bulk size, but at least one
+     * chunk
+     */
+    private int getSpoolSize(long bulkSize) {
+        long spoolSize = Math.min(Math.min(spoolLagBudget, bulkSize), Integer.MAX_VALUE);
+        return (int) Math.max(spoolSize, VitamConfiguration.getChunkSize());
+    }
+
+    private boolean tryReserveSpoolSize(int spoolSize) {
+        while (true) {
+            long reserved = reservedSpoolSize.get();
+            if (reserved + spoolSize > spoolMaxSize) {
+                return false;
             }
-            if (streamWithInfoFromWorkspace != null && streamWithInfoFromWorkspace.hasResult()) {
-                streamWithInfoFromWorkspace.getResult().close();
+            if (reservedSpoolSize.compareAndSet(reserved, reserved + spoolSize)) {
+                return true;
             }
         }
     }
 
+    private void releaseSpoolSize(int spoolSize) {
+        reservedSpoolSize.addAndGet(-spoolSize);
+    }
+
+    @VisibleForTesting
+    long getReservedSpoolSize() {
+        return reservedSpoolSize.get();
+    }
+
+    private ResultOrError<StreamAndInfo, BulkPutResult> openPrependedWorkspaceStream(String workspaceContainerGUID,
+        List<String> workspaceObjectURIs, List<String> objectIds, List<String> offerIds,
+        SharedStreams sharedStreams) {
+
+        // Get multiplexed stream from workspace
+        ResultOrError<StreamAndInfo, BulkPutResult> streamWithInfoFromWorkspace =
+            retrieveBulkDataFromWorkspace(workspaceContainerGUID, workspaceObjectURIs, offerIds);
+        if (streamWithInfoFromWorkspace.hasError()) {
+            return streamWithInfoFromWorkspace;
+        }
+        sharedStreams.addResource(streamWithInfoFromWorkspace.getResult());
+
+        // Prepend with header entry containing object Ids
+        ResultOrError<StreamAndInfo, BulkPutResult> prependedStreamWithInfo =
+            prependWithObjectIdsHeaderEntry(objectIds, streamWithInfoFromWorkspace.getResult(), offerIds);
+        if (prependedStreamWithInfo.hasResult()) {
+            sharedStreams.addResource(prependedStreamWithInfo.getResult());
+        }
+        return prependedStreamWithInfo;
+    }
+
     private ResultOrError<StreamAndInfo, BulkPutResult> retrieveBulkDataFromWorkspace(String containerGUID,
         List<String> workspaceObjectURIs, List<String> offerIds) {
 
@@ -227,30 +361,46 @@ class BulkPutTransferManager {
         }
     }
 
-    private Future<List<ObjectInfo>> startDigestComputeThread(List<String> offerIds, MultiplePipedInputStream
-        streams, List<String> objectIds) {
+    private Future<List<ObjectInfo>> startDigestComputeThread(List<String> offerIds, SharedStreams sharedStreams,
+        List<String> objectIds) {
         return executor.submit(new MultiplexedStreamObjectInfoListenerThread(
-            streams.getInputStream(offerIds.size()), digestType, objectIds));
+            sharedStreams.getStream(offerIds.size()), digestType, objectIds));
     }
 
     private List<Future<StorageBulkPutResult>> startTransferThreads(int tenantId, DataCategory type,
         List<String> objectIds, List<String> offerIds, Map<String, Driver> storageDrivers, Map<String, StorageOffer>
-        storageOffers, MultiplePipedInputStream streams, long size) {
+        storageOffers, SharedStreams sharedStreams) {
         List<Future<StorageBulkPutResult>> transferThreadFutures = new ArrayList<>();
+        long size = sharedStreams.getSize();
         for (int rank = 0; rank < offerIds.size(); rank++) {
 
-            InputStream offerInputStream = new BufferedInputStream(streams.getInputStream(rank));
+            InputStream offerInputStream = new BufferedInputStream(sharedStreams.getStream(rank));
             String offerId = offerIds.get(rank);
             Driver driver = storageDrivers.get(offerId);
             StorageOffer storageOffer = storageOffers.get(offerId);
 
-            transferThreadFutures.add(executor.submit(
+            MultiplexedStreamTransferThread transferThread =
                 new MultiplexedStreamTransferThread(tenantId, type, objectIds, offerInputStream, size, driver,
-                    storageOffer, this.digestType)));
+                    storageOffer, this.digestType);
+            transferThreadFutures.add(executor.submit(() -> transferWithMetrics(offerId, size, transferThread)));
         }
         return transferThreadFutures;
     }
 
+    private StorageBulkPutResult transferWithMetrics(String offerId, long size,
+        MultiplexedStreamTransferThread transferThread) throws Exception {
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        StorageBulkPutResult storageBulkPutResult = transferThread.call();
+        long elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+
+        metricRegistry.meter(BULK_PUT_BYTES_METRIC_PREFIX + offerId).mark(size);
+        metricRegistry.timer(BULK_PUT_DURATION_METRIC_PREFIX + offerId).update(elapsed, TimeUnit.MILLISECONDS);
+        LOGGER.debug("Bulk put of {} bytes to offer {} done in {} ms", size, offerId, elapsed);
+
+        return storageBulkPutResult;
+    }
+
     private ResultOrError<List<ObjectInfo>, BulkPutResult> awaitDigestListenerThread(
         Future<List<ObjectInfo>> digestListenerFuture,
         TimeoutStopwatch timeoutStopwatch, List<String> offerIds) {
@@ -341,4 +491,47 @@ class BulkPutTransferManager {
             offerIds.stream().collect(toMap(offerId -> offerId, offerId -> OfferBulkPutStatus.KO))
         ));
     }
+
+    /**
+     * Streams read by offer transfer threads and by the digest listener thread, with the resources to release
+     */
+    private static class SharedStreams implements AutoCloseable {
+
+        private final List<InputStream> streams = new ArrayList<>();
+        private final List<AutoCloseable> resources = new ArrayList<>();
+        private long size;
+
+        void addStream(InputStream stream) {
+            streams.add(stream);
+            resources.add(stream);
+        }
+
+        void addResource(AutoCloseable resource) {
+            resources.add(resource);
+        }
+
+        InputStream getStream(int rank) {
+            return streams.get(rank);
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        void setSize(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public void close() {
+            // Release resources in reverse opening order
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                try {
+                    resources.get(i).close();
+                } catch (Exception e) {
+                    LOGGER.warn("Could not close bulk put resource", e);
+                }
+            }
+        }
+    }
 }
@@ -59,9 +59,11 @@ public class BulkStorageDistribution {
     private final BulkPutTransferManager bulkPutTransferManager;
 
     public BulkStorageDistribution(int nbReties, WorkspaceClientFactory workspaceClientFactory,
-        StorageLog storageLogService, TransfertTimeoutHelper transfertTimeoutHelper) {
+        StorageLog storageLogService, TransfertTimeoutHelper transfertTimeoutHelper,
+        BulkPutSpoolMode spoolMode, long spoolLagBudget, long spoolMaxSize) {
         this(nbReties, storageLogService, VitamConfiguration.getDefaultDigestType(),
-            new BulkPutTransferManager(workspaceClientFactory, transfertTimeoutHelper));
+            new BulkPutTransferManager(workspaceClientFactory, transfertTimeoutHelper, spoolMode, spoolLagBudget,
+                spoolMaxSize));
     }
 
     @VisibleForTesting
@@ -28,9 +28,11 @@ package fr.gouv.vitam.storage.engine.server.offersynchronization;
 
 import com.google.common.collect.Iterables;
 import fr.gouv.vitam.common.LocalDateUtil;
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.server.application.VitamHttpHeader;
 import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
@@ -48,8 +50,11 @@ import javax.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -65,6 +70,12 @@ public class OfferSyncProcess {
      */
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(OfferSyncProcess.class);
 
+    /**
+     * Default maximum number of bytes being transferred at the same time (1 GB)
+     */
+    public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 1024L * 1024L * 1024L;
+    private static final double BYTES_PER_MB = 1024d * 1024d;
+
     private final RestoreOfferBackupService restoreOfferBackupService;
     private final StorageDistribution distribution;
     private final int bulkSize;
@@ -72,10 +83,16 @@ public class OfferSyncProcess {
     private final int offerSyncNumberOfRetries;
     private final int offerSyncFirstAttemptWaitingTime;
     private final int offerSyncWaitingTime;
+    private final long offerSyncMaxInFlightBytes;
 
     private OfferSyncStatus offerSyncStatus;
 
     public OfferSyncProcess(RestoreOfferBackupService restoreOfferBackupService, StorageDistribution distribution, int bulkSize, int offerSyncThreadPoolSize, int offerSyncNumberOfRetries, int offerSyncFirstAttemptWaitingTime, int offerSyncWaitingTime) {
+        this(restoreOfferBackupService, distribution, bulkSize, offerSyncThreadPoolSize, offerSyncNumberOfRetries,
+            offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime, DEFAULT_MAX_IN_FLIGHT_BYTES);
+    }
+
+    public OfferSyncProcess(RestoreOfferBackupService restoreOfferBackupService, StorageDistribution distribution, int bulkSize, int offerSyncThreadPoolSize, int offerSyncNumberOfRetries, int offerSyncFirstAttemptWaitingTime, int offerSyncWaitingTime, long offerSyncMaxInFlightBytes) {
         this.restoreOfferBackupService = restoreOfferBackupService;
         this.distribution = distribution;
         this.bulkSize = bulkSize;
@@ -84,6 +101,7 @@ public class OfferSyncProcess {
         this.offerSyncNumberOfRetries = offerSyncNumberOfRetries;
         this.offerSyncFirstAttemptWaitingTime = offerSyncFirstAttemptWaitingTime;
         this.offerSyncWaitingTime = offerSyncWaitingTime;
+        this.offerSyncMaxInFlightBytes = offerSyncMaxInFlightBytes;
     }
 
     private static OfferLog getLastOfferLog(OfferLog offerLog1, OfferLog offerLog2) {
@@ -137,95 +155,167 @@ public class OfferSyncProcess {
     private void synchronize(ExecutorService executor, String sourceOffer, String targetOffer, String strategyId,
         DataCategory dataCategory, Long startOffset) throws StorageException {
 
-        Long offset = startOffset;
-        while (true) {
-            // get the data to startSynchronization
-            List<OfferLog> rawOfferLogs = restoreOfferBackupService.getListing(
-                strategyId, sourceOffer, dataCategory, offset, bulkSize, Order.ASC);
+        int tenantId = VitamThreadUtils.getVitamSession().getTenantId();
+        String requestId = VitamThreadUtils.getVitamSession().getRequestId();
+
+        OfferSyncWindow window = new OfferSyncWindow(bulkSize, offerSyncMaxInFlightBytes, startOffset);
+        Map<ImmutablePair<String, String>, CompletableFuture<Void>> lastTaskByFile = new ConcurrentHashMap<>();
+        long startTime = System.nanoTime();
 
-            if (rawOfferLogs.isEmpty()) {
-                break;
-            }
+        ExecutorService listingExecutor = Executors.newSingleThreadExecutor(VitamThreadFactory.getInstance());
+        try {
+            Long offset = startOffset;
+            CompletableFuture<List<OfferLog>> nextPage =
+                getListingAsync(listingExecutor, sourceOffer, strategyId, dataCategory, offset, tenantId, requestId);
+            while (true) {
+                List<OfferLog> rawOfferLogs = awaitListing(window, nextPage);
 
-            long lastSequence =
-                synchronizeOfferLogs(executor, sourceOffer, targetOffer, strategyId, dataCategory, rawOfferLogs,
-                    offset);
+                if (rawOfferLogs.isEmpty()) {
+                    break;
+                }
 
-            this.offerSyncStatus.setCurrentOffset(lastSequence);
+                long lastSequence = Iterables.getLast(rawOfferLogs).getSequence();
+                boolean lastPage = rawOfferLogs.size() < bulkSize;
 
-            offset = lastSequence + 1;
+                // Prefetch the next page while the current one is being synchronized
+                if (!lastPage) {
+                    nextPage = getListingAsync(listingExecutor, sourceOffer, strategyId, dataCategory,
+                        lastSequence + 1, tenantId, requestId);
+                }
 
-            LOGGER.info(String.format("Offer synchronization safe point offset : %s (from %s to %s for category %s)",
-                offset, sourceOffer, targetOffer, dataCategory));
+                if (!dispatchOfferLogs(executor, window, lastTaskByFile, sourceOffer, targetOffer, strategyId,
+                    dataCategory, rawOfferLogs, tenantId, requestId, startTime)) {
+                    break;
+                }
+                window.pageDispatched(lastSequence);
+                updateStatus(window, startTime);
 
-            if (rawOfferLogs.size() < bulkSize) {
-                break;
+                offset = lastSequence + 1;
+                LOGGER.info(String.format("Offer synchronization dispatched up to offset : %s, safe point offset : %s " +
+                        "(from %s to %s for category %s)", offset, this.offerSyncStatus.getCurrentOffset(),
+                    sourceOffer, targetOffer, dataCategory));
+
+                if (lastPage) {
+                    break;
+                }
             }
+
+            window.awaitCompletion();
+            updateStatus(window, startTime);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(e);
+        } finally {
+            listingExecutor.shutdownNow();
+        }
+
+        if (window.isFailed()) {
+            throw new StorageException(
+                "Error(s) occurred during offer synchronization " + sourceOffer + " > " + targetOffer +
+                    " for container " + dataCategory + " after safe point offset " + window.getSafePoint());
         }
 
         LOGGER.info(String.format("The offers synchronization completed successfully. from %d to %d",
-            startOffset, offset));
+            startOffset, window.getSafePoint()));
+    }
+
+    private CompletableFuture<List<OfferLog>> getListingAsync(ExecutorService listingExecutor, String sourceOffer,
+        String strategyId, DataCategory dataCategory, Long offset, int tenantId, String requestId) {
+        return CompletableFuture.supplyAsync(() -> {
+            VitamThreadUtils.getVitamSession().setTenantId(tenantId);
+            VitamThreadUtils.getVitamSession().setRequestId(requestId);
+            try {
+                return restoreOfferBackupService.getListing(
+                    strategyId, sourceOffer, dataCategory, offset, bulkSize, Order.ASC);
+            } catch (StorageException e) {
+                throw new RuntimeStorageException(
+                    "Could not list offer logs of " + sourceOffer + " from offset " + offset, e);
+            }
+        }, listingExecutor);
     }
 
-    private long synchronizeOfferLogs(ExecutorService executor, String sourceOffer,
-        String destinationOffer, String strategyId, DataCategory dataCategory, List<OfferLog> rawOfferLogs, Long offset)
-        throws StorageException {
+    private List<OfferLog> awaitListing(OfferSyncWindow window, CompletableFuture<List<OfferLog>> listing)
+        throws StorageException, InterruptedException {
+        try {
+            return listing.get();
+        } catch (ExecutionException e) {
+            // Let already dispatched entries complete before reporting the error
+            window.awaitCompletion();
+            throw new StorageException(e.getCause());
+        }
+    }
 
-        int tenantId = VitamThreadUtils.getVitamSession().getTenantId();
-        String requestId = VitamThreadUtils.getVitamSession().getRequestId();
+    /**
+     * Dispatch the synchronization of a page of offer logs, waiting for room in the window.
+     * Entries of a file already being synchronized are chained after it so that writes and deletes keep their order.
+     *
+     * @return false if a previous task has failed
+     */
+    private boolean dispatchOfferLogs(ExecutorService executor, OfferSyncWindow window,
+        Map<ImmutablePair<String, String>, CompletableFuture<Void>> lastTaskByFile, String sourceOffer,
+        String destinationOffer, String strategyId, DataCategory dataCategory, List<OfferLog> rawOfferLogs,
+        int tenantId, String requestId, long startTime) throws InterruptedException {
 
         // Deduplicate entries (on duplication, keep last only)
-        Collection<OfferLog> offerLogs = removeDuplicates(rawOfferLogs);
+        List<OfferLog> offerLogs = new ArrayList<>(removeDuplicates(rawOfferLogs));
+        offerLogs.sort(Comparator.comparingLong(OfferLog::getSequence));
 
-        List<CompletableFuture<Void>> completableFutures = new ArrayList<>();
         for (OfferLog offerLog : offerLogs) {
 
+            Runnable runnable;
             switch (offerLog.getAction()) {
                 case WRITE:
-                    Runnable copy = () -> copyObject(sourceOffer, destinationOffer, dataCategory, offerLog, tenantId, strategyId, requestId);
-                    completableFutures.add(CompletableFuture.runAsync(RetryableRunnable.from(offerSyncNumberOfRetries, copy, offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime), executor));
+                    runnable = () -> copyObject(window, sourceOffer, destinationOffer, dataCategory, offerLog, tenantId, strategyId, requestId);
                     break;
                 case DELETE:
-                    Runnable delete = () -> deleteObject(destinationOffer, dataCategory, offerLog, tenantId, strategyId, requestId);
-                    completableFutures.add(CompletableFuture.runAsync(RetryableRunnable.from(offerSyncNumberOfRetries, delete, offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime), executor));
+                    runnable = () -> deleteObject(destinationOffer, dataCategory, offerLog, tenantId, strategyId, requestId);
                     break;
                 default:
                     throw new UnsupportedOperationException("Unknown offer log action " + offerLog.getAction());
             }
-        }
 
-        boolean allSucceeded = awaitCompletion(completableFutures);
+            if (!window.acquireTask(offerLog.getSequence())) {
+                return false;
+            }
 
-        if (!allSucceeded) {
-            throw new StorageException(
-                "Error(s) occurred during offer synchronization " + sourceOffer + " > " + destinationOffer +
-                    " for container " + dataCategory + " at start offset " + offset);
+            ImmutablePair<String, String> file = new ImmutablePair<>(offerLog.getContainer(), offerLog.getFileName());
+            CompletableFuture<Void> previousTask = lastTaskByFile.get(file);
+            CompletableFuture<Void> previous = previousTask == null ?
+                CompletableFuture.completedFuture(null) : previousTask.handle((result, e) -> null);
+            CompletableFuture<Void> task = previous.thenRunAsync(
+                RetryableRunnable.from(offerSyncNumberOfRetries, runnable, offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime), executor);
+            lastTaskByFile.put(file, task);
+
+            task.whenComplete((result, e) -> {
+                lastTaskByFile.remove(file, task);
+                if (e == null) {
+                    window.taskSucceeded(offerLog.getSequence());
+                } else {
+                    LOGGER.error(e);
+                    window.taskFailed();
+                }
+                updateStatus(window, startTime);
+            });
         }
-
-        long lastSequence = Iterables.getLast(rawOfferLogs).getSequence();
-        LOGGER.info("[OfferSync]: successful synchronization of dataCategory : {}, tenant : {}, offset : {}",
-            dataCategory, tenantId, lastSequence);
-        return lastSequence;
+        return true;
     }
 
-    private boolean awaitCompletion(List<CompletableFuture<Void>> completableFutures) throws StorageException {
-        boolean allSucceeded = true;
-        for (CompletableFuture<Void> completableFuture : completableFutures) {
-            try {
-                completableFuture.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new StorageException(e);
-            } catch (ExecutionException e) {
-                LOGGER.error(e);
-                allSucceeded = false;
-            }
+    private void updateStatus(OfferSyncWindow window, long startTime) {
+        double elapsedSeconds = Math.max(System.nanoTime() - startTime, 1L) / 1_000_000_000d;
+        long objects = window.getSynchronizedObjects();
+        long bytes = window.getSynchronizedBytes();
+        synchronized (this.offerSyncStatus) {
+            this.offerSyncStatus.setCurrentOffset(window.getSafePoint());
+            this.offerSyncStatus.setSynchronizedObjects(objects);
+            this.offerSyncStatus.setSynchronizedBytes(bytes);
+            this.offerSyncStatus.setObjectsPerSecond(objects / elapsedSeconds);
+            this.offerSyncStatus.setMegaBytesPerSecond(bytes / BYTES_PER_MB / elapsedSeconds);
         }
-        return allSucceeded;
     }
 
-    private void copyObject(String sourceOffer, String destinationOffer, DataCategory dataCategory,
-        OfferLog offerLog, int tenant, String strategyId, String requestId) {
+    private void copyObject(OfferSyncWindow window, String sourceOffer, String destinationOffer,
+        DataCategory dataCategory, OfferLog offerLog, int tenant, String strategyId, String requestId) {
 
         VitamThreadUtils.getVitamSession().setTenantId(tenant);
         VitamThreadUtils.getVitamSession().setRequestId(requestId);
@@ -236,6 +326,9 @@ public class OfferSyncProcess {
         // Otherwise, assume file has been deleted meanwhile.
 
         Response resp = null;
+        long size = 0L;
+        boolean bytesAcquired = false;
+        boolean transferred = false;
         try {
             LOGGER.debug("Copying object " + offerLog.getContainer() + "/" + offerLog.getFileName() + " from offer " +
                 sourceOffer + " to offer " + destinationOffer);
@@ -244,8 +337,22 @@ public class OfferSyncProcess {
                 .getContainerByCategory(strategyId, offerLog.getFileName(), dataCategory,
                     sourceOffer);
 
+            size = getSize(resp);
+            bytesAcquired = window.tryAcquireBytes(size);
+            if (!bytesAcquired) {
+                // Do not keep an idle source stream open while waiting for bandwidth
+                StreamUtils.consumeAnyEntityAndClose(resp);
+                resp = null;
+                window.acquireBytes(size);
+                bytesAcquired = true;
+                resp = distribution
+                    .getContainerByCategory(strategyId, offerLog.getFileName(), dataCategory,
+                        sourceOffer);
+            }
+
             distribution.storeDataInOffers(strategyId, offerLog.getFileName(),
                 dataCategory, null, Collections.singletonList(destinationOffer), resp);
+            transferred = true;
 
         } catch (StorageNotFoundException e) {
             LOGGER.debug("File not found", e);
@@ -255,8 +362,27 @@ public class OfferSyncProcess {
                 "An error occurred during copying '" + offerLog.getContainer() + "/" + offerLog.getFileName() +
                     "' from "
                     + sourceOffer + " to " + destinationOffer, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VitamRuntimeException("Interrupted while waiting for offer synchronization bandwidth", e);
         } finally {
             StreamUtils.consumeAnyEntityAndClose(resp);
+            if (bytesAcquired) {
+                window.releaseBytes(size, transferred);
+            }
+        }
+    }
+
+    private static long getSize(Response response) {
+        String length = response.getHeaderString(VitamHttpHeader.X_CONTENT_LENGTH.getName());
+        if (length == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(length);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid content length " + length, e);
+            return 0L;
         }
     }
 
@@ -54,6 +54,7 @@ public class OfferSyncService {
     private final int offerSyncNumberOfRetries;
     private final int offerSyncFirstAttemptWaitingTime;
     private final int offerSyncWaitingTime;
+    private final long offerSyncMaxInFlightBytes;
 
     private final AtomicReference<OfferSyncProcess> lastOfferSyncService = new AtomicReference<>(null);
 
@@ -68,7 +69,8 @@ public class OfferSyncService {
             storageConfiguration.getOfferSyncThreadPoolSize(),
             storageConfiguration.getOfferSyncNumberOfRetries(),
             storageConfiguration.getOfferSyncFirstAttemptWaitingTime(),
-            storageConfiguration.getOfferSyncWaitingTime()
+            storageConfiguration.getOfferSyncWaitingTime(),
+            storageConfiguration.getOfferSyncMaxInFlightBytes()
         );
     }
 
@@ -79,6 +81,13 @@ public class OfferSyncService {
     OfferSyncService(
         RestoreOfferBackupService restoreOfferBackupService,
         StorageDistribution distribution, int bulkSize, int offerSyncThreadPoolSize, int offerSyncNumberOfRetries, int offerSyncFirstAttemptWaitingTime, int offerSyncWaitingTime) {
+        this(restoreOfferBackupService, distribution, bulkSize, offerSyncThreadPoolSize, offerSyncNumberOfRetries,
+            offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime, OfferSyncProcess.DEFAULT_MAX_IN_FLIGHT_BYTES);
+    }
+
+    private OfferSyncService(
+        RestoreOfferBackupService restoreOfferBackupService,
+        StorageDistribution distribution, int bulkSize, int offerSyncThreadPoolSize, int offerSyncNumberOfRetries, int offerSyncFirstAttemptWaitingTime, int offerSyncWaitingTime, long offerSyncMaxInFlightBytes) {
         this.restoreOfferBackupService = restoreOfferBackupService;
         this.distribution = distribution;
         this.bulkSize = bulkSize;
@@ -86,6 +95,7 @@ public class OfferSyncService {
         this.offerSyncNumberOfRetries = offerSyncNumberOfRetries;
         this.offerSyncFirstAttemptWaitingTime = offerSyncFirstAttemptWaitingTime;
         this.offerSyncWaitingTime = offerSyncWaitingTime;
+        this.offerSyncMaxInFlightBytes = offerSyncMaxInFlightBytes;
     }
 
     /**
@@ -124,7 +134,7 @@ public class OfferSyncService {
     }
 
     OfferSyncProcess createOfferSyncProcess() {
-        return new OfferSyncProcess(restoreOfferBackupService, distribution, bulkSize, offerSyncThreadPoolSize, offerSyncNumberOfRetries, offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime);
+        return new OfferSyncProcess(restoreOfferBackupService, distribution, bulkSize, offerSyncThreadPoolSize, offerSyncNumberOfRetries, offerSyncFirstAttemptWaitingTime, offerSyncWaitingTime, offerSyncMaxInFlightBytes);
     }
 
     void runSynchronizationAsync(String sourceOffer, String targetOffer, String strategyId, DataCategory dataCategory, Long offset,
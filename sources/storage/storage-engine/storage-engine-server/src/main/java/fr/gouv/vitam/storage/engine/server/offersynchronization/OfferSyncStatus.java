@@ -49,6 +49,14 @@ public class OfferSyncStatus {
     private Long startOffset;
     @JsonProperty("currentOffset")
     private Long currentOffset;
+    @JsonProperty("synchronizedObjects")
+    private long synchronizedObjects;
+    @JsonProperty("synchronizedBytes")
+    private long synchronizedBytes;
+    @JsonProperty("objectsPerSecond")
+    private double objectsPerSecond;
+    @JsonProperty("megaBytesPerSecond")
+    private double megaBytesPerSecond;
 
     public OfferSyncStatus() {
         // Empty constructor for deserialization
@@ -129,4 +137,40 @@ public class OfferSyncStatus {
         this.statusCode = statusCode;
         return this;
     }
+
+    public long getSynchronizedObjects() {
+        return synchronizedObjects;
+    }
+
+    public OfferSyncStatus setSynchronizedObjects(long synchronizedObjects) {
+        this.synchronizedObjects = synchronizedObjects;
+        return this;
+    }
+
+    public long getSynchronizedBytes() {
+        return synchronizedBytes;
+    }
+
+    public OfferSyncStatus setSynchronizedBytes(long synchronizedBytes) {
+        this.synchronizedBytes = synchronizedBytes;
+        return this;
+    }
+
+    public double getObjectsPerSecond() {
+        return objectsPerSecond;
+    }
+
+    public OfferSyncStatus setObjectsPerSecond(double objectsPerSecond) {
+        this.objectsPerSecond = objectsPerSecond;
+        return this;
+    }
+
+    public double getMegaBytesPerSecond() {
+        return megaBytesPerSecond;
+    }
+
+    public OfferSyncStatus setMegaBytesPerSecond(double megaBytesPerSecond) {
+        this.megaBytesPerSecond = megaBytesPerSecond;
+        return this;
+    }
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.storage.engine.server.offersynchronization;
+
+import java.util.TreeSet;
+
+/**
+ * Flow control and safe point tracking of a pipelined offer synchronization.
+ *
+ * Limits the number of offer log entries being synchronized and the number of bytes being transferred, and computes
+ * the highest offer log sequence before which every entry has been synchronized (or superseded by a later entry of the
+ * same file still to synchronize).
+ */
+class OfferSyncWindow {
+
+    private final int maxInFlightTasks;
+    private final long maxInFlightBytes;
+
+    private final TreeSet<Long> pendingSequences = new TreeSet<>();
+    private int inFlightTasks;
+    private long inFlightBytes;
+    private Long firstSequence;
+    private Long lastDispatchedSequence;
+    private Long safePoint;
+    private boolean failed;
+
+    private long synchronizedObjects;
+    private long synchronizedBytes;
+
+    /**
+     * @param maxInFlightTasks maximum number of offer log entries being synchronized
+     * @param maxInFlightBytes maximum number of bytes being transferred
+     * @param startOffset the offset the synchronization starts from (null if from scratch)
+     */
+    OfferSyncWindow(int maxInFlightTasks, long maxInFlightBytes, Long startOffset) {
+        this.maxInFlightTasks = maxInFlightTasks;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.firstSequence = startOffset;
+    }
+
+    /**
+     * Wait for a free task slot, then register the offer log entry as pending.
+     *
+     * @param sequence the offer log sequence
+     * @return false if a task has failed and no more tasks should be dispatched
+     */
+    synchronized boolean acquireTask(long sequence) throws InterruptedException {
+        while (inFlightTasks >= maxInFlightTasks && !failed) {
+            wait();
+        }
+        if (failed) {
+            return false;
+        }
+        if (firstSequence == null) {
+            firstSequence = sequence;
+        }
+        inFlightTasks++;
+        pendingSequences.add(sequence);
+        return true;
+    }
+
+    /**
+     * Record that all entries of a listing page, up to the given sequence, have been dispatched
+     */
+    synchronized void pageDispatched(long lastSequence) {
+        lastDispatchedSequence = lastSequence;
+        updateSafePoint();
+    }
+
+    /**
+     * Release the task slot of a successfully synchronized entry
+     */
+    synchronized void taskSucceeded(long sequence) {
+        pendingSequences.remove(sequence);
+        synchronizedObjects++;
+        inFlightTasks--;
+        updateSafePoint();
+        notifyAll();
+    }
+
+    /**
+     * Release the task slot of a failed entry. Its sequence is kept pending so that the safe point never goes past it.
+     */
+    synchronized void taskFailed() {
+        failed = true;
+        inFlightTasks--;
+        notifyAll();
+    }
+
+    /**
+     * Try to reserve bandwidth for a transfer without waiting
+     *
+     * @param size the size of the object to transfer
+     * @return true if the bytes have been reserved
+     */
+    synchronized boolean tryAcquireBytes(long size) {
+        long amount = getAmount(size);
+        // An object bigger than the budget is transferred alone
+        if (inFlightBytes > 0 && inFlightBytes + amount > maxInFlightBytes) {
+            return false;
+        }
+        inFlightBytes += amount;
+        return true;
+    }
+
+    /**
+     * Wait until bandwidth is available for a transfer
+     *
+     * @param size the size of the object to transfer
+     */
+    synchronized void acquireBytes(long size) throws InterruptedException {
+        while (!tryAcquireBytes(size)) {
+            wait();
+        }
+    }
+
+    /**
+     * Release the bandwidth reserved for a transfer
+     *
+     * @param size the size of the transferred object
+     * @param transferred true if the object has been transferred
+     */
+    synchronized void releaseBytes(long size, boolean transferred) {
+        inFlightBytes -= getAmount(size);
+        if (transferred) {
+            synchronizedBytes += size;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Wait until all dispatched tasks have completed
+     */
+    synchronized void awaitCompletion() throws InterruptedException {
+        while (inFlightTasks > 0) {
+            wait();
+        }
+    }
+
+    synchronized boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return the highest sequence up to which the offer log has been synchronized, null if none
+     */
+    synchronized Long getSafePoint() {
+        return safePoint;
+    }
+
+    synchronized long getSynchronizedObjects() {
+        return synchronizedObjects;
+    }
+
+    synchronized long getSynchronizedBytes() {
+        return synchronizedBytes;
+    }
+
+    private long getAmount(long size) {
+        return Math.min(Math.max(size, 0L), maxInFlightBytes);
+    }
+
+    private void updateSafePoint() {
+        Long candidate = pendingSequences.isEmpty() ? lastDispatchedSequence : Long.valueOf(pendingSequences.first() - 1);
+        if (candidate == null || firstSequence == null || candidate < firstSequence) {
+            // Nothing synchronized yet
+            return;
+        }
+        if (safePoint == null || candidate > safePoint) {
+            safePoint = candidate;
+        }
+    }
+}
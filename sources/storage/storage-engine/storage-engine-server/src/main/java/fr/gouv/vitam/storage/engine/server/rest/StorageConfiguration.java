@@ -27,6 +27,8 @@
 package fr.gouv.vitam.storage.engine.server.rest;
 
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
+import fr.gouv.vitam.storage.engine.server.distribution.impl.OfferReadPolicy;
+import fr.gouv.vitam.storage.engine.server.distribution.impl.bulk.BulkPutSpoolMode;
 
 public final class StorageConfiguration extends DefaultVitamApplicationConfiguration {
 
@@ -49,6 +51,16 @@ public final class StorageConfiguration extends DefaultVitamApplicationConfigura
     private int offerSyncNumberOfRetries = 3;
     private int offerSyncFirstAttemptWaitingTime = 15;
     private int offerSyncWaitingTime = 30;
+    private long offerSyncMaxInFlightBytes = 1024L * 1024L * 1024L;
+
+    private OfferReadPolicy offerReadPolicy = OfferReadPolicy.STRATEGY_ORDER;
+    private boolean hedgedReads = false;
+    private long hedgedReadMinDelay = 50L;
+    private long hedgedReadMaxDelay = 2000L;
+
+    private BulkPutSpoolMode bulkPutSpoolMode = BulkPutSpoolMode.PIPED;
+    private long bulkPutSpoolLagBudget = 1024L * 1024L * 1024L;
+    private long bulkPutSpoolMaxSize = 10L * 1024L * 1024L * 1024L;
 
     /**
      * StorageConfiguration empty constructor for YAMLFactory
@@ -254,4 +266,121 @@ public final class StorageConfiguration extends DefaultVitamApplicationConfigura
     public void setOfferSyncWaitingTime(int offerSyncWaitingTime) {
         this.offerSyncWaitingTime = offerSyncWaitingTime;
     }
+
+    /**
+     * @return the maximum number of bytes being transferred at the same time by offer synchronization
+     */
+    public long getOfferSyncMaxInFlightBytes() {
+        return offerSyncMaxInFlightBytes;
+    }
+
+    /**
+     * @param offerSyncMaxInFlightBytes the maximum number of bytes being transferred at the same time by offer
+     * synchronization
+     */
+    public void setOfferSyncMaxInFlightBytes(long offerSyncMaxInFlightBytes) {
+        this.offerSyncMaxInFlightBytes = offerSyncMaxInFlightBytes;
+    }
+
+    /**
+     * @return the order in which offers are read
+     */
+    public OfferReadPolicy getOfferReadPolicy() {
+        return offerReadPolicy;
+    }
+
+    /**
+     * @param offerReadPolicy the order in which offers are read
+     */
+    public void setOfferReadPolicy(OfferReadPolicy offerReadPolicy) {
+        this.offerReadPolicy = offerReadPolicy;
+    }
+
+    /**
+     * @return true if a hedged read is sent to the next offer when the current one is slow
+     */
+    public boolean isHedgedReads() {
+        return hedgedReads;
+    }
+
+    /**
+     * @param hedgedReads true if a hedged read is sent to the next offer when the current one is slow
+     */
+    public void setHedgedReads(boolean hedgedReads) {
+        this.hedgedReads = hedgedReads;
+    }
+
+    /**
+     * @return the minimum delay (in ms) before sending a hedged read
+     */
+    public long getHedgedReadMinDelay() {
+        return hedgedReadMinDelay;
+    }
+
+    /**
+     * @param hedgedReadMinDelay the minimum delay (in ms) before sending a hedged read
+     */
+    public void setHedgedReadMinDelay(long hedgedReadMinDelay) {
+        this.hedgedReadMinDelay = hedgedReadMinDelay;
+    }
+
+    /**
+     * @return the maximum delay (in ms) before sending a hedged read
+     */
+    public long getHedgedReadMaxDelay() {
+        return hedgedReadMaxDelay;
+    }
+
+    /**
+     * @param hedgedReadMaxDelay the maximum delay (in ms) before sending a hedged read
+     */
+    public void setHedgedReadMaxDelay(long hedgedReadMaxDelay) {
+        this.hedgedReadMaxDelay = hedgedReadMaxDelay;
+    }
+
+    /**
+     * @return how the workspace stream of a bulk put is shared between offers
+     */
+    public BulkPutSpoolMode getBulkPutSpoolMode() {
+        return bulkPutSpoolMode;
+    }
+
+    /**
+     * @param bulkPutSpoolMode how the workspace stream of a bulk put is shared between offers
+     */
+    public void setBulkPutSpoolMode(BulkPutSpoolMode bulkPutSpoolMode) {
+        this.bulkPutSpoolMode = bulkPutSpoolMode;
+    }
+
+    /**
+     * @return how far (in bytes) the fastest offer may get ahead of the slowest one when a bulk is spooled to local
+     * disk, i.e. the max size of the spool file of a bulk
+     */
+    public long getBulkPutSpoolLagBudget() {
+        return bulkPutSpoolLagBudget;
+    }
+
+    /**
+     * @param bulkPutSpoolLagBudget how far (in bytes) the fastest offer may get ahead of the slowest one when a bulk
+     * is spooled to local disk, i.e. the max size of the spool file of a bulk
+     */
+    public void setBulkPutSpoolLagBudget(long bulkPutSpoolLagBudget) {
+        this.bulkPutSpoolLagBudget = bulkPutSpoolLagBudget;
+    }
+
+    /**
+     * @return the max total size (in bytes) of the spool files of concurrent bulk puts. Bulks that do not fit are
+     * piped.
+     */
+    public long getBulkPutSpoolMaxSize() {
+        return bulkPutSpoolMaxSize;
+    }
+
+    /**
+     * @param bulkPutSpoolMaxSize the max total size (in bytes) of the spool files of concurrent bulk puts. Bulks that
+     * do not fit are piped.
+     */
+    public void setBulkPutSpoolMaxSize(long bulkPutSpoolMaxSize) {
+        this.bulkPutSpoolMaxSize = bulkPutSpoolMaxSize;
+    }
 }
@@ -28,68 +28,316 @@ package fr.gouv.vitam.storage.engine.server.storagelog;
 
 import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Uninterruptibles;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogStructure;
 
 /**
  * Storage log appender.
  *
- * Not thread-safe. Should not be invoked by multiple threads concurrently.
+ * Thread-safe. Entries are serialized by the appending threads, queued in a lock-free queue and written by a single
+ * background writer thread. The file is flushed once the queue is drained, or every {@code maxBatchSize} entries /
+ * {@code flushIntervalInMillis} under sustained load.
+ *
+ * {@link #flush()} and {@link #close()} are durability barriers : they return once all previously appended entries
+ * have been written and synced to disk.
  */
 public class StorageLogAppender implements VitamAutoCloseable {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(StorageLogAppender.class);
 
+    private static final String LINE_SEPARATOR = "\n";
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+    private static final long DEFAULT_FLUSH_INTERVAL_IN_MILLIS = 100L;
+    private static final int DEFAULT_MAX_QUEUE_SIZE = 100_000;
+    private static final long BACK_PRESSURE_WAIT_IN_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+
+    private final Path filePath;
+    private final FileChannel channel;
     private final Writer writer;
-    private final String lineSeparator = "\n";
+    private final Timer appendLatencyTimer;
+    private final int maxBatchSize;
+    private final long flushIntervalInNanos;
+    private final int maxQueueSize;
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger inFlightAppends = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Thread writerThread;
+    private volatile IOException writeFailure;
+
+    // Only accessed by the writer thread
+    private final List<Long> unflushedEnqueueTimes = new ArrayList<>();
+    private long lastFlushTime = System.nanoTime();
 
     public StorageLogAppender(Path filePath) throws IOException {
-        OutputStream outputStream = openStream(filePath);
-        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this(filePath, new Timer());
+    }
+
+    public StorageLogAppender(Path filePath, Timer appendLatencyTimer) throws IOException {
+        this(filePath, appendLatencyTimer, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_IN_MILLIS,
+            DEFAULT_MAX_QUEUE_SIZE);
     }
 
-    private OutputStream openStream(Path path) throws IOException {
+    @VisibleForTesting
+    StorageLogAppender(Path filePath, Timer appendLatencyTimer, int maxBatchSize, long flushIntervalInMillis,
+        int maxQueueSize) throws IOException {
+        this.filePath = filePath;
+        this.channel = openChannel(filePath);
+        this.writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+            StandardCharsets.UTF_8));
+        this.appendLatencyTimer = appendLatencyTimer;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalInNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalInMillis);
+        this.maxQueueSize = maxQueueSize;
+
+        this.writerThread = VitamThreadFactory.getInstance().newThread(this::runWriter);
+        this.writerThread.setName("storage-log-writer-" + filePath.getFileName());
+        this.writerThread.start();
+    }
+
+    private FileChannel openChannel(Path path) throws IOException {
         try {
-            return Files.newOutputStream(path, CREATE_NEW, APPEND);
+            return FileChannel.open(path, CREATE_NEW, WRITE, APPEND);
         } catch (IOException e) {
             throw new IOException(String.format("Cannot open storage log file %s", path.toFile().getAbsolutePath()), e);
         }
     }
 
     /**
-     * Append to the current log.
+     * Append to the current log. Entry is written asynchronously, see {@link #flush()} to wait for it to be written.
      *
      * @param parameters information to append to logFile
-     * @throws IOException
+     * @throws IOException if appender is closed or if a previous write failed
      */
     public void append(StorageLogStructure parameters) throws IOException {
-        writer.append(JsonHandler.unprettyPrint(parameters.getMapParameters()));
-        writer.append(lineSeparator);
-        writer.flush();
+        if (!tryAppend(parameters)) {
+            throw new IOException(String.format("Storage log file %s is closed", filePath));
+        }
     }
-    
-    @Override
-    public void close() {
+
+    /**
+     * Append to the current log, unless appender is closed.
+     *
+     * @param parameters information to append to logFile
+     * @return false if appender is closed and the entry has not been appended
+     * @throws IOException if a previous write failed
+     */
+    boolean tryAppend(StorageLogStructure parameters) throws IOException {
+        checkWriteFailure();
+        String line = JsonHandler.unprettyPrint(parameters.getMapParameters());
+
+        // Back pressure when the writer thread cannot keep up
+        while (queueDepth.get() >= maxQueueSize && !closed.get() && writeFailure == null) {
+            LockSupport.parkNanos(BACK_PRESSURE_WAIT_IN_NANOS);
+        }
+
+        return enqueue(new Entry(line, System.nanoTime(), null, false));
+    }
+
+    /**
+     * Durability barrier. Waits until all previously appended entries are written and synced to disk.
+     * No-op once appender is closed.
+     *
+     * @throws IOException if entries could not be written
+     */
+    public void flush() throws IOException {
+        Entry barrier = new Entry(null, System.nanoTime(), new CompletableFuture<>(), false);
+        if (enqueue(barrier)) {
+            awaitBarrier(barrier);
+        }
+    }
+
+    /**
+     * @return the number of entries waiting to be written
+     */
+    public int getQueueDepth() {
+        return Math.max(0, queueDepth.get());
+    }
+
+    /**
+     * @return the log file path
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    private boolean enqueue(Entry entry) {
+        inFlightAppends.incrementAndGet();
+        try {
+            if (closed.get()) {
+                return false;
+            }
+            queueDepth.incrementAndGet();
+            queue.offer(entry);
+        } finally {
+            inFlightAppends.decrementAndGet();
+        }
+        LockSupport.unpark(writerThread);
+        return true;
+    }
+
+    private void awaitBarrier(Entry barrier) throws IOException {
+        try {
+            Uninterruptibles.getUninterruptibly(barrier.barrier);
+        } catch (ExecutionException e) {
+            throw new IOException(String.format("Could not write storage log file %s", filePath), e.getCause());
+        }
+    }
+
+    private void checkWriteFailure() throws IOException {
+        if (writeFailure != null) {
+            throw new IOException(String.format("Could not write storage log file %s", filePath), writeFailure);
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            Entry entry = queue.poll();
+
+            if (entry == null) {
+                // Group flush once the queue is drained
+                flushWriter();
+                LockSupport.parkNanos(this, flushIntervalInNanos);
+                continue;
+            }
+            queueDepth.decrementAndGet();
+
+            if (entry.barrier != null) {
+                flushWriter();
+                syncWriter(entry.last);
+                if (writeFailure != null) {
+                    entry.barrier.completeExceptionally(writeFailure);
+                } else {
+                    entry.barrier.complete(null);
+                }
+                if (entry.last) {
+                    return;
+                }
+                continue;
+            }
+
+            writeEntry(entry);
+            if (unflushedEnqueueTimes.size() >= maxBatchSize ||
+                System.nanoTime() - lastFlushTime >= flushIntervalInNanos) {
+                flushWriter();
+            }
+        }
+    }
+
+    private void writeEntry(Entry entry) {
+        if (writeFailure != null) {
+            return;
+        }
         try {
-            if (writer != null) {
-                writer.flush();
+            writer.append(entry.line);
+            writer.append(LINE_SEPARATOR);
+            unflushedEnqueueTimes.add(entry.enqueueTime);
+        } catch (IOException e) {
+            onWriteFailure(e);
+        }
+    }
+
+    private void flushWriter() {
+        lastFlushTime = System.nanoTime();
+        if (unflushedEnqueueTimes.isEmpty() || writeFailure != null) {
+            return;
+        }
+        try {
+            writer.flush();
+            long now = System.nanoTime();
+            for (Long enqueueTime : unflushedEnqueueTimes) {
+                appendLatencyTimer.update(now - enqueueTime, TimeUnit.NANOSECONDS);
+            }
+            unflushedEnqueueTimes.clear();
+        } catch (IOException e) {
+            onWriteFailure(e);
+        }
+    }
+
+    private void syncWriter(boolean closeFile) {
+        try {
+            if (writeFailure == null) {
+                channel.force(false);
+            }
+            if (closeFile) {
                 writer.close();
             }
+        } catch (IOException e) {
+            onWriteFailure(e);
+        }
+    }
+
+    private void onWriteFailure(IOException e) {
+        LOGGER.error("Could not write storage log file " + filePath, e);
+        if (writeFailure == null) {
+            writeFailure = e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Wait for concurrent appends to be queued before the final barrier
+        while (inFlightAppends.get() != 0) {
+            Thread.yield();
+        }
+
+        Entry barrier = new Entry(null, System.nanoTime(), new CompletableFuture<>(), true);
+        queueDepth.incrementAndGet();
+        queue.offer(barrier);
+        LockSupport.unpark(writerThread);
+
+        try {
+            awaitBarrier(barrier);
         } catch (IOException ex) {
             LOGGER.warn("Could not close stream", ex);
         }
+        Uninterruptibles.joinUninterruptibly(writerThread);
+    }
+
+    private static final class Entry {
+        private final String line;
+        private final long enqueueTime;
+        private final CompletableFuture<Void> barrier;
+        private final boolean last;
+
+        private Entry(String line, long enqueueTime, CompletableFuture<Void> barrier, boolean last) {
+            this.line = line;
+            this.enqueueTime = enqueueTime;
+            this.barrier = barrier;
+            this.last = last;
+        }
     }
 }
@@ -1,10 +1,14 @@
 package fr.gouv.vitam.storage.engine.server.storagelog;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.metrics.VitamMetricRegistry;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.AccessLogParameters;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogStructure;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogbookParameters;
@@ -21,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -49,6 +54,8 @@ public class StorageLogFactory implements StorageLog {
     private final Map<Integer, StorageLogAppender> accessOperationLogAppenders;
     private final Map<Integer, Object> writeLockers;
     private final Map<Integer, Object> accessLockers;
+    private final Timer writeAppendLatencyTimer;
+    private final Timer accessAppendLatencyTimer;
 
     /**
      * Constructor.
@@ -64,11 +71,23 @@ public class StorageLogFactory implements StorageLog {
         this.writeOperationLogPath = createStoragePathDirectory(basePath, true);
         this.accessOperationLogPath = createStoragePathDirectory(basePath, false);
 
-        this.writeOperationLogAppenders = new HashMap<>();
-        this.accessOperationLogAppenders = new HashMap<>();
+        this.writeOperationLogAppenders = new ConcurrentHashMap<>();
+        this.accessOperationLogAppenders = new ConcurrentHashMap<>();
         this.writeLockers = new HashMap<>();
         this.accessLockers = new HashMap<>();
+
+        VitamMetricRegistry registry = CommonBusinessApplication.getBusinessMetricsRegistry();
+        this.writeAppendLatencyTimer = registry.timer("Storage write log append latency");
+        this.accessAppendLatencyTimer = registry.timer("Storage access log append latency");
+
         initializeStorageLogs();
+
+        for (Integer tenant : tenants) {
+            registry.register("Storage write log queue depth - tenant " + tenant,
+                (Gauge<Integer>) () -> writeOperationLogAppenders.get(tenant).getQueueDepth());
+            registry.register("Storage access log queue depth - tenant " + tenant,
+                (Gauge<Integer>) () -> accessOperationLogAppenders.get(tenant).getQueueDepth());
+        }
     }
 
     /**
@@ -144,7 +163,8 @@ public class StorageLogFactory implements StorageLog {
         } else {
             appenderPath = this.accessOperationLogPath.resolve(file_name);
         }
-        return new StorageLogAppender(appenderPath);
+        return new StorageLogAppender(appenderPath,
+            isWriteOperation ? writeAppendLatencyTimer : accessAppendLatencyTimer);
     }
 
     @Override
@@ -159,35 +179,38 @@ public class StorageLogFactory implements StorageLog {
 
     private void append(Integer tenant, StorageLogStructure parameters, Boolean isWriteOperation) throws IOException {
 
-        if (isWriteOperation) {
-            synchronized (writeLockers.get(tenant)) {
-                writeOperationLogAppenders.get(tenant).append(parameters);
-            }
-        } else {
-            synchronized (accessLockers.get(tenant)) {
-                accessOperationLogAppenders.get(tenant).append(parameters);
+        Map<Integer, StorageLogAppender> appenders =
+            isWriteOperation ? writeOperationLogAppenders : accessOperationLogAppenders;
+
+        // Lock-free : an appender closed by a concurrent rotation rejects the entry, which is then appended to the
+        // new appender (registered before the previous one is closed)
+        StorageLogAppender appender = appenders.get(tenant);
+        while (!appender.tryAppend(parameters)) {
+            StorageLogAppender nextAppender = appenders.get(tenant);
+            if (nextAppender == appender) {
+                throw new IOException("Storage log is closed for tenant " + tenant);
             }
+            appender = nextAppender;
         }
     }
 
     @Override
     public List<LogInformation> rotateLogFile(Integer tenant, boolean isWriteOperation) throws IOException {
 
-        if (isWriteOperation) {
-            synchronized (writeLockers.get(tenant)) {
-                writeOperationLogAppenders.get(tenant).close();
-                List<LogInformation> storageLogToBackup = listStorageLogsToBackup(tenant, isWriteOperation);
-                writeOperationLogAppenders.put(tenant, createAppender(tenant, isWriteOperation));
-                return storageLogToBackup;
-            }
+        Map<Integer, StorageLogAppender> appenders =
+            isWriteOperation ? writeOperationLogAppenders : accessOperationLogAppenders;
+        Object locker = isWriteOperation ? writeLockers.get(tenant) : accessLockers.get(tenant);
 
-        } else {
-            synchronized (accessLockers.get(tenant)) {
-                accessOperationLogAppenders.get(tenant).close();
-                List<LogInformation> storageLogToBackup = listStorageLogsToBackup(tenant, isWriteOperation);
-                accessOperationLogAppenders.put(tenant, createAppender(tenant, isWriteOperation));
-                return storageLogToBackup;
-            }
+        synchronized (locker) {
+            StorageLogAppender newAppender = createAppender(tenant, isWriteOperation);
+            StorageLogAppender previousAppender = appenders.put(tenant, newAppender);
+
+            // Durability barrier : every entry of the previous log file is written and synced before backup
+            previousAppender.close();
+
+            List<LogInformation> storageLogToBackup = listStorageLogsToBackup(tenant, isWriteOperation);
+            storageLogToBackup.removeIf(logInformation -> logInformation.getPath().equals(newAppender.getFilePath()));
+            return storageLogToBackup;
         }
     }
 
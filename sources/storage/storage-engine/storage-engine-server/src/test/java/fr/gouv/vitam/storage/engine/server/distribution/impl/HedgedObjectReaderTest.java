@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.engine.server.distribution.impl;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
+import fr.gouv.vitam.storage.driver.exception.StorageDriverNotFoundException;
+import fr.gouv.vitam.storage.driver.model.StorageGetResult;
+import fr.gouv.vitam.storage.engine.common.exception.StorageException;
+import fr.gouv.vitam.storage.engine.common.exception.StorageNotFoundException;
+import fr.gouv.vitam.storage.engine.common.exception.StorageTechnicalException;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static fr.gouv.vitam.storage.engine.server.distribution.impl.OfferReadSelectorTest.offers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class HedgedObjectReaderTest {
+
+    private static final String OBJECT_ID = "objectId";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> readOffers = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void should_read_first_offer_only_when_fast() throws Exception {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(1000L));
+        Response response = mock(Response.class);
+
+        // When
+        StorageGetResult result = reader.read(OBJECT_ID, offers("offer1", "offer2"), offer -> {
+            readOffers.add(offer.getId());
+            return new StorageGetResult(0, "object", OBJECT_ID, response);
+        });
+
+        // Then
+        assertThat(result.getObject()).isSameAs(response);
+        assertThat(readOffers).containsExactly("offer1");
+        verify(response, never()).close();
+    }
+
+    @Test
+    public void should_send_hedged_read_and_close_slow_offer_response() throws Exception {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(50L));
+        Response slowResponse = mock(Response.class);
+        Response fastResponse = mock(Response.class);
+        CountDownLatch releaseSlowOffer = new CountDownLatch(1);
+
+        // When
+        StorageGetResult result = reader.read(OBJECT_ID, offers("offer1", "offer2"), offer -> {
+            readOffers.add(offer.getId());
+            if ("offer1".equals(offer.getId())) {
+                // A driver call not reacting to interruption
+                Uninterruptibles.awaitUninterruptibly(releaseSlowOffer);
+                return new StorageGetResult(0, "object", OBJECT_ID, slowResponse);
+            }
+            return new StorageGetResult(0, "object", OBJECT_ID, fastResponse);
+        });
+        releaseSlowOffer.countDown();
+
+        // Then
+        assertThat(result.getObject()).isSameAs(fastResponse);
+        assertThat(readOffers).containsExactly("offer1", "offer2");
+        verify(slowResponse, timeout(5000)).close();
+        verify(fastResponse, never()).close();
+    }
+
+    @Test
+    public void should_failover_without_waiting_hedge_delay() throws Exception {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(60_000L));
+        Response response = mock(Response.class);
+        StopWatch stopWatch = StopWatch.createStarted();
+
+        // When
+        StorageGetResult result = reader.read(OBJECT_ID, offers("offer1", "offer2"), offer -> {
+            readOffers.add(offer.getId());
+            if ("offer1".equals(offer.getId())) {
+                throw new StorageDriverException("offer1", "unavailable", true);
+            }
+            return new StorageGetResult(0, "object", OBJECT_ID, response);
+        });
+
+        // Then
+        assertThat(result.getObject()).isSameAs(response);
+        assertThat(readOffers).containsExactly("offer1", "offer2");
+        assertThat(stopWatch.getTime(TimeUnit.MILLISECONDS)).isLessThan(30_000L);
+    }
+
+    @Test
+    public void should_wait_hedged_read_when_primary_read_fails() throws Exception {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(50L));
+        Response response = mock(Response.class);
+        CountDownLatch hedgedReadStarted = new CountDownLatch(1);
+
+        // When
+        StorageGetResult result = reader.read(OBJECT_ID, offers("offer1", "offer2", "offer3"), offer -> {
+            readOffers.add(offer.getId());
+            if ("offer1".equals(offer.getId())) {
+                Uninterruptibles.awaitUninterruptibly(hedgedReadStarted);
+                throw new StorageException("offer1 driver misconfigured");
+            }
+            hedgedReadStarted.countDown();
+            // Hedged read still in flight when the primary read fails
+            Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+            return new StorageGetResult(0, "object", OBJECT_ID, response);
+        });
+
+        // Then
+        assertThat(result.getObject()).isSameAs(response);
+        assertThat(readOffers).containsExactly("offer1", "offer2");
+        verify(response, never()).close();
+    }
+
+    @Test
+    public void should_raise_primary_read_error_when_hedged_read_fails_too() {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(50L));
+        CountDownLatch hedgedReadStarted = new CountDownLatch(1);
+
+        // When / Then
+        assertThatThrownBy(() -> reader.read(OBJECT_ID, offers("offer1", "offer2", "offer3"), offer -> {
+            readOffers.add(offer.getId());
+            if ("offer1".equals(offer.getId())) {
+                Uninterruptibles.awaitUninterruptibly(hedgedReadStarted);
+                throw new StorageException("offer1 driver misconfigured");
+            }
+            hedgedReadStarted.countDown();
+            Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+            throw new StorageDriverException(offer.getId(), "unavailable", true);
+        })).isInstanceOf(StorageException.class).hasMessage("offer1 driver misconfigured");
+        // No failover to the next offer once a driver is misconfigured
+        assertThat(readOffers).containsExactly("offer1", "offer2");
+    }
+
+    @Test
+    public void should_raise_not_found_when_object_missing_on_all_offers() {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(10L));
+
+        // When / Then
+        assertThatThrownBy(() -> reader.read(OBJECT_ID, offers("offer1", "offer2"), offer -> {
+            if ("offer1".equals(offer.getId())) {
+                throw new StorageDriverNotFoundException("offer1", "not found");
+            }
+            throw new StorageDriverException("offer2", "unavailable", true);
+        })).isInstanceOf(StorageNotFoundException.class);
+    }
+
+    @Test
+    public void should_raise_technical_error_when_all_offers_fail() {
+        // Given
+        HedgedObjectReader reader = new HedgedObjectReader(executor, selector(10L));
+
+        // When / Then
+        assertThatThrownBy(() -> reader.read(OBJECT_ID, offers("offer1", "offer2", "offer3"), offer -> {
+            throw new StorageDriverException(offer.getId(), "unavailable", true);
+        })).isInstanceOf(StorageTechnicalException.class);
+    }
+
+    private static OfferReadSelector selector(long hedgeDelay) {
+        return new OfferReadSelector(OfferReadPolicy.STRATEGY_ORDER, true, hedgeDelay, hedgeDelay);
+    }
+}
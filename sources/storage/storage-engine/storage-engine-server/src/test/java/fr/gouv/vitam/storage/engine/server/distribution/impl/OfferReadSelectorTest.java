@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.engine.server.distribution.impl;
+
+import fr.gouv.vitam.storage.engine.common.referential.model.StorageOffer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OfferReadSelectorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    public void should_keep_strategy_order_by_default() {
+        // Given
+        OfferReadSelector selector = OfferReadSelector.strategyOrder();
+        selector.recordSuccess("offer1", 1000L);
+        selector.recordSuccess("offer2", 10L);
+
+        // When
+        List<StorageOffer> ordered = selector.order(offers("offer1", "offer2"));
+
+        // Then
+        assertThat(ordered).extracting(StorageOffer::getId).containsExactly("offer1", "offer2");
+        assertThat(selector.isHedgedReads()).isFalse();
+    }
+
+    @Test
+    public void should_read_fastest_offer_first_when_latency_aware() {
+        // Given
+        OfferReadSelector selector = new OfferReadSelector(OfferReadPolicy.LATENCY_AWARE, false, 0L, 1000L,
+            clock::get);
+        selector.recordSuccess("offer1", 800L);
+        selector.recordSuccess("offer2", 100L);
+        selector.recordSuccess("offer3", 300L);
+
+        // When
+        List<StorageOffer> ordered = selector.order(offers("offer1", "offer2", "offer3"));
+
+        // Then
+        assertThat(ordered).extracting(StorageOffer::getId).containsExactly("offer2", "offer3", "offer1");
+    }
+
+    @Test
+    public void should_demote_failing_offer_when_latency_aware() {
+        // Given
+        OfferReadSelector selector = new OfferReadSelector(OfferReadPolicy.LATENCY_AWARE, false, 0L, 1000L,
+            clock::get);
+        selector.recordSuccess("offer1", 100L);
+        selector.recordFailure("offer1", 100L);
+        selector.recordSuccess("offer2", 110L);
+
+        // When
+        List<StorageOffer> ordered = selector.order(offers("offer1", "offer2"));
+
+        // Then
+        assertThat(selector.getErrorRate("offer1")).isEqualTo(0.2);
+        assertThat(ordered).extracting(StorageOffer::getId).containsExactly("offer2", "offer1");
+    }
+
+    @Test
+    public void should_probe_offers_with_expired_statistics() {
+        // Given
+        OfferReadSelector selector = new OfferReadSelector(OfferReadPolicy.LATENCY_AWARE, false, 0L, 1000L,
+            clock::get);
+        selector.recordFailure("offer1", 100L);
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(4));
+        selector.recordSuccess("offer2", 100L);
+        assertThat(selector.order(offers("offer1", "offer2"))).extracting(StorageOffer::getId)
+            .containsExactly("offer2", "offer1");
+
+        // When
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(2));
+
+        // Then
+        assertThat(selector.order(offers("offer1", "offer2"))).extracting(StorageOffer::getId)
+            .containsExactly("offer1", "offer2");
+    }
+
+    @Test
+    public void should_compute_hedge_delay_from_latency_percentile() {
+        // Given
+        OfferReadSelector selector = new OfferReadSelector(OfferReadPolicy.STRATEGY_ORDER, true, 10L, 500L,
+            clock::get);
+        for (int i = 1; i <= 100; i++) {
+            selector.recordSuccess("offer1", i);
+            selector.recordSuccess("offer2", i * 100L);
+        }
+
+        // When / Then
+        assertThat(selector.getHedgeDelay("offer1")).isEqualTo(95L);
+        // Bounded by configuration
+        assertThat(selector.getHedgeDelay("offer2")).isEqualTo(500L);
+        assertThat(selector.getHedgeDelay("unknownOffer")).isEqualTo(500L);
+    }
+
+    @Test
+    public void should_bound_hedge_delay_by_min_delay() {
+        // Given
+        OfferReadSelector selector = new OfferReadSelector(OfferReadPolicy.STRATEGY_ORDER, true, 10L, 500L,
+            clock::get);
+        selector.recordSuccess("offer1", 1L);
+
+        // When / Then
+        assertThat(selector.getHedgeDelay("offer1")).isEqualTo(10L);
+    }
+
+    static List<StorageOffer> offers(String... offerIds) {
+        return Arrays.stream(offerIds).map(offerId -> {
+            StorageOffer offer = new StorageOffer();
+            offer.setId(offerId);
+            return offer;
+        }).collect(Collectors.toList());
+    }
+}
@@ -1,7 +1,9 @@
 package fr.gouv.vitam.storage.engine.server.distribution.impl.bulk;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.alert.AlertService;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
@@ -16,6 +18,7 @@ import fr.gouv.vitam.storage.driver.Connection;
 import fr.gouv.vitam.storage.driver.Driver;
 import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
 import fr.gouv.vitam.storage.driver.exception.StorageDriverPreconditionFailedException;
+import fr.gouv.vitam.storage.driver.model.StorageBulkPutRequest;
 import fr.gouv.vitam.storage.driver.model.StorageBulkPutResult;
 import fr.gouv.vitam.storage.driver.model.StorageBulkPutResultEntry;
 import fr.gouv.vitam.storage.engine.common.model.DataCategory;
@@ -26,8 +29,10 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerExce
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -43,10 +48,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +67,8 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class BulkPutTransferManagerTest {
 
@@ -493,6 +504,297 @@ public class BulkPutTransferManagerTest {
         ));
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void bulkSendDataToOffersWithLocalFileSpoolSlowOfferDoesNotThrottleOthers() throws Exception {
+
+        // Given
+        File spoolDirectory = folder.newFolder();
+        MetricRegistry metricRegistry = new MetricRegistry();
+        BulkPutTransferManager spoolingBulkPutTransferManager = new BulkPutTransferManager(workspaceClientFactory,
+            digestType, alertService, executor, transfertTimeoutHelper, BulkPutSpoolMode.LOCAL_FILE,
+            1024L * 1024L, 1024L * 1024L * 1024L, spoolDirectory, metricRegistry);
+
+        List<String> offerIds = Arrays.asList("offer1", "offer2");
+
+        Map<String, StorageOffer> storageOfferMap = ImmutableMap.of(
+            "offer1", mock(StorageOffer.class),
+            "offer2", mock(StorageOffer.class));
+
+        Map<String, Driver> driverMap = ImmutableMap.of(
+            "offer1", driver1,
+            "offer2", driver2);
+
+        List<String> workspaceObjectURIs = Arrays.asList("uri1", "uri2", "uri3");
+        List<String> objectIds = Arrays.asList("obj1", "obj2", "obj3");
+
+        File file1 = PropertiesUtils.getResourceFile("file1.txt");
+        File file2 = PropertiesUtils.getResourceFile("file2.txt");
+        File file3 = PropertiesUtils.getResourceFile("file3.txt");
+
+        doReturn(getMultiplexedStream(file1, file2, file3))
+            .when(workspaceClient).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+
+        StorageBulkPutResult storageBulkPutResult = new StorageBulkPutResult(Arrays.asList(
+            new StorageBulkPutResultEntry("obj1", getFileDigest(file1), file1.length()),
+            new StorageBulkPutResultEntry("obj2", getFileDigest(file2), file1.length()),
+            new StorageBulkPutResultEntry("obj3", getFileDigest(file3), file2.length())
+        ));
+
+        // Offer 2 only starts reading once offer 1 has fully read its stream
+        CountDownLatch offer1Done = new CountDownLatch(1);
+        doAnswer(args -> {
+            StorageBulkPutRequest request = args.getArgument(0);
+            IOUtils.copy(request.getDataStream(), new NullOutputStream());
+            offer1Done.countDown();
+            return storageBulkPutResult;
+        }).when(connection1).bulkPutObjects(any());
+        doAnswer(args -> {
+            assertThat(offer1Done.await(10, TimeUnit.SECONDS)).isTrue();
+            StorageBulkPutRequest request = args.getArgument(0);
+            IOUtils.copy(request.getDataStream(), new NullOutputStream());
+            return storageBulkPutResult;
+        }).when(connection2).bulkPutObjects(any());
+
+        // When
+        BulkPutResult bulkPutResult = spoolingBulkPutTransferManager.bulkSendDataToOffers(WORKSPACE_CONTAINER,
+            TENANT_ID, DATA_CATEGORY, offerIds, driverMap, storageOfferMap, workspaceObjectURIs, objectIds);
+
+        // Then
+        assertThat(bulkPutResult.getObjectInfos()).hasSize(3);
+        assertThat(bulkPutResult.getObjectInfos().get(0).getDigest()).isEqualTo(getFileDigest(file1));
+        assertThat(bulkPutResult.getStatusByOfferIds()).isEqualTo(ImmutableMap.of(
+            "offer1", OfferBulkPutStatus.OK,
+            "offer2", OfferBulkPutStatus.OK
+        ));
+        verify(workspaceClient, times(1)).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+        assertThat(spoolDirectory.list()).isEmpty();
+        assertThat(spoolingBulkPutTransferManager.getReservedSpoolSize()).isZero();
+
+        assertThat(metricRegistry.meter("Storage bulk put bytes - offer offer1").getCount()).isPositive();
+        assertThat(metricRegistry.meter("Storage bulk put bytes - offer offer2").getCount()).isPositive();
+        assertThat(metricRegistry.timer("Storage bulk put duration - offer offer1").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("Storage bulk put duration - offer offer2").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void bulkSendDataToOffersWithLocalFileSpoolLargerThanLagBudgetIsStreamedThroughCircularSpool()
+        throws Exception {
+
+        // Given : a bulk much larger than the spool (lag budget rounded up to a single chunk)
+        File spoolDirectory = folder.newFolder();
+        BulkPutTransferManager spoolingBulkPutTransferManager = new BulkPutTransferManager(workspaceClientFactory,
+            digestType, alertService, executor, transfertTimeoutHelper, BulkPutSpoolMode.LOCAL_FILE,
+            1L, 1024L * 1024L * 1024L, spoolDirectory, new MetricRegistry());
+
+        List<String> offerIds = Arrays.asList("offer1", "offer2");
+
+        Map<String, StorageOffer> storageOfferMap = ImmutableMap.of(
+            "offer1", mock(StorageOffer.class),
+            "offer2", mock(StorageOffer.class));
+
+        Map<String, Driver> driverMap = ImmutableMap.of(
+            "offer1", driver1,
+            "offer2", driver2);
+
+        List<String> workspaceObjectURIs = Arrays.asList("uri1", "uri2");
+        List<String> objectIds = Arrays.asList("obj1", "obj2");
+
+        File file1 = folder.newFile();
+        File file2 = folder.newFile();
+        byte[] data = new byte[VitamConfiguration.getChunkSize() * 5 + 123];
+        new Random(1L).nextBytes(data);
+        FileUtils.writeByteArrayToFile(file1, data);
+        FileUtils.writeByteArrayToFile(file2, data, 0, data.length / 2);
+
+        doReturn(getMultiplexedStream(file1, file2))
+            .when(workspaceClient).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+
+        StorageBulkPutResult storageBulkPutResult = new StorageBulkPutResult(Arrays.asList(
+            new StorageBulkPutResultEntry("obj1", getFileDigest(file1), file1.length()),
+            new StorageBulkPutResultEntry("obj2", getFileDigest(file2), file2.length())
+        ));
+
+        Map<String, String> readDigests = new ConcurrentHashMap<>();
+        doAnswer(args -> {
+            StorageBulkPutRequest request = args.getArgument(0);
+            readDigests.put("offer1", digest(request.getDataStream()));
+            return storageBulkPutResult;
+        }).when(connection1).bulkPutObjects(any());
+        doAnswer(args -> {
+            StorageBulkPutRequest request = args.getArgument(0);
+            readDigests.put("offer2", digest(request.getDataStream()));
+            return storageBulkPutResult;
+        }).when(connection2).bulkPutObjects(any());
+
+        // When
+        BulkPutResult bulkPutResult = spoolingBulkPutTransferManager.bulkSendDataToOffers(WORKSPACE_CONTAINER,
+            TENANT_ID, DATA_CATEGORY, offerIds, driverMap, storageOfferMap, workspaceObjectURIs, objectIds);
+
+        // Then
+        assertThat(bulkPutResult.getObjectInfos()).hasSize(2);
+        assertThat(bulkPutResult.getObjectInfos().get(0).getDigest()).isEqualTo(getFileDigest(file1));
+        assertThat(bulkPutResult.getObjectInfos().get(1).getDigest()).isEqualTo(getFileDigest(file2));
+        assertThat(bulkPutResult.getStatusByOfferIds()).isEqualTo(ImmutableMap.of(
+            "offer1", OfferBulkPutStatus.OK,
+            "offer2", OfferBulkPutStatus.OK
+        ));
+        assertThat(readDigests.get("offer2")).isEqualTo(readDigests.get("offer1"));
+        assertThat(readDigests.get("offer1")).isNotNull();
+        verify(workspaceClient, times(1)).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+        assertThat(spoolDirectory.list()).isEmpty();
+        assertThat(spoolingBulkPutTransferManager.getReservedSpoolSize()).isZero();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void bulkSendDataToOffersWithLocalFileSpoolExceedingSpoolMaxSizeFallsBackToPipedStreams()
+        throws Exception {
+
+        // Given
+        File spoolDirectory = new File(folder.getRoot(), "spool");
+        BulkPutTransferManager spoolingBulkPutTransferManager = new BulkPutTransferManager(workspaceClientFactory,
+            digestType, alertService, executor, transfertTimeoutHelper, BulkPutSpoolMode.LOCAL_FILE,
+            1024L * 1024L, 1L, spoolDirectory, new MetricRegistry());
+
+        List<String> offerIds = Arrays.asList("offer1", "offer2");
+
+        Map<String, StorageOffer> storageOfferMap = ImmutableMap.of(
+            "offer1", mock(StorageOffer.class),
+            "offer2", mock(StorageOffer.class));
+
+        Map<String, Driver> driverMap = ImmutableMap.of(
+            "offer1", driver1,
+            "offer2", driver2);
+
+        List<String> workspaceObjectURIs = Arrays.asList("uri1", "uri2", "uri3");
+        List<String> objectIds = Arrays.asList("obj1", "obj2", "obj3");
+
+        File file1 = PropertiesUtils.getResourceFile("file1.txt");
+        File file2 = PropertiesUtils.getResourceFile("file2.txt");
+        File file3 = PropertiesUtils.getResourceFile("file3.txt");
+
+        doReturn(getMultiplexedStream(file1, file2, file3))
+            .when(workspaceClient).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+
+        StorageBulkPutResult storageBulkPutResult = new StorageBulkPutResult(Arrays.asList(
+            new StorageBulkPutResultEntry("obj1", getFileDigest(file1), file1.length()),
+            new StorageBulkPutResultEntry("obj2", getFileDigest(file2), file1.length()),
+            new StorageBulkPutResultEntry("obj3", getFileDigest(file3), file2.length())
+        ));
+        doReturn(storageBulkPutResult).when(connection1).bulkPutObjects(any());
+        doReturn(storageBulkPutResult).when(connection2).bulkPutObjects(any());
+
+        // When
+        BulkPutResult bulkPutResult = spoolingBulkPutTransferManager.bulkSendDataToOffers(WORKSPACE_CONTAINER,
+            TENANT_ID, DATA_CATEGORY, offerIds, driverMap, storageOfferMap, workspaceObjectURIs, objectIds);
+
+        // Then
+        assertThat(bulkPutResult.getStatusByOfferIds()).isEqualTo(ImmutableMap.of(
+            "offer1", OfferBulkPutStatus.OK,
+            "offer2", OfferBulkPutStatus.OK
+        ));
+        assertThat(spoolDirectory).doesNotExist();
+        assertThat(spoolingBulkPutTransferManager.getReservedSpoolSize()).isZero();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void bulkSendDataToOffersWithLocalFileSpoolKoBrokenWorkspaceStream() throws Exception {
+
+        // Given
+        File spoolDirectory = folder.newFolder();
+        BulkPutTransferManager spoolingBulkPutTransferManager = new BulkPutTransferManager(workspaceClientFactory,
+            digestType, alertService, executor, transfertTimeoutHelper, BulkPutSpoolMode.LOCAL_FILE,
+            1024L * 1024L, 1024L * 1024L * 1024L, spoolDirectory, new MetricRegistry());
+
+        List<String> offerIds = Arrays.asList("offer1", "offer2");
+
+        Map<String, StorageOffer> storageOfferMap = ImmutableMap.of(
+            "offer1", mock(StorageOffer.class),
+            "offer2", mock(StorageOffer.class));
+
+        Map<String, Driver> driverMap = ImmutableMap.of(
+            "offer1", driver1,
+            "offer2", driver2);
+
+        List<String> workspaceObjectURIs = Arrays.asList("uri1", "uri2", "uri3");
+        List<String> objectIds = Arrays.asList("obj1", "obj2", "obj3");
+
+        File file1 = PropertiesUtils.getResourceFile("file1.txt");
+        File file2 = PropertiesUtils.getResourceFile("file2.txt");
+        File file3 = PropertiesUtils.getResourceFile("file3.txt");
+
+        doReturn(getBrokenMultiplexedStream(file1, file2, file3))
+            .when(workspaceClient).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+
+        // When
+        BulkPutResult bulkPutResult = spoolingBulkPutTransferManager.bulkSendDataToOffers(WORKSPACE_CONTAINER,
+            TENANT_ID, DATA_CATEGORY, offerIds, driverMap, storageOfferMap, workspaceObjectURIs, objectIds);
+
+        // Then
+        assertThat(bulkPutResult.getObjectInfos()).isNull();
+        assertThat(bulkPutResult.getStatusByOfferIds()).isEqualTo(ImmutableMap.of(
+            "offer1", OfferBulkPutStatus.KO,
+            "offer2", OfferBulkPutStatus.KO
+        ));
+        assertThat(spoolDirectory.list()).isEmpty();
+        assertThat(spoolingBulkPutTransferManager.getReservedSpoolSize()).isZero();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void bulkSendDataToOffersWithWorkspacePerOfferSpool() throws Exception {
+
+        // Given
+        BulkPutTransferManager spoolingBulkPutTransferManager = new BulkPutTransferManager(workspaceClientFactory,
+            digestType, alertService, executor, transfertTimeoutHelper, BulkPutSpoolMode.WORKSPACE_PER_OFFER,
+            0L, 0L, null, new MetricRegistry());
+
+        List<String> offerIds = Arrays.asList("offer1", "offer2");
+
+        Map<String, StorageOffer> storageOfferMap = ImmutableMap.of(
+            "offer1", mock(StorageOffer.class),
+            "offer2", mock(StorageOffer.class));
+
+        Map<String, Driver> driverMap = ImmutableMap.of(
+            "offer1", driver1,
+            "offer2", driver2);
+
+        List<String> workspaceObjectURIs = Arrays.asList("uri1", "uri2", "uri3");
+        List<String> objectIds = Arrays.asList("obj1", "obj2", "obj3");
+
+        File file1 = PropertiesUtils.getResourceFile("file1.txt");
+        File file2 = PropertiesUtils.getResourceFile("file2.txt");
+        File file3 = PropertiesUtils.getResourceFile("file3.txt");
+
+        doAnswer(args -> getMultiplexedStream(file1, file2, file3))
+            .when(workspaceClient).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+
+        StorageBulkPutResult storageBulkPutResult = new StorageBulkPutResult(Arrays.asList(
+            new StorageBulkPutResultEntry("obj1", getFileDigest(file1), file1.length()),
+            new StorageBulkPutResultEntry("obj2", getFileDigest(file2), file1.length()),
+            new StorageBulkPutResultEntry("obj3", getFileDigest(file3), file2.length())
+        ));
+        doReturn(storageBulkPutResult).when(connection1).bulkPutObjects(any());
+        doReturn(storageBulkPutResult).when(connection2).bulkPutObjects(any());
+
+        // When
+        BulkPutResult bulkPutResult = spoolingBulkPutTransferManager.bulkSendDataToOffers(WORKSPACE_CONTAINER,
+            TENANT_ID, DATA_CATEGORY, offerIds, driverMap, storageOfferMap, workspaceObjectURIs, objectIds);
+
+        // Then
+        assertThat(bulkPutResult.getObjectInfos()).hasSize(3);
+        assertThat(bulkPutResult.getObjectInfos().get(2).getDigest()).isEqualTo(getFileDigest(file3));
+        assertThat(bulkPutResult.getStatusByOfferIds()).isEqualTo(ImmutableMap.of(
+            "offer1", OfferBulkPutStatus.OK,
+            "offer2", OfferBulkPutStatus.OK
+        ));
+        // 1 workspace read per offer + 1 for digest computation
+        verify(workspaceClient, times(3)).bulkGetObjects(WORKSPACE_CONTAINER, workspaceObjectURIs);
+    }
+
     private Response getMultiplexedStream(File... files) throws IOException {
 
         byte[] multiplexedStreamBody = getMultiplexedStreamBody(files);
@@ -527,4 +829,8 @@ public class BulkPutTransferManagerTest {
     private String getFileDigest(File file) throws IOException {
         return new Digest(this.digestType).update(file).digestHex();
     }
+
+    private String digest(InputStream inputStream) throws IOException {
+        return new Digest(this.digestType).update(inputStream).digestHex();
+    }
 }
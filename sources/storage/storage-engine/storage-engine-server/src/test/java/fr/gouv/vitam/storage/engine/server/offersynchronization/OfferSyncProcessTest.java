@@ -3,10 +3,12 @@ package fr.gouv.vitam.storage.engine.server.offersynchronization;
 import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.server.application.VitamHttpHeader;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutor;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutorRule;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
+import fr.gouv.vitam.storage.engine.common.exception.StorageException;
 import fr.gouv.vitam.storage.engine.common.exception.StorageNotFoundException;
 import fr.gouv.vitam.storage.engine.common.model.DataCategory;
 import fr.gouv.vitam.storage.engine.common.model.OfferLog;
@@ -36,6 +38,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -97,7 +100,7 @@ public class OfferSyncProcessTest {
             if (data == null) {
                 throw new StorageNotFoundException("not found");
             }
-            return Response.ok(data).build();
+            return Response.ok(data).header(VitamHttpHeader.X_CONTENT_LENGTH.getName(), data.length).build();
 
         }).when(distribution).getContainerByCategory(eq(VitamConfiguration.getDefaultStrategy()), anyString(), eq(DATA_CATEGORY), eq(SOURCE));
 
@@ -199,6 +202,53 @@ public class OfferSyncProcessTest {
         verify(distribution, times(2)).deleteObjectInOffers(any(), any(), any());
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void synchronizeShouldReportThroughput() throws Exception {
+
+        // Given
+        givenDataSetInSourceOffer();
+
+        OfferSyncProcess instance = new OfferSyncProcess(restoreOfferBackupService,
+            distribution, 10, 4, 1, 1, 1, 10L);
+
+        // When
+        instance.synchronize(SOURCE, TARGET, VitamConfiguration.getDefaultStrategy(), DATA_CATEGORY, null);
+
+        // Then
+        assertThat(targetDataFiles).isEqualTo(sourceDataFiles);
+        verifySynchronizationStatus(instance, null, 12L);
+
+        // 7 entries after deduplication, copied : file2 (8 bytes), file3 (5), file4 (8), file6 (5)
+        assertThat(instance.getOfferSyncStatus().getSynchronizedObjects()).isEqualTo(7L);
+        assertThat(instance.getOfferSyncStatus().getSynchronizedBytes()).isEqualTo(26L);
+        assertThat(instance.getOfferSyncStatus().getObjectsPerSecond()).isPositive();
+        assertThat(instance.getOfferSyncStatus().getMegaBytesPerSecond()).isPositive();
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void synchronizeShouldNotMoveSafePointPastFailedEntry() throws Exception {
+
+        // Given
+        givenDataSetInSourceOffer();
+
+        doThrow(new StorageException("KO")).when(distribution)
+            .storeDataInOffers(eq(VitamConfiguration.getDefaultStrategy()), eq("file3"), eq(DATA_CATEGORY), eq(null),
+                eq(singletonList(TARGET)), any());
+
+        OfferSyncProcess instance = new OfferSyncProcess(restoreOfferBackupService,
+            distribution, 10, 4, 1, 1, 1);
+
+        // When
+        instance.synchronize(SOURCE, TARGET, VitamConfiguration.getDefaultStrategy(), DATA_CATEGORY, null);
+
+        // Then : file3 is written at sequence 5
+        assertThat(instance.isRunning()).isFalse();
+        assertThat(instance.getOfferSyncStatus().getStatusCode()).isEqualTo(StatusCode.KO);
+        assertThat(instance.getOfferSyncStatus().getCurrentOffset()).isLessThanOrEqualTo(4L);
+    }
+
     @Test
     @RunWithCustomExecutor
     public void synchronizeFromOffsetWithNewChanges() throws Exception {
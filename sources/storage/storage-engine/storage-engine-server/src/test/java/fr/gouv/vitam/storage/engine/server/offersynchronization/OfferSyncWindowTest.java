@@ -0,0 +1,106 @@
+package fr.gouv.vitam.storage.engine.server.offersynchronization;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OfferSyncWindowTest {
+
+    @Test
+    public void should_move_safe_point_on_contiguous_completion_only() throws Exception {
+        // Given
+        OfferSyncWindow window = new OfferSyncWindow(10, 1000L, null);
+        window.acquireTask(2L);
+        window.acquireTask(5L);
+        window.acquireTask(7L);
+        window.pageDispatched(8L);
+        assertThat(window.getSafePoint()).isNull();
+
+        // When / Then
+        window.taskSucceeded(5L);
+        assertThat(window.getSafePoint()).isNull();
+
+        window.taskSucceeded(2L);
+        assertThat(window.getSafePoint()).isEqualTo(6L);
+
+        window.taskSucceeded(7L);
+        assertThat(window.getSafePoint()).isEqualTo(8L);
+        assertThat(window.getSynchronizedObjects()).isEqualTo(3L);
+    }
+
+    @Test
+    public void should_never_move_safe_point_past_failed_entry() throws Exception {
+        // Given
+        OfferSyncWindow window = new OfferSyncWindow(10, 1000L, 1L);
+        window.acquireTask(1L);
+        window.acquireTask(3L);
+        window.acquireTask(4L);
+        window.pageDispatched(4L);
+
+        // When
+        window.taskSucceeded(1L);
+        window.taskFailed();
+        window.taskSucceeded(4L);
+
+        // Then
+        assertThat(window.getSafePoint()).isEqualTo(2L);
+        assertThat(window.isFailed()).isTrue();
+        assertThat(window.acquireTask(5L)).isFalse();
+    }
+
+    @Test
+    public void should_block_dispatch_when_window_is_full() throws Exception {
+        // Given
+        OfferSyncWindow window = new OfferSyncWindow(1, 1000L, null);
+        window.acquireTask(1L);
+
+        // When
+        CompletableFuture<Boolean> secondTask = CompletableFuture.supplyAsync(() -> {
+            try {
+                return window.acquireTask(2L);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then
+        Thread.sleep(100);
+        assertThat(secondTask).isNotDone();
+        window.taskSucceeded(1L);
+        assertThat(secondTask.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void should_bound_in_flight_bytes() throws Exception {
+        // Given
+        OfferSyncWindow window = new OfferSyncWindow(10, 100L, null);
+
+        // When / Then
+        assertThat(window.tryAcquireBytes(60L)).isTrue();
+        assertThat(window.tryAcquireBytes(30L)).isTrue();
+        assertThat(window.tryAcquireBytes(20L)).isFalse();
+        window.releaseBytes(60L, true);
+        assertThat(window.tryAcquireBytes(20L)).isTrue();
+        window.releaseBytes(30L, true);
+        window.releaseBytes(20L, false);
+        assertThat(window.getSynchronizedBytes()).isEqualTo(90L);
+    }
+
+    @Test
+    public void should_transfer_object_bigger_than_budget_alone() throws Exception {
+        // Given
+        OfferSyncWindow window = new OfferSyncWindow(10, 100L, null);
+        assertThat(window.tryAcquireBytes(1L)).isTrue();
+
+        // When / Then
+        assertThat(window.tryAcquireBytes(50_000L)).isFalse();
+        window.releaseBytes(1L, true);
+        assertThat(window.tryAcquireBytes(50_000L)).isTrue();
+        assertThat(window.tryAcquireBytes(1L)).isFalse();
+        window.releaseBytes(50_000L, true);
+        assertThat(window.tryAcquireBytes(1L)).isTrue();
+    }
+}
@@ -1,6 +1,8 @@
 package fr.gouv.vitam.storage.engine.server.storagelog;
 
+import com.codahale.metrics.Timer;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogbookOutcome;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogbookParameterName;
 import fr.gouv.vitam.storage.engine.server.storagelog.parameters.StorageLogbookParameters;
@@ -10,12 +12,20 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +58,69 @@ public class StorageLogAppenderTest {
             .isEqualTo("{\"objectIdentifier\":\"params1\"}\n{\"objectIdentifier\":\"params2\"}\n{\"objectIdentifier\":\"params3\"}\n".getBytes());
     }
 
+    @Test
+    public void concurrentAppendThenFlushTest() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve(GUIDFactory.newGUID().toString());
+        Timer appendLatencyTimer = new Timer();
+
+        int nbThreads = 8;
+        int nbEntriesPerThread = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(nbThreads, VitamThreadFactory.getInstance());
+
+        try (StorageLogAppender instance = new StorageLogAppender(filePath, appendLatencyTimer, 10, 100L, 50)) {
+
+            // Given
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < nbThreads; thread++) {
+                int threadId = thread;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < nbEntriesPerThread; i++) {
+                        instance.append(buildStorageParameters("thread" + threadId + "-param" + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // When
+            instance.flush();
+
+            // Then
+            List<String> lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
+            assertThat(lines).hasSize(nbThreads * nbEntriesPerThread);
+            assertThat(lines).doesNotHaveDuplicates();
+            for (int thread = 0; thread < nbThreads; thread++) {
+                String prefix = "{\"objectIdentifier\":\"thread" + thread + "-param";
+                List<String> threadLines = lines.stream().filter(line -> line.startsWith(prefix))
+                    .collect(Collectors.toList());
+                for (int i = 0; i < nbEntriesPerThread; i++) {
+                    // Entries appended by a single thread are written in order
+                    assertThat(threadLines.get(i)).isEqualTo(prefix + i + "\"}");
+                }
+            }
+            assertThat(instance.getQueueDepth()).isEqualTo(0);
+            assertThat(appendLatencyTimer.getCount()).isEqualTo(nbThreads * nbEntriesPerThread);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void appendAfterCloseTest() throws IOException {
+        Path filePath = folder.getRoot().toPath().resolve(GUIDFactory.newGUID().toString());
+
+        StorageLogAppender instance = new StorageLogAppender(filePath);
+        instance.append(buildStorageParameters("params1"));
+        instance.close();
+
+        assertThatThrownBy(() -> instance.append(buildStorageParameters("params2")))
+            .isInstanceOf(IOException.class);
+        assertThat(instance.tryAppend(buildStorageParameters("params2"))).isFalse();
+        assertThat(Files.readAllBytes(filePath)).isEqualTo("{\"objectIdentifier\":\"params1\"}\n".getBytes());
+    }
+
     private StorageLogbookParameters buildStorageParameters(String str) {
         StorageLogbookParameters params = mock(StorageLogbookParameters.class);
         Map<StorageLogbookParameterName, String> mapParameters = new HashMap<>();
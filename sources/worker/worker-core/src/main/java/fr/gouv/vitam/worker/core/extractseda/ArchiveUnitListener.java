@@ -732,10 +732,13 @@ public class ArchiveUnitListener extends Unmarshaller.Listener {
         if (rulesId.size() <= 0) {
             return;
         }
-        if (!unitIdToSetOfRuleId.containsKey(archiveUnitId)) {
-            unitIdToSetOfRuleId.put(archiveUnitId, new HashSet<>());
+        // values may be stored on disk: the updated set is put back in the map
+        Set<String> unitRulesId = unitIdToSetOfRuleId.get(archiveUnitId);
+        if (unitRulesId == null) {
+            unitRulesId = new HashSet<>();
         }
-        unitIdToSetOfRuleId.get(archiveUnitId).addAll(rulesId);
+        unitRulesId.addAll(rulesId);
+        unitIdToSetOfRuleId.put(archiveUnitId, unitRulesId);
     }
 
     private String buildGraph(String archiveUnitId, String archiveUnitGUID,
@@ -781,7 +784,9 @@ public class ArchiveUnitListener extends Unmarshaller.Listener {
                     dataObjectIdWithoutObjectGroupId.put(objRefId, gotObj);
                 }
             } else {
-                objectGroupIdToUnitId.get(objRefId).add(archiveUnitId);
+                final List<String> archiveUnitList = objectGroupIdToUnitId.get(objRefId);
+                archiveUnitList.add(archiveUnitId);
+                objectGroupIdToUnitId.put(objRefId, archiveUnitList);
             }
 
             try {
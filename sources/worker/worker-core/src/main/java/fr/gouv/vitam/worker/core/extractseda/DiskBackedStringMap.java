@@ -0,0 +1,420 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
+import org.apache.commons.io.FileUtils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * String map stored in local files, with a heap footprint that does not depend on the number of entries.
+ *
+ * Entries are appended to a data file (updates append a new record). Keys are indexed by an open addressing hash
+ * table (key hash + record offset) stored in a memory mapped file.
+ *
+ * Like {@link java.util.HashMap}, this map is not thread safe. Null keys are not supported.
+ */
+public class DiskBackedStringMap extends AbstractMap<String, String> implements Closeable {
+
+    private static final int SLOT_SIZE = 12;
+    private static final long EMPTY = 0L;
+    private static final long DELETED = -1L;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int NULL_VALUE_LENGTH = -1;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final File directory;
+    private final String name;
+    private final File dataFile;
+    private final RandomAccessFile dataRandomAccessFile;
+    private final FileChannel dataChannel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private long flushedDataLength;
+
+    private File indexFile;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+    private int usedSlots;
+
+    public DiskBackedStringMap(File directory, String name) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        FileUtils.forceMkdir(directory);
+        this.dataFile = File.createTempFile(name, ".data", directory);
+        this.dataRandomAccessFile = new RandomAccessFile(dataFile, "rw");
+        this.dataChannel = dataRandomAccessFile.getChannel();
+        createIndex(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        byte[] keyBytes = toBytes((String) key);
+        return lookup(keyBytes, hash(keyBytes)) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        byte[] keyBytes = toBytes((String) key);
+        int slot = lookup(keyBytes, hash(keyBytes));
+        return slot < 0 ? null : readValue(getRecordOffset(slot));
+    }
+
+    @Override
+    public String put(String key, String value) {
+        Objects.requireNonNull(key, "key");
+        byte[] keyBytes = toBytes(key);
+        int hash = hash(keyBytes);
+        int slot = lookup(keyBytes, hash);
+
+        String previousValue = null;
+        if (slot >= 0) {
+            previousValue = readValue(getRecordOffset(slot));
+        } else {
+            if (usedSlots + 1 > capacity * MAX_LOAD_FACTOR) {
+                // Grow, or only purge deleted slots when most used slots are deleted ones
+                rehash(size + 1 > capacity * MAX_LOAD_FACTOR / 2 ? capacity * 2 : capacity);
+                slot = lookup(keyBytes, hash);
+            }
+            slot = -slot - 1;
+            if (getRecordOffset(slot) == EMPTY) {
+                usedSlots++;
+            }
+            size++;
+            index.putInt(slot * SLOT_SIZE, hash);
+        }
+
+        long recordOffset = appendRecord(keyBytes, value == null ? null : toBytes(value));
+        // Offsets are stored + 1 so that 0 marks an empty slot
+        index.putLong(slot * SLOT_SIZE + 4, recordOffset + 1);
+        return previousValue;
+    }
+
+    @Override
+    public String remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        byte[] keyBytes = toBytes((String) key);
+        int slot = lookup(keyBytes, hash(keyBytes));
+        if (slot < 0) {
+            return null;
+        }
+        String previousValue = readValue(getRecordOffset(slot));
+        deleteSlot(slot);
+        return previousValue;
+    }
+
+    @Override
+    public void clear() {
+        try {
+            writeBuffer.clear();
+            dataChannel.truncate(0L);
+            flushedDataLength = 0L;
+            FileUtils.deleteQuietly(indexFile);
+            createIndex(INITIAL_CAPACITY);
+        } catch (IOException e) {
+            throw new VitamRuntimeException("Could not clear map " + name, e);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                DiskBackedStringMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            dataRandomAccessFile.close();
+        } catch (IOException e) {
+            throw new VitamRuntimeException("Could not close map " + name, e);
+        } finally {
+            FileUtils.deleteQuietly(dataFile);
+            FileUtils.deleteQuietly(indexFile);
+        }
+    }
+
+    /**
+     * @return the slot of the key if found, or -(insertion slot + 1)
+     */
+    private int lookup(byte[] keyBytes, int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        int firstDeletedSlot = -1;
+        while (true) {
+            long recordOffset = getRecordOffset(slot);
+            if (recordOffset == EMPTY) {
+                return -(firstDeletedSlot >= 0 ? firstDeletedSlot : slot) - 1;
+            }
+            if (recordOffset == DELETED) {
+                if (firstDeletedSlot < 0) {
+                    firstDeletedSlot = slot;
+                }
+            } else if (index.getInt(slot * SLOT_SIZE) == hash && Arrays.equals(keyBytes, readKey(recordOffset))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private long getRecordOffset(int slot) {
+        return index.getLong(slot * SLOT_SIZE + 4);
+    }
+
+    private void deleteSlot(int slot) {
+        index.putLong(slot * SLOT_SIZE + 4, DELETED);
+        size--;
+    }
+
+    private void createIndex(int newCapacity) throws IOException {
+        File newIndexFile = File.createTempFile(name, ".index", directory);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(newIndexFile, "rw")) {
+            // A new file is filled with zeros (EMPTY slots)
+            randomAccessFile.setLength((long) newCapacity * SLOT_SIZE);
+            this.index = randomAccessFile.getChannel()
+                .map(FileChannel.MapMode.READ_WRITE, 0, (long) newCapacity * SLOT_SIZE);
+        }
+        this.indexFile = newIndexFile;
+        this.capacity = newCapacity;
+        this.size = 0;
+        this.usedSlots = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Too many entries in map " + name + " : " + size);
+        }
+
+        File oldIndexFile = indexFile;
+        MappedByteBuffer oldIndex = index;
+        int oldCapacity = capacity;
+        int oldSize = size;
+        try {
+            createIndex(newCapacity);
+        } catch (IOException e) {
+            throw new VitamRuntimeException("Could not resize map " + name, e);
+        }
+
+        int mask = newCapacity - 1;
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            long recordOffset = oldIndex.getLong(oldSlot * SLOT_SIZE + 4);
+            if (recordOffset == EMPTY || recordOffset == DELETED) {
+                continue;
+            }
+            int hash = oldIndex.getInt(oldSlot * SLOT_SIZE);
+            int slot = hash & mask;
+            while (getRecordOffset(slot) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            index.putInt(slot * SLOT_SIZE, hash);
+            index.putLong(slot * SLOT_SIZE + 4, recordOffset);
+        }
+        size = oldSize;
+        usedSlots = oldSize;
+        FileUtils.deleteQuietly(oldIndexFile);
+    }
+
+    private long appendRecord(byte[] keyBytes, byte[] valueBytes) {
+        int recordSize = RECORD_HEADER_SIZE + keyBytes.length + (valueBytes == null ? 0 : valueBytes.length);
+        long offset = flushedDataLength + writeBuffer.position();
+        try {
+            if (recordSize > writeBuffer.remaining()) {
+                flush();
+            }
+            if (recordSize > writeBuffer.capacity()) {
+                ByteBuffer record = ByteBuffer.allocate(recordSize);
+                writeRecord(record, keyBytes, valueBytes);
+                record.flip();
+                while (record.hasRemaining()) {
+                    flushedDataLength += dataChannel.write(record, flushedDataLength);
+                }
+            } else {
+                writeRecord(writeBuffer, keyBytes, valueBytes);
+            }
+        } catch (IOException e) {
+            throw new VitamRuntimeException("Could not write entry to map " + name, e);
+        }
+        return offset;
+    }
+
+    private void writeRecord(ByteBuffer buffer, byte[] keyBytes, byte[] valueBytes) {
+        buffer.putInt(keyBytes.length);
+        buffer.putInt(valueBytes == null ? NULL_VALUE_LENGTH : valueBytes.length);
+        buffer.put(keyBytes);
+        if (valueBytes != null) {
+            buffer.put(valueBytes);
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            flushedDataLength += dataChannel.write(writeBuffer, flushedDataLength);
+        }
+        writeBuffer.clear();
+    }
+
+    private byte[] readKey(long storedOffset) {
+        long recordOffset = storedOffset - 1;
+        ByteBuffer header = read(recordOffset, RECORD_HEADER_SIZE);
+        return read(recordOffset + RECORD_HEADER_SIZE, header.getInt()).array();
+    }
+
+    private String readValue(long storedOffset) {
+        long recordOffset = storedOffset - 1;
+        ByteBuffer header = read(recordOffset, RECORD_HEADER_SIZE);
+        int keyLength = header.getInt();
+        int valueLength = header.getInt();
+        if (valueLength == NULL_VALUE_LENGTH) {
+            return null;
+        }
+        return new String(read(recordOffset + RECORD_HEADER_SIZE + keyLength, valueLength).array(),
+            StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer read(long position, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        if (position >= flushedDataLength) {
+            // Record not yet flushed (records are never split between data file and write buffer)
+            buffer.put(writeBuffer.array(), (int) (position - flushedDataLength), length);
+        } else {
+            try {
+                while (buffer.hasRemaining()) {
+                    if (dataChannel.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException("Unexpected end of file " + dataFile);
+                    }
+                }
+            } catch (IOException e) {
+                throw new VitamRuntimeException("Could not read entry from map " + name, e);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int hash = Arrays.hashCode(keyBytes);
+        return hash ^ (hash >>> 16);
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private int nextSlot = findNextSlot(0);
+        private int currentSlot = -1;
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < capacity;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            currentSlot = nextSlot;
+            nextSlot = findNextSlot(currentSlot + 1);
+
+            long recordOffset = getRecordOffset(currentSlot);
+            String key = new String(readKey(recordOffset), StandardCharsets.UTF_8);
+            return new SimpleEntry<String, String>(key, readValue(recordOffset)) {
+                @Override
+                public String setValue(String value) {
+                    put(getKey(), value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (currentSlot < 0) {
+                throw new IllegalStateException();
+            }
+            deleteSlot(currentSlot);
+            currentSlot = -1;
+        }
+
+        private int findNextSlot(int fromSlot) {
+            int slot = fromSlot;
+            while (slot < capacity && (getRecordOffset(slot) == EMPTY || getRecordOffset(slot) == DELETED)) {
+                slot++;
+            }
+            return slot;
+        }
+    }
+}
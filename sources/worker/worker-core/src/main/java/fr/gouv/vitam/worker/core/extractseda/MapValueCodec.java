@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Conversion of the values of a {@link SpillableMap} to and from the strings stored on disk
+ *
+ * @param <V> type of values
+ */
+public interface MapValueCodec<V> {
+
+    /**
+     * Values stored as is
+     */
+    MapValueCodec<String> STRING = new MapValueCodec<String>() {
+        @Override
+        public String encode(String value) {
+            return value;
+        }
+
+        @Override
+        public String decode(String value) {
+            return value;
+        }
+    };
+
+    /**
+     * Life cycle parameters stored as a JSON object of their parameters, with the kind of life cycle (unit or object
+     * group)
+     */
+    MapValueCodec<LogbookLifeCycleParameters> LIFE_CYCLE_PARAMETERS = new MapValueCodec<LogbookLifeCycleParameters>() {
+
+        private static final String OBJECT_GROUP = "ObjectGroup";
+        private static final String UNIT = "Unit";
+        private static final String TYPE = "type";
+        private static final String PARAMETERS = "parameters";
+
+        @Override
+        public String encode(LogbookLifeCycleParameters value) {
+            ObjectNode parameters = JsonHandler.createObjectNode();
+            for (Map.Entry<LogbookParameterName, String> parameter : value.getMapParameters().entrySet()) {
+                parameters.put(parameter.getKey().name(), parameter.getValue());
+            }
+            ObjectNode node = JsonHandler.createObjectNode();
+            node.put(TYPE, value instanceof LogbookLifeCycleObjectGroupParameters ? OBJECT_GROUP : UNIT);
+            node.set(PARAMETERS, parameters);
+            return JsonHandler.unprettyPrint(node);
+        }
+
+        @Override
+        public LogbookLifeCycleParameters decode(String value) {
+            try {
+                JsonNode node = JsonHandler.getFromString(value);
+                LogbookLifeCycleParameters lifeCycleParameters = OBJECT_GROUP.equals(node.get(TYPE).asText())
+                    ? LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters()
+                    : LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+                Iterator<Map.Entry<String, JsonNode>> parameters = node.get(PARAMETERS).fields();
+                while (parameters.hasNext()) {
+                    Map.Entry<String, JsonNode> parameter = parameters.next();
+                    lifeCycleParameters.getMapParameters().put(LogbookParameterName.valueOf(parameter.getKey()),
+                        parameter.getValue().isNull() ? null : parameter.getValue().asText());
+                }
+                return lifeCycleParameters;
+            } catch (InvalidParseOperationException e) {
+                throw new VitamRuntimeException("Could not read life cycle parameters", e);
+            }
+        }
+    };
+
+    /**
+     * @param valueType type of values
+     * @param <V> type of values
+     * @return a codec storing values as JSON
+     */
+    static <V> MapValueCodec<V> json(TypeReference<V> valueType) {
+        return new MapValueCodec<V>() {
+            @Override
+            public String encode(V value) {
+                try {
+                    return JsonHandler.writeAsString(value);
+                } catch (InvalidParseOperationException e) {
+                    throw new VitamRuntimeException("Could not write map value", e);
+                }
+            }
+
+            @Override
+            public V decode(String value) {
+                try {
+                    return JsonHandler.getFromStringAsTypeRefence(value, valueType);
+                } catch (InvalidParseOperationException | IOException e) {
+                    throw new VitamRuntimeException("Could not read map value", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param value a non null value
+     * @return the stored form of the value
+     */
+    String encode(V value);
+
+    /**
+     * @param value the stored form of a value
+     * @return a new instance of the value
+     */
+    V decode(String value);
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.annotations.VisibleForTesting;
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage of the maps built while extracting a SIP manifest (identifiers, life cycle parameters, rules, data
+ * objects...). Maps larger than ingestMapMaxEntriesInMemory entries are moved to local files so that heap usage does
+ * not grow with SIP size. Files are deleted on close.
+ */
+public class SedaExtractionMapStorage implements Closeable {
+
+    private static final String SPILL_SUB_DIRECTORY = "extract-seda-maps";
+
+    private final int maxEntriesInMemory;
+    private final File spillDirectory;
+    private final List<SpillableMap<?>> maps = new ArrayList<>();
+
+    public SedaExtractionMapStorage() {
+        this(VitamConfiguration.getIngestMapMaxEntriesInMemory(),
+            new File(VitamConfiguration.getVitamTmpFolder(), SPILL_SUB_DIRECTORY));
+    }
+
+    @VisibleForTesting
+    public SedaExtractionMapStorage(int maxEntriesInMemory, File spillDirectory) {
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public Map<String, String> createStringMap(String name) {
+        return createMap(name, MapValueCodec.STRING);
+    }
+
+    public Map<String, LogbookLifeCycleParameters> createLifeCycleParametersMap(String name) {
+        return createMap(name, MapValueCodec.LIFE_CYCLE_PARAMETERS);
+    }
+
+    /**
+     * @param name name of the map
+     * @param valueType type of values, stored as JSON once the map is moved to disk
+     * @param <V> type of values
+     * @return a new map
+     */
+    public <V> Map<String, V> createJsonMap(String name, TypeReference<V> valueType) {
+        return createMap(name, MapValueCodec.json(valueType));
+    }
+
+    private <V> Map<String, V> createMap(String name, MapValueCodec<V> codec) {
+        SpillableMap<V> map = new SpillableMap<>(name, maxEntriesInMemory, spillDirectory, codec);
+        maps.add(map);
+        return map;
+    }
+
+    @Override
+    public void close() {
+        maps.forEach(SpillableMap::close);
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import fr.gouv.vitam.common.exception.VitamRuntimeException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map kept in heap until it holds a max number of entries, then moved to a {@link DiskBackedStringMap}.<br/>
+ * <br/>
+ * Once moved, values are stored in their encoded form: {@link #get(Object)} returns a new copy of the value on each
+ * call, so a value modified in place must be put back in the map.
+ *
+ * @param <V> type of values
+ */
+public class SpillableMap<V> extends AbstractMap<String, V> implements Closeable {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(SpillableMap.class);
+
+    private final String name;
+    private final int maxEntriesInMemory;
+    private final File spillDirectory;
+    private final MapValueCodec<V> codec;
+    private Map<String, V> heapMap = new HashMap<>();
+    private DiskBackedStringMap diskBackedMap;
+
+    public SpillableMap(String name, int maxEntriesInMemory, File spillDirectory, MapValueCodec<V> codec) {
+        this.name = name;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.spillDirectory = spillDirectory;
+        this.codec = codec;
+    }
+
+    @Override
+    public int size() {
+        return isSpilled() ? diskBackedMap.size() : heapMap.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return isSpilled() ? diskBackedMap.containsKey(key) : heapMap.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return isSpilled() ? decode(diskBackedMap.get(key)) : heapMap.get(key);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        if (!isSpilled() && heapMap.size() >= maxEntriesInMemory && !heapMap.containsKey(key)) {
+            spill();
+        }
+        if (isSpilled()) {
+            return decode(diskBackedMap.put(key, encode(value)));
+        }
+        return heapMap.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return isSpilled() ? decode(diskBackedMap.remove(key)) : heapMap.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (isSpilled()) {
+            close();
+        } else {
+            heapMap.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (!isSpilled()) {
+            return heapMap.entrySet();
+        }
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                Iterator<Entry<String, String>> iterator = diskBackedMap.entrySet().iterator();
+                return new Iterator<Entry<String, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        Entry<String, String> entry = iterator.next();
+                        return new SimpleEntry<String, V>(entry.getKey(), decode(entry.getValue())) {
+                            @Override
+                            public V setValue(V value) {
+                                entry.setValue(encode(value));
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return diskBackedMap.size();
+            }
+        };
+    }
+
+    public boolean isSpilled() {
+        return diskBackedMap != null;
+    }
+
+    @Override
+    public void close() {
+        if (diskBackedMap != null) {
+            diskBackedMap.close();
+            diskBackedMap = null;
+            heapMap = new HashMap<>();
+        }
+    }
+
+    private void spill() {
+        LOGGER.info(String.format("Map %s exceeds %d entries. Moving entries to %s", name, maxEntriesInMemory,
+            spillDirectory));
+        try {
+            diskBackedMap = new DiskBackedStringMap(spillDirectory, name);
+        } catch (IOException e) {
+            throw new VitamRuntimeException("Could not create disk backed map " + name, e);
+        }
+        for (Entry<String, V> entry : heapMap.entrySet()) {
+            diskBackedMap.put(entry.getKey(), encode(entry.getValue()));
+        }
+        heapMap = null;
+    }
+
+    private String encode(V value) {
+        return value == null ? null : codec.encode(value);
+    }
+
+    private V decode(String value) {
+        return value == null ? null : codec.decode(value);
+    }
+}
@@ -26,6 +26,7 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.handler;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -122,6 +123,7 @@ import fr.gouv.vitam.worker.common.utils.RuleTypeName;
 import fr.gouv.vitam.worker.common.utils.SedaUtils;
 import fr.gouv.vitam.worker.core.exception.WorkerspaceQueueException;
 import fr.gouv.vitam.worker.core.extractseda.ArchiveUnitListener;
+import fr.gouv.vitam.worker.core.extractseda.SedaExtractionMapStorage;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
@@ -263,6 +265,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private static final String ARCHIVE_UNIT_TMP_FILE_PREFIX = "AU_TMP_";
     private static final String GLOBAL_MGT_RULE_TAG = "GLOBAL_MGT_RULE";
 
+    // Identifier maps grow with the number of units and objects of the SIP, they are moved to local files when too big
+    private final SedaExtractionMapStorage mapStorage;
     private final Map<String, String> dataObjectIdToGuid;
     private final Map<String, String> objectGroupIdToGuid;
     private final Map<String, String> unitIdToGuid;
@@ -358,20 +362,27 @@ public class ExtractSedaActionHandler extends ActionHandler {
     @VisibleForTesting
     ExtractSedaActionHandler(MetaDataClientFactory metaDataClientFactory,
         AdminManagementClientFactory adminManagementClientFactory) {
-        dataObjectIdToGuid = new HashMap<>();
-        dataObjectIdWithoutObjectGroupId = new HashMap<>();
-        objectGroupIdToGuid = new HashMap<>();
-        unitIdToGuid = new HashMap<>();
-        guidToUnitId = new HashMap<>();
-        dataObjectIdToObjectGroupId = new HashMap<>();
-        objectGroupIdToDataObjectId = new HashMap<>();
-        unitIdToGroupId = new HashMap<>();
-        objectGroupIdToUnitId = new HashMap<>();
-        guidToLifeCycleParameters = new HashMap<>();
-        dataObjectIdToDetailDataObject = new HashMap<>();
-        objectGuidToDataObject = new HashMap<>();
+        mapStorage = new SedaExtractionMapStorage();
+        dataObjectIdToGuid = mapStorage.createStringMap("dataObjectIdToGuid");
+        dataObjectIdWithoutObjectGroupId =
+            mapStorage.createJsonMap("dataObjectIdWithoutObjectGroupId", new TypeReference<GotObj>() {});
+        objectGroupIdToGuid = mapStorage.createStringMap("objectGroupIdToGuid");
+        unitIdToGuid = mapStorage.createStringMap("unitIdToGuid");
+        guidToUnitId = mapStorage.createStringMap("guidToUnitId");
+        dataObjectIdToObjectGroupId = mapStorage.createStringMap("dataObjectIdToObjectGroupId");
+        objectGroupIdToDataObjectId =
+            mapStorage.createJsonMap("objectGroupIdToDataObjectId", new TypeReference<List<String>>() {});
+        unitIdToGroupId = mapStorage.createStringMap("unitIdToGroupId");
+        objectGroupIdToUnitId =
+            mapStorage.createJsonMap("objectGroupIdToUnitId", new TypeReference<List<String>>() {});
+        guidToLifeCycleParameters = mapStorage.createLifeCycleParametersMap("guidToLifeCycleParameters");
+        dataObjectIdToDetailDataObject =
+            mapStorage.createJsonMap("dataObjectIdToDetailDataObject", new TypeReference<DataObjectDetail>() {});
+        objectGuidToDataObject =
+            mapStorage.createJsonMap("objectGuidToDataObject", new TypeReference<DataObjectInfo>() {});
         mngtMdRuleIdToRulesXml = new HashMap<>();
-        unitIdToSetOfRuleId = new HashMap<>();
+        unitIdToSetOfRuleId =
+            mapStorage.createJsonMap("unitIdToSetOfRuleId", new TypeReference<Set<String>>() {});
         existingUnitGuids = new HashSet<>();
         physicalDataObjetsGuids = new HashSet<>();
         originatingAgencies = new ArrayList<>();
@@ -392,6 +403,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
         return HANDLER_ID;
     }
 
+    @Override
+    public void close() {
+        super.close();
+        mapStorage.close();
+    }
+
     /**
      * @return HandlerIO
      */
@@ -1713,19 +1730,20 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private void createUnitLifeCycle(String unitGuid, String containerId)
         throws LogbookClientNotFoundException {
 
-        if (guidToLifeCycleParameters.get(unitGuid) != null && (!existingUnitGuids.contains(unitGuid))) {
+        if (guidToLifeCycleParameters.containsKey(unitGuid) && (!existingUnitGuids.contains(unitGuid))) {
             LogbookLifeCycleUnitParameters unitLifeCycle =
                 createUnitLifeCycle(unitGuid, containerId, LogbookTypeProcess.INGEST);
 
             handlerIO.getHelper().updateDelegate(unitLifeCycle);
+            guidToLifeCycleParameters.put(unitGuid, unitLifeCycle);
         }
     }
 
     private void addFinalStatusToUnitLifeCycle(String unitGuid, String unitId, boolean isRootArchive)
         throws LogbookClientNotFoundException {
 
-        if (guidToLifeCycleParameters.get(unitGuid) != null) {
-            final LogbookLifeCycleParameters llcp = guidToLifeCycleParameters.get(unitGuid);
+        final LogbookLifeCycleParameters llcp = guidToLifeCycleParameters.get(unitGuid);
+        if (llcp != null) {
             String eventId = GUIDFactory.newEventGUID(ParameterHelper.getTenantParameter()).toString();
             LogbookLifeCycleParameters subLlcp = null;
             // TODO : add else case
@@ -1774,6 +1792,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
             if (!existingUnitGuids.contains(unitGuid)) {
                 handlerIO.getHelper().updateDelegate(subLlcp);
             }
+            guidToLifeCycleParameters.put(unitGuid, llcp);
 
             // FIXME: use bulk
             // logbookLifeCycleClient.bulkUpdateUnit(containerId, handlerIO.getHelper().removeUpdateDelegate(unitGuid));
@@ -1927,13 +1946,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                 // ObjectGroup Wrapping mode (seda version >= 2.1)
                 if (currentGroupId != null) {
-                    if (objectGroupIdToDataObjectId.get(currentGroupId) == null) {
-                        final List<String> dataOjectList = new ArrayList<>();
-                        dataOjectList.add(dataObjectId);
-                        objectGroupIdToDataObjectId.put(currentGroupId, dataOjectList);
-                    } else {
-                        objectGroupIdToDataObjectId.get(currentGroupId).add(dataObjectId);
-                    }
+                    addDataObjectToObjectGroup(currentGroupId, dataObjectId);
 
                     groupGuid = objectGroupIdToGuid.getOrDefault(currentGroupId,
                         GUIDFactory.newObjectGroupGUID(ParameterHelper.getTenantParameter())
@@ -1998,13 +2011,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                                 // FIXME : probably a bad idea
                                 // createObjectGroupLifeCycle(groupGuid, containerId, typeProcess);
-                                if (objectGroupIdToDataObjectId.get(groupId) == null) {
-                                    final List<String> dataOjectList = new ArrayList<>();
-                                    dataOjectList.add(dataObjectId);
-                                    objectGroupIdToDataObjectId.put(groupId, dataOjectList);
-                                } else {
-                                    objectGroupIdToDataObjectId.get(groupId).add(dataObjectId);
-                                }
+                                addDataObjectToObjectGroup(groupId, dataObjectId);
 
                                 // Create new startElement for group with new guid
                                 jsonWriter.add(eventFactory.createStartElement("", "", DATA_OBJECT_GROUPID));
@@ -2026,16 +2033,9 @@ public class ExtractSedaActionHandler extends ActionHandler {
                                 objectGroupIdToGuid.put(groupId, groupGuidTemporary);
 
                                 dataObjectIdToObjectGroupId.put(dataObjectId, groupId);
-                                // The DataObjectGroupReferenceID is after
-                                // DataObjectGroupID in the XML flow
-                                if (objectGroupIdToDataObjectId.get(groupId) != null) {
-                                    objectGroupIdToDataObjectId.get(groupId).add(dataObjectId);
-                                } else {
-                                    // The DataObjectGroupReferenceID is before DataObjectGroupID in the XML flow
-                                    final List<String> dataOjectList = new ArrayList<>();
-                                    dataOjectList.add(dataObjectId);
-                                    objectGroupIdToDataObjectId.put(groupId, dataOjectList);
-                                }
+                                // The DataObjectGroupReferenceID may be before or after DataObjectGroupID in the
+                                // XML flow
+                                addDataObjectToObjectGroup(groupId, dataObjectId);
 
                                 // Create new startElement for group with new guid
                                 jsonWriter.add(eventFactory.createStartElement("", "", DATA_OBJECT_GROUPID));
@@ -2637,19 +2637,20 @@ public class ExtractSedaActionHandler extends ActionHandler {
                     // Update Object Group lifeCycle creation event
                     // Set new eventId for task and set status then update delegate
                     String eventId = GUIDFactory.newEventGUID(ParameterHelper.getTenantParameter()).toString();
+                    final LogbookLifeCycleParameters objectGroupLifeCycle =
+                        guidToLifeCycleParameters.get(objectGroupGuid);
                     handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(HANDLER_ID, null, StatusCode.OK,
-                                null)
+                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupLifeCycle
+                            .setFinalStatus(HANDLER_ID, null, StatusCode.OK, null)
                             .putParameterValue(LogbookParameterName.eventIdentifier, eventId));
                     // Add creation sub task event (add new eventId and set status for subtask before update delegate)
                     handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(HANDLER_ID, LFC_CREATION_SUB_TASK_ID, StatusCode.OK,
-                                null)
+                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupLifeCycle
+                            .setFinalStatus(HANDLER_ID, LFC_CREATION_SUB_TASK_ID, StatusCode.OK, null)
                             .putParameterValue(LogbookParameterName.eventIdentifier,
                                 GUIDFactory.newEventGUID(ParameterHelper.getTenantParameter()).toString())
                             .putParameterValue(LogbookParameterName.parentEventIdentifier, eventId));
+                    guidToLifeCycleParameters.put(objectGroupGuid, objectGroupLifeCycle);
 
                 }
 
@@ -2828,23 +2829,32 @@ public class ExtractSedaActionHandler extends ActionHandler {
         objectNode.put(SedaConstants.PREFIX_ID, guid);
         objectNode.put(SedaConstants.PREFIX_OPI, containerId);
         if (!isPhysical) {
-            if (objectGuidToDataObject.get(guid).getSize() != null) {
-                objectNode.put(SedaConstants.TAG_SIZE, objectGuidToDataObject.get(guid).getSize());
+            final DataObjectInfo dataObjectInfo = objectGuidToDataObject.get(guid);
+            if (dataObjectInfo.getSize() != null) {
+                objectNode.put(SedaConstants.TAG_SIZE, dataObjectInfo.getSize());
             }
-            if (objectGuidToDataObject.get(guid).getUri() != null) {
-                objectNode.put(SedaConstants.TAG_URI, objectGuidToDataObject.get(guid).getUri());
+            if (dataObjectInfo.getUri() != null) {
+                objectNode.put(SedaConstants.TAG_URI, dataObjectInfo.getUri());
             }
-            if (objectGuidToDataObject.get(guid).getMessageDigest() != null) {
-                objectNode.put(SedaConstants.TAG_DIGEST,
-                    objectGuidToDataObject.get(guid).getMessageDigest());
+            if (dataObjectInfo.getMessageDigest() != null) {
+                objectNode.put(SedaConstants.TAG_DIGEST, dataObjectInfo.getMessageDigest());
             }
-            if (objectGuidToDataObject.get(guid).getAlgo() != null) {
-                objectNode.put(SedaConstants.ALGORITHM,
-                    objectGuidToDataObject.get(guid).getAlgo().getName());
+            if (dataObjectInfo.getAlgo() != null) {
+                objectNode.put(SedaConstants.ALGORITHM, dataObjectInfo.getAlgo().getName());
             }
         }
     }
 
+    private void addDataObjectToObjectGroup(String groupId, String dataObjectId) {
+        // values may be stored on disk: the updated list is put back in the map
+        List<String> dataObjectList = objectGroupIdToDataObjectId.get(groupId);
+        if (dataObjectList == null) {
+            dataObjectList = new ArrayList<>();
+        }
+        dataObjectList.add(dataObjectId);
+        objectGroupIdToDataObjectId.put(groupId, dataObjectList);
+    }
+
     private void completeDataObjectToObjectGroupMap() {
         for (final String key : dataObjectIdToObjectGroupId.keySet()) {
             if ("".equals(dataObjectIdToObjectGroupId.get(key))) {
@@ -2881,6 +2891,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
             llcEvDetData.put(SedaConstants.EV_DET_TECH_DATA, message);
             lfcParameters
                 .putParameterValue(LogbookParameterName.eventDetailData, JsonHandler.writeAsString(llcEvDetData));
+            guidToLifeCycleParameters.put(guid, lfcParameters);
             logbookLifeCycleClient.update(lfcParameters);
 
         } catch (final InvalidGuidOperationException e) {
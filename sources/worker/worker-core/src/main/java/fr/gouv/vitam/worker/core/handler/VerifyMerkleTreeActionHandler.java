@@ -178,7 +178,8 @@ public class VerifyMerkleTreeActionHandler extends ActionHandler {
     public static MerkleTreeAlgo computeMerkleTree(InputStream inputStream)
         throws ProcessingException {
 
-        final MerkleTreeAlgo merkleTreeAlgo = new MerkleTreeAlgo(VitamConfiguration.getDefaultDigestType());
+        // Only the root hash is checked, no need to keep the whole tree in memory
+        final MerkleTreeAlgo merkleTreeAlgo = new MerkleTreeAlgo(VitamConfiguration.getDefaultDigestType(), false);
 
         // Process
         try (BufferedInputStream bis = new BufferedInputStream(inputStream);
@@ -29,6 +29,8 @@ package fr.gouv.vitam.worker.core.plugin;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import fr.gouv.vitam.common.SedaConstants;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
@@ -37,6 +39,8 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.IngestWorkflowConstants;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.RequestResponse;
+import fr.gouv.vitam.common.model.RequestResponseOK;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
@@ -45,15 +49,14 @@ import fr.gouv.vitam.worker.common.utils.DataObjectInfo;
 import fr.gouv.vitam.worker.core.handler.ActionHandler;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
-import org.apache.commons.io.IOUtils;
+import fr.gouv.vitam.workspace.client.WorkspaceClient;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CheckConformityAction Plugin.<br>
@@ -64,12 +67,20 @@ public class CheckConformityActionPlugin extends ActionHandler {
     public static final String CALC_CHECK = "CALC_CHECK";
     private static final String EMPTY = "EMPTY";
     private static final String INVALID = "INVALID";
+    private static final String DIGESTS = "digests";
     private HandlerIO handlerIO;
     private boolean oneOrMoreMessagesDigestUpdated = false;
     private static final int ALGO_RANK = 0;
     private static final int OG_OUT_RANK = 0;
     private boolean asyncIO = false;
 
+    /**
+     * Containers extracted without the needed digests (disabled or other algorithms in extractionDigestTypes), so that
+     * their other objects are read at once instead of asking the workspace again
+     */
+    private static final Cache<String, Boolean> CONTAINERS_WITHOUT_EXTRACTION_DIGESTS =
+        CacheBuilder.newBuilder().maximumSize(1000).expireAfterAccess(1, TimeUnit.HOURS).build();
+
     /**
      * Constructor
      */
@@ -132,27 +143,41 @@ public class CheckConformityActionPlugin extends ActionHandler {
     private void checkMessageDigest(DataObjectInfo binaryObject, JsonNode version, ItemStatus itemStatus)
         throws ProcessingException {
 
-        InputStream inputStream = null;
         try {
             final DigestType digestTypeInput = DigestType.fromValue((String) handlerIO.getInput(ALGO_RANK));
-            inputStream = handlerIO.getInputStreamFromWorkspace(
-                IngestWorkflowConstants.SEDA_FOLDER + File.separator + binaryObject.getUri());
-            final Digest vitamDigest = new Digest(digestTypeInput);
-            Digest manifestDigest;
-            boolean isVitamDigest = false;
-            if (!binaryObject.getAlgo().equals(digestTypeInput)) {
-                // Begin calculate digest by manifest algo
-                manifestDigest = new Digest(binaryObject.getAlgo());
-                inputStream = manifestDigest.getDigestInputStream(inputStream);
+            final boolean isVitamDigest = binaryObject.getAlgo().equals(digestTypeInput);
+            final String objectName = IngestWorkflowConstants.SEDA_FOLDER + "/" + binaryObject.getUri();
+
+            String manifestDigestString;
+            String vitamDigestString;
+            // use the digests computed by the workspace when the SIP was extracted, if any
+            final String containerName = handlerIO.getContainerName();
+            final JsonNode extractionDigests =
+                CONTAINERS_WITHOUT_EXTRACTION_DIGESTS.getIfPresent(containerName) == null
+                    ? getExtractionDigests(containerName, objectName) : null;
+            final boolean hasExtractionDigests = extractionDigests != null &&
+                extractionDigests.has(binaryObject.getAlgo().getName()) &&
+                extractionDigests.has(digestTypeInput.getName());
+            if (extractionDigests != null && !hasExtractionDigests) {
+                CONTAINERS_WITHOUT_EXTRACTION_DIGESTS.put(containerName, Boolean.TRUE);
+            }
+            if (hasExtractionDigests) {
+                manifestDigestString = extractionDigests.get(binaryObject.getAlgo().getName()).asText();
+                vitamDigestString = extractionDigests.get(digestTypeInput.getName()).asText();
             } else {
-                manifestDigest = vitamDigest;
-                isVitamDigest = true;
+                final Digest vitamDigest = new Digest(digestTypeInput);
+                final Digest manifestDigest = isVitamDigest ? vitamDigest : new Digest(binaryObject.getAlgo());
+                // calculate digests by manifest and vitam algo while loading the binary in the local cache, where
+                // it is reused by the next actions of the step (format identification)
+                if (isVitamDigest) {
+                    handlerIO.getFileFromWorkspace(objectName, vitamDigest);
+                } else {
+                    handlerIO.getFileFromWorkspace(objectName, manifestDigest, vitamDigest);
+                }
+                manifestDigestString = manifestDigest.digestHex();
+                vitamDigestString = vitamDigest.digestHex();
             }
-            // calculate digest by vitam algo
-            vitamDigest.update(inputStream);
 
-            final String manifestDigestString = manifestDigest.digestHex();
-            final String vitamDigestString = vitamDigest.digestHex();
             String binaryObjectMessageDigest = binaryObject.getMessageDigest();
 
             LOGGER.debug(
@@ -204,12 +229,30 @@ public class CheckConformityActionPlugin extends ActionHandler {
             IOException e) {
             LOGGER.error(e);
             throw new ProcessingException(e.getMessage(), e);
-        } finally {
-            IOUtils.closeQuietly(inputStream);
         }
 
     }
 
+    /**
+     * @param containerName the container of the operation
+     * @param objectName the name of the binary object in the workspace
+     * @return the digests of the object by algorithm, or null if they were not computed at extraction
+     */
+    private JsonNode getExtractionDigests(String containerName, String objectName) {
+        try (WorkspaceClient workspaceClient = handlerIO.getWorkspaceClientFactory().getClient()) {
+            RequestResponse<JsonNode> response = workspaceClient.getObjectDigests(containerName, objectName);
+            return ((RequestResponseOK<JsonNode>) response).getFirstResult().get(DIGESTS);
+        } catch (ContentAddressableStorageNotFoundException e) {
+            // Extraction digests disabled, or not supported by the workspace
+            LOGGER.debug("No digest computed at extraction for " + objectName, e);
+            CONTAINERS_WITHOUT_EXTRACTION_DIGESTS.put(containerName, Boolean.TRUE);
+            return null;
+        } catch (ContentAddressableStorageServerException e) {
+            LOGGER.warn("Cannot get digests computed at extraction for " + objectName, e);
+            return null;
+        }
+    }
+
     @Override
     public void checkMandatoryIOParameter(HandlerIO handler) throws ProcessingException {
         handler.checkHandlerIO(1, Arrays.asList(new Class[] {String.class}));
@@ -0,0 +1,181 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.worker.core.plugin;
+
+import com.codahale.metrics.Gauge;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
+import fr.gouv.vitam.common.database.builder.request.single.Select;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.metrics.VitamMetricRegistry;
+import fr.gouv.vitam.common.model.RequestResponse;
+import fr.gouv.vitam.common.model.RequestResponseOK;
+import fr.gouv.vitam.common.model.administration.FileFormatModel;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.common.FileFormat;
+import fr.gouv.vitam.functional.administration.common.exception.ReferentialException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker-local cache of the file format referential (PUID, name and MIME type of each format), used by
+ * {@link FormatIdentificationActionPlugin} to resolve the PUIDs identified in a batch without one referential query
+ * per object.<br/>
+ * <br/>
+ * The version of the referential is its total count, the date of its last update and its PRONOM version, which an
+ * import always changes. Each call to {@link #getSnapshot(AdminManagementClient)} reads this version with a single
+ * one-document query, and loads all the formats again only when it differs from the version of the last snapshot.
+ * Snapshots are immutable, so a batch keeps a consistent view of the referential even if another batch reloads it.
+ * <br/>
+ * Hit and miss counts of PUID lookups and reload counts are exposed in the business metrics.
+ */
+public class FileFormatReferentialCache {
+
+    private static final FileFormatReferentialCache INSTANCE = new FileFormatReferentialCache();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private volatile Snapshot lastSnapshot;
+
+    private FileFormatReferentialCache() {
+        VitamMetricRegistry registry = CommonBusinessApplication.getBusinessMetricsRegistry();
+        registry.register("File format referential cache hit count", (Gauge<Long>) hitCount::get);
+        registry.register("File format referential cache miss count", (Gauge<Long>) missCount::get);
+        registry.register("File format referential cache reload count", (Gauge<Long>) reloadCount::get);
+    }
+
+    /**
+     * @return the worker-local instance
+     */
+    public static FileFormatReferentialCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the snapshot of the current referential version, loading the formats only if the version changed
+     *
+     * @param adminClient the admin management client
+     * @return the snapshot
+     * @throws ReferentialException if the referential could not be read
+     * @throws InvalidParseOperationException if the query is invalid
+     * @throws InvalidCreateOperationException if the query is invalid
+     * @throws IOException on client error
+     */
+    public Snapshot getSnapshot(AdminManagementClient adminClient)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+
+        // Version is read before formats, so that a concurrent import is seen by the next check
+        String version = loadVersion(adminClient);
+        Snapshot snapshot = lastSnapshot;
+        if (snapshot != null && snapshot.getVersion().equals(version)) {
+            return snapshot;
+        }
+
+        Select select = new Select();
+        select.addUsedProjection(FileFormat.PUID, FileFormat.NAME, FileFormat.MIME_TYPE);
+        List<FileFormatModel> formats = getResults(adminClient.getFormats(select.getFinalSelect()));
+
+        snapshot = new Snapshot(version, formats);
+        lastSnapshot = snapshot;
+        reloadCount.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * Any import updates the formats, so it changes either the total or the last update date.
+     */
+    private String loadVersion(AdminManagementClient adminClient)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        Select select = new Select();
+        select.setLimitFilter(0, 1);
+        select.addOrderByDescFilter(FileFormat.UPDATE_DATE);
+        select.addUsedProjection(FileFormat.UPDATE_DATE, FileFormat.VERSION_PRONOM);
+        ObjectNode query = select.getFinalSelect();
+
+        RequestResponse<FileFormatModel> response = adminClient.getFormats(query);
+        List<FileFormatModel> results = getResults(response);
+        long total = ((RequestResponseOK<FileFormatModel>) response).getHits() != null ?
+            ((RequestResponseOK<FileFormatModel>) response).getHits().getTotal() : results.size();
+        if (results.isEmpty()) {
+            return total + "@";
+        }
+        return total + "@" + results.get(0).getUpdateDate() + "@" + results.get(0).getVersionPronom();
+    }
+
+    private List<FileFormatModel> getResults(RequestResponse<FileFormatModel> response) throws ReferentialException {
+        if (!response.isOk()) {
+            throw new ReferentialException("Could not load file format referential");
+        }
+        return ((RequestResponseOK<FileFormatModel>) response).getResults();
+    }
+
+    /**
+     * Immutable view of the file formats at a given version, indexed by PUID
+     */
+    public class Snapshot {
+
+        private final String version;
+        private final Map<String, FileFormatModel> formatsByPuid;
+
+        private Snapshot(String version, List<FileFormatModel> formats) {
+            this.version = version;
+            Map<String, FileFormatModel> byPuid = new HashMap<>(formats.size() * 2);
+            for (FileFormatModel format : formats) {
+                byPuid.put(format.getPuid(), format);
+            }
+            this.formatsByPuid = Collections.unmodifiableMap(byPuid);
+        }
+
+        /**
+         * @return the version of the referential
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @param puid the PUID of the format
+         * @return the format, or null if not in the referential
+         */
+        public FileFormatModel getFormat(String puid) {
+            FileFormatModel format = formatsByPuid.get(puid);
+            if (format == null) {
+                missCount.incrementAndGet();
+            } else {
+                hitCount.incrementAndGet();
+            }
+            return format;
+        }
+    }
+}
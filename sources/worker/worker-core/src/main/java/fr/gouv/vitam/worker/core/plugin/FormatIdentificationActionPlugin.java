@@ -26,10 +26,13 @@
  */
 package fr.gouv.vitam.worker.core.plugin;
 
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import fr.gouv.vitam.common.FileUtil;
 import fr.gouv.vitam.common.SedaConstants;
+import fr.gouv.vitam.common.cache.ReferentialLookupCache;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
 import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.error.VitamCode;
@@ -45,6 +48,7 @@ import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierNotF
 import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
 import fr.gouv.vitam.common.format.identification.model.FormatIdentifierResponse;
 import fr.gouv.vitam.common.format.identification.siegfried.FormatIdentifierSiegfried;
+import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -56,6 +60,7 @@ import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
 import fr.gouv.vitam.common.model.administration.FileFormatModel;
 import fr.gouv.vitam.common.model.administration.IngestContractModel;
+import fr.gouv.vitam.common.serverv2.application.CommonBusinessApplication;
 import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
 import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
 import fr.gouv.vitam.functional.administration.common.FileFormat;
@@ -69,6 +74,9 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerExce
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -115,6 +123,17 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
     private static final int REFERENTIAL_INGEST_CONTRACT_PARAMETERS_RANK = 1;
     private static final String UNKNOWN_FORMAT = "unknown";
 
+    private static final String BATCH_DIRECTORY_PREFIX = "format-identification-batch-";
+    private static final String LINK_PROBE = "link-probe";
+    private static final String BATCH_DURATION_TIMER = "Format identification batch duration";
+    private static final String BATCH_ANALYSIS_DURATION_TIMER = "Format identification batch analysis duration";
+
+    /**
+     * Ingest contract of the operation, read once per operation instead of once per object
+     */
+    private static final ReferentialLookupCache<String, IngestContractModel> INGEST_CONTRACT_CACHE =
+        new ReferentialLookupCache<>("Format identification ingest contract", 100, 3600);
+
     private boolean metadatasUpdated = false;
     String eventDetailData;
     private boolean asyncIO = false;
@@ -137,8 +156,142 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
         this.formatIdentifierFactory = formatIdentifierFactory;
     }
 
+    /**
+     * Identify all the objects of the batch in a single analysis of the identifier, and resolve their formats against
+     * a snapshot of the file format referential, then check them object group by object group.<br/>
+     * Any failure while preparing the batch falls back to the identification of each object.
+     */
+    @Override
+    public List<ItemStatus> executeList(WorkerParameters workerParameters, HandlerIO handler)
+        throws ProcessingException {
+        checkMandatoryParameters(workerParameters);
+        final Timer.Context batchTimer =
+            CommonBusinessApplication.getBusinessMetricsRegistry().timer(BATCH_DURATION_TIMER).time();
+        final File batchDirectory = handler.getNewLocalFile(BATCH_DIRECTORY_PREFIX + GUIDFactory.newGUID().getId());
+        try {
+            final FormatIdentificationBatch batch = prepareBatch(workerParameters, handler, batchDirectory);
+
+            final List<ItemStatus> aggregateItemStatus = new ArrayList<>();
+            final List<String> objectNameList = workerParameters.getObjectNameList();
+            final List<JsonNode> objectMetadataList = workerParameters.getObjectMetadataList();
+            for (int i = 0; i < objectNameList.size(); i++) {
+                workerParameters.setObjectName(objectNameList.get(i));
+                workerParameters.setObjectMetadata(
+                    objectMetadataList != null && !objectMetadataList.isEmpty() ? objectMetadataList.get(i) : null);
+                handler.setCurrentObjectId(objectNameList.get(i));
+                aggregateItemStatus.add(execute(workerParameters, handler, batch));
+            }
+            return aggregateItemStatus;
+        } finally {
+            handler.setCurrentObjectId(null);
+            FileUtil.deleteRecursive(batchDirectory);
+            batchTimer.stop();
+        }
+    }
+
+    private FormatIdentificationBatch prepareBatch(WorkerParameters workerParameters, HandlerIO handler,
+        File batchDirectory) {
+        IngestContractModel ingestContract = null;
+        try {
+            handler.setCurrentObjectId(workerParameters.getObjectNameList().get(0));
+            ingestContract = INGEST_CONTRACT_CACHE.get(workerParameters.getContainerName(),
+                containerName -> loadIngestContractFromWorkspace(handler));
+        } catch (final InvalidParseOperationException e) {
+            LOGGER.warn("Could not read ingest contract, it is read again for each object", e);
+        }
+
+        FileFormatReferentialCache.Snapshot fileFormats = null;
+        try (AdminManagementClient adminClient = adminManagementClientFactory.getClient()) {
+            fileFormats = FileFormatReferentialCache.getInstance().getSnapshot(adminClient);
+        } catch (ReferentialException | InvalidParseOperationException | InvalidCreateOperationException |
+            IOException e) {
+            LOGGER.warn("Could not load file format referential, formats are looked up for each object", e);
+        }
+
+        return new FormatIdentificationBatch(ingestContract, fileFormats,
+            identifyBatchObjects(workerParameters, handler, batchDirectory));
+    }
+
+    /**
+     * @return the formats of the binary objects of the batch by object id, or null if they are identified one by one
+     */
+    private Map<String, List<FormatIdentifierResponse>> identifyBatchObjects(WorkerParameters workerParameters,
+        HandlerIO handler, File batchDirectory) {
+        try {
+            final FormatIdentifier formatIdentifier =
+                formatIdentifierFactory.getFormatIdentifierFor(FORMAT_IDENTIFIER_ID);
+            Files.createDirectories(batchDirectory.toPath());
+            if (!canLinkFiles(batchDirectory)) {
+                return null;
+            }
+            if (!linkBatchObjects(workerParameters, handler, batchDirectory)) {
+                return null;
+            }
+            try (Timer.Context ignored = CommonBusinessApplication.getBusinessMetricsRegistry()
+                .timer(BATCH_ANALYSIS_DURATION_TIMER).time()) {
+                return formatIdentifier.analyseDirectory(batchDirectory.toPath());
+            }
+        } catch (FormatIdentifierNotFoundException | FormatIdentifierFactoryException |
+            FormatIdentifierTechnicalException | FormatIdentifierBadRequestException | ProcessingException |
+            IOException e) {
+            LOGGER.warn("Could not identify the batch in a single analysis, objects are identified one by one", e);
+            return null;
+        }
+    }
+
+    /**
+     * Check hard links on an empty file, so that no object is downloaded for a batch that cannot be linked
+     */
+    private boolean canLinkFiles(File batchDirectory) throws IOException {
+        final Path probe = batchDirectory.toPath().resolve(LINK_PROBE);
+        final Path probeLink = batchDirectory.toPath().resolve(LINK_PROBE + ".link");
+        try {
+            Files.createFile(probe);
+            Files.createLink(probeLink, probe);
+            return true;
+        } catch (final UnsupportedOperationException | IOException e) {
+            LOGGER.warn("Hard links are not supported in the worker local cache, objects are identified one by one",
+                e);
+            return false;
+        } finally {
+            Files.deleteIfExists(probeLink);
+            Files.deleteIfExists(probe);
+        }
+    }
+
+    /**
+     * Link the binary objects of all the object groups of the batch in the directory, named by object id.<br/>
+     * The first link failure stops the batch, the objects already downloaded stay in the local cache for the
+     * identification one by one.
+     *
+     * @return false if the batch has no binary object
+     */
+    private boolean linkBatchObjects(WorkerParameters workerParameters, HandlerIO handler, File batchDirectory)
+        throws ProcessingException, IOException {
+        boolean hasObjects = false;
+        for (final String objectName : workerParameters.getObjectNameList()) {
+            handler.setCurrentObjectId(objectName);
+            final JsonNode jsonOG = (JsonNode) handler.getInput(OG_INPUT_RANK);
+            for (final Map.Entry<String, String> object : getMapOfObjectsIdsAndUris(jsonOG).entrySet()) {
+                final Path link = batchDirectory.toPath().resolve(object.getKey());
+                if (Files.exists(link)) {
+                    continue;
+                }
+                // File stays in the local cache, and is used again when the object is checked
+                final File file = loadFileFromWorkspace(handler, object.getValue());
+                Files.createLink(link, file.toPath());
+                hasObjects = true;
+            }
+        }
+        return hasObjects;
+    }
+
     @Override
     public ItemStatus execute(WorkerParameters params, HandlerIO handlerIO) {
+        return execute(params, handlerIO, FormatIdentificationBatch.NONE);
+    }
+
+    private ItemStatus execute(WorkerParameters params, HandlerIO handlerIO, FormatIdentificationBatch batch) {
         checkMandatoryParameters(params);
         LOGGER.debug("FormatIdentificationActionHandler running ...");
 
@@ -186,7 +339,7 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
                                     final ObjectCheckFormatResult result =
                                         executeOneObjectFromOG(handlerIO, formatIdentifier, objectId,
                                             jsonFormatIdentifier, file,
-                                            version);
+                                            version, batch);
 
                                     // create ItemStatus for subtask
                                     ItemStatus subTaskItemStatus = new ItemStatus(FILE_FORMAT);
@@ -263,7 +416,7 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
     private ObjectCheckFormatResult executeOneObjectFromOG(HandlerIO handlerIO, FormatIdentifier formatIdentifier,
         String objectId,
         JsonNode manifestFormatIdentification,
-        File file, JsonNode version) {
+        File file, JsonNode version, FormatIdentificationBatch batch) {
         final ObjectCheckFormatResult objectCheckFormatResult = new ObjectCheckFormatResult(objectId);
         objectCheckFormatResult.setStatus(StatusCode.OK);
 
@@ -271,7 +424,8 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
         boolean everyFormatType = true;
         Set<String> formatTypeSet;
         try {
-            IngestContractModel ingestContract = loadIngestContractFromWorkspace(handlerIO);
+            IngestContractModel ingestContract =
+                batch.ingestContract != null ? batch.ingestContract : loadIngestContractFromWorkspace(handlerIO);
             everyFormatType = ingestContract.isEveryFormatType();
             formatUnidentifiedAuthorized = ingestContract.isFormatUnidentifiedAuthorized();
             formatTypeSet = ingestContract.getFormatType();
@@ -280,8 +434,11 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
                 throw new FileFormatRejectedException("File format rejected in " + FORMAT_IDENTIFIER_ID);
             }
 
-            // check the file
-            final List<FormatIdentifierResponse> formats = formatIdentifier.analysePath(file.toPath());
+            // check the file, unless already identified with the batch
+            final List<FormatIdentifierResponse> formats =
+                batch.identifiedFormats != null && batch.identifiedFormats.containsKey(objectId)
+                    ? batch.identifiedFormats.get(objectId)
+                    : formatIdentifier.analysePath(file.toPath());
 
             final FormatIdentifierResponse format = getFirstPronomFormat(formats);
             if (format == null) {
@@ -290,14 +447,9 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
 
             final String formatId = format.getPuid();
 
-            final Select select = new Select();
-            select.setQuery(eq(FileFormat.PUID, formatId));
-            final RequestResponse<FileFormatModel> result;
-            try (AdminManagementClient adminClient = adminManagementClientFactory.getClient()) {
-                result = adminClient.getFormats(select.getFinalSelect());
-            }
+            final FileFormatModel refFormat = findReferentialFormat(formatId, batch);
 
-            if (!result.isOk() || ((RequestResponseOK<FileFormatModel>) result).getResults().isEmpty()) {
+            if (refFormat == null) {
                 // format not found in vitam referential
                 if (formatUnidentifiedAuthorized) {
                     checkNotFoundFormatIdentification(manifestFormatIdentification, version, objectCheckFormatResult);
@@ -306,11 +458,6 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
                 objectCheckFormatResult.setSubStatus(FILE_FORMAT_PUID_NOT_FOUND);
             } else {
                 // check formatIdentification
-
-                RequestResponseOK<FileFormatModel> requestResponseOK = (RequestResponseOK<FileFormatModel>) result;
-                List<FileFormatModel> results = requestResponseOK.getResults();
-                FileFormatModel refFormat = results.get(0);
-
                 checkFormatIdentification(manifestFormatIdentification, version, refFormat.getPuid(),
                     refFormat.getName(), refFormat.getMimeType(), objectCheckFormatResult);
             }
@@ -354,6 +501,27 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
         return objectCheckFormatResult;
     }
 
+    /**
+     * @return the format from the referential snapshot of the batch if any, else from the referential
+     */
+    private FileFormatModel findReferentialFormat(String puid, FormatIdentificationBatch batch)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        if (batch.fileFormats != null) {
+            return batch.fileFormats.getFormat(puid);
+        }
+
+        final Select select = new Select();
+        select.setQuery(eq(FileFormat.PUID, puid));
+        final RequestResponse<FileFormatModel> result;
+        try (AdminManagementClient adminClient = adminManagementClientFactory.getClient()) {
+            result = adminClient.getFormats(select.getFinalSelect());
+        }
+        if (!result.isOk() || ((RequestResponseOK<FileFormatModel>) result).getResults().isEmpty()) {
+            return null;
+        }
+        return ((RequestResponseOK<FileFormatModel>) result).getResults().get(0);
+    }
+
     private JsonNode checkAndUpdateFormatIdentification(JsonNode manifestFormatIdentification,
         ObjectCheckFormatResult objectCheckFormatResult, String puid, String name, String mimeType,
         JsonNode version, ObjectNode diffJsonNodeToPopulate) {
@@ -438,6 +606,7 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
     private File loadFileFromWorkspace(HandlerIO handlerIO, String filePath)
         throws ProcessingException {
         try {
+            // Already in the local cache when the digest was checked by a previous action of the step
             return handlerIO.getFileFromWorkspace(IngestWorkflowConstants.SEDA_FOLDER + "/" + filePath);
         } catch (final IOException e) {
             LOGGER.debug("Error while saving the file", e);
@@ -511,6 +680,25 @@ public class FormatIdentificationActionPlugin extends ActionHandler implements V
     }
 
 
+    /**
+     * What the objects of a batch share, each part being null when it could not be prepared for the batch
+     */
+    private static final class FormatIdentificationBatch {
+
+        private static final FormatIdentificationBatch NONE = new FormatIdentificationBatch(null, null, null);
+
+        private final IngestContractModel ingestContract;
+        private final FileFormatReferentialCache.Snapshot fileFormats;
+        private final Map<String, List<FormatIdentifierResponse>> identifiedFormats;
+
+        FormatIdentificationBatch(IngestContractModel ingestContract, FileFormatReferentialCache.Snapshot fileFormats,
+            Map<String, List<FormatIdentifierResponse>> identifiedFormats) {
+            this.ingestContract = ingestContract;
+            this.fileFormats = fileFormats;
+            this.identifiedFormats = identifiedFormats;
+        }
+    }
+
     private IngestContractModel loadIngestContractFromWorkspace(HandlerIO handlerIO)
         throws InvalidParseOperationException {
         return JsonHandler.getFromFile((File) handlerIO.getInput(REFERENTIAL_INGEST_CONTRACT_PARAMETERS_RANK),
@@ -64,7 +64,8 @@ public class ScrollSpliteratorHelper {
     }
 
     /***
-     * Create  units  ScrollSpliterator from a query that can iterate millions  of units with given bachSize
+     * Create  units  ScrollSpliterator from a query that can iterate millions  of units with given bachSize.
+     * Units are read by parallel slices unless the query is sorted.
      * @param client metadataClient
      * @param selectMultiQuery query
      * @param bachSize bachSize
@@ -81,11 +82,12 @@ public class ScrollSpliteratorHelper {
                 } catch (MetaDataExecutionException | MetaDataDocumentSizeException | MetaDataClientServerException | InvalidParseOperationException e) {
                     throw new IllegalStateException(e);
                 }
-            }, GlobalDatasParser.DEFAULT_SCROLL_TIMEOUT, bachSize);
+            }, GlobalDatasParser.DEFAULT_SCROLL_TIMEOUT, bachSize, GlobalDatasParser.SLICED_SCROLL_ACTIVATE_KEYWORD);
     }
 
     /***
-     * Create  objectGroups   ScrollSpliterator from a query that can iterate millions  of objectsGroups with given bachSize
+     * Create  objectGroups   ScrollSpliterator from a query that can iterate millions  of objectsGroups with given bachSize.
+     * Object groups are read by parallel slices unless the query is sorted.
      * @param client metadataClient
      * @param selectMultiQuery query
      * @param bachSize bachSize
@@ -102,7 +104,7 @@ public class ScrollSpliteratorHelper {
                     throw new IllegalStateException(e);
                 }
             }, GlobalDatasParser
-            .DEFAULT_SCROLL_TIMEOUT, bachSize);
+            .DEFAULT_SCROLL_TIMEOUT, bachSize, GlobalDatasParser.SLICED_SCROLL_ACTIVATE_KEYWORD);
 
     }
 
@@ -92,7 +92,6 @@ public class CreateManifest extends ActionHandler {
 
     static final int MANIFEST_XML_RANK = 0;
     static final int GUID_TO_INFO_RANK = 1;
-    static final int BINARIES_RANK = 2;
     private static final int MAX_ELEMENT_IN_QUERY = 1000;
 
     private MetaDataClientFactory metaDataClientFactory;
@@ -283,18 +282,15 @@ public class CreateManifest extends ActionHandler {
     private void storeBinaryInformationOnWorkspace(HandlerIO handlerIO, Map<String, JsonNode> maps)
         throws ProcessingException {
         File guidToInfo = handlerIO.getNewLocalFile(handlerIO.getOutput(GUID_TO_INFO_RANK).getPath());
-        File binaryListFile = handlerIO.getNewLocalFile(handlerIO.getOutput(BINARIES_RANK).getPath());
 
         try {
             JsonHandler.writeAsFile(maps, guidToInfo);
-            JsonHandler.writeAsFile(maps.keySet(), binaryListFile);
         } catch (InvalidParseOperationException e) {
             throw new ProcessingException(e);
         }
 
         // put file in workspace
         handlerIO.addOutputResult(GUID_TO_INFO_RANK, guidToInfo, true, false);
-        handlerIO.addOutputResult(BINARIES_RANK, binaryListFile, true, false);
     }
 
     @Override
@@ -26,45 +26,114 @@
  */
 package fr.gouv.vitam.worker.core.plugin.dip;
 
+import static fr.gouv.vitam.common.model.IngestWorkflowConstants.SEDA_FILE;
+import static java.lang.String.format;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.utils.IOUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import com.google.common.annotations.VisibleForTesting;
+
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.accesslog.AccessLogInfoModel;
+import fr.gouv.vitam.common.accesslog.AccessLogUtils;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.model.VitamSession;
+import fr.gouv.vitam.common.stream.StreamUtils;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameterName;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.storage.engine.client.StorageClient;
 import fr.gouv.vitam.storage.engine.client.StorageClientFactory;
 import fr.gouv.vitam.storage.engine.client.exception.StorageAlreadyExistsClientException;
 import fr.gouv.vitam.storage.engine.client.exception.StorageNotFoundClientException;
 import fr.gouv.vitam.storage.engine.client.exception.StorageServerClientException;
+import fr.gouv.vitam.storage.engine.common.exception.StorageNotFoundException;
 import fr.gouv.vitam.storage.engine.common.model.DataCategory;
 import fr.gouv.vitam.storage.engine.common.model.request.ObjectDescription;
 import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.core.handler.ActionHandler;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
-
-import static fr.gouv.vitam.common.model.IngestWorkflowConstants.SEDA_FILE;
-
-import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.workspace.client.WorkspaceClient;
 
 /**
  * ZIP the dip and move it from workspace to storage
+ *
+ * When the guid_to_path file is given as input, binaries are not expected in the workspace: the zip is built on the
+ * fly from the offers (several binaries being read ahead in parallel, but written in order) and streamed to the
+ * workspace, so that the binaries only go once over the workspace disk.
  */
 public class StoreDIP extends ActionHandler {
 
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(StoreDIP.class);
+
     private static final String STORE_DIP = "STORE_DIP";
     public static final String ARCHIVE_ZIP = "archive.zip";
     public static final String CONTENT = "Content";
 
+    static final int GUID_TO_INFO_RANK = 0;
+    private static final int DEFAULT_PREFETCH_SIZE = 4;
+    private static final int PIPE_BUFFER_SIZE = 1024 * 1024;
+
     /**
      * factory of a storage client
      */
     private final StorageClientFactory storageClientFactory;
 
+    /**
+     * number of binaries read ahead from the offers when streaming the zip
+     */
+    private final int prefetchSize;
+
     /**
      * default constructor
      */
     public StoreDIP() {
-        storageClientFactory = StorageClientFactory.getInstance();
+        this(StorageClientFactory.getInstance(), DEFAULT_PREFETCH_SIZE);
+    }
+
+    @VisibleForTesting
+    StoreDIP(StorageClientFactory storageClientFactory, int prefetchSize) {
+        this.storageClientFactory = storageClientFactory;
+        this.prefetchSize = prefetchSize;
     }
 
     /**
@@ -83,7 +152,11 @@ public class StoreDIP extends ActionHandler {
 
         try (final StorageClient storageClient = storageClientFactory.getClient()) {
             String output = ARCHIVE_ZIP;
-            handler.zipWorkspace(output, SEDA_FILE, CONTENT);
+            if (handler.getInput().size() > GUID_TO_INFO_RANK) {
+                streamZipToWorkspace(params, handler, output);
+            } else {
+                handler.zipWorkspace(output, SEDA_FILE, CONTENT);
+            }
             final ObjectDescription description = new ObjectDescription();
             description.setWorkspaceContainerGUID(params.getContainerName());
             description.setWorkspaceObjectURI(output);
@@ -101,9 +174,255 @@ public class StoreDIP extends ActionHandler {
         return new ItemStatus(STORE_DIP).setItemsStatus(STORE_DIP, itemStatus);
     }
 
+    private void streamZipToWorkspace(WorkerParameters params, HandlerIO handler, String output)
+        throws ProcessingException {
+
+        final GuidToInfoReader guidToInfo;
+        try {
+            guidToInfo = new GuidToInfoReader(new FileInputStream((File) handler.getInput(GUID_TO_INFO_RANK)));
+        } catch (IOException | InvalidParseOperationException e) {
+            throw new ProcessingException("Unable to read guid_to_path", e);
+        }
+
+        final VitamSession vitamSession = VitamThreadUtils.getVitamSession();
+        final Integer tenantId = vitamSession.getTenantId();
+        final String requestId = vitamSession.getRequestId();
+        final Boolean mustLog =
+            Boolean.valueOf(params.getMapParameters().get(WorkerParameterName.mustLogAccessOnObject));
+
+        // one thread writes the zip, the others read binaries ahead
+        ExecutorService executor = Executors.newFixedThreadPool(prefetchSize + 1, VitamThreadFactory.getInstance());
+        boolean completed = false;
+        try {
+            PipedOutputStream pipedOutputStream = new PipedOutputStream();
+            ZipWriterInputStream zipInputStream =
+                new ZipWriterInputStream(new PipedInputStream(pipedOutputStream, PIPE_BUFFER_SIZE));
+
+            Future<Void> zipWriter = executor.submit(() -> {
+                VitamThreadUtils.getVitamSession().setTenantId(tenantId);
+                VitamThreadUtils.getVitamSession().setRequestId(requestId);
+                try {
+                    writeZip(handler, guidToInfo, pipedOutputStream, executor, tenantId, requestId,
+                        objectInfo -> AccessLogUtils.getInfoFromWorkerInfo(objectInfo, vitamSession, mustLog));
+                } catch (Exception e) {
+                    // Fails the workspace upload, instead of ending it with a truncated zip
+                    zipInputStream.abort(e);
+                    IOUtils.closeQuietly(pipedOutputStream);
+                    throw e;
+                }
+                return null;
+            });
+
+            // Closes the piped stream once consumed, which stops the writer on failure
+            try {
+                handler.transferInputStreamToWorkspace(output, zipInputStream, null, false);
+            } catch (ProcessingException e) {
+                if (zipWriter.isDone()) {
+                    // Report the zip writer failure that broke the upload
+                    zipWriter.get();
+                }
+                throw e;
+            }
+            zipWriter.get();
+            completed = true;
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        } catch (ExecutionException e) {
+            throw new ProcessingException("Unable to build " + output + " from offers", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            IOUtils.closeQuietly(guidToInfo);
+            if (!completed) {
+                deleteFromWorkspace(handler, params.getContainerName(), output);
+            }
+        }
+    }
+
+    private void deleteFromWorkspace(HandlerIO handler, String containerName, String objectName) {
+        try (WorkspaceClient workspaceClient = handler.getWorkspaceClientFactory().getClient()) {
+            workspaceClient.deleteObject(containerName, objectName);
+        } catch (ContentAddressableStorageNotFoundException e) {
+            LOGGER.debug(e);
+        } catch (ContentAddressableStorageServerException e) {
+            LOGGER.error(format("Unable to delete incomplete %s from workspace", objectName), e);
+        }
+    }
+
+    private void writeZip(HandlerIO handler, Iterator<Map.Entry<String, Map<String, Object>>> binaries,
+        OutputStream outputStream,
+        ExecutorService executor, Integer tenantId, String requestId, Function<Map<String, Object>, AccessLogInfoModel> logInfoProvider)
+        throws Exception {
+
+        Deque<PendingBinary> pendingBinaries = new ArrayDeque<>();
+        // Not closed on failure: the zip central directory must not be written after a missing entry
+        ZipArchiveOutputStream zipArchiveOutputStream = new ZipArchiveOutputStream(outputStream);
+        try {
+            zipArchiveOutputStream.setUseZip64(Zip64Mode.Always);
+
+            zipArchiveOutputStream.putArchiveEntry(new ZipArchiveEntry(SEDA_FILE));
+            try (InputStream manifest = handler.getInputStreamFromWorkspace(SEDA_FILE)) {
+                IOUtils.copy(manifest, zipArchiveOutputStream);
+            }
+            zipArchiveOutputStream.closeArchiveEntry();
+
+            while (binaries.hasNext() || !pendingBinaries.isEmpty()) {
+                while (binaries.hasNext() && pendingBinaries.size() < prefetchSize) {
+                    Map.Entry<String, Map<String, Object>> binary = binaries.next();
+                    String objectGuid = binary.getKey();
+                    Map<String, Object> objectInfo = binary.getValue();
+                    AccessLogInfoModel logInfo = logInfoProvider.apply(objectInfo);
+                    pendingBinaries.add(new PendingBinary((String) objectInfo.get("FILE_NAME"),
+                        executor.submit(() -> {
+                            VitamThreadUtils.getVitamSession().setTenantId(tenantId);
+                            VitamThreadUtils.getVitamSession().setRequestId(requestId);
+                            return openBinary((String) objectInfo.get("strategyId"), objectGuid, logInfo);
+                        })));
+                }
+
+                PendingBinary pendingBinary = pendingBinaries.poll();
+                Response response = pendingBinary.response.get();
+                try {
+                    zipArchiveOutputStream.putArchiveEntry(new ZipArchiveEntry(pendingBinary.fileName));
+                    IOUtils.copy((InputStream) response.getEntity(), zipArchiveOutputStream);
+                    zipArchiveOutputStream.closeArchiveEntry();
+                } finally {
+                    StreamUtils.consumeAnyEntityAndClose(response);
+                }
+            }
+            zipArchiveOutputStream.close();
+        } finally {
+            for (PendingBinary pendingBinary : pendingBinaries) {
+                pendingBinary.cancel();
+            }
+        }
+    }
+
+    private Response openBinary(String strategyId, String objectGuid, AccessLogInfoModel logInfo)
+        throws StorageNotFoundException, StorageServerClientException {
+        for (int i = 1; ; i++) {
+            try (StorageClient storageClient = storageClientFactory.getClient()) {
+                return storageClient.getContainerAsync(strategyId, objectGuid, DataCategory.OBJECT, logInfo);
+            } catch (StorageNotFoundException | StorageServerClientException e) {
+                if (i >= PutBinaryOnWorkspace.NUMBER_OF_RETRY) {
+                    throw e;
+                }
+                LOGGER.error(format("unable to read object %s from offer, retry: %d", objectGuid, i), e);
+            }
+        }
+    }
+
     @Override
     public void checkMandatoryIOParameter(HandlerIO handler) throws ProcessingException {
 
     }
 
+    /**
+     * Entries of guid_to_path read one at a time while the zip is written, so that the whole map of a large DIP is
+     * never held in heap
+     */
+    private static final class GuidToInfoReader implements Iterator<Map.Entry<String, Map<String, Object>>>, Closeable {
+
+        private static final JsonFactory JSON_FACTORY = new MappingJsonFactory();
+        private static final TypeReference<Map<String, Object>> OBJECT_INFO_TYPE =
+            new TypeReference<Map<String, Object>>() {
+            };
+
+        private final JsonParser parser;
+        private JsonToken token;
+
+        private GuidToInfoReader(InputStream inputStream) throws IOException, InvalidParseOperationException {
+            parser = JSON_FACTORY.createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.close();
+                throw new InvalidParseOperationException("guid_to_path is not a json object");
+            }
+            token = parser.nextToken();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return token == JsonToken.FIELD_NAME;
+        }
+
+        @Override
+        public Map.Entry<String, Map<String, Object>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                String objectGuid = parser.getCurrentName();
+                parser.nextToken();
+                Map<String, Object> objectInfo = parser.readValueAs(OBJECT_INFO_TYPE);
+                token = parser.nextToken();
+                return new AbstractMap.SimpleImmutableEntry<>(objectGuid, objectInfo);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read guid_to_path", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    /**
+     * Zip stream read by the workspace upload, which fails instead of ending normally when the zip writer failed
+     */
+    private static class ZipWriterInputStream extends FilterInputStream {
+        private volatile Exception writerFailure;
+
+        private ZipWriterInputStream(InputStream in) {
+            super(in);
+        }
+
+        private void abort(Exception e) {
+            writerFailure = e;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkWriter();
+            int read = super.read();
+            checkWriter();
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkWriter();
+            int read = super.read(b, off, len);
+            checkWriter();
+            return read;
+        }
+
+        private void checkWriter() throws IOException {
+            if (writerFailure != null) {
+                throw new IOException("Zip writer failed", writerFailure);
+            }
+        }
+    }
+
+    private static class PendingBinary {
+        private final String fileName;
+        private final Future<Response> response;
+
+        private PendingBinary(String fileName, Future<Response> response) {
+            this.fileName = fileName;
+            this.response = response;
+        }
+
+        private void cancel() {
+            if (!response.cancel(true) && response.isDone()) {
+                try {
+                    StreamUtils.consumeAnyEntityAndClose(response.get());
+                } catch (InterruptedException | ExecutionException e) {
+                    LOGGER.debug(e);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DiskBackedStringMapTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private DiskBackedStringMap map;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.newFolder();
+        map = new DiskBackedStringMap(directory, "test");
+    }
+
+    @After
+    public void tearDown() {
+        map.close();
+    }
+
+    @Test
+    public void putGetUpdateAndRemove() {
+        // Given / When
+        assertThat(map.put("unit1", "guid1")).isNull();
+        assertThat(map.put("unit2", "guid2")).isNull();
+        assertThat(map.put("unit1", "guid1-updated")).isEqualTo("guid1");
+
+        // Then
+        assertThat(map).hasSize(2);
+        assertThat(map.get("unit1")).isEqualTo("guid1-updated");
+        assertThat(map.get("unit2")).isEqualTo("guid2");
+        assertThat(map.get("unknown")).isNull();
+        assertThat(map.containsKey("unit2")).isTrue();
+
+        assertThat(map.remove("unit2")).isEqualTo("guid2");
+        assertThat(map.remove("unit2")).isNull();
+        assertThat(map).hasSize(1);
+        assertThat(map.containsKey("unit2")).isFalse();
+
+        assertThat(map.put("unit2", "guid2-again")).isNull();
+        assertThat(map.get("unit2")).isEqualTo("guid2-again");
+    }
+
+    @Test
+    public void nullValueAndNonAsciiKeys() {
+        // Given / When
+        map.put("é-unit", null);
+        map.put("", "empty");
+
+        // Then
+        assertThat(map.containsKey("é-unit")).isTrue();
+        assertThat(map.get("é-unit")).isNull();
+        assertThat(map.get("")).isEqualTo("empty");
+        assertThat(map.containsKey(null)).isFalse();
+    }
+
+    @Test
+    public void iterateUpdateAndRemoveThroughEntrySet() {
+        // Given
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("unit" + i, "guid" + i);
+            expected.put("unit" + i, "guid" + i);
+        }
+
+        // When / Then
+        assertThat(new HashMap<>(map)).isEqualTo(expected);
+
+        Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            if (entry.getKey().endsWith("0")) {
+                iterator.remove();
+            } else {
+                entry.setValue(entry.getValue() + "-updated");
+            }
+        }
+        assertThat(map).hasSize(900);
+        assertThat(map.get("unit10")).isNull();
+        assertThat(map.get("unit11")).isEqualTo("guid11-updated");
+    }
+
+    @Test
+    public void growIndexAndClear() {
+        // Given / When
+        int nbEntries = 200_000;
+        for (int i = 0; i < nbEntries; i++) {
+            map.put("unit" + i, "guid" + i);
+        }
+
+        // Then
+        assertThat(map).hasSize(nbEntries);
+        for (int i = 0; i < nbEntries; i += 997) {
+            assertThat(map.get("unit" + i)).isEqualTo("guid" + i);
+        }
+
+        map.clear();
+        assertThat(map).isEmpty();
+        assertThat(map.get("unit1")).isNull();
+        map.put("unit1", "guid1");
+        assertThat(map.get("unit1")).isEqualTo("guid1");
+    }
+
+    @Test
+    public void closeDeletesFiles() {
+        // Given
+        map.put("unit1", "guid1");
+        assertThat(directory.list()).isNotEmpty();
+
+        // When
+        map.close();
+
+        // Then
+        assertThat(directory.list()).isEmpty();
+    }
+
+    @Test
+    public void severalMillionEntriesWithBoundedHeap() {
+        // Given
+        int nbEntries = 3_000_000;
+        long heapBefore = usedHeap();
+
+        // When
+        for (int i = 0; i < nbEntries; i++) {
+            map.put(unitId(i), guid(i));
+        }
+        long heapAfter = usedHeap();
+
+        // Then
+        assertThat(map).hasSize(nbEntries);
+        for (int i = 0; i < nbEntries; i += 1009) {
+            assertThat(map.get(unitId(i))).isEqualTo(guid(i));
+        }
+        // An on heap HashMap of the same entries needs several hundred MB
+        assertThat(heapAfter - heapBefore).isLessThan(64L * 1024 * 1024);
+    }
+
+    private static String unitId(int i) {
+        return "ID" + i;
+    }
+
+    private static String guid(int i) {
+        return String.format("aeaqaaaaaahgausqab7boak55nw5vqaaaa%08d", i);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
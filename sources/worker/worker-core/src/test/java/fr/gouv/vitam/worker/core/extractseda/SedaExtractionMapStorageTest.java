@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.extractseda;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.model.unit.GotObj;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
+import fr.gouv.vitam.worker.common.utils.DataObjectInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SedaExtractionMapStorageTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void mapIsMovedToDiskPastThresholdAndDeletedOnClose() throws Exception {
+        // Given
+        File spillDirectory = new File(temporaryFolder.getRoot(), "maps");
+        SedaExtractionMapStorage storage = new SedaExtractionMapStorage(10, spillDirectory);
+        SpillableMap<String> map = (SpillableMap<String>) storage.createStringMap("unitIdToGuid");
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            map.put("unit" + i, "guid" + i);
+        }
+        map.put("unit0", "guid0-updated");
+
+        // Then
+        assertThat(map.isSpilled()).isFalse();
+
+        // When
+        map.put("unit10", "guid10");
+
+        // Then
+        assertThat(map.isSpilled()).isTrue();
+        assertThat(map).hasSize(11);
+        assertThat(map.get("unit0")).isEqualTo("guid0-updated");
+        assertThat(map.get("unit10")).isEqualTo("guid10");
+        assertThat(spillDirectory.list()).isNotEmpty();
+
+        // When
+        storage.close();
+
+        // Then
+        assertThat(spillDirectory.list()).isEmpty();
+        assertThat(map).isEmpty();
+    }
+
+    @Test
+    public void clearSpilledMapGoesBackToHeap() {
+        // Given
+        SedaExtractionMapStorage storage =
+            new SedaExtractionMapStorage(2, new File(temporaryFolder.getRoot(), "maps"));
+        SpillableMap<String> map = (SpillableMap<String>) storage.createStringMap("guidToUnitId");
+        map.put("guid1", "unit1");
+        map.put("guid2", "unit2");
+        map.put("guid3", "unit3");
+        assertThat(map.isSpilled()).isTrue();
+
+        // When
+        map.clear();
+        map.put("guid4", "unit4");
+
+        // Then
+        assertThat(map.isSpilled()).isFalse();
+        assertThat(map).containsOnlyKeys("guid4");
+        assertThat(map.get("guid4")).isEqualTo("unit4");
+        storage.close();
+    }
+
+    @Test
+    public void lifeCycleParametersKeepTheirTypeAndValuesOnceMovedToDisk() {
+        // Given
+        SedaExtractionMapStorage storage =
+            new SedaExtractionMapStorage(1, new File(temporaryFolder.getRoot(), "maps"));
+        SpillableMap<LogbookLifeCycleParameters> map =
+            (SpillableMap<LogbookLifeCycleParameters>) storage.createLifeCycleParametersMap("guidToLifeCycle");
+        LogbookLifeCycleParameters unitLifeCycle = LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+        unitLifeCycle.putParameterValue(LogbookParameterName.objectIdentifier, "unitGuid");
+        unitLifeCycle.setFinalStatus("CHECK_MANIFEST", null, StatusCode.OK, null);
+        LogbookLifeCycleParameters objectGroupLifeCycle =
+            LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters();
+        objectGroupLifeCycle.putParameterValue(LogbookParameterName.objectIdentifier, "objectGroupGuid");
+
+        // When
+        map.put("unitGuid", unitLifeCycle);
+        map.put("objectGroupGuid", objectGroupLifeCycle);
+
+        // Then
+        assertThat(map.isSpilled()).isTrue();
+        assertThat(map.get("unitGuid")).isInstanceOf(LogbookLifeCycleUnitParameters.class);
+        assertThat(map.get("unitGuid").getMapParameters()).isEqualTo(unitLifeCycle.getMapParameters());
+        assertThat(map.get("objectGroupGuid")).isInstanceOf(LogbookLifeCycleObjectGroupParameters.class);
+        assertThat(map.get("objectGroupGuid").getMapParameters())
+            .isEqualTo(objectGroupLifeCycle.getMapParameters());
+        storage.close();
+    }
+
+    @Test
+    public void valueModifiedInPlaceIsKeptOnlyOncePutBack() {
+        // Given
+        SedaExtractionMapStorage storage =
+            new SedaExtractionMapStorage(1, new File(temporaryFolder.getRoot(), "maps"));
+        Map<String, List<String>> map =
+            storage.createJsonMap("objectGroupIdToUnitId", new TypeReference<List<String>>() {});
+        map.put("og1", new ArrayList<>(Arrays.asList("unit1")));
+        map.put("og2", new ArrayList<>(Arrays.asList("unit2", "unit3")));
+
+        // When
+        map.get("og1").add("lost");
+        List<String> units = map.get("og1");
+        units.add("unit4");
+        map.put("og1", units);
+
+        // Then
+        assertThat(map.get("og1")).containsExactly("unit1", "unit4");
+        assertThat(map.get("og2")).containsExactly("unit2", "unit3");
+        storage.close();
+    }
+
+    @Test
+    public void jsonValuesAreReadBackOnceMovedToDisk() {
+        // Given
+        SedaExtractionMapStorage storage =
+            new SedaExtractionMapStorage(1, new File(temporaryFolder.getRoot(), "maps"));
+        Map<String, GotObj> gotMap = storage.createJsonMap("gotMap", new TypeReference<GotObj>() {});
+        Map<String, DataObjectInfo> dataObjectMap =
+            storage.createJsonMap("dataObjectMap", new TypeReference<DataObjectInfo>() {});
+        DataObjectInfo dataObjectInfo = new DataObjectInfo().setId("id").setSize(12L).setUri("Content/file.pdf")
+            .setMessageDigest("digest").setAlgo(DigestType.SHA512);
+
+        // When
+        gotMap.put("do1", new GotObj("gotGuid1", false));
+        gotMap.put("do2", new GotObj("gotGuid2", true));
+        dataObjectMap.put("guid1", new DataObjectInfo());
+        dataObjectMap.put("guid2", dataObjectInfo);
+
+        // Then
+        assertThat(gotMap.get("do2").getGotGuid()).isEqualTo("gotGuid2");
+        assertThat(gotMap.get("do2").isVisited()).isTrue();
+        assertThat(gotMap.get("do1").isVisited()).isFalse();
+        assertThat(dataObjectMap.get("guid2")).isEqualToComparingFieldByField(dataObjectInfo);
+        storage.close();
+    }
+}
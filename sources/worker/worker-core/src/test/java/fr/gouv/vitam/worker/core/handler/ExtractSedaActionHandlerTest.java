@@ -52,6 +52,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.SystemPropertyUtil;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.RequestResponseOK;
@@ -487,6 +488,71 @@ public class ExtractSedaActionHandlerTest {
             "ID022", "ID024", "ID020", "ID018", "ID019", "ID025", "ID017");
     }
 
+    @Test
+    @RunWithCustomExecutor
+    public void givenMapsMovedToDiskWhenExtractSedaThenSameResultAsInHeap() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID);
+        int maxEntriesInMemory = VitamConfiguration.getIngestMapMaxEntriesInMemory();
+        VitamConfiguration.setIngestMapMaxEntriesInMemory(1);
+        try {
+            // Given
+            handler = new ExtractSedaActionHandler(metadataClientFactory, adminManagementClientFactory);
+            final InputStream sedaLocal =
+                new FileInputStream(PropertiesUtils.findFile("sip-management-metadata-ok1.xml"));
+            prepareResponseOKForAdminManagementClientFindIngestContracts(INGEST_CONTRACT_MASTER_MANDATORY_FALSE);
+            when(workspaceClient.getObject(any(), eq("SIP/manifest.xml")))
+                .thenReturn(Response.status(Status.OK).entity(sedaLocal).build());
+            handlerIO.addOutIOParameters(out);
+
+            // When
+            final ItemStatus response = handler.execute(params, handlerIO);
+
+            // Then
+            assertEquals(StatusCode.OK, response.getGlobalStatus());
+            assertThat(handler.getUnitIdToSetOfRuleId().get("ID015")).containsExactlyInAnyOrder(
+                "ID022", "ID024", "ID020", "ID018", "ID019", "ID025", "ID017");
+            File spillDirectory = new File(VitamConfiguration.getVitamTmpFolder(), "extract-seda-maps");
+            assertThat(spillDirectory.list()).isNotEmpty();
+
+            // When
+            handler.close();
+
+            // Then
+            assertThat(spillDirectory.list()).isEmpty();
+        } finally {
+            VitamConfiguration.setIngestMapMaxEntriesInMemory(maxEntriesInMemory);
+        }
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void givenMapsMovedToDiskWhenReadSipWithBdoWithoutGoThenDetectBdoWithoutGo() throws Exception {
+        VitamThreadUtils.getVitamSession().setTenantId(TENANT_ID);
+        int maxEntriesInMemory = VitamConfiguration.getIngestMapMaxEntriesInMemory();
+        VitamConfiguration.setIngestMapMaxEntriesInMemory(1);
+        try {
+            // Given
+            handler = new ExtractSedaActionHandler(metadataClientFactory, adminManagementClientFactory);
+            prepareResponseOKForAdminManagementClientFindIngestContracts(INGEST_CONTRACT_NO_CHECK);
+            final InputStream sedaLocal = new FileInputStream(PropertiesUtils.findFile("sip-bdo-orphan-ok1.xml"));
+            when(workspaceClient.getObject(any(), eq("SIP/manifest.xml")))
+                .thenReturn(Response.status(Status.OK).entity(sedaLocal).build());
+            handlerIO.addOutIOParameters(out);
+
+            // When
+            final ItemStatus response = handler.execute(params, handlerIO);
+
+            // Then
+            assertEquals(StatusCode.OK, response.getGlobalStatus());
+            assertThat(handler.getUnitIdToGroupId())
+                .containsEntry("ID035", handler.getDataObjectIdToObjectGroupId().get("ID009"))
+                .containsEntry("ID015", handler.getDataObjectIdToObjectGroupId().get("ID011"));
+            handler.close();
+        } finally {
+            VitamConfiguration.setIngestMapMaxEntriesInMemory(maxEntriesInMemory);
+        }
+    }
+
     @Test
     @RunWithCustomExecutor
     public void should_not_fill_unitIdToSetOfRuleId_when_rules_has_no_ruleid() throws Exception {
@@ -31,8 +31,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Lists;
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.RequestResponseOK;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.model.processing.IOParameter;
 import fr.gouv.vitam.common.model.processing.ProcessingUri;
@@ -45,6 +47,7 @@ import fr.gouv.vitam.processing.common.parameter.DefaultWorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 import org.assertj.core.api.Assertions;
@@ -59,9 +62,12 @@ import org.mockito.junit.MockitoRule;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -72,7 +78,11 @@ import java.util.stream.Stream;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -182,7 +192,8 @@ public class CheckConformityActionPluginTest {
         when(workspaceClientFactory.getClient()).thenReturn(workspaceClient);
         when(logbookOperationsClientFactory.getClient()).thenReturn(logbookOperationsClient);
         when(logbookLifeCyclesClientFactory.getClient()).thenReturn(logbookLifeCyclesClient);
-
+        when(workspaceClient.getObjectDigests(any(), any()))
+            .thenThrow(new ContentAddressableStorageNotFoundException("No extraction digests"));
     }
 
     @Test
@@ -270,6 +281,122 @@ public class CheckConformityActionPluginTest {
         handlerIO.close();
     }
 
+    @Test
+    public void should_keep_binary_in_local_cache_for_next_actions() throws Exception {
+        // Given
+        InputStream objectGroup = PropertiesUtils.getResourceAsStream(OBJECT_GROUP_BDO_AND_PDO);
+        when(workspaceClient.getObject(any(), eq("ObjectGroup/objName1")))
+            .thenReturn(Response.status(Status.OK).entity(objectGroup).build());
+        when(workspaceClient.getObject(any(), eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf")))
+            .thenReturn(Response.status(Status.OK).entity(PropertiesUtils
+                .getResourceAsStream("checkConformityActionPlugin/binaryObject/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"))
+                .build());
+
+        CheckConformityActionPlugin plugin = new CheckConformityActionPlugin();
+        final WorkerParameters params = getDefaultWorkerParameters();
+        params.setObjectName("objName1");
+        String objectId = "objectId";
+        final HandlerIOImpl handlerIO =
+            new HandlerIOImpl(workspaceClientFactory, logbookLifeCyclesClientFactory,
+                "CheckConformityActionHandlerTest", "cachingWorkerId",
+                Lists.newArrayList(objectId));
+        handlerIO.setCurrentObjectId(objectId);
+        final List<IOParameter> out = new ArrayList<>();
+        out.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.MEMORY, "objectGroupId.json")));
+        final List<IOParameter> in = new ArrayList<>();
+        in.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.VALUE, "SHA-512")));
+        handlerIO.addInIOParameters(in);
+        handlerIO.addOutIOParameters(out);
+
+        // When
+        final ItemStatus response = plugin.execute(params, handlerIO);
+        File file = handlerIO.getFileFromWorkspace("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf");
+
+        // Then
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        Assertions.assertThat(Files.readAllBytes(file.toPath())).isEqualTo(Files.readAllBytes(PropertiesUtils
+            .getResourcePath("checkConformityActionPlugin/binaryObject/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf")));
+        verify(workspaceClient, times(1)).getObject(any(), eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"));
+        handlerIO.close();
+    }
+
+    @Test
+    public void should_use_digests_computed_at_extraction_when_available() throws Exception {
+        // Given
+        InputStream objectGroup = PropertiesUtils.getResourceAsStream(OBJECT_GROUP_BDO_AND_PDO);
+        when(workspaceClient.getObject(any(), eq("ObjectGroup/objName1")))
+            .thenReturn(Response.status(Status.OK).entity(objectGroup).build());
+        ObjectNode extractionDigests = JsonHandler.createObjectNode();
+        extractionDigests.putObject("digests").put("SHA-512",
+            "942bb63cc16bf5ca3ba7fabf40ce9be19c3185a36cd87ad17c63d6fad1aa29d4312d73f2d6a1ba1266c3a71fc4119dd476d2d776cf2ad2acd7a9a3dfa1f80dc7");
+        doReturn(new RequestResponseOK<JsonNode>().addResult(extractionDigests)).when(workspaceClient)
+            .getObjectDigests(any(), eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"));
+
+        CheckConformityActionPlugin plugin = new CheckConformityActionPlugin();
+        final WorkerParameters params = getDefaultWorkerParameters();
+        params.setObjectName("objName1");
+        String objectId = "objectId";
+        final HandlerIOImpl handlerIO =
+            new HandlerIOImpl(workspaceClientFactory, logbookLifeCyclesClientFactory,
+                GUIDFactory.newGUID().getId(), "extractionDigestsWorkerId",
+                Lists.newArrayList(objectId));
+        handlerIO.setCurrentObjectId(objectId);
+        final List<IOParameter> out = new ArrayList<>();
+        out.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.MEMORY, "objectGroupId.json")));
+        final List<IOParameter> in = new ArrayList<>();
+        in.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.VALUE, "SHA-512")));
+        handlerIO.addInIOParameters(in);
+        handlerIO.addOutIOParameters(out);
+
+        // When
+        final ItemStatus response = plugin.execute(params, handlerIO);
+
+        // Then
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        verify(workspaceClient, never()).getObject(any(), eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"));
+        handlerIO.close();
+    }
+
+    @Test
+    public void should_not_ask_extraction_digests_again_when_container_has_none() throws Exception {
+        // Given
+        when(workspaceClient.getObject(any(), eq("ObjectGroup/objName1")))
+            .thenAnswer(invocation -> Response.status(Status.OK)
+                .entity(PropertiesUtils.getResourceAsStream(OBJECT_GROUP_BDO_AND_PDO)).build());
+        when(workspaceClient.getObject(any(), eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf")))
+            .thenAnswer(invocation -> Response.status(Status.OK).entity(PropertiesUtils
+                .getResourceAsStream("checkConformityActionPlugin/binaryObject/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"))
+                .build());
+        String containerName = GUIDFactory.newGUID().getId();
+
+        // When
+        for (String workerId : Arrays.asList("noExtractionDigestsWorkerId1", "noExtractionDigestsWorkerId2")) {
+            CheckConformityActionPlugin plugin = new CheckConformityActionPlugin();
+            final WorkerParameters params = getDefaultWorkerParameters();
+            params.setObjectName("objName1");
+            String objectId = "objectId";
+            final HandlerIOImpl handlerIO =
+                new HandlerIOImpl(workspaceClientFactory, logbookLifeCyclesClientFactory, containerName, workerId,
+                    Lists.newArrayList(objectId));
+            handlerIO.setCurrentObjectId(objectId);
+            final List<IOParameter> out = new ArrayList<>();
+            out.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.MEMORY, "objectGroupId.json")));
+            final List<IOParameter> in = new ArrayList<>();
+            in.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.VALUE, "SHA-512")));
+            handlerIO.addInIOParameters(in);
+            handlerIO.addOutIOParameters(out);
+
+            final ItemStatus response = plugin.execute(params, handlerIO);
+            assertEquals(StatusCode.OK, response.getGlobalStatus());
+            handlerIO.close();
+        }
+
+        // Then
+        verify(workspaceClient, times(1)).getObjectDigests(eq(containerName), any());
+        verify(workspaceClient, times(2)).getObject(eq(containerName),
+            eq("SIP/Content/5zC1uD6CvaYDipUhETOyUWVEbxHmE1.pdf"));
+    }
+
     @Test
     public void checkEmptyDigestMessage() throws Exception {
         InputStream objectGroupEmptyDigest = PropertiesUtils.getResourceAsStream(OBJECT_GROUP_DIGEST_EMPTY);
@@ -54,22 +54,28 @@ import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClientFactory;
 import fr.gouv.vitam.processing.common.parameter.DefaultWorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static junit.framework.TestCase.assertTrue;
@@ -77,11 +83,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
 public class FormatIdentificationActionPluginTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private FormatIdentificationActionPlugin plugin;
     private static final String FILE_FORMAT = "FILE_FORMAT";
 
@@ -474,6 +488,51 @@ public class FormatIdentificationActionPluginTest {
         assertEquals(StatusCode.FATAL, response.getGlobalStatus());
     }
 
+    @Test
+    public void formatIdentificationOfBatchInSingleAnalysis() throws Exception {
+        // Given
+        HandlerIO batchHandlerIO = mock(HandlerIO.class);
+        when(batchHandlerIO.getInput(0)).thenAnswer(invocation -> og.deepCopy());
+        when(batchHandlerIO.getInput(1))
+            .thenReturn(PropertiesUtils.getResourceFile(REFERENTIAL_INGEST_CONTRACT_DEFAULT_CONFIG));
+        when(batchHandlerIO.getNewLocalFile(anyString()))
+            .thenAnswer(invocation -> new File(tempFolder.getRoot(), invocation.getArgument(0)));
+        when(batchHandlerIO.getFileFromWorkspace(anyString())).thenAnswer(invocation -> {
+            File file = new File(tempFolder.getRoot(), ((String) invocation.getArgument(0)).replace('/', '_'));
+            if (!file.exists()) {
+                Files.write(file.toPath(), "data".getBytes());
+            }
+            return file;
+        });
+
+        Map<String, List<FormatIdentifierResponse>> formats = new HashMap<>();
+        for (String objectId : Arrays.asList("aeaaaaaaaaaam7myaaaamakxfgivurqaaaaq",
+            "aeaaaaaaaaaam7myaaaamakxfgivuuiaaaaq", "aeaaaaaaaaaam7myaaaamakxfgivuuyaaaaq",
+            "aeaaaaaaaaaam7myaaaamakxfgivuvaaaaaq")) {
+            formats.put(objectId, getFormatIdentifierResponseList());
+        }
+        when(formatIdentifier.analyseDirectory(any())).thenReturn(formats);
+        when(adminManagementClient.getFormats(any())).thenReturn(getAdminManagementJson());
+
+        plugin = new FormatIdentificationActionPlugin(adminManagementClientFactory, formatIdentifierFactory);
+        final WorkerParameters params = WorkerParametersFactory.newWorkerParameters("pId", "stepId",
+            GUIDFactory.newGUID().getId(), "currentStep", Lists.newArrayList("objName1", "objName2"),
+            "metadataURL", "workspaceURL");
+
+        // When
+        final List<ItemStatus> response = plugin.executeList(params, batchHandlerIO);
+
+        // Then
+        verify(formatIdentifier).analyseDirectory(any());
+        verify(formatIdentifier, never()).analysePath(any());
+        assertThat(response).hasSize(2);
+        response.forEach(itemStatus -> assertEquals(StatusCode.WARNING, itemStatus.getGlobalStatus()));
+        // Referential version check and load, not one query per object
+        verify(adminManagementClient, atMost(2)).getFormats(any());
+        assertThat(tempFolder.getRoot().list((dir, name) -> name.startsWith("format-identification-batch-")))
+            .isEmpty();
+    }
+
     private DefaultWorkerParameters getDefaultWorkerParameters() {
         return WorkerParametersFactory.newWorkerParameters("pId", "stepId", guid.getId(),
             "currentStep", Lists.newArrayList("objName"), "metadataURL", "workspaceURL");
@@ -26,7 +26,6 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.plugin.dip;
 
-import static fr.gouv.vitam.worker.core.plugin.dip.CreateManifest.BINARIES_RANK;
 import static fr.gouv.vitam.worker.core.plugin.dip.CreateManifest.GUID_TO_INFO_RANK;
 import static fr.gouv.vitam.worker.core.plugin.dip.CreateManifest.MANIFEST_XML_RANK;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,7 +39,6 @@ import java.io.FileInputStream;
 import java.util.*;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.ItemStatus;
@@ -140,11 +138,6 @@ public class CreateManifestTest {
             .willReturn(new ProcessingUri(UriPrefix.WORKSPACE, guidToPathFile.getPath()));
         given(handlerIO.getNewLocalFile(guidToPathFile.getPath())).willReturn(guidToPathFile);
 
-        File binaryFile = tempFolder.newFile();
-        given(handlerIO.getOutput(BINARIES_RANK))
-            .willReturn(new ProcessingUri(UriPrefix.WORKSPACE, binaryFile.getPath()));
-        given(handlerIO.getNewLocalFile(binaryFile.getPath())).willReturn(binaryFile);
-
         // When
         ItemStatus itemStatus = createManifest.execute(WorkerParametersFactory.newWorkerParameters(), handlerIO);
 
@@ -171,12 +164,6 @@ public class CreateManifestTest {
         assertThat(((Map)linkBetweenBinaryIdAndFileName.get("aeaaaaaaaabhu53raawyuak7tm2uaqqaaaba")).get("strategyId"))
             .isEqualTo("default-fake-2");
 
-        ArrayNode fromFile = (ArrayNode) JsonHandler.getFromFile(binaryFile);
-
-        assertThat(fromFile).hasSize(2).extracting(JsonNode::asText)
-            .containsExactlyInAnyOrder("aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq", "aeaaaaaaaabhu53raawyuak7tm2uaqqaaaba")
-            .doesNotContain("aeaaaaaaaabhu53raawyuak7tm2uaqiaaaaq");
-
         Assert.assertThat(Input.fromFile(manifestFile), hasXPath("//vitam:ArchiveDeliveryRequestReply/vitam:DataObjectPackage/vitam:DataObjectGroup/vitam:BinaryDataObject/vitam:Uri",
             equalTo("Content/aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq.pdf"))
             .withNamespaceContext(prefix2Uri));
@@ -239,11 +226,6 @@ public class CreateManifestTest {
                 .willReturn(new ProcessingUri(UriPrefix.WORKSPACE, guidToPathFile.getPath()));
         given(handlerIO.getNewLocalFile(guidToPathFile.getPath())).willReturn(guidToPathFile);
 
-        File binaryFile = tempFolder.newFile();
-        given(handlerIO.getOutput(BINARIES_RANK))
-                .willReturn(new ProcessingUri(UriPrefix.WORKSPACE, binaryFile.getPath()));
-        given(handlerIO.getNewLocalFile(binaryFile.getPath())).willReturn(binaryFile);
-
         // When
         ItemStatus itemStatus = createManifest.execute(WorkerParametersFactory.newWorkerParameters(), handlerIO);
 
@@ -260,11 +242,6 @@ public class CreateManifestTest {
         assertThat(((Map)linkBetweenBinaryIdAndFileName.get("aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq")).get("FILE_NAME"))
                 .isEqualTo("Content/aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq.pdf");
 
-        ArrayNode fromFile = (ArrayNode) JsonHandler.getFromFile(binaryFile);
-
-        assertThat(fromFile).hasSize(1).extracting(JsonNode::asText)
-                .containsExactlyInAnyOrder("aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq");
-
         Assert.assertThat(Input.fromFile(manifestFile), hasXPath("//vitam:ArchiveDeliveryRequestReply/vitam:DataObjectPackage/vitam:DataObjectGroup/vitam:BinaryDataObject/vitam:Uri",
                 equalTo("Content/aeaaaaaaaabhu53raawyuak7tm2uapqaaaaq.pdf"))
                 .withNamespaceContext(prefix2Uri));
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.plugin.dip;
+
+import static fr.gouv.vitam.worker.core.plugin.dip.StoreDIP.ARCHIVE_ZIP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.jboss.resteasy.core.Headers;
+import org.jboss.resteasy.core.ServerResponse;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.thread.RunWithCustomExecutor;
+import fr.gouv.vitam.common.thread.RunWithCustomExecutorRule;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+import fr.gouv.vitam.common.thread.VitamThreadUtils;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.parameter.DefaultWorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.storage.engine.client.StorageClient;
+import fr.gouv.vitam.storage.engine.client.StorageClientFactory;
+import fr.gouv.vitam.storage.engine.client.exception.StorageServerClientException;
+import fr.gouv.vitam.storage.engine.common.model.DataCategory;
+import fr.gouv.vitam.storage.engine.common.model.request.ObjectDescription;
+import fr.gouv.vitam.worker.common.HandlerIO;
+import fr.gouv.vitam.workspace.client.WorkspaceClient;
+import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
+
+public class StoreDIPTest {
+
+    private static final String FIRST_GUID = "aeaaaaaaaaasqm2gaak5wak7uvv55tqaaaaq";
+    private static final String SECOND_GUID = "aeaaaaaaaaasqm2gaak5wak7uvv55tqaaaba";
+    private static final String THIRD_GUID = "aeaaaaaaaaasqm2gaak5wak7uvv55tqaaabq";
+
+    @Rule
+    public RunWithCustomExecutorRule runInThread =
+        new RunWithCustomExecutorRule(VitamThreadPoolExecutor.getDefaultExecutor());
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private StorageClientFactory storageClientFactory;
+
+    @Mock
+    private StorageClient storageClient;
+
+    @Mock
+    private HandlerIO handlerIO;
+
+    @Mock
+    private WorkspaceClientFactory workspaceClientFactory;
+
+    @Mock
+    private WorkspaceClient workspaceClient;
+
+    private StoreDIP storeDIP;
+
+    private ByteArrayOutputStream zipInWorkspace;
+
+    private volatile boolean workspaceUploadCompleted;
+
+    @Before
+    public void setUp() throws Exception {
+        given(storageClientFactory.getClient()).willReturn(storageClient);
+        storeDIP = new StoreDIP(storageClientFactory, 2);
+
+        given(handlerIO.getWorkspaceClientFactory()).willReturn(workspaceClientFactory);
+        given(workspaceClientFactory.getClient()).willReturn(workspaceClient);
+
+        zipInWorkspace = new ByteArrayOutputStream();
+        workspaceUploadCompleted = false;
+        willAnswer(args -> {
+            try (InputStream inputStream = args.getArgument(1)) {
+                IOUtils.copy(inputStream, zipInWorkspace);
+            } catch (IOException e) {
+                throw new ProcessingException("Cannot write to workspace", e);
+            }
+            workspaceUploadCompleted = true;
+            return null;
+        }).given(handlerIO).transferInputStreamToWorkspace(eq(ARCHIVE_ZIP), any(), eq(null), eq(false));
+        given(handlerIO.getInputStreamFromWorkspace("manifest.xml"))
+            .willAnswer(args -> new ByteArrayInputStream("<manifest/>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void should_stream_zip_from_offers_in_manifest_order() throws Exception {
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(0);
+        givenGuidToPath();
+        givenBinary("default", FIRST_GUID, "first");
+        givenBinary("default", SECOND_GUID, "second");
+        givenBinary("other_strategy", THIRD_GUID, "third");
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+        param.setContainerName("operationId");
+
+        // When
+        ItemStatus itemStatus = storeDIP.execute(param, handlerIO);
+
+        // Then
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        assertThat(readZip()).containsExactly(
+            entry("manifest.xml", "<manifest/>"),
+            entry("Content/" + FIRST_GUID + ".pdf", "first"),
+            entry("Content/" + SECOND_GUID + ".txt", "second"),
+            entry("Content/" + THIRD_GUID + ".jpg", "third"));
+        verify(handlerIO, never()).zipWorkspace(any(), any());
+        verify(workspaceClient, never()).deleteObject(any(), any());
+        verify(storageClient).storeFileFromWorkspace(eq(VitamConfiguration.getDefaultStrategy()), eq(DataCategory.DIP),
+            eq("operationId"), any(ObjectDescription.class));
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void should_retry_when_offer_read_failed_one_times() throws Exception {
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(0);
+        givenGuidToPath();
+        given(storageClient.getContainerAsync(eq("default"), eq(FIRST_GUID), eq(DataCategory.OBJECT), any()))
+            .willThrow(new StorageServerClientException("read failed"))
+            .willAnswer(args -> response("first"));
+        givenBinary("default", SECOND_GUID, "second");
+        givenBinary("other_strategy", THIRD_GUID, "third");
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+
+        // When
+        ItemStatus itemStatus = storeDIP.execute(param, handlerIO);
+
+        // Then
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        assertThat(readZip()).hasSize(4);
+        verify(storageClient, times(2))
+            .getContainerAsync(eq("default"), eq(FIRST_GUID), eq(DataCategory.OBJECT), any());
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void should_fail_and_not_store_dip_when_offer_read_failed_many_times() throws Exception {
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(0);
+        givenGuidToPath();
+        givenBinary("default", FIRST_GUID, "first");
+        given(storageClient.getContainerAsync(eq("default"), eq(SECOND_GUID), eq(DataCategory.OBJECT), any()))
+            .willThrow(new StorageServerClientException("read failed"));
+        givenBinary("other_strategy", THIRD_GUID, "third");
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+
+        param.setContainerName("operationId");
+
+        // When / Then
+        assertThatThrownBy(() -> storeDIP.execute(param, handlerIO))
+            .isInstanceOf(ProcessingException.class)
+            .hasRootCauseInstanceOf(StorageServerClientException.class);
+        // The truncated zip is neither uploaded as a complete stream, nor left in workspace, nor stored
+        assertThat(workspaceUploadCompleted).isFalse();
+        verify(workspaceClient).deleteObject("operationId", ARCHIVE_ZIP);
+        verify(storageClient, never()).storeFileFromWorkspace(any(), any(), any(), any());
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void should_delete_zip_from_workspace_when_workspace_upload_failed() throws Exception {
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(0);
+        givenGuidToPath();
+        givenBinary("default", FIRST_GUID, "first");
+        givenBinary("default", SECOND_GUID, "second");
+        givenBinary("other_strategy", THIRD_GUID, "third");
+        willThrow(new ProcessingException("Cannot write to workspace"))
+            .given(handlerIO).transferInputStreamToWorkspace(eq(ARCHIVE_ZIP), any(), eq(null), eq(false));
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+        param.setContainerName("operationId");
+
+        // When / Then
+        assertThatThrownBy(() -> storeDIP.execute(param, handlerIO))
+            .isInstanceOf(ProcessingException.class);
+        verify(workspaceClient).deleteObject("operationId", ARCHIVE_ZIP);
+        verify(storageClient, never()).storeFileFromWorkspace(any(), any(), any(), any());
+    }
+
+    @Test
+    @RunWithCustomExecutor
+    public void should_fail_and_delete_zip_when_guid_to_path_is_truncated() throws Exception {
+        // Given
+        VitamThreadUtils.getVitamSession().setTenantId(0);
+        File guidToPath = tempFolder.newFile("guid_to_path.json");
+        Files.write(guidToPath.toPath(), ("{\"" + FIRST_GUID + "\": {\"strategyId\": \"default\", " +
+            "\"FILE_NAME\": \"Content/" + FIRST_GUID + ".pdf\"}, \"" + SECOND_GUID + "\": {\"strat")
+            .getBytes(StandardCharsets.UTF_8));
+        given(handlerIO.getInput()).willReturn(new ArrayList<>(Collections.singletonList(guidToPath)));
+        given(handlerIO.getInput(StoreDIP.GUID_TO_INFO_RANK)).willReturn(guidToPath);
+        givenBinary("default", FIRST_GUID, "first");
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+        param.setContainerName("operationId");
+
+        // When / Then
+        assertThatThrownBy(() -> storeDIP.execute(param, handlerIO))
+            .isInstanceOf(ProcessingException.class);
+        assertThat(workspaceUploadCompleted).isFalse();
+        verify(workspaceClient).deleteObject("operationId", ARCHIVE_ZIP);
+        verify(storageClient, never()).storeFileFromWorkspace(any(), any(), any(), any());
+    }
+
+    @Test
+    public void should_zip_workspace_when_no_guid_to_path_given() throws Exception {
+        // Given
+        given(handlerIO.getInput()).willReturn(new ArrayList<>());
+        DefaultWorkerParameters param = WorkerParametersFactory.newWorkerParameters();
+
+        // When
+        ItemStatus itemStatus = storeDIP.execute(param, handlerIO);
+
+        // Then
+        assertThat(itemStatus.getGlobalStatus()).isEqualTo(StatusCode.OK);
+        verify(handlerIO).zipWorkspace(ARCHIVE_ZIP, "manifest.xml", StoreDIP.CONTENT);
+    }
+
+    private void givenGuidToPath() throws Exception {
+        URL url = this.getClass().getResource("/StoreDIP/guid_to_path.json");
+        File guidToPath = new File(url.toURI());
+        given(handlerIO.getInput()).willReturn(new ArrayList<>(Collections.singletonList(guidToPath)));
+        given(handlerIO.getInput(StoreDIP.GUID_TO_INFO_RANK)).willReturn(guidToPath);
+    }
+
+    private void givenBinary(String strategyId, String guid, String content) throws Exception {
+        given(storageClient.getContainerAsync(eq(strategyId), eq(guid), eq(DataCategory.OBJECT), any()))
+            .willAnswer(args -> response(content));
+    }
+
+    private ServerResponse response(String content) {
+        return new ServerResponse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 200,
+            new Headers<>());
+    }
+
+    private Map<String, String> readZip() throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipArchiveInputStream zip = new ZipArchiveInputStream(
+            new ByteArrayInputStream(zipInWorkspace.toByteArray()))) {
+            ZipArchiveEntry entry;
+            while ((entry = zip.getNextZipEntry()) != null) {
+                entries.put(entry.getName(), new String(IOUtils.toByteArray(zip), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
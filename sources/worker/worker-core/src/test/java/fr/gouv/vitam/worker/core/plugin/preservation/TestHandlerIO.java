@@ -27,6 +27,7 @@
 package fr.gouv.vitam.worker.core.plugin.preservation;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.model.processing.IOParameter;
 import fr.gouv.vitam.common.model.processing.ProcessingUri;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCyclesClientHelper;
@@ -161,6 +162,16 @@ public class TestHandlerIO implements HandlerIO {
         return this.transferedFileToWorkspaceMap.get(objectName);
     }
 
+    @Override
+    public File getFileFromWorkspace(String objectName, Digest... digests)
+        throws IOException, ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        File file = this.transferedFileToWorkspaceMap.get(objectName);
+        for (Digest digest : digests) {
+            digest.update(file);
+        }
+        return file;
+    }
+
     @Override
     public InputStream getInputStreamFromWorkspace(String objectName)
         throws IOException, ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
@@ -55,6 +55,19 @@ public class WorkspaceBufferingInputStream extends InputStream {
     public WorkspaceBufferingInputStream(WorkspaceClientFactory workspaceClientFactory,
         String containerName, String objectName, int maxOnDiskBufferSize, int maxInMemoryBufferSize, File tmpDirectory)
         throws IOException, ContentAddressableStorageNotFoundException {
+        this(workspaceClientFactory, containerName, objectName, 0L, maxOnDiskBufferSize, maxInMemoryBufferSize,
+            tmpDirectory);
+    }
+
+    /**
+     * Stream of an object starting at a given offset: the bytes before startOffset are never read from the workspace
+     *
+     * @param startOffset offset in bytes of the first byte to read
+     */
+    public WorkspaceBufferingInputStream(WorkspaceClientFactory workspaceClientFactory,
+        String containerName, String objectName, long startOffset, int maxOnDiskBufferSize,
+        int maxInMemoryBufferSize, File tmpDirectory)
+        throws IOException, ContentAddressableStorageNotFoundException {
 
         this.workspaceClientFactory = workspaceClientFactory;
         this.containerName = containerName;
@@ -62,7 +75,7 @@ public class WorkspaceBufferingInputStream extends InputStream {
         this.maxOnDiskBufferSize = maxOnDiskBufferSize;
         this.maxInMemoryBufferSize = maxInMemoryBufferSize;
         this.tmpDirectory = tmpDirectory;
-        this.totalReadBytes = 0L;
+        this.totalReadBytes = startOffset;
 
         loadNextBuffer();
     }
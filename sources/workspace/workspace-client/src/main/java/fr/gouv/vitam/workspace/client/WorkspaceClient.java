@@ -71,6 +71,7 @@ public class WorkspaceClient extends DefaultClient {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkspaceClient.class);
     private static final String OBJECTS = "/objects/";
     private static final String FOLDERS = "/folders/";
+    private static final String DIGESTS = "/digests/";
     private static final String CONTAINERS = "/containers/";
 
     /**
@@ -666,7 +667,7 @@ public class WorkspaceClient extends DefaultClient {
             final MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
             headers.add(GlobalDataRest.X_DIGEST_ALGORITHM, algo.getName());
             response =
-                performRequest(HttpMethod.HEAD, CONTAINERS + containerName + OBJECTS + objectName, null,
+                performRequest(HttpMethod.HEAD, CONTAINERS + containerName + OBJECTS + objectName, headers,
                     MediaType.APPLICATION_JSON_TYPE);
 
             if (Response.Status.OK.getStatusCode() == response.getStatus()) {
@@ -751,6 +752,43 @@ public class WorkspaceClient extends DefaultClient {
         }
     }
 
+    /**
+     * Get the size and digests computed when an object was extracted from an archive in the workspace
+     *
+     * @param containerName the container name
+     * @param objectName the object name
+     * @return object digests : {"size": 123, "digests": {"SHA-512": "..."}}
+     * @throws ContentAddressableStorageNotFoundException in case the object couldnt be found, or was not extracted
+     * from an archive, or was modified since
+     * @throws ContentAddressableStorageServerException in case of any other error
+     */
+    public RequestResponse<JsonNode> getObjectDigests(String containerName, String objectName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        Response response = null;
+        try {
+            response =
+                performRequest(HttpMethod.GET, CONTAINERS + containerName + DIGESTS + objectName, null,
+                    MediaType.APPLICATION_JSON_TYPE);
+
+            if (Response.Status.OK.getStatusCode() == response.getStatus()) {
+                return new RequestResponseOK().addResult(response.readEntity(JsonNode.class));
+            } else if (Response.Status.NOT_FOUND.getStatusCode() == response.getStatus()) {
+                LOGGER.debug(ErrorMessage.OBJECT_NOT_FOUND.getMessage());
+                throw new ContentAddressableStorageNotFoundException(ErrorMessage.OBJECT_NOT_FOUND.getMessage());
+            } else {
+                LOGGER.debug(response.getStatusInfo().getReasonPhrase());
+                throw new ContentAddressableStorageServerException(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage());
+            }
+        } catch (final VitamClientInternalException e) {
+            LOGGER.debug(INTERNAL_SERVER_ERROR2, e);
+            throw new ContentAddressableStorageServerException(e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     /**
      * Check object
      *
@@ -7,6 +7,7 @@ import fr.gouv.vitam.common.junit.FakeInputStream;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.junit.Before;
@@ -91,6 +92,29 @@ public class WorkspaceBufferingInputStreamTest {
         verifyReadByteArrayWithOffset(100_000, 1_000, 4_500);
     }
 
+    @Test
+    public void testReadFromStartOffset() throws Exception {
+
+        // Given
+        File testFile = createRandomFile(10_000);
+        givenWorkspaceClientReturnsFileContent(testFile);
+
+        // When
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (WorkspaceBufferingInputStream instance = new WorkspaceBufferingInputStream(
+            workspaceClientFactory, "container", "object", 7_000L, 4_500, 1_000, tempFolder.getRoot())) {
+            IOUtils.copy(instance, byteArrayOutputStream);
+        }
+
+        // Then
+        try (InputStream expected = new FileInputStream(testFile)) {
+            IOUtils.skipFully(expected, 7_000L);
+            assertThat(byteArrayOutputStream.toInputStream()).hasSameContentAs(expected);
+        }
+        verify(workspaceClient).getObject(CONTAINER, OBJECT, 7_000L, 4_500L);
+        verify(workspaceClient, times(1)).getObject(eq(CONTAINER), eq(OBJECT), anyLong(), anyLong());
+    }
+
     private void verifyReadByte(int size, int maxInMemoryBufferSize, int maxOnDiskBufferSize) throws Exception {
 
         // Given
@@ -159,6 +159,14 @@ public class WorkspaceClientObjectTest extends ResteasyTestApplication {
             return mock.get();
         }
 
+        @Path("{containerName}/digests/{objectName}")
+        @GET
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response getObjectDigests(@PathParam("containerName") String containerName,
+            @PathParam("objectName") String objectName) {
+            return mock.get();
+        }
+
         @Path("{containerName}/folders/{folderName}")
         @PUT
         @Consumes({MediaType.APPLICATION_OCTET_STREAM, "application/zip", "application/gzip"})
@@ -411,6 +419,23 @@ public class WorkspaceClientObjectTest extends ResteasyTestApplication {
     }
 
 
+    // get extraction digests
+    @Test(expected = ContentAddressableStorageNotFoundException.class)
+    public void givenNoExtractionDigestsWhenGetObjectDigestsThenRaiseAnException() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.NOT_FOUND).build());
+        client.getObjectDigests(CONTAINER_NAME, OBJECT_NAME);
+    }
+
+    @Test
+    public void givenExtractionDigestsWhenGetObjectDigestsThenReturnDigests() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.OK)
+            .entity("{\"size\" : 1024, \"digests\" : {\"SHA-512\" : \"" + MESSAGE_DIGEST + "\"}}").build());
+        final JsonNode jsonDigests = client.getObjectDigests(CONTAINER_NAME, OBJECT_NAME)
+            .toJsonNode().get("$results").get(0);
+        assertEquals(1024, jsonDigests.get("size").asInt());
+        assertEquals(MESSAGE_DIGEST, jsonDigests.get("digests").get("SHA-512").asText());
+    }
+
     private InputStream getInputStream(String file) throws FileNotFoundException {
         return PropertiesUtils.getResourceAsStream("file1.pdf");
     }
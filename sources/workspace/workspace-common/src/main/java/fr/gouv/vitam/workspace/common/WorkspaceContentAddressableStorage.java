@@ -283,6 +283,24 @@ public interface WorkspaceContentAddressableStorage {
      */
     JsonNode getObjectInformation(String containerName, String objectName) throws ContentAddressableStorageException;
 
+    /**
+     * Retrieves the size and digests computed when the object at location containerName/objectName was extracted
+     * from an archive, as a JsonNode object : {"size": 123, "digests": {"SHA-512": "..."}}
+     *
+     * @param containerName
+     *            container where the object is.
+     * @param objectName
+     *            fully qualified name relative to the container.
+     * @return the object digests as a JsonNode object
+     *
+     * @throws ContentAddressableStorageNotFoundException
+     *             Thrown when the object cannot be located, or was not extracted from an archive, or was modified
+     *             since.
+     * @throws ContentAddressableStorageException
+     *             Thrown when get action failed due some other failure
+     */
+    JsonNode getObjectDigests(String containerName, String objectName) throws ContentAddressableStorageException;
+
     /**
      * Determines if a container exists
      *
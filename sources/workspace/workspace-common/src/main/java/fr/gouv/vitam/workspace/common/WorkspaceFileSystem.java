@@ -32,9 +32,11 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import fr.gouv.vitam.common.CharsetUtils;
 import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.client.AbstractMockClient;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -105,7 +107,17 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkspaceFileSystem.class);
 
+    /**
+     * Folder of a container where the digests of the objects extracted from an archive are recorded
+     */
+    static final String EXTRACTION_DIGESTS_FOLDER = ".extractionDigests";
+    private static final String EXTRACTION_DIGESTS_EXTENSION = ".json";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String DIGESTS = "digests";
+
     private Path root;
+    private final List<DigestType> extractionDigestTypes;
     /**
      * To prevent multiple Path traversal attack check in inter-methods calls
      */
@@ -125,6 +137,9 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
         if (!Files.exists(root)) {
             Files.createDirectories(root);
         }
+        extractionDigestTypes = configuration.getExtractionDigestTypes() == null ?
+            Collections.singletonList(VitamConfiguration.getDefaultDigestType()) :
+            new ArrayList<>(configuration.getExtractionDigestTypes());
     }
 
     @Override
@@ -295,7 +310,15 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
              */
 
             final List<URI> list = new ArrayList<>();
+            final Path extractionDigestsPath =
+                getContainerPath(containerName, false).resolve(EXTRACTION_DIGESTS_FOLDER);
             Files.walkFileTree(folderPath, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return extractionDigestsPath.equals(dir) ? FileVisitResult.SKIP_SUBTREE :
+                        FileVisitResult.CONTINUE;
+                }
+
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
                     if (attrs.isDirectory()) {
@@ -472,6 +495,7 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
         }
         try {
             Files.delete(getObjectPath(containerName, objectName, false));
+            Files.deleteIfExists(getExtractionDigestsPath(containerName, objectName));
         } catch (IOException ex) {
             throw new ContentAddressableStorageException(ex);
         }
@@ -492,6 +516,14 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
     public String computeObjectDigest(String containerName, String objectName, DigestType algo)
         throws ContentAddressableStorageException {
         ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(), algo);
+        try {
+            final JsonNode digest = getObjectDigests(containerName, objectName).get(DIGESTS).get(algo.getName());
+            if (digest != null) {
+                return digest.asText();
+            }
+        } catch (final ContentAddressableStorageNotFoundException e) {
+            LOGGER.debug("No digest recorded at extraction, compute it", e);
+        }
         try (final InputStream stream = (InputStream) getObject(containerName, objectName, null, null).getEntity()) {
             final Digest digest = new Digest(algo);
             digest.update(stream);
@@ -549,6 +581,35 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
         }
     }
 
+    @Override
+    public JsonNode getObjectDigests(String containerName, String objectName)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        if (!isExistingObject(containerName, objectName)) {
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+        }
+        try {
+            final Path objectPath = getObjectPath(containerName, objectName, true);
+            final Path digestsPath = getExtractionDigestsPath(containerName, objectName);
+            if (!Files.isRegularFile(digestsPath)) {
+                throw new ContentAddressableStorageNotFoundException(
+                    "No digest recorded at extraction for " + objectName);
+            }
+            final JsonNode objectDigests = JsonHandler.getFromFile(digestsPath.toFile());
+            // The object has been replaced since its extraction
+            if (objectDigests.get(SIZE).asLong() != Files.size(objectPath) ||
+                objectDigests.get(LAST_MODIFIED).asLong() != Files.getLastModifiedTime(objectPath).toMillis()) {
+                throw new ContentAddressableStorageNotFoundException(
+                    "Object modified since its extraction " + objectName);
+            }
+            return objectDigests;
+        } catch (IOException | InvalidParseOperationException ex) {
+            throw new ContentAddressableStorageException(ex);
+        }
+    }
+
     @Override
     public long countObjects(String containerName) throws ContentAddressableStorageException {
         ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
@@ -561,7 +622,9 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
         try {
             Path containerPath = getContainerPath(containerName, false);
             try (Stream<Path> streams = Files.walk(containerPath, FileVisitOption.FOLLOW_LINKS)) {
+                Path extractionDigestsPath = containerPath.resolve(EXTRACTION_DIGESTS_FOLDER);
                 return streams.filter(path -> !containerPath.equals(path))
+                    .filter(path -> !path.startsWith(extractionDigestsPath))
                     .count();
             }
         } catch (IOException ex) {
@@ -590,6 +653,26 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
         return Paths.get(root.toString(), containerName, objectName);
     }
 
+    private Path getExtractionDigestsPath(String containerName, String objectName) throws IOException {
+        return Paths.get(getContainerPath(containerName, false).toString(), EXTRACTION_DIGESTS_FOLDER,
+            objectName + EXTRACTION_DIGESTS_EXTENSION);
+    }
+
+    private void writeExtractionDigests(String containerName, Path objectPath, long size, Digest[] digests)
+        throws IOException {
+        final String objectName = getContainerPath(containerName, false).relativize(objectPath).toString();
+        final ObjectNode objectDigests = JsonHandler.createObjectNode();
+        objectDigests.put(SIZE, size);
+        objectDigests.put(LAST_MODIFIED, Files.getLastModifiedTime(objectPath).toMillis());
+        final ObjectNode digestsNode = objectDigests.putObject(DIGESTS);
+        for (final Digest digest : digests) {
+            digestsNode.put(digest.type().getName(), digest.digestHex());
+        }
+        final Path digestsPath = getExtractionDigestsPath(containerName, objectName);
+        Files.createDirectories(digestsPath.getParent());
+        Files.write(digestsPath, JsonHandler.unprettyPrint(objectDigests).getBytes(CharsetUtils.UTF8));
+    }
+
     /**
      * Extract compressed SIP and push the objects on the SIP folder
      *
@@ -634,11 +717,24 @@ public class WorkspaceFileSystem implements WorkspaceContentAddressableStorage {
                         Files.createDirectories(parent);
                     }
                     if (!entry.isDirectory()) {
-                        Files.copy(entryInputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                        // compute the digests while the entry is copied, so that they need not be computed again
+                        // by reading the extracted object
+                        final Digest[] digests = extractionDigestTypes.stream().map(Digest::new)
+                            .toArray(Digest[]::new);
+                        InputStream digestInputStream = entryInputStream;
+                        for (final Digest digest : digests) {
+                            digestInputStream = digest.getDigestInputStream(digestInputStream);
+                        }
+                        final long size =
+                            Files.copy(digestInputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                        Path extracted = target;
                         if (!manifestFileFounded && isManifestFileName(entry.getName())) {
-                            Files.move(target, target.resolveSibling(IngestWorkflowConstants.SEDA_FILE));
+                            extracted = Files.move(target, target.resolveSibling(IngestWorkflowConstants.SEDA_FILE));
                             manifestFileFounded = true;
                         }
+                        if (digests.length > 0) {
+                            writeExtractionDigests(containerName, extracted, size, digests);
+                        }
                     }
                 }
                 entryInputStream.setClosed(false);
@@ -27,9 +27,12 @@
 
 package fr.gouv.vitam.workspace.common;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Lists;
 import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.storage.StorageConfiguration;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
@@ -73,6 +76,10 @@ public class WorkspaceFileSystemTest {
     private static final String CONTENT_FOLDER = "Content";
     private static final String SIP_TAR_GZ = "sip.tar.gz";
     private static final String SIP_TAR = "sip.tar";
+    private static final String TXT_FILE =
+        "content/cb27754e97d86e44dd5ac063afd8d25c4ebd89aa7c0f3e89ad72b5d4b0ccfea142ce505e231e8a3c56391546eaa4ea46a71869e59a6e07be01e1abb1f057feee.txt";
+    private static final String TXT_SHA512 =
+        "d156f4a4cc725cc6eaaafdcb7936c9441d25bdf033e4e2f1852cf540d39713446cfcd42f2ba087eb66f3f9dbfeca338180ca64bdde645706ec14499311d557f4";
 
     @Rule
     public TemporaryFolder tempFolder = new TemporaryFolder();
@@ -384,6 +391,53 @@ public class WorkspaceFileSystemTest {
         storage.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.ZIP, getInputStream(SIP_TAR_GZ));
     }
 
+    @Test
+    public void givenZipSIPWhenUncompressObjectThenDigestsRecordedDuringExtraction()
+        throws Exception {
+        // Given
+        String binary = SIP_FOLDER + SLASH + TXT_FILE;
+        storage.createContainer(CONTAINER_NAME);
+
+        // When
+        storage.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.ZIP, getInputStream("sip.zip"));
+
+        // Then
+        JsonNode extractionDigests = storage.getObjectDigests(CONTAINER_NAME, binary);
+        assertThat(extractionDigests.get("size").asLong()).isEqualTo(18079L);
+        assertThat(extractionDigests.get("digests").get(DigestType.SHA512.getName()).asText())
+            .isEqualTo(TXT_SHA512);
+        assertThat(storage.computeObjectDigest(CONTAINER_NAME, binary, DigestType.SHA512)).isEqualTo(TXT_SHA512);
+    }
+
+    @Test
+    public void givenExtractedObjectOverwrittenWhenGetObjectDigestsThenRaiseAnException()
+        throws Exception {
+        // Given
+        String binary = SIP_FOLDER + SLASH + TXT_FILE;
+        storage.createContainer(CONTAINER_NAME);
+        storage.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.ZIP, getInputStream("sip.zip"));
+
+        // When
+        storage.putObject(CONTAINER_NAME, binary, new ByteArrayInputStream("overwritten".getBytes()));
+
+        // Then
+        assertThatThrownBy(() -> storage.getObjectDigests(CONTAINER_NAME, binary))
+            .isInstanceOf(ContentAddressableStorageNotFoundException.class);
+        Digest digest = new Digest(DigestType.SHA512);
+        digest.update("overwritten".getBytes());
+        assertThat(storage.computeObjectDigest(CONTAINER_NAME, binary, DigestType.SHA512))
+            .isEqualTo(digest.digestHex());
+    }
+
+    @Test
+    public void givenNotExtractedObjectWhenGetObjectDigestsThenRaiseAnException() throws Exception {
+        storage.createContainer(CONTAINER_NAME);
+        storage.putObject(CONTAINER_NAME, OBJECT_NAME, new ByteArrayInputStream("content".getBytes()));
+
+        assertThatThrownBy(() -> storage.getObjectDigests(CONTAINER_NAME, OBJECT_NAME))
+            .isInstanceOf(ContentAddressableStorageNotFoundException.class);
+    }
+
     @Test
     public void givenTarGzSIPAndArchiveTypeWhenUncompressObjectThenExtractOK()
         throws Exception {
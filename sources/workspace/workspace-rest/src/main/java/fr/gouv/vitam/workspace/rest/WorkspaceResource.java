@@ -660,6 +660,37 @@ public class WorkspaceResource extends ApplicationStatusResource {
         return Response.status(Status.OK).entity(jsonResultNode).build();
     }
 
+    /**
+     * gets the size and digests computed when an object was extracted from an archive in the workspace
+     *
+     * @param containerName name of container
+     * @param objectName name of object
+     * @return Response
+     */
+    @Path("/containers/{containerName}/digests/{objectName:.*}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getObjectDigests(@PathParam(CONTAINER_NAME) String containerName,
+        @PathParam(OBJECT_NAME) String objectName) {
+        JsonNode jsonResultNode;
+        try {
+            ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+                containerName, objectName);
+            jsonResultNode = workspace.getObjectDigests(containerName, objectName);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.error(e);
+            return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (final ContentAddressableStorageNotFoundException e) {
+            LOGGER.debug(e);
+            return Response.status(Status.NOT_FOUND).entity(containerName).build();
+        } catch (final ContentAddressableStorageException e) {
+            LOGGER.error(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage(), e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
+        }
+
+        return Response.status(Status.OK).entity(jsonResultNode).build();
+    }
+
     /**
      * checks if a object exists in an container or compute object Digest
      *